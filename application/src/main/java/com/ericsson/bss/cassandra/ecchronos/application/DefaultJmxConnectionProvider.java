@@ -21,7 +21,7 @@ import java.util.function.Supplier;
 
 import javax.management.remote.JMXConnector;
 
-import com.ericsson.bss.cassandra.ecchronos.application.config.connection.Connection;
+import com.ericsson.bss.cassandra.ecchronos.application.config.connection.JmxConnection;
 import com.ericsson.bss.cassandra.ecchronos.application.config.security.JmxTLSConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,21 +41,23 @@ public class DefaultJmxConnectionProvider implements JmxConnectionProvider
     public DefaultJmxConnectionProvider(final Config config,
                                         final Supplier<Security.JmxSecurity> jmxSecurity) throws IOException
     {
-        Connection<JmxConnectionProvider> jmxConfig = config.getConnectionConfig().getJmxConnection();
+        JmxConnection jmxConfig = config.getConnectionConfig().getJmxConnection();
         String host = jmxConfig.getHost();
         int port = jmxConfig.getPort();
         boolean authEnabled = jmxSecurity.get().getJmxCredentials().isEnabled();
         boolean tlsEnabled = jmxSecurity.get().getJmxTlsConfig().isEnabled();
-        LOG.info("Connecting through JMX using {}:{}, authentication: {}, tls: {}",
+        int connections = jmxConfig.getConnections();
+        LOG.info("Connecting through JMX using {}:{} with {} connections, authentication: {}, tls: {}",
                 host,
                 port,
+                connections,
                 authEnabled,
                 tlsEnabled);
 
         Supplier<String[]> credentials = () -> convertCredentials(jmxSecurity);
         Supplier<Map<String, String>> tls = () -> convertTls(jmxSecurity);
 
-        myLocalJmxConnectionProvider = new LocalJmxConnectionProvider(host, port, credentials, tls);
+        myLocalJmxConnectionProvider = new LocalJmxConnectionProvider(host, port, credentials, tls, connections);
     }
 
     @Override
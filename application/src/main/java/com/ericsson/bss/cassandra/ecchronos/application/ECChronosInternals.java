@@ -23,13 +23,13 @@ import com.ericsson.bss.cassandra.ecchronos.connection.NativeConnectionProvider;
 import com.ericsson.bss.cassandra.ecchronos.connection.StatementDecorator;
 import com.ericsson.bss.cassandra.ecchronos.core.CASLockFactory;
 import com.ericsson.bss.cassandra.ecchronos.core.CassandraMetrics;
+import com.ericsson.bss.cassandra.ecchronos.core.DriverHostStatesImpl;
 import com.ericsson.bss.cassandra.ecchronos.core.HostStates;
-import com.ericsson.bss.cassandra.ecchronos.core.HostStatesImpl;
 import com.ericsson.bss.cassandra.ecchronos.core.JmxProxyFactory;
 import com.ericsson.bss.cassandra.ecchronos.core.JmxProxyFactoryImpl;
 import com.ericsson.bss.cassandra.ecchronos.core.TableStorageStates;
 import com.ericsson.bss.cassandra.ecchronos.core.TableStorageStatesImpl;
-import com.ericsson.bss.cassandra.ecchronos.core.metrics.MetricInspector;
+import com.ericsson.bss.cassandra.ecchronos.core.metrics.RepairFailureDetector;
 import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetrics;
 import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetricsImpl;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.RunPolicy;
@@ -54,16 +54,16 @@ public class ECChronosInternals implements Closeable
     private static final NoOpTableStorageState NO_OP_TABLE_STORAGE_STATE = new NoOpTableStorageState();
 
     private final ScheduleManagerImpl myScheduleManagerImpl;
-    private final HostStatesImpl myHostStatesImpl;
+    private final DriverHostStatesImpl myHostStatesImpl;
     private final ReplicatedTableProviderImpl myReplicatedTableProvider;
     private final TableStorageStatesImpl myTableStorageStatesImpl;
     private final TableRepairMetricsImpl myTableRepairMetricsImpl;
     private final TableReferenceFactory myTableReferenceFactory;
-    private final JmxProxyFactory myJmxProxyFactory;
+    private final JmxProxyFactoryImpl myJmxProxyFactory;
     private final CASLockFactory myLockFactory;
     private final CassandraMetrics myCassandraMetrics;
 
-    private final MetricInspector myMetricInspector;
+    private final RepairFailureDetector myRepairFailureDetector;
 
     public ECChronosInternals(final Config configuration,
                               final NativeConnectionProvider nativeConnectionProvider,
@@ -73,10 +73,13 @@ public class ECChronosInternals implements Closeable
     {
         myJmxProxyFactory = JmxProxyFactoryImpl.builder()
                 .withJmxConnectionProvider(jmxConnectionProvider)
+                .withMeterRegistry(meterRegistry)
                 .build();
 
-        myHostStatesImpl = HostStatesImpl.builder()
+        myHostStatesImpl = DriverHostStatesImpl.builder()
+                .withSession(nativeConnectionProvider.getSession())
                 .withJmxProxyFactory(myJmxProxyFactory)
+                .withMeterRegistry(meterRegistry)
                 .build();
 
         CasLockFactoryConfig casLockFactoryConfig = configuration.getLockFactory()
@@ -89,6 +92,7 @@ public class ECChronosInternals implements Closeable
                 .withKeyspaceName(casLockFactoryConfig.getKeyspaceName())
                 .withCacheExpiryInSeconds(casLockFactoryConfig.getFailureCacheExpiryTimeInSeconds())
                 .withConsistencySerial(casLockFactoryConfig.getConsistencySerial())
+                .withMeterRegistry(meterRegistry)
                 .build();
 
         Node node = nativeConnectionProvider.getLocalNode();
@@ -98,8 +102,6 @@ public class ECChronosInternals implements Closeable
 
         myReplicatedTableProvider = new ReplicatedTableProviderImpl(node, session, myTableReferenceFactory);
 
-        myCassandraMetrics = new CassandraMetrics(myJmxProxyFactory);
-
         if (configuration.getStatisticsConfig().isEnabled())
         {
             myTableStorageStatesImpl = TableStorageStatesImpl.builder()
@@ -107,29 +109,35 @@ public class ECChronosInternals implements Closeable
                     .withJmxProxyFactory(myJmxProxyFactory)
                     .build();
 
+            myRepairFailureDetector = RepairFailureDetector.builder()
+                    .withMeterRegistry(meterRegistry)
+                    .withFailureThreshold(configuration.getStatisticsConfig().getRepairFailuresCount())
+                    .withTimeWindow(configuration.getStatisticsConfig().getRepairFailuresTimeWindow()
+                            .getInterval(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS)
+                    .build();
+
             myTableRepairMetricsImpl = TableRepairMetricsImpl.builder()
                     .withTableStorageStates(myTableStorageStatesImpl)
                     .withMeterRegistry(meterRegistry)
+                    .withRepairFailureDetector(myRepairFailureDetector)
                     .build();
-
-            myMetricInspector = new MetricInspector(meterRegistry,
-                    configuration.getStatisticsConfig().getRepairFailuresCount(),
-                    configuration.getStatisticsConfig().getRepairFailuresTimeWindow()
-                            .getInterval(TimeUnit.MINUTES),
-                    configuration.getStatisticsConfig().getTriggerIntervalForMetricInspection()
-                            .getInterval(TimeUnit.MILLISECONDS));
-            myMetricInspector.startInspection();
         }
         else
         {
             myTableStorageStatesImpl = null;
+            myRepairFailureDetector = null;
             myTableRepairMetricsImpl = null;
-            myMetricInspector = null;
         }
+
+        myCassandraMetrics = myTableStorageStatesImpl != null
+                ? new CassandraMetrics(myJmxProxyFactory, myTableStorageStatesImpl::getTableMetrics)
+                : new CassandraMetrics(myJmxProxyFactory);
+
         myScheduleManagerImpl = ScheduleManagerImpl.builder()
                 .withLockFactory(myLockFactory)
                 .withRunInterval(configuration.getSchedulerConfig().getFrequency().getInterval(TimeUnit.MILLISECONDS),
                         TimeUnit.MILLISECONDS)
+                .withWorkers(configuration.getSchedulerConfig().getWorkers())
                 .build();
     }
 
@@ -158,6 +166,11 @@ public class ECChronosInternals implements Closeable
         return myTableRepairMetricsImpl;
     }
 
+    public final RepairFailureDetector getRepairFailureDetector()
+    {
+        return myRepairFailureDetector;
+    }
+
     public final ScheduleManager getScheduleManager()
     {
         return myScheduleManagerImpl;
@@ -211,6 +224,8 @@ public class ECChronosInternals implements Closeable
         myHostStatesImpl.close();
 
         myCassandraMetrics.close();
+
+        myJmxProxyFactory.close();
     }
 
     private static class NoOpRepairMetrics implements TableRepairMetrics
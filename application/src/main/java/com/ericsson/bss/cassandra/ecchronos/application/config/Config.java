@@ -86,7 +86,6 @@ public class Config
         if (statisticsConfig != null)
         {
             myStatisticsConfig = statisticsConfig;
-            myStatisticsConfig.validate();
         }
     }
 
@@ -17,12 +17,16 @@ package com.ericsson.bss.cassandra.ecchronos.application.config.connection;
 import com.ericsson.bss.cassandra.ecchronos.application.DefaultJmxConnectionProvider;
 import com.ericsson.bss.cassandra.ecchronos.application.config.Config;
 import com.ericsson.bss.cassandra.ecchronos.connection.JmxConnectionProvider;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.function.Supplier;
 
 public class JmxConnection extends Connection<JmxConnectionProvider>
 {
     private static final int DEFAULT_PORT = 7199;
+    private static final int DEFAULT_CONNECTIONS = 2;
+
+    private int myConnections = DEFAULT_CONNECTIONS;
 
     public JmxConnection()
     {
@@ -37,6 +41,22 @@ public class JmxConnection extends Connection<JmxConnectionProvider>
         }
     }
 
+    @JsonProperty("connections")
+    public final int getConnections()
+    {
+        return myConnections;
+    }
+
+    @JsonProperty("connections")
+    public final void setConnections(final int connections)
+    {
+        if (connections < 1)
+        {
+            throw new IllegalArgumentException("At least one JMX connection is needed, got " + connections);
+        }
+        myConnections = connections;
+    }
+
     @Override
     protected final Class<?>[] expectedConstructor()
     {
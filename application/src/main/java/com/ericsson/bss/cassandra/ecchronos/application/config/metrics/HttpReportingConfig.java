@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.application.config.metrics;
+
+import com.ericsson.bss.cassandra.ecchronos.application.config.Interval;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.concurrent.TimeUnit;
+
+public class HttpReportingConfig extends ReportingConfig
+{
+    private static final int DEFAULT_CACHE_TIME_IN_SECONDS = 5;
+
+    private Interval myCacheTime = new Interval(DEFAULT_CACHE_TIME_IN_SECONDS, TimeUnit.SECONDS);
+
+    @JsonProperty("cacheTime")
+    public final Interval getCacheTime()
+    {
+        return myCacheTime;
+    }
+
+    @JsonProperty("cacheTime")
+    public final void setCacheTime(final Interval cacheTime)
+    {
+        myCacheTime = cacheTime;
+    }
+}
@@ -20,7 +20,7 @@ public class ReportingConfigs
 {
     private ReportingConfig myJmxReportingConfig = new ReportingConfig();
     private ReportingConfig myFileReportingConfig = new ReportingConfig();
-    private ReportingConfig myHttpReportingConfig = new ReportingConfig();
+    private HttpReportingConfig myHttpReportingConfig = new HttpReportingConfig();
 
     @JsonProperty("jmx")
     public final ReportingConfig getJmxReportingConfig()
@@ -35,7 +35,7 @@ public class ReportingConfigs
     }
 
     @JsonProperty("http")
-    public final ReportingConfig getHttpReportingConfig()
+    public final HttpReportingConfig getHttpReportingConfig()
     {
         return myHttpReportingConfig;
     }
@@ -53,7 +53,7 @@ public class ReportingConfigs
     }
 
     @JsonProperty("http")
-    public final void setHttpReportingConfig(final ReportingConfig httpReportingConfig)
+    public final void setHttpReportingConfig(final HttpReportingConfig httpReportingConfig)
     {
         myHttpReportingConfig = httpReportingConfig;
     }
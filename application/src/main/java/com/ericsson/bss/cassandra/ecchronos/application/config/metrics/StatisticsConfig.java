@@ -117,21 +117,6 @@ public class StatisticsConfig
     public final void setTriggerIntervalForMetricInspection(final Interval triggerIntervalForStatusLogger)
     {
         myTriggerIntervalForMetricInspection = triggerIntervalForStatusLogger;
-     }
-
-     public final void validate()
-    {
-        long repairTimeWindowInSeconds = getRepairFailuresTimeWindow().getInterval(TimeUnit.SECONDS);
-        long triggerIntervalForMetricInspection = getTriggerIntervalForMetricInspection()
-                .getInterval(TimeUnit.SECONDS);
-        if (triggerIntervalForMetricInspection >= repairTimeWindowInSeconds)
-        {
-            throw new IllegalArgumentException(String.format("Repair window time must be greater than trigger interval."
-                            + " Current repair window time: %d seconds,"
-                            + " trigger interval for metric inspection: %d seconds",
-                    repairTimeWindowInSeconds, triggerIntervalForMetricInspection));
-        }
-     }
-
+    }
 }
 
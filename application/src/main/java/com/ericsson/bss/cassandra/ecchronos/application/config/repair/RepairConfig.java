@@ -40,6 +40,9 @@ public class RepairConfig
             new Interval(DAYS_ERROR, TimeUnit.DAYS));
     private double myUnwindRatio = 0.0d;
     private long mySizeTarget = RepairConfiguration.FULL_REPAIR_SIZE;
+    private long mySessionTimeTargetInMs = RepairConfiguration.NO_TARGET_SESSION_TIME;
+    private long mySizeMin = 1L;
+    private long mySizeMax = RepairConfiguration.FULL_REPAIR_SIZE;
     private Interval myBackoff = new Interval(BACKOFF_MINUTES, TimeUnit.MINUTES);
     private boolean myIgnoreTwcsTables = false;
     private RepairOptions.RepairType myRepairType = RepairOptions.RepairType.VNODE;
@@ -102,6 +105,31 @@ public class RepairConfig
         }
     }
 
+    @JsonProperty("session_time_target")
+    public final void setSessionTimeTarget(final Interval sessionTimeTarget)
+    {
+        if (sessionTimeTarget == null)
+        {
+            mySessionTimeTargetInMs = RepairConfiguration.NO_TARGET_SESSION_TIME;
+        }
+        else
+        {
+            mySessionTimeTargetInMs = sessionTimeTarget.getInterval(TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @JsonProperty("size_min")
+    public final void setSizeMin(final String sizeMin)
+    {
+        mySizeMin = sizeMin == null ? 1L : UnitConverter.toBytes(sizeMin);
+    }
+
+    @JsonProperty("size_max")
+    public final void setSizeMax(final String sizeMax)
+    {
+        mySizeMax = sizeMax == null ? RepairConfiguration.FULL_REPAIR_SIZE : UnitConverter.toBytes(sizeMax);
+    }
+
     @JsonProperty("backoff")
     public final Interval getBackoff()
     {
@@ -167,6 +195,18 @@ public class RepairConfig
                     + " Current warning interval: %d seconds, error interval: %d seconds", repairConfigType,
                     warningIntervalSeconds, errorIntervalSeconds));
         }
+
+        if (mySizeMin <= 0)
+        {
+            throw new IllegalArgumentException(String.format("%s size min must be positive."
+                    + " Current size min: %d bytes", repairConfigType, mySizeMin));
+        }
+
+        if (mySizeMin > mySizeMax)
+        {
+            throw new IllegalArgumentException(String.format("%s size min must not be larger than size max."
+                    + " Current size min: %d bytes, size max: %d bytes", repairConfigType, mySizeMin, mySizeMax));
+        }
     }
 
     @JsonProperty("initial_delay")
@@ -197,6 +237,8 @@ public class RepairConfig
                 .withIgnoreTWCSTables(myIgnoreTwcsTables)
                 .withRepairUnwindRatio(myUnwindRatio)
                 .withTargetRepairSizeInBytes(mySizeTarget)
+                .withTargetRepairSessionTime(mySessionTimeTargetInMs, TimeUnit.MILLISECONDS)
+                .withRepairSizeBounds(mySizeMin, mySizeMax)
                 .withBackoff(myBackoff.getInterval(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS)
                 .withRepairType(myRepairType)
                 .withPriorityGranularityUnit(myPriority.getPriorityGranularityUnit())
@@ -24,6 +24,7 @@ public class SchedulerConfig
     private static final int THIRTY_SECONDS = 30;
 
     private Interval myFrequency = new Interval(THIRTY_SECONDS, TimeUnit.SECONDS);
+    private int myWorkers = 1;
 
     @JsonProperty("frequency")
     public final Interval getFrequency()
@@ -36,4 +37,20 @@ public class SchedulerConfig
     {
         myFrequency = frequency;
     }
+
+    @JsonProperty("workers")
+    public final int getWorkers()
+    {
+        return myWorkers;
+    }
+
+    @JsonProperty("workers")
+    public final void setWorkers(final int workers)
+    {
+        if (workers < 1)
+        {
+            throw new IllegalArgumentException(String.format("Scheduler workers must be at least 1, got %d", workers));
+        }
+        myWorkers = workers;
+    }
 }
@@ -279,21 +279,23 @@ public class BeanConfigurator
     }
 
     @Bean
-    public NodeResolver nodeResolver(final NativeConnectionProvider nativeConnectionProvider)
+    public NodeResolver nodeResolver(final NativeConnectionProvider nativeConnectionProvider,
+                                     final MeterRegistry eccCompositeMeterRegistry)
     {
         CqlSession session = nativeConnectionProvider.getSession();
 
-        return new NodeResolverImpl(session);
+        return new NodeResolverImpl(session, eccCompositeMeterRegistry);
     }
 
     @Bean
     public ReplicationState replicationState(final NativeConnectionProvider nativeConnectionProvider,
-                                             final NodeResolver nodeResolver)
+                                             final NodeResolver nodeResolver,
+                                             final MeterRegistry eccCompositeMeterRegistry)
     {
         Node node = nativeConnectionProvider.getLocalNode();
         CqlSession session = nativeConnectionProvider.getSession();
 
-        return new ReplicationStateImpl(nodeResolver, session, node);
+        return new ReplicationStateImpl(nodeResolver, session, node, eccCompositeMeterRegistry);
     }
 
     @Bean
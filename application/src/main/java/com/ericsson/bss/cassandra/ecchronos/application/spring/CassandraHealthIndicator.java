@@ -21,7 +21,6 @@ import com.datastax.oss.driver.api.core.cql.SimpleStatement;
 import com.ericsson.bss.cassandra.ecchronos.connection.JmxConnectionProvider;
 import com.ericsson.bss.cassandra.ecchronos.connection.NativeConnectionProvider;
 import com.ericsson.bss.cassandra.ecchronos.core.JmxProxy;
-import com.ericsson.bss.cassandra.ecchronos.core.JmxProxyFactory;
 import com.ericsson.bss.cassandra.ecchronos.core.JmxProxyFactoryImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -61,11 +60,10 @@ public class CassandraHealthIndicator implements HealthIndicator
 
     private boolean isJmxConnectionUp(final Map<String, Object> details)
     {
-        try
+        try (JmxProxyFactoryImpl jmxProxyFactory = JmxProxyFactoryImpl.builder()
+                .withJmxConnectionProvider(myJmxConnectionProvider)
+                .build())
         {
-            JmxProxyFactory jmxProxyFactory = JmxProxyFactoryImpl.builder()
-                    .withJmxConnectionProvider(myJmxConnectionProvider)
-                    .build();
             JmxProxy jmxProxy = jmxProxyFactory.connect();
             jmxProxy.close();
             return true;
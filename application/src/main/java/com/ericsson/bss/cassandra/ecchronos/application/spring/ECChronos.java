@@ -18,6 +18,8 @@ import java.io.Closeable;
 import java.util.Collections;
 
 import com.ericsson.bss.cassandra.ecchronos.application.config.repair.GlobalRepairConfig;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.ConcurrentRepairStatsProvider;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.NodeResolver;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.RepairStatsProvider;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.RepairStatsProviderImpl;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.ReplicatedTableProvider;
@@ -36,6 +38,7 @@ import com.ericsson.bss.cassandra.ecchronos.connection.JmxConnectionProvider;
 import com.ericsson.bss.cassandra.ecchronos.connection.NativeConnectionProvider;
 import com.ericsson.bss.cassandra.ecchronos.connection.StatementDecorator;
 import com.ericsson.bss.cassandra.ecchronos.core.TimeBasedRunPolicy;
+import com.ericsson.bss.cassandra.ecchronos.core.metrics.RepairFailureDetector;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.DefaultRepairConfigurationProvider;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.OnDemandRepairScheduler;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.OnDemandRepairSchedulerImpl;
@@ -57,7 +60,7 @@ public class ECChronos implements Closeable
     private final TimeBasedRunPolicy myTimeBasedRunPolicy;
     private final RepairSchedulerImpl myRepairSchedulerImpl;
     private final OnDemandRepairSchedulerImpl myOnDemandRepairSchedulerImpl;
-    private final RepairStatsProvider myRepairStatsProvider;
+    private final ConcurrentRepairStatsProvider myRepairStatsProvider;
 
     @SuppressWarnings({"checkstyle:ParameterNumber", "PMD.ExcessiveParameterList"})
     public ECChronos(final ApplicationContext applicationContext,
@@ -70,6 +73,7 @@ public class ECChronos implements Closeable
                      final RepairHistory repairHistory,
                      final RepairHistoryProvider repairHistoryProvider,
                      final DefaultRepairConfigurationProvider defaultRepairConfigurationProvider,
+                     final NodeResolver nodeResolver,
                      final MeterRegistry eccCompositeMeterRegistry)
             throws ConfigurationException
     {
@@ -128,11 +132,13 @@ public class ECChronos implements Closeable
                 .withSession(session)
                 .withRepairConfiguration(repairConfig.asRepairConfiguration())
                 .withRepairHistory(repairHistory)
-                .withOnDemandStatus(new OnDemandStatus(nativeConnectionProvider))
+                .withOnDemandStatus(new OnDemandStatus(nativeConnectionProvider, nodeResolver))
+                .build();
+        myRepairStatsProvider = ConcurrentRepairStatsProvider.builder()
+                .withRepairStatsProvider(new RepairStatsProviderImpl(new VnodeRepairStateFactoryImpl(replicationState,
+                        repairHistoryProvider,
+                        true)))
                 .build();
-        myRepairStatsProvider = new RepairStatsProviderImpl(new VnodeRepairStateFactoryImpl(replicationState,
-                repairHistoryProvider,
-                true));
         myECChronosInternals.addRunPolicy(myTimeBasedRunPolicy);
     }
 
@@ -160,12 +166,18 @@ public class ECChronos implements Closeable
         return myECChronosInternals.getReplicatedTableProvider();
     }
 
-    @Bean
+    @Bean(destroyMethod = "")
     public RepairStatsProvider repairStatsProvider()
     {
         return myRepairStatsProvider;
     }
 
+    @Bean
+    public RepairFailureDetector repairFailureDetector()
+    {
+        return myECChronosInternals.getRepairFailureDetector();
+    }
+
     @Override
     public final void close()
     {
@@ -174,6 +186,7 @@ public class ECChronos implements Closeable
         myTimeBasedRunPolicy.close();
         myRepairSchedulerImpl.close();
         myOnDemandRepairSchedulerImpl.close();
+        myRepairStatsProvider.close();
 
         myECChronosInternals.close();
     }
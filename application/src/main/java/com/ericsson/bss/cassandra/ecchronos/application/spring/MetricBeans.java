@@ -19,7 +19,9 @@ import com.ericsson.bss.cassandra.ecchronos.application.CsvConfig;
 import com.ericsson.bss.cassandra.ecchronos.application.CsvMeterRegistry;
 import com.ericsson.bss.cassandra.ecchronos.application.MeterFilterImpl;
 import com.ericsson.bss.cassandra.ecchronos.application.config.Config;
+import com.ericsson.bss.cassandra.ecchronos.application.config.metrics.HttpReportingConfig;
 import com.ericsson.bss.cassandra.ecchronos.application.config.metrics.StatisticsConfig;
+import com.ericsson.bss.cassandra.ecchronos.rest.PrometheusScrapeCache;
 import io.micrometer.core.instrument.Clock;
 import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import io.micrometer.core.instrument.config.MeterFilter;
@@ -40,6 +42,8 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class MetricBeans
@@ -47,6 +51,7 @@ public class MetricBeans
     private static final String METRICS_ENDPOINT = "/metrics";
     private final CompositeMeterRegistry myCompositeMeterRegistry;
     private PrometheusMeterRegistry myPrometheusMeterRegistry;
+    private PrometheusScrapeCache myPrometheusScrapeCache;
 
     public MetricBeans(final Config config)
     {
@@ -96,13 +101,14 @@ public class MetricBeans
 
     private void createPrometheusMeterRegistry(final StatisticsConfig metricConfig)
     {
-        MeterFilter meterFilter = new MeterFilterImpl(metricConfig.getMetricsPrefix(), metricConfig
-                .getReportingConfigs()
-                .getHttpReportingConfig()
-                .getExcludedMetrics());
+        HttpReportingConfig httpReportingConfig = metricConfig.getReportingConfigs().getHttpReportingConfig();
+        MeterFilter meterFilter = new MeterFilterImpl(metricConfig.getMetricsPrefix(),
+                httpReportingConfig.getExcludedMetrics());
         myPrometheusMeterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
         myPrometheusMeterRegistry.config().meterFilter(meterFilter);
         myCompositeMeterRegistry.add(myPrometheusMeterRegistry);
+        myPrometheusScrapeCache = new PrometheusScrapeCache(myPrometheusMeterRegistry,
+                Duration.ofMillis(httpReportingConfig.getCacheTime().getInterval(TimeUnit.MILLISECONDS)));
     }
 
     private void createStatusLoggerMeterRegistry()
@@ -117,6 +123,12 @@ public class MetricBeans
         return myPrometheusMeterRegistry;
     }
 
+    @Bean
+    public PrometheusScrapeCache prometheusScrapeCache()
+    {
+        return myPrometheusScrapeCache;
+    }
+
     @Bean
     public CompositeMeterRegistry eccCompositeMeterRegistry()
     {
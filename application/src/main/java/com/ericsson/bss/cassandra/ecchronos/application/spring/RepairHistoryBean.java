@@ -24,26 +24,31 @@ import com.ericsson.bss.cassandra.ecchronos.core.repair.state.EccRepairHistory;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistory;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistoryProvider;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistoryProviderImpl;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistoryWriter;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.ReplicationState;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.DriverNode;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.NodeResolver;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
+import java.io.Closeable;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
-public class RepairHistoryBean
+public class RepairHistoryBean implements Closeable
 {
     private final RepairHistory repairHistory;
     private final RepairHistoryProvider repairHistoryProvider;
+    private final RepairHistoryWriter repairHistoryWriter;
 
     public RepairHistoryBean(final Config configuration,
                              final NativeConnectionProvider nativeConnectionProvider,
                              final NodeResolver nodeResolver,
                              final StatementDecorator statementDecorator,
-                             final ReplicationState replicationState)
+                             final ReplicationState replicationState,
+                             final MeterRegistry eccCompositeMeterRegistry)
     {
         Node node = nativeConnectionProvider.getLocalNode();
         CqlSession session = nativeConnectionProvider.getSession();
@@ -56,11 +61,18 @@ public class RepairHistoryBean
                 == com.ericsson.bss.cassandra.ecchronos.application.config.repair.RepairHistory.Provider.CASSANDRA)
         {
             repairHistoryProvider = createCassandraHistoryProvider(repairConfig, session, nodeResolver,
-                    statementDecorator);
+                    statementDecorator, eccCompositeMeterRegistry);
             repairHistory = RepairHistory.NO_OP;
+            repairHistoryWriter = null;
         }
         else
         {
+            repairHistoryWriter = RepairHistoryWriter.newBuilder()
+                    .withSession(session)
+                    .withStatementDecorator(statementDecorator)
+                    .withMeterRegistry(eccCompositeMeterRegistry)
+                    .build();
+
             EccRepairHistory eccRepairHistory = EccRepairHistory.newBuilder()
                     .withSession(session)
                     .withReplicationState(replicationState)
@@ -69,13 +81,15 @@ public class RepairHistoryBean
                     .withLookbackTime(repairConfig.getRepairHistoryLookback().getInterval(TimeUnit.MILLISECONDS),
                             TimeUnit.MILLISECONDS)
                     .withKeyspace(repairConfig.getRepairHistory().getKeyspaceName())
+                    .withRepairHistoryWriter(repairHistoryWriter)
+                    .withMeterRegistry(eccCompositeMeterRegistry)
                     .build();
 
             if (repairConfig.getRepairHistory().getProvider()
                     == com.ericsson.bss.cassandra.ecchronos.application.config.repair.RepairHistory.Provider.UPGRADE)
             {
                 repairHistoryProvider = createCassandraHistoryProvider(repairConfig, session, nodeResolver,
-                        statementDecorator);
+                        statementDecorator, eccCompositeMeterRegistry);
             }
             else
             {
@@ -99,12 +113,22 @@ public class RepairHistoryBean
         return repairHistoryProvider;
     }
 
+    @Override
+    public final void close()
+    {
+        if (repairHistoryWriter != null)
+        {
+            repairHistoryWriter.close();
+        }
+    }
+
     private RepairHistoryProvider createCassandraHistoryProvider(final GlobalRepairConfig repairConfig,
                                                                  final CqlSession session,
                                                                  final NodeResolver nodeResolver,
-                                                                 final StatementDecorator statementDecorator)
+                                                                 final StatementDecorator statementDecorator,
+                                                                 final MeterRegistry meterRegistry)
     {
         return new RepairHistoryProviderImpl(nodeResolver, session, statementDecorator,
-                repairConfig.getRepairHistoryLookback().getInterval(TimeUnit.MILLISECONDS));
+                repairConfig.getRepairHistoryLookback().getInterval(TimeUnit.MILLISECONDS), meterRegistry);
     }
 }
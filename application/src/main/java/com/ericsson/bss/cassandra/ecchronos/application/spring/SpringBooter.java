@@ -16,6 +16,7 @@ package com.ericsson.bss.cassandra.ecchronos.application.spring;
 
 import com.ericsson.bss.cassandra.ecchronos.rest.MetricsREST;
 import com.ericsson.bss.cassandra.ecchronos.rest.OnDemandRepairManagementRESTImpl;
+import com.ericsson.bss.cassandra.ecchronos.rest.RepairFailuresREST;
 import com.ericsson.bss.cassandra.ecchronos.rest.RepairManagementRESTImpl;
 import com.ericsson.bss.cassandra.ecchronos.rest.ScheduleRepairManagementRESTImpl;
 import org.slf4j.Logger;
@@ -27,7 +28,7 @@ import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
 @Import(value = {RepairManagementRESTImpl.class, ScheduleRepairManagementRESTImpl.class,
-        OnDemandRepairManagementRESTImpl.class, MetricsREST.class})
+        OnDemandRepairManagementRESTImpl.class, MetricsREST.class, RepairFailuresREST.class})
 public class SpringBooter extends SpringBootServletInitializer
 {
     private static final Logger LOG = LoggerFactory.getLogger(SpringBooter.class);
@@ -24,11 +24,12 @@ import com.ericsson.bss.cassandra.ecchronos.application.DefaultNativeConnectionP
 import com.ericsson.bss.cassandra.ecchronos.application.FileBasedRepairConfiguration;
 import com.ericsson.bss.cassandra.ecchronos.application.NoopStatementDecorator;
 import com.ericsson.bss.cassandra.ecchronos.application.ReloadingCertificateHandler;
-import com.ericsson.bss.cassandra.ecchronos.application.config.connection.Connection;
+import com.ericsson.bss.cassandra.ecchronos.application.config.connection.JmxConnection;
 import com.ericsson.bss.cassandra.ecchronos.application.config.connection.ConnectionConfig;
 import com.ericsson.bss.cassandra.ecchronos.application.config.connection.NativeConnection;
 import com.ericsson.bss.cassandra.ecchronos.application.config.lockfactory.LockFactoryConfig;
 import com.ericsson.bss.cassandra.ecchronos.application.config.metrics.ExcludedMetric;
+import com.ericsson.bss.cassandra.ecchronos.application.config.metrics.HttpReportingConfig;
 import com.ericsson.bss.cassandra.ecchronos.application.config.metrics.ReportingConfig;
 import com.ericsson.bss.cassandra.ecchronos.application.config.metrics.StatisticsConfig;
 import com.ericsson.bss.cassandra.ecchronos.application.config.repair.GlobalRepairConfig;
@@ -98,10 +99,11 @@ public class TestConfig
         assertThat(nativeConnection.getCertificateHandlerClass()).isEqualTo(TestCertificateHandler.class);
         assertThat(nativeConnection.getDecoratorClass()).isEqualTo(TestStatementDecorator.class);
 
-        Connection jmxConnection = connection.getJmxConnection();
+        JmxConnection jmxConnection = connection.getJmxConnection();
         assertThat(jmxConnection.getHost()).isEqualTo("127.0.0.3");
         assertThat(jmxConnection.getPort()).isEqualTo(7100);
         assertThat(jmxConnection.getProviderClass()).isEqualTo(TestJmxConnectionProvider.class);
+        assertThat(jmxConnection.getConnections()).isEqualTo(4);
 
         RepairConfiguration expectedConfiguration = RepairConfiguration.newBuilder()
                 .withRepairInterval(24, TimeUnit.HOURS)
@@ -112,6 +114,8 @@ public class TestConfig
                 .withIgnoreTWCSTables(true)
                 .withBackoff(13, TimeUnit.SECONDS)
                 .withTargetRepairSizeInBytes(UnitConverter.toBytes("5m"))
+                .withTargetRepairSessionTime(5, TimeUnit.MINUTES)
+                .withRepairSizeBounds(UnitConverter.toBytes("1m"), UnitConverter.toBytes("50m"))
                 .withPriorityGranularityUnit(TimeUnit.MINUTES)
                 .withInitialDelay(1, TimeUnit.HOURS)
                 .build();
@@ -153,12 +157,13 @@ public class TestConfig
         assertThat(fileReportingConfig.getExcludedMetrics()).contains(expectedFileExcludedMetric);
 
         assertThat(statisticsConfig.getReportingConfigs().isHttpReportingEnabled()).isTrue();
-        ReportingConfig httpReportingConfig = statisticsConfig.getReportingConfigs().getHttpReportingConfig();
+        HttpReportingConfig httpReportingConfig = statisticsConfig.getReportingConfigs().getHttpReportingConfig();
         assertThat(httpReportingConfig.isEnabled()).isTrue();
         ExcludedMetric expectedHttpExcludedMetric = new ExcludedMetric();
         expectedHttpExcludedMetric.setMetricName(".*httpExcluded");
         assertThat(httpReportingConfig.getExcludedMetrics()).hasSize(1);
         assertThat(httpReportingConfig.getExcludedMetrics()).contains(expectedHttpExcludedMetric);
+        assertThat(httpReportingConfig.getCacheTime().getInterval(TimeUnit.SECONDS)).isEqualTo(15);
 
         assertThat(statisticsConfig.getRepairFailuresTimeWindow().getInterval(TimeUnit.MINUTES)).isEqualTo(5);
         assertThat(statisticsConfig.getTriggerIntervalForMetricInspection().getInterval(TimeUnit.SECONDS)).isEqualTo(30);
@@ -173,6 +178,7 @@ public class TestConfig
 
         SchedulerConfig schedulerConfig = config.getSchedulerConfig();
         assertThat(schedulerConfig.getFrequency().getInterval(TimeUnit.SECONDS)).isEqualTo(60);
+        assertThat(schedulerConfig.getWorkers()).isEqualTo(4);
 
         RestServerConfig restServerConfig = config.getRestServer();
         assertThat(restServerConfig.getHost()).isEqualTo("127.0.0.2");
@@ -234,10 +240,11 @@ public class TestConfig
         assertThat(nativeConnection.getCertificateHandlerClass()).isEqualTo(ReloadingCertificateHandler.class);
         assertThat(nativeConnection.getDecoratorClass()).isEqualTo(NoopStatementDecorator.class);
 
-        Connection jmxConnection = connection.getJmxConnection();
+        JmxConnection jmxConnection = connection.getJmxConnection();
         assertThat(jmxConnection.getHost()).isEqualTo("localhost");
         assertThat(jmxConnection.getPort()).isEqualTo(7199);
         assertThat(jmxConnection.getProviderClass()).isEqualTo(DefaultJmxConnectionProvider.class);
+        assertThat(jmxConnection.getConnections()).isEqualTo(2);
 
         RepairConfiguration expectedConfiguration = RepairConfiguration.newBuilder()
                 .withRepairInterval(7, TimeUnit.DAYS)
@@ -282,9 +289,10 @@ public class TestConfig
         assertThat(fileReportingConfig.getExcludedMetrics()).isEmpty();
 
         assertThat(statisticsConfig.getReportingConfigs().isHttpReportingEnabled()).isTrue();
-        ReportingConfig httpReportingConfig = statisticsConfig.getReportingConfigs().getHttpReportingConfig();
+        HttpReportingConfig httpReportingConfig = statisticsConfig.getReportingConfigs().getHttpReportingConfig();
         assertThat(httpReportingConfig.isEnabled()).isTrue();
         assertThat(httpReportingConfig.getExcludedMetrics()).isEmpty();
+        assertThat(httpReportingConfig.getCacheTime().getInterval(TimeUnit.SECONDS)).isEqualTo(5);
 
         LockFactoryConfig lockFactoryConfig = config.getLockFactory();
         assertThat(lockFactoryConfig.getCasLockFactoryConfig().getKeyspaceName()).isEqualTo("ecchronos");
@@ -295,6 +303,7 @@ public class TestConfig
 
         SchedulerConfig schedulerConfig = config.getSchedulerConfig();
         assertThat(schedulerConfig.getFrequency().getInterval(TimeUnit.SECONDS)).isEqualTo(30);
+        assertThat(schedulerConfig.getWorkers()).isEqualTo(1);
 
         RestServerConfig restServerConfig = config.getRestServer();
         assertThat(restServerConfig.getHost()).isEqualTo("localhost");
@@ -325,10 +334,11 @@ public class TestConfig
         assertThat(nativeConnection.getCertificateHandlerClass()).isEqualTo(ReloadingCertificateHandler.class);
         assertThat(nativeConnection.getDecoratorClass()).isEqualTo(NoopStatementDecorator.class);
 
-        Connection jmxConnection = connection.getJmxConnection();
+        JmxConnection jmxConnection = connection.getJmxConnection();
         assertThat(jmxConnection.getHost()).isEqualTo("localhost");
         assertThat(jmxConnection.getPort()).isEqualTo(7199);
         assertThat(jmxConnection.getProviderClass()).isEqualTo(DefaultJmxConnectionProvider.class);
+        assertThat(jmxConnection.getConnections()).isEqualTo(2);
 
         RepairConfiguration expectedConfiguration = RepairConfiguration.newBuilder()
                 .withRepairInterval(7, TimeUnit.DAYS)
@@ -370,9 +380,10 @@ public class TestConfig
         assertThat(fileReportingConfig.getExcludedMetrics()).isEmpty();
 
         assertThat(statisticsConfig.getReportingConfigs().isHttpReportingEnabled()).isTrue();
-        ReportingConfig httpReportingConfig = statisticsConfig.getReportingConfigs().getHttpReportingConfig();
+        HttpReportingConfig httpReportingConfig = statisticsConfig.getReportingConfigs().getHttpReportingConfig();
         assertThat(httpReportingConfig.isEnabled()).isTrue();
         assertThat(httpReportingConfig.getExcludedMetrics()).isEmpty();
+        assertThat(httpReportingConfig.getCacheTime().getInterval(TimeUnit.SECONDS)).isEqualTo(5);
 
         assertThat(statisticsConfig.getRepairFailuresTimeWindow().getInterval(TimeUnit.MINUTES)).isEqualTo(30);
         assertThat(statisticsConfig.getTriggerIntervalForMetricInspection().getInterval(TimeUnit.SECONDS)).isEqualTo(5);
@@ -387,6 +398,7 @@ public class TestConfig
 
         SchedulerConfig schedulerConfig = config.getSchedulerConfig();
         assertThat(schedulerConfig.getFrequency().getInterval(TimeUnit.SECONDS)).isEqualTo(30);
+        assertThat(schedulerConfig.getWorkers()).isEqualTo(1);
 
         RestServerConfig restServerConfig = config.getRestServer();
         assertThat(restServerConfig.getHost()).isEqualTo("localhost");
@@ -415,6 +427,30 @@ public class TestConfig
         assertThatExceptionOfType(JsonMappingException.class).isThrownBy(() -> objectMapper.readValue(file, Config.class));
     }
 
+    @Test
+    public void testSizeMinLargerThanSizeMax()
+    {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        File file = new File(classLoader.getResource("size_min_larger_than_size_max.yml").getFile());
+
+        ObjectMapper objectMapper = new ObjectMapper(new YAMLFactory());
+
+        assertThatExceptionOfType(JsonMappingException.class).isThrownBy(() -> objectMapper.readValue(file, Config.class))
+                .withMessageContaining("size min must not be larger than size max");
+    }
+
+    @Test
+    public void testSizeMinNotPositive()
+    {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        File file = new File(classLoader.getResource("size_min_not_positive.yml").getFile());
+
+        ObjectMapper objectMapper = new ObjectMapper(new YAMLFactory());
+
+        assertThatExceptionOfType(JsonMappingException.class).isThrownBy(() -> objectMapper.readValue(file, Config.class))
+                .withMessageContaining("size min must be positive");
+    }
+
     @Test
     public void testStatisticsEnabledIfNoReporting() throws Exception
     {
@@ -433,14 +469,20 @@ public class TestConfig
     }
 
     @Test
-    public void testTriggerIntervalBiggerThanRepairFailuresWindow()
+    public void testTriggerIntervalIsIgnored() throws Exception
     {
         ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-        File file = new File(classLoader.getResource("trigger_interval_bigger_than_repair_failures_window.yml").getFile());
+        File file = new File(classLoader.getResource("deprecated_trigger_interval.yml").getFile());
 
         ObjectMapper objectMapper = new ObjectMapper(new YAMLFactory());
 
-        assertThatExceptionOfType(JsonMappingException.class).isThrownBy(() -> objectMapper.readValue(file, Config.class));
+        // The deprecated trigger interval is parsed but not validated against the repair failures time window
+        Config config = objectMapper.readValue(file, Config.class);
+
+        StatisticsConfig statisticsConfig = config.getStatisticsConfig();
+        assertThat(statisticsConfig.getRepairFailuresTimeWindow().getInterval(TimeUnit.SECONDS)).isEqualTo(30);
+        assertThat(statisticsConfig.getTriggerIntervalForMetricInspection().getInterval(TimeUnit.MINUTES))
+                .isEqualTo(5);
     }
 
     public static class TestNativeConnectionProvider implements NativeConnectionProvider
@@ -17,7 +17,8 @@ package com.ericsson.bss.cassandra.ecchronos.connection.impl;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Supplier;
 
 import javax.management.remote.JMXConnector;
@@ -30,6 +31,12 @@ import org.slf4j.LoggerFactory;
 
 import com.ericsson.bss.cassandra.ecchronos.connection.JmxConnectionProvider;
 
+/**
+ * Provides JMX connections to the local Cassandra node.
+ * <p>
+ * A fixed number of connections is kept and handed out in turn, each connection is reconnected separately when it is
+ * found to be disconnected.
+ */
 public class LocalJmxConnectionProvider implements JmxConnectionProvider
 {
     private static final Logger LOG = LoggerFactory.getLogger(LocalJmxConnectionProvider.class);
@@ -38,8 +45,10 @@ public class LocalJmxConnectionProvider implements JmxConnectionProvider
 
     public static final int DEFAULT_PORT = 7199;
     public static final String DEFAULT_HOST = "localhost";
+    public static final int DEFAULT_CONNECTIONS = 1;
 
-    private final AtomicReference<JMXConnector> myJmxConnection = new AtomicReference<>();
+    private final AtomicReferenceArray<JMXConnector> myJmxConnections;
+    private final AtomicInteger myNextConnection = new AtomicInteger();
 
     private final String myLocalhost;
     private final int myPort;
@@ -57,23 +66,41 @@ public class LocalJmxConnectionProvider implements JmxConnectionProvider
                                       final Supplier<Map<String, String>> aTLSSupplier)
             throws IOException
     {
+        this(localhost, port, aCredentialsSupplier, aTLSSupplier, DEFAULT_CONNECTIONS);
+    }
+
+    public LocalJmxConnectionProvider(final String localhost,
+                                      final int port,
+                                      final Supplier<String[]> aCredentialsSupplier,
+                                      final Supplier<Map<String, String>> aTLSSupplier,
+                                      final int connections)
+            throws IOException
+    {
+        if (connections < 1)
+        {
+            throw new IllegalArgumentException("At least one JMX connection is needed");
+        }
         myLocalhost = localhost;
         myPort = port;
         this.credentialsSupplier = aCredentialsSupplier;
         this.tlsSupplier = aTLSSupplier;
+        myJmxConnections = new AtomicReferenceArray<>(connections);
 
-        reconnect();
+        for (int i = 0; i < connections; i++)
+        {
+            reconnect(i);
+        }
     }
 
     @Override
     public final JMXConnector getJmxConnector() throws IOException
     {
-        JMXConnector jmxConnector = myJmxConnection.get();
+        int index = Math.floorMod(myNextConnection.getAndIncrement(), myJmxConnections.length());
+        JMXConnector jmxConnector = myJmxConnections.get(index);
 
         if (jmxConnector == null || !isConnected(jmxConnector))
         {
-            reconnect();
-            return getJmxConnector();
+            return reconnect(index);
         }
 
         return jmxConnector;
@@ -82,10 +109,13 @@ public class LocalJmxConnectionProvider implements JmxConnectionProvider
     @Override
     public final void close() throws IOException
     {
-        switchJmxConnection(null);
+        for (int i = 0; i < myJmxConnections.length(); i++)
+        {
+            switchJmxConnection(i, null);
+        }
     }
 
-    private void reconnect() throws IOException
+    private JMXConnector reconnect(final int index) throws IOException
     {
         String host = myLocalhost;
         if (host.contains(":"))
@@ -126,12 +156,13 @@ public class LocalJmxConnectionProvider implements JmxConnectionProvider
         JMXConnector jmxConnector = JMXConnectorFactory.connect(jmxUrl, env);
         LOG.debug("Connected JMX for {}, credentials: {}, tls: {}", jmxUrl, authEnabled, tlsEnabled);
 
-        switchJmxConnection(jmxConnector);
+        switchJmxConnection(index, jmxConnector);
+        return jmxConnector;
     }
 
-    private void switchJmxConnection(final JMXConnector newJmxConnector) throws IOException
+    private void switchJmxConnection(final int index, final JMXConnector newJmxConnector) throws IOException
     {
-        JMXConnector oldJmxConnector = myJmxConnection.getAndSet(newJmxConnector);
+        JMXConnector oldJmxConnector = myJmxConnections.getAndSet(index, newJmxConnector);
 
         if (oldJmxConnector != null)
         {
@@ -18,15 +18,15 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.ResultSet;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.LockException;
@@ -36,7 +36,7 @@ import com.ericsson.bss.cassandra.ecchronos.core.scheduling.LockFactory.Distribu
  * Represents a container for builder configurations and state for the CASLock.
  * This class is used to decouple builder fields from CASLockFactory to avoid excessive field count.
  */
-class CASLock implements DistributedLock, Runnable
+class CASLock implements DistributedLock
 {
     private static final Logger LOG = LoggerFactory.getLogger(CASLock.class);
 
@@ -45,7 +45,7 @@ class CASLock implements DistributedLock, Runnable
     private final int myPriority;
     private final Map<String, String> myMetadata;
 
-    private final AtomicReference<ScheduledFuture<?>> myUpdateFuture = new AtomicReference<>();
+    private final AtomicBoolean myLocked = new AtomicBoolean();
 
     private final AtomicInteger myFailedUpdateAttempts = new AtomicInteger();
 
@@ -62,6 +62,18 @@ class CASLock implements DistributedLock, Runnable
             final Map<String, String> metadata,
             final UUID uuid,
             final CASLockStatement casLockStatement)
+    {
+        this(dataCenter, resource, priority, metadata, uuid, casLockStatement,
+                computePriorities(dataCenter, resource, casLockStatement));
+    }
+
+    CASLock(final String dataCenter,
+            final String resource,
+            final int priority,
+            final Map<String, String> metadata,
+            final UUID uuid,
+            final CASLockStatement casLockStatement,
+            final List<NodePriority> nodePriorities)
     {
         myDataCenter = dataCenter;
         myResource = resource;
@@ -70,8 +82,6 @@ class CASLock implements DistributedLock, Runnable
         myUuid = uuid;
         myCasLockStatement = casLockStatement;
 
-        List<NodePriority> nodePriorities = computePriorities();
-
         myLocallyHighestPriority = nodePriorities.stream()
                 .filter(n -> n.getUuid().equals(myUuid))
                 .map(NodePriority::getPriority)
@@ -91,13 +101,7 @@ class CASLock implements DistributedLock, Runnable
             LOG.trace("Trying to acquire lock for resource {}", myResource);
             if (tryLock())
             {
-                ScheduledExecutorService executor = myCasLockStatement.getCasLockProperties().getExecutor();
-                LOG.trace("Lock for resource {} acquired", myResource);
-                ScheduledFuture<?> future = executor.scheduleAtFixedRate(this,
-                myCasLockStatement.getCasLockFactoryCacheContext().getLockUpdateTimeInSeconds(),
-                myCasLockStatement.getCasLockFactoryCacheContext().getLockUpdateTimeInSeconds(), TimeUnit.SECONDS);
-                myUpdateFuture.set(future);
-
+                lockAcquired();
                 return true;
             }
         }
@@ -105,63 +109,120 @@ class CASLock implements DistributedLock, Runnable
         return false;
     }
 
-    @Override
-    public void run()
+    /**
+     * Write the priority of this node for the resource if needed.
+     *
+     * @return A stage completed with true if this node has the highest priority for the resource.
+     */
+    CompletionStage<Boolean> competeAsync()
     {
-        try
+        if (myLocallyHighestPriority <= myPriority)
         {
-            updateLock();
-            myFailedUpdateAttempts.set(0);
+            return myCasLockStatement.executeAsync(myDataCenter,
+                    myCasLockStatement.getCompeteStatement().bind(myResource, myUuid, myPriority))
+                    .thenApply(rs -> isHighestPriority());
         }
-        catch (LockException e)
-        {
-            int failedAttempts = myFailedUpdateAttempts.incrementAndGet();
 
-            if (failedAttempts >= myCasLockStatement.getCasLockFactoryCacheContext().getFailedLockRetryAttempts())
-            {
-                LOG.error("Unable to re-lock resource '{}' after {} failed attempts", myResource, failedAttempts);
-            }
-            else
-            {
-                LOG.warn("Unable to re-lock resource '{}', {} failed attempts", myResource, failedAttempts, e);
-            }
+        return CompletableFuture.completedFuture(isHighestPriority());
+    }
+
+    /**
+     * Try to take the lock for the resource, {@link #lockAcquired()} should be called if the lock was taken.
+     *
+     * @return A stage completed with true if the lock was taken.
+     */
+    CompletionStage<Boolean> tryLockAsync()
+    {
+        LOG.trace("Trying to acquire lock for resource {}", myResource);
+        return myCasLockStatement.executeAsync(myDataCenter,
+                myCasLockStatement.getLockStatement().bind(myResource, myUuid, myMetadata))
+                .thenApply(AsyncResultSet::wasApplied);
+    }
+
+    /**
+     * Mark the lock as taken, from this point the lock is released by {@link #close()}.
+     * <p>
+     * The lock needs to be registered with the {@link CASLockLeaseManager} to be renewed.
+     */
+    void lockAcquired()
+    {
+        LOG.trace("Lock for resource {} acquired", myResource);
+        myLocked.set(true);
+    }
+
+    /**
+     * @return True if the lock is taken and not yet released.
+     */
+    boolean isLocked()
+    {
+        return myLocked.get();
+    }
+
+    /**
+     * Renew the lock.
+     *
+     * @return A stage completed with true if the lock was renewed.
+     */
+    CompletionStage<Boolean> renewAsync()
+    {
+        return myCasLockStatement.executeAsync(myDataCenter,
+                myCasLockStatement.getUpdateLockStatement().bind(myUuid, myMetadata, myResource, myUuid))
+                .handle((rs, t) ->
+                {
+                    if (t == null && rs.wasApplied())
+                    {
+                        myFailedUpdateAttempts.set(0);
+                        return true;
+                    }
+
+                    updateFailed(t != null ? t : new LockException("CAS query failed"));
+                    return false;
+                });
+    }
+
+    private void updateFailed(final Throwable t)
+    {
+        int failedAttempts = myFailedUpdateAttempts.incrementAndGet();
+
+        if (failedAttempts >= myCasLockStatement.getCasLockFactoryCacheContext().getFailedLockRetryAttempts())
+        {
+            LOG.error("Unable to re-lock resource '{}' after {} failed attempts", myResource, failedAttempts);
+        }
+        else
+        {
+            LOG.warn("Unable to re-lock resource '{}', {} failed attempts", myResource, failedAttempts, t);
         }
     }
 
     @Override
     public void close()
     {
-        ScheduledFuture<?> future = myUpdateFuture.get();
-        if (future != null)
+        if (myLocked.compareAndSet(true, false))
         {
-            future.cancel(true);
             myCasLockStatement.execute(
                 myDataCenter,
                 myCasLockStatement.getRemoveLockStatement().bind(myResource, myUuid));
 
-            if (myLocallyHighestPriority <= myPriority)
-            {
-                myCasLockStatement.execute(
-                    myDataCenter,
-                    myCasLockStatement.getRemoveLockPriorityStatement().bind(myResource, myUuid));
-            }
-            else
-            {
-                LOG.debug("Locally highest priority ({}) is higher than current ({}), will not remove",
-                        myLocallyHighestPriority,
-                        myPriority);
-            }
+            removePriority();
         }
     }
 
-    private void updateLock() throws LockException
+    /**
+     * Remove the priority written when competing for the resource.
+     */
+    void removePriority()
     {
-        ResultSet resultSet = myCasLockStatement.execute(myDataCenter,
-        myCasLockStatement.getUpdateLockStatement().bind(myUuid, myMetadata, myResource, myUuid));
-
-        if (!resultSet.wasApplied())
+        if (myLocallyHighestPriority <= myPriority)
+        {
+            myCasLockStatement.execute(
+                myDataCenter,
+                myCasLockStatement.getRemoveLockPriorityStatement().bind(myResource, myUuid));
+        }
+        else
         {
-            throw new LockException("CAS query failed");
+            LOG.debug("Locally highest priority ({}) is higher than current ({}), will not remove",
+                    myLocallyHighestPriority,
+                    myPriority);
         }
     }
 
@@ -172,6 +233,11 @@ class CASLock implements DistributedLock, Runnable
             insertPriority();
         }
 
+        return isHighestPriority();
+    }
+
+    private boolean isHighestPriority()
+    {
         LOG.trace("Highest priority for resource {}: {}", myResource, globalHighPriority);
         return myPriority >= globalHighPriority;
     }
@@ -190,25 +256,74 @@ class CASLock implements DistributedLock, Runnable
             myCasLockStatement.getLockStatement().bind(myResource, myUuid, myMetadata)).wasApplied();
     }
 
-    private List<NodePriority> computePriorities()
+    private static List<NodePriority> computePriorities(final String dataCenter,
+                                                        final String resource,
+                                                        final CASLockStatement casLockStatement)
     {
         List<NodePriority> nodePriorities = new ArrayList<>();
 
-        ResultSet resultSet = myCasLockStatement.execute(
-            myDataCenter,
-            myCasLockStatement.getGetPriorityStatement().bind(myResource));
+        ResultSet resultSet = casLockStatement.execute(
+            dataCenter,
+            casLockStatement.getGetPriorityStatement().bind(resource));
 
         for (Row row : resultSet)
         {
-            int priority = row.getInt(CASLockStatement.COLUMN_PRIORITY);
-            UUID hostId = row.getUuid(CASLockStatement.COLUMN_NODE);
-
-            nodePriorities.add(new NodePriority(hostId, priority));
+            nodePriorities.add(toNodePriority(row));
         }
 
         return nodePriorities;
     }
 
+    /**
+     * Read the priorities of all nodes competing for a resource.
+     *
+     * @param dataCenter The data center the lock belongs to or null if it's a global lock.
+     * @param resource The resource.
+     * @param casLockStatement The statements to use.
+     * @return A stage completed with the priorities.
+     */
+    static CompletionStage<List<NodePriority>> computePrioritiesAsync(final String dataCenter,
+                                                                      final String resource,
+                                                                      final CASLockStatement casLockStatement)
+    {
+        return casLockStatement.executeAsync(dataCenter, casLockStatement.getGetPriorityStatement().bind(resource))
+                .thenCompose(rs -> collectPriorities(rs, new ArrayList<>()));
+    }
+
+    private static CompletionStage<List<NodePriority>> collectPriorities(final AsyncResultSet resultSet,
+                                                                         final List<NodePriority> nodePriorities)
+    {
+        for (Row row : resultSet.currentPage())
+        {
+            nodePriorities.add(toNodePriority(row));
+        }
+
+        if (resultSet.hasMorePages())
+        {
+            return resultSet.fetchNextPage().thenCompose(rs -> collectPriorities(rs, nodePriorities));
+        }
+
+        return CompletableFuture.completedFuture(nodePriorities);
+    }
+
+    private static NodePriority toNodePriority(final Row row)
+    {
+        int priority = row.getInt(CASLockStatement.COLUMN_PRIORITY);
+        UUID hostId = row.getUuid(CASLockStatement.COLUMN_NODE);
+
+        return new NodePriority(hostId, priority);
+    }
+
+    String getDataCenter()
+    {
+        return myDataCenter;
+    }
+
+    String getResource()
+    {
+        return myResource;
+    }
+
     int getFailedAttempts()
     {
         return myFailedUpdateAttempts.get();
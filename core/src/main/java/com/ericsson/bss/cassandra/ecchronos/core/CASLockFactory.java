@@ -24,7 +24,7 @@ import com.datastax.oss.driver.api.core.metadata.TokenMap;
 import com.datastax.oss.driver.api.core.metadata.schema.KeyspaceMetadata;
 import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.LockException;
-import com.ericsson.bss.cassandra.ecchronos.core.scheduling.LockFactory;
+import com.ericsson.bss.cassandra.ecchronos.core.scheduling.MultiResourceLockFactory;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
@@ -33,6 +33,7 @@ import org.slf4j.LoggerFactory;
 import java.io.Closeable;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
+import java.time.Clock;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -65,7 +66,7 @@ import java.util.concurrent.TimeUnit;
  * WITH default_time_to_live = 600 AND gc_grace_seconds = 0;
  * </pre>
  */
-public final class CASLockFactory implements LockFactory, Closeable
+public final class CASLockFactory implements MultiResourceLockFactory, Closeable
 {
     private static final Logger LOG = LoggerFactory.getLogger(CASLockFactory.class);
 
@@ -73,6 +74,7 @@ public final class CASLockFactory implements LockFactory, Closeable
     private static final String TABLE_LOCK_PRIORITY = "lock_priority";
     private static final int REFRESH_INTERVAL_RATIO = 10;
     private static final int DEFAULT_LOCK_TIME_IN_SECONDS = 600;
+    private static final int MAX_CONCURRENT_RENEWALS = 16;
 
     private final UUID myUuid;
     private final HostStates myHostStates;
@@ -80,6 +82,8 @@ public final class CASLockFactory implements LockFactory, Closeable
 
     private final CASLockProperties myCasLockProperties;
     private final CASLockStatement myCasLockStatement;
+    private final CASLockLeaseManager myCasLockLeaseManager;
+    private final CASLockPipeline myCasLockPipeline;
 
     CASLockFactory(final CASLockFactoryBuilder builder)
     {
@@ -108,6 +112,17 @@ public final class CASLockFactory implements LockFactory, Closeable
         myCasLockFactoryCacheContext = buildCasLockFactoryCacheContext(builder.getCacheExpiryTimeInSecond());
 
         myCasLockStatement = new CASLockStatement(myCasLockProperties, myCasLockFactoryCacheContext);
+        myCasLockLeaseManager = new CASLockLeaseManager(myCasLockFactoryCacheContext.getLockTimeInSeconds(),
+                myCasLockFactoryCacheContext.getLockUpdateTimeInSeconds(),
+                MAX_CONCURRENT_RENEWALS,
+                builder.getMeterRegistry(),
+                Clock.systemDefaultZone());
+        myCasLockProperties.getExecutor().scheduleAtFixedRate(myCasLockLeaseManager,
+                myCasLockFactoryCacheContext.getLockUpdateTimeInSeconds(),
+                myCasLockFactoryCacheContext.getLockUpdateTimeInSeconds(),
+                TimeUnit.SECONDS);
+        myCasLockPipeline = new CASLockPipeline(myUuid, myCasLockStatement, myCasLockLeaseManager,
+                builder.getMeterRegistry());
     }
 
     private CASLockFactoryCacheContext buildCasLockFactoryCacheContext(final long cacheExpiryTimeInSeconds)
@@ -117,6 +132,7 @@ public final class CASLockFactory implements LockFactory, Closeable
         int myFailedLockRetryAttempts = (lockTimeInSeconds / lockUpdateTimeInSeconds) - 1;
 
         return CASLockFactoryCacheContext.newBuilder()
+                .withLockTimeInSeconds(lockTimeInSeconds)
                 .withLockUpdateTimeInSeconds(lockUpdateTimeInSeconds)
                 .withFailedLockRetryAttempts(myFailedLockRetryAttempts)
                 .withLockCache(new LockCache(this::doTryLock, cacheExpiryTimeInSeconds))
@@ -149,6 +165,32 @@ public final class CASLockFactory implements LockFactory, Closeable
                 .getLock(dataCenter, resource, priority, metadata);
     }
 
+    @Override
+    public Collection<DistributedLock> tryLocks(final Map<String, String> resources,
+                                                final int priority,
+                                                final Map<String, String> metadata) throws LockException
+    {
+        for (Map.Entry<String, String> resource : resources.entrySet())
+        {
+            Optional<LockException> cachedFailure = getCachedFailure(resource.getValue(), resource.getKey());
+            if (cachedFailure.isPresent())
+            {
+                LOG.debug("Encountered cached locking failure, throwing exception", cachedFailure.get());
+                throw cachedFailure.get();
+            }
+
+            if (!sufficientNodesForLocking(resource.getValue(), resource.getKey()))
+            {
+                LOG.warn("Not sufficient nodes to lock resource {} in datacenter {}", resource.getKey(),
+                        resource.getValue());
+                throw new LockException("Not sufficient nodes to lock");
+            }
+        }
+
+        LOG.trace("Trying locks for {}", resources);
+        return myCasLockPipeline.lock(resources, priority, metadata);
+    }
+
     @Override
     public Map<String, String> getLockMetadata(final String dataCenter, final String resource) throws LockException
     {
@@ -256,6 +298,7 @@ public final class CASLockFactory implements LockFactory, Closeable
         CASLock casLock = new CASLock(dataCenter, resource, priority, metadata, myUuid, myCasLockStatement); // NOSONAR
         if (casLock.lock())
         {
+            myCasLockLeaseManager.add(casLock);
             return casLock;
         }
         else
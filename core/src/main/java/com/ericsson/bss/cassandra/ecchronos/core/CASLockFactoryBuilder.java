@@ -17,6 +17,8 @@ package com.ericsson.bss.cassandra.ecchronos.core;
 import com.ericsson.bss.cassandra.ecchronos.connection.NativeConnectionProvider;
 import com.ericsson.bss.cassandra.ecchronos.connection.StatementDecorator;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.ConsistencyType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 
 /**
  * Represents a container for builder configurations and state for the CASLockFactory.
@@ -34,6 +36,7 @@ public class CASLockFactoryBuilder
     private String myKeyspaceName = DEFAULT_KEYSPACE_NAME;
     private long myCacheExpiryTimeInSeconds = DEFAULT_EXPIRY_TIME_IN_SECONDS;
     private ConsistencyType myConsistencyType = DEFAULT_CONSISTENCY_SERIAL;
+    private MeterRegistry myMeterRegistry;
 
     public final CASLockFactoryBuilder withNativeConnectionProvider(
         final NativeConnectionProvider nativeConnectionProvider)
@@ -72,6 +75,12 @@ public class CASLockFactoryBuilder
         return this;
     }
 
+    public final CASLockFactoryBuilder withMeterRegistry(final MeterRegistry meterRegistry)
+    {
+        myMeterRegistry = meterRegistry;
+        return this;
+    }
+
     public final CASLockFactory build()
     {
         if (myNativeConnectionProvider == null)
@@ -89,6 +98,11 @@ public class CASLockFactoryBuilder
             throw new IllegalArgumentException("Statement decorator cannot be null");
         }
 
+        if (myMeterRegistry == null)
+        {
+            myMeterRegistry = new CompositeMeterRegistry();
+        }
+
         return new CASLockFactory(this);
     }
 
@@ -122,4 +136,9 @@ public class CASLockFactoryBuilder
         return myConsistencyType;
     }
 
+    public final MeterRegistry getMeterRegistry()
+    {
+        return myMeterRegistry;
+    }
+
 }
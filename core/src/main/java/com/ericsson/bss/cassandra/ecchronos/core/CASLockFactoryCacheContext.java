@@ -21,12 +21,14 @@ package com.ericsson.bss.cassandra.ecchronos.core;
 public final class CASLockFactoryCacheContext
 {
     private final LockCache myLockCache;
+    private final long myLockTimeInSeconds;
     private final long myLockUpdateTimeInSeconds;
     private final int myFailedLockRetryAttempts;
 
     public CASLockFactoryCacheContext(final Builder builder)
     {
         myLockCache = builder.myLockCache;
+        myLockTimeInSeconds = builder.myLockTimeInSeconds;
         myLockUpdateTimeInSeconds = builder.myLockUpdateTimeInSeconds;
         myFailedLockRetryAttempts = builder.myFailedLockRetryAttempts;
     }
@@ -36,6 +38,11 @@ public final class CASLockFactoryCacheContext
         return myLockCache;
     }
 
+    public long getLockTimeInSeconds()
+    {
+        return myLockTimeInSeconds;
+    }
+
     public long getLockUpdateTimeInSeconds()
     {
         return myLockUpdateTimeInSeconds;
@@ -54,9 +61,16 @@ public final class CASLockFactoryCacheContext
     public static class Builder
     {
         private LockCache myLockCache;
+        private int myLockTimeInSeconds;
         private int myLockUpdateTimeInSeconds;
         private int myFailedLockRetryAttempts;
 
+        public final Builder withLockTimeInSeconds(final int lockTimeInSeconds)
+        {
+            myLockTimeInSeconds = lockTimeInSeconds;
+            return this;
+        }
+
         public final Builder withLockUpdateTimeInSeconds(final int lockTimeInSeconds)
         {
             myLockUpdateTimeInSeconds = lockTimeInSeconds;
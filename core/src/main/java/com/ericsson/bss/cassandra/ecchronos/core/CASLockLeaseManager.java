@@ -0,0 +1,254 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Renews the leases of all held locks.
+ * <p>
+ * Each run renews all held locks asynchronously with a bounded number of concurrent renewals. The time each lease
+ * expires is tracked per lock, a lock that fails to be renewed and would expire before the next run is reported
+ * as abandoned. Renewal of an abandoned lock is still retried until the lock is closed, the lock is taken back if
+ * no other node has taken it in the meantime.
+ */
+final class CASLockLeaseManager implements Runnable
+{
+    private static final Logger LOG = LoggerFactory.getLogger(CASLockLeaseManager.class);
+
+    static final String RENEWAL_TIME = "lock.renewal";
+    static final String RENEWAL_LAG = "lock.renewal.lag";
+    static final String ABANDONED = "lock.abandoned";
+
+    private final Map<CASLock, Lease> myLeases = new ConcurrentHashMap<>();
+    private final AtomicBoolean myRenewing = new AtomicBoolean();
+    private final long myLockTimeInMs;
+    private final long myRenewalIntervalInMs;
+    private final int myMaxConcurrentRenewals;
+    private final Clock myClock;
+    private final Timer mySuccessfulRenewalTimer;
+    private final Timer myFailedRenewalTimer;
+    private final Counter myAbandonedCounter;
+
+    CASLockLeaseManager(final long lockTimeInSeconds,
+                        final long renewalIntervalInSeconds,
+                        final int maxConcurrentRenewals,
+                        final MeterRegistry meterRegistry,
+                        final Clock clock)
+    {
+        myLockTimeInMs = TimeUnit.SECONDS.toMillis(lockTimeInSeconds);
+        myRenewalIntervalInMs = TimeUnit.SECONDS.toMillis(renewalIntervalInSeconds);
+        myMaxConcurrentRenewals = maxConcurrentRenewals;
+        myClock = clock;
+        mySuccessfulRenewalTimer = Timer.builder(RENEWAL_TIME).tag("successful", "true").register(meterRegistry);
+        myFailedRenewalTimer = Timer.builder(RENEWAL_TIME).tag("successful", "false").register(meterRegistry);
+        myAbandonedCounter = meterRegistry.counter(ABANDONED);
+        Gauge.builder(RENEWAL_LAG, this, CASLockLeaseManager::getRenewalLagInSeconds)
+                .description("The longest time since a held lock was renewed")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start renewing a lock that was just taken.
+     *
+     * @param casLock The lock.
+     */
+    void add(final CASLock casLock)
+    {
+        myLeases.put(casLock, new Lease(myClock.millis()));
+    }
+
+    @Override
+    public void run()
+    {
+        if (!myRenewing.compareAndSet(false, true))
+        {
+            LOG.warn("Previous lock renewal is still running, skipping renewal");
+            return;
+        }
+
+        long now = myClock.millis();
+        Queue<CASLock> pending = new ConcurrentLinkedQueue<>();
+        Iterator<Map.Entry<CASLock, Lease>> iterator = myLeases.entrySet().iterator();
+        while (iterator.hasNext())
+        {
+            Map.Entry<CASLock, Lease> entry = iterator.next();
+            if (!entry.getKey().isLocked())
+            {
+                iterator.remove();
+            }
+            else
+            {
+                if (entry.getValue().expiresAt() <= now)
+                {
+                    abandon(entry.getKey(), entry.getValue());
+                }
+                pending.add(entry.getKey());
+            }
+        }
+
+        if (pending.isEmpty())
+        {
+            myRenewing.set(false);
+            return;
+        }
+
+        AtomicInteger remaining = new AtomicInteger(pending.size());
+        int renewals = Math.min(myMaxConcurrentRenewals, pending.size());
+        for (int i = 0; i < renewals; i++)
+        {
+            renewNext(pending, remaining);
+        }
+    }
+
+    @VisibleForTesting
+    boolean isRenewing()
+    {
+        return myRenewing.get();
+    }
+
+    @VisibleForTesting
+    int getLockCount()
+    {
+        return myLeases.size();
+    }
+
+    private void renewNext(final Queue<CASLock> pending, final AtomicInteger remaining)
+    {
+        CASLock casLock = pending.poll();
+        if (casLock == null)
+        {
+            return;
+        }
+
+        long renewalStart = myClock.millis();
+        long start = System.nanoTime();
+        try
+        {
+            casLock.renewAsync().whenComplete((renewed, t) ->
+            {
+                renewalDone(casLock, renewalStart, start, Boolean.TRUE.equals(renewed) && t == null);
+                renewalFinished(pending, remaining);
+            });
+        }
+        catch (RuntimeException e)
+        {
+            LOG.warn("Unable to renew lock {}", casLock.getResource(), e);
+            renewalDone(casLock, renewalStart, start, false);
+            renewalFinished(pending, remaining);
+        }
+    }
+
+    private void renewalDone(final CASLock casLock, final long renewalStart, final long start, final boolean renewed)
+    {
+        long duration = System.nanoTime() - start;
+        Lease lease = myLeases.get(casLock);
+        if (renewed)
+        {
+            mySuccessfulRenewalTimer.record(duration, TimeUnit.NANOSECONDS);
+            if (lease != null)
+            {
+                lease.renewed(renewalStart);
+                if (lease.myAbandoned.compareAndSet(true, false))
+                {
+                    LOG.info("Lock for resource '{}' in datacenter {} renewed after being abandoned",
+                            casLock.getResource(), casLock.getDataCenter());
+                }
+            }
+        }
+        else
+        {
+            myFailedRenewalTimer.record(duration, TimeUnit.NANOSECONDS);
+            if (lease != null && lease.expiresAt() - myClock.millis() <= myRenewalIntervalInMs)
+            {
+                abandon(casLock, lease);
+            }
+        }
+    }
+
+    private void renewalFinished(final Queue<CASLock> pending, final AtomicInteger remaining)
+    {
+        if (remaining.decrementAndGet() == 0)
+        {
+            myRenewing.set(false);
+        }
+        else
+        {
+            renewNext(pending, remaining);
+        }
+    }
+
+    private void abandon(final CASLock casLock, final Lease lease)
+    {
+        if (lease.myAbandoned.compareAndSet(false, true))
+        {
+            LOG.error("Abandoning lock for resource '{}' in datacenter {}, the lease expires before it can be renewed,"
+                    + " renewal will be retried until the lock is released",
+                    casLock.getResource(), casLock.getDataCenter());
+            myAbandonedCounter.increment();
+        }
+    }
+
+    private double getRenewalLagInSeconds()
+    {
+        long now = myClock.millis();
+        long lag = 0;
+        for (Lease lease : myLeases.values())
+        {
+            lag = Math.max(lag, now - lease.myRenewedAt);
+        }
+        return lag / (double) TimeUnit.SECONDS.toMillis(1);
+    }
+
+    private final class Lease
+    {
+        private final AtomicBoolean myAbandoned = new AtomicBoolean();
+        private volatile long myRenewedAt;
+
+        Lease(final long renewedAt)
+        {
+            myRenewedAt = renewedAt;
+        }
+
+        void renewed(final long renewedAt)
+        {
+            myRenewedAt = renewedAt;
+        }
+
+        long expiresAt()
+        {
+            return myRenewedAt + myLockTimeInMs;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.bss.cassandra.ecchronos.core.exceptions.LockException;
+import com.ericsson.bss.cassandra.ecchronos.core.scheduling.LockFactory.DistributedLock;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Acquires the locks of several resources concurrently.
+ * <p>
+ * The locks are acquired in two phases that are executed for all resources in parallel:
+ * <ol>
+ * <li>The priorities for the resource are read and the priority of this node is written.</li>
+ * <li>The resource is locked using a lightweight transaction.</li>
+ * </ol>
+ * If any resource could not be handled in the first phase the second phase is never started. Requests already in
+ * flight for a failed phase are awaited so that everything acquired can be released before the failure is reported.
+ */
+final class CASLockPipeline
+{
+    private static final Logger LOG = LoggerFactory.getLogger(CASLockPipeline.class);
+
+    static final String LOCK_ACQUIRE_TIME = "lock.acquire";
+    static final String PHASE_TAG = "phase";
+    static final String PHASE_PRIORITY = "priority";
+    static final String PHASE_COMPETE = "compete";
+    static final String PHASE_LOCK = "lock";
+
+    private final UUID myUuid;
+    private final CASLockStatement myCasLockStatement;
+    private final CASLockLeaseManager myCasLockLeaseManager;
+    private final Timer myPriorityTimer;
+    private final Timer myCompeteTimer;
+    private final Timer myLockTimer;
+
+    CASLockPipeline(final UUID uuid,
+                    final CASLockStatement casLockStatement,
+                    final CASLockLeaseManager casLockLeaseManager,
+                    final MeterRegistry meterRegistry)
+    {
+        myUuid = uuid;
+        myCasLockStatement = casLockStatement;
+        myCasLockLeaseManager = casLockLeaseManager;
+        myPriorityTimer = phaseTimer(PHASE_PRIORITY, meterRegistry);
+        myCompeteTimer = phaseTimer(PHASE_COMPETE, meterRegistry);
+        myLockTimer = phaseTimer(PHASE_LOCK, meterRegistry);
+    }
+
+    /**
+     * Lock all of the provided resources.
+     *
+     * @param resources The resources to lock mapped to the data center they belong to.
+     * @param priority The priority of the locks.
+     * @param metadata The metadata of the locks.
+     * @return The locks, one for each resource.
+     * @throws LockException If any of the resources could not be locked.
+     */
+    Collection<DistributedLock> lock(final Map<String, String> resources,
+                                     final int priority,
+                                     final Map<String, String> metadata) throws LockException
+    {
+        Map<String, CompletableFuture<CASLock>> competing = new LinkedHashMap<>();
+        for (Map.Entry<String, String> resource : resources.entrySet())
+        {
+            competing.put(resource.getKey(), compete(resource.getValue(), resource.getKey(), priority, metadata));
+        }
+
+        PhaseResult competed = awaitPhase(competing, resources);
+        if (competed.myFailure != null)
+        {
+            competed.myCompleted.forEach(CASLock::removePriority);
+            throw competed.myFailure;
+        }
+
+        Map<String, CompletableFuture<CASLock>> locking = new LinkedHashMap<>();
+        for (CASLock casLock : competed.myCompleted)
+        {
+            locking.put(casLock.getResource(), lock(casLock));
+        }
+
+        PhaseResult locked = awaitPhase(locking, resources);
+        if (locked.myFailure != null)
+        {
+            locked.myCompleted.forEach(CASLock::close);
+            throw locked.myFailure;
+        }
+
+        return new ArrayList<>(locked.myCompleted);
+    }
+
+    private CompletableFuture<CASLock> compete(final String dataCenter,
+                                               final String resource,
+                                               final int priority,
+                                               final Map<String, String> metadata)
+    {
+        long start = System.nanoTime();
+        return CASLock.computePrioritiesAsync(dataCenter, resource, myCasLockStatement)
+                .thenCompose(nodePriorities ->
+                {
+                    long competeStart = System.nanoTime();
+                    myPriorityTimer.record(competeStart - start, TimeUnit.NANOSECONDS);
+
+                    CASLock casLock = new CASLock(dataCenter, resource, priority, metadata, myUuid,
+                            myCasLockStatement, nodePriorities); // NOSONAR
+                    return casLock.competeAsync().thenApply(highestPriority ->
+                    {
+                        myCompeteTimer.record(System.nanoTime() - competeStart, TimeUnit.NANOSECONDS);
+                        return highestPriority ? casLock : null;
+                    });
+                })
+                .toCompletableFuture();
+    }
+
+    private CompletableFuture<CASLock> lock(final CASLock casLock)
+    {
+        long start = System.nanoTime();
+        return casLock.tryLockAsync()
+                .thenApply(locked ->
+                {
+                    myLockTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    if (locked)
+                    {
+                        casLock.lockAcquired();
+                        myCasLockLeaseManager.add(casLock);
+                        return casLock;
+                    }
+                    return null;
+                })
+                .toCompletableFuture();
+    }
+
+    private PhaseResult awaitPhase(final Map<String, CompletableFuture<CASLock>> phase,
+                                   final Map<String, String> resources)
+    {
+        PhaseResult result = new PhaseResult();
+
+        for (Map.Entry<String, CompletableFuture<CASLock>> entry : phase.entrySet())
+        {
+            String resource = entry.getKey();
+            String dataCenter = resources.get(resource);
+            LockException failure = null;
+            try
+            {
+                CASLock casLock = entry.getValue().join();
+                if (casLock != null)
+                {
+                    result.myCompleted.add(casLock);
+                }
+                else
+                {
+                    failure = new LockException(
+                            String.format("Unable to lock resource %s in datacenter %s", resource, dataCenter));
+                }
+            }
+            catch (CompletionException e)
+            {
+                failure = new LockException(
+                        String.format("Unable to lock resource %s in datacenter %s", resource, dataCenter),
+                        e.getCause());
+            }
+
+            if (failure != null)
+            {
+                LOG.debug("Lock ({} in datacenter {}) got error {}", resource, dataCenter, failure.getMessage());
+                myCasLockStatement.getCasLockFactoryCacheContext().getLockCache()
+                        .cacheFailure(dataCenter, resource, failure);
+                if (result.myFailure == null)
+                {
+                    result.myFailure = failure;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private static Timer phaseTimer(final String phase, final MeterRegistry meterRegistry)
+    {
+        return Timer.builder(LOCK_ACQUIRE_TIME)
+                .tag(PHASE_TAG, phase)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static final class PhaseResult
+    {
+        private final List<CASLock> myCompleted = new ArrayList<>();
+        private LockException myFailure;
+    }
+}
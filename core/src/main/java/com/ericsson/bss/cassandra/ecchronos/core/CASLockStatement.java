@@ -16,7 +16,10 @@ package com.ericsson.bss.cassandra.ecchronos.core;
 
 import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.bindMarker;
 
+import java.util.concurrent.CompletionStage;
+
 import com.datastax.oss.driver.api.core.ConsistencyLevel;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.PreparedStatement;
 import com.datastax.oss.driver.api.core.cql.ResultSet;
@@ -66,6 +69,17 @@ public class CASLockStatement
     }
 
     public final ResultSet execute(final String dataCenter, final BoundStatement statement)
+    {
+        return myCasLockProperties.getSession().execute(decorate(dataCenter, statement));
+    }
+
+    public final CompletionStage<AsyncResultSet> executeAsync(final String dataCenter,
+                                                              final BoundStatement statement)
+    {
+        return myCasLockProperties.getSession().executeAsync(decorate(dataCenter, statement));
+    }
+
+    private Statement decorate(final String dataCenter, final BoundStatement statement)
     {
         Statement executeStatement;
 
@@ -78,9 +92,7 @@ public class CASLockStatement
             executeStatement = statement;
         }
 
-        return myCasLockProperties.getSession()
-                .execute(myCasLockProperties
-                    .getStatementDecorator().apply(executeStatement));
+        return myCasLockProperties.getStatementDecorator().apply(executeStatement);
     }
 
     private SimpleStatement insertLockStatement()
@@ -29,9 +29,13 @@ import java.io.IOException;
 import java.time.Duration;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Used to fetch metrics from Cassandra through JMX and keep them updated.
+ * <p>
+ * When a table metrics snapshot is available max repaired at is taken from the snapshot instead of being read for
+ * each table.
  */
 public class CassandraMetrics implements Closeable
 {
@@ -42,16 +46,32 @@ public class CassandraMetrics implements Closeable
 
     private final LoadingCache<TableReference, CassandraMetric> myCache;
     private final JmxProxyFactory myJmxProxyFactory;
+    private final Supplier<TableMetricsSnapshot> myTableMetricsSupplier;
 
     public CassandraMetrics(final JmxProxyFactory jmxProxyFactory)
+    {
+        this(jmxProxyFactory, () -> TableMetricsSnapshot.EMPTY);
+    }
+
+    public CassandraMetrics(final JmxProxyFactory jmxProxyFactory,
+                            final Supplier<TableMetricsSnapshot> tableMetricsSupplier)
     {
         this(jmxProxyFactory, Duration.ofSeconds(DEFAULT_CACHE_REFRESH_TIME_SECONDS),
-                Duration.ofMinutes(DEFAULT_CACHE_EXPIRY_TIME_MINUTES));
+                Duration.ofMinutes(DEFAULT_CACHE_EXPIRY_TIME_MINUTES), tableMetricsSupplier);
     }
+
     public CassandraMetrics(final JmxProxyFactory jmxProxyFactory, final Duration refreshAfter,
             final Duration expireAfter)
+    {
+        this(jmxProxyFactory, refreshAfter, expireAfter, () -> TableMetricsSnapshot.EMPTY);
+    }
+
+    public CassandraMetrics(final JmxProxyFactory jmxProxyFactory, final Duration refreshAfter,
+            final Duration expireAfter, final Supplier<TableMetricsSnapshot> tableMetricsSupplier)
     {
         myJmxProxyFactory = Preconditions.checkNotNull(jmxProxyFactory, "JMX proxy factory must be set");
+        myTableMetricsSupplier = Preconditions.checkNotNull(tableMetricsSupplier,
+                "Table metrics supplier must be set");
         myCache = Caffeine.newBuilder()
                 .refreshAfterWrite(Preconditions.checkNotNull(refreshAfter, "Refresh after must be set"))
                 .expireAfterAccess(Preconditions.checkNotNull(expireAfter, "Expire after must be set"))
@@ -63,7 +83,10 @@ public class CassandraMetrics implements Closeable
     {
         try (JmxProxy jmxProxy = myJmxProxyFactory.connect())
         {
-            long maxRepairedAt = jmxProxy.getMaxRepairedAt(tableReference);
+            TableMetricsSnapshot tableMetrics = myTableMetricsSupplier.get();
+            long maxRepairedAt = tableMetrics.hasMaxRepairedAt(tableReference)
+                    ? tableMetrics.getMaxRepairedAt(tableReference)
+                    : jmxProxy.getMaxRepairedAt(tableReference);
             double percentRepaired = jmxProxy.getPercentRepaired(tableReference);
             LOG.trace("{}, maxRepairedAt: {}, percentRepaired: {}", tableReference, maxRepairedAt, percentRepaired);
             return new CassandraMetric(percentRepaired, maxRepairedAt);
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metadata.NodeState;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.DriverNode;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.logging.ThrottlingLogger;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+/**
+ * Implementation of the {@link HostStates} interface using the node states of the driver.
+ * <p>
+ * The driver keeps the state of each node up to date from the status events pushed by Cassandra and from its own
+ * connections. Nodes the driver has no state for, e.g. nodes in data centers it doesn't connect to, use the node
+ * statuses retrieved through JMX in the background. Checking if a node is up never blocks.
+ */
+public final class DriverHostStatesImpl implements HostStates, Closeable
+{
+    private static final Logger LOG = LoggerFactory.getLogger(DriverHostStatesImpl.class);
+    private static final ThrottlingLogger THROTTLED_LOGGER = new ThrottlingLogger(LOG, 1, TimeUnit.MINUTES);
+
+    static final String DISAGREEMENT = "host.states.disagreement";
+
+    private static final long DEFAULT_REFRESH_INTERVAL_IN_MS = TimeUnit.SECONDS.toMillis(10);
+
+    private final ConcurrentHashMap<InetAddress, Boolean> myJmxHostStates = new ConcurrentHashMap<>();
+    private final AtomicInteger myDisagreement = new AtomicInteger();
+    private final CqlSession mySession;
+    private final JmxProxyFactory myJmxProxyFactory;
+    private final ScheduledExecutorService myExecutor;
+
+    private volatile NodeIndex myNodeIndex = new NodeIndex(null, Collections.emptyMap());
+
+    private DriverHostStatesImpl(final Builder builder)
+    {
+        mySession = builder.mySession;
+        myJmxProxyFactory = builder.myJmxProxyFactory;
+        builder.myMeterRegistry.gauge(DISAGREEMENT, myDisagreement);
+
+        myExecutor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("HostStatesReconciler-%d").build());
+        myExecutor.scheduleWithFixedDelay(this::reconcile, 0, builder.myRefreshIntervalInMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public boolean isUp(final InetAddress address)
+    {
+        Node node = getNodeIndex().myNodes.get(address);
+        if (node != null)
+        {
+            Boolean driverState = driverState(node);
+            if (driverState != null)
+            {
+                return driverState;
+            }
+        }
+
+        return jmxState(address);
+    }
+
+    @Override
+    public boolean isUp(final Node node)
+    {
+        Boolean driverState = driverState(node);
+        if (driverState != null)
+        {
+            return driverState;
+        }
+
+        return jmxState(node.getBroadcastAddress().get().getAddress());
+    }
+
+    @Override
+    public boolean isUp(final DriverNode node)
+    {
+        return isUp(node.getPublicAddress());
+    }
+
+    @Override
+    public void close()
+    {
+        myExecutor.shutdownNow();
+        myJmxHostStates.clear();
+    }
+
+    /**
+     * Retrieve the node statuses through JMX and compare them with the node states of the driver.
+     */
+    @VisibleForTesting
+    void reconcile()
+    {
+        try
+        {
+            if (tryRefreshHostStates())
+            {
+                myDisagreement.set(countDisagreement());
+            }
+            else
+            {
+                myJmxHostStates.clear();
+            }
+        }
+        catch (RuntimeException e)
+        {
+            THROTTLED_LOGGER.warn("Unable to reconcile host states", e);
+        }
+    }
+
+    private int countDisagreement()
+    {
+        int disagreement = 0;
+        for (Node node : getNodeIndex().myNodes.values())
+        {
+            Boolean driverState = driverState(node);
+            Boolean jmxState = myJmxHostStates.get(node.getBroadcastAddress().get().getAddress());
+            if (driverState != null && jmxState != null && !driverState.equals(jmxState))
+            {
+                LOG.debug("Node {} is {} according to the driver but {} according to JMX", node,
+                        driverState ? "UP" : "DOWN", jmxState ? "UP" : "DOWN");
+                disagreement++;
+            }
+        }
+        return disagreement;
+    }
+
+    @VisibleForTesting
+    int getDisagreement()
+    {
+        return myDisagreement.get();
+    }
+
+    private boolean tryRefreshHostStates()
+    {
+        try (JmxProxy proxy = myJmxProxyFactory.connect())
+        {
+            for (String liveHost : proxy.getLiveNodes())
+            {
+                InetAddress host = InetAddress.getByName(liveHost);
+
+                if (changeHostState(host, true))
+                {
+                    LOG.debug("Host {} marked as UP", host);
+                }
+            }
+
+            for (String unreachableHost : proxy.getUnreachableNodes())
+            {
+                InetAddress host = InetAddress.getByName(unreachableHost);
+
+                if (changeHostState(host, false))
+                {
+                    LOG.debug("Host {} marked as DOWN", host);
+                }
+            }
+
+            return true;
+        }
+        catch (IOException e)
+        {
+            THROTTLED_LOGGER.warn("Unable to retrieve host states", e);
+        }
+
+        return false;
+    }
+
+    private boolean changeHostState(final InetAddress host, final boolean newValue)
+    {
+        Boolean oldValue = myJmxHostStates.put(host, newValue);
+
+        return oldValue == null || oldValue != newValue;
+    }
+
+    private boolean jmxState(final InetAddress address)
+    {
+        Boolean status = myJmxHostStates.get(address);
+        return status != null && status;
+    }
+
+    private NodeIndex getNodeIndex()
+    {
+        Metadata metadata = mySession.getMetadata();
+        NodeIndex nodeIndex = myNodeIndex;
+        if (nodeIndex.myMetadata != metadata)
+        {
+            nodeIndex = new NodeIndex(metadata, indexByAddress(metadata));
+            myNodeIndex = nodeIndex;
+        }
+        return nodeIndex;
+    }
+
+    private static Map<InetAddress, Node> indexByAddress(final Metadata metadata)
+    {
+        Map<InetAddress, Node> nodes = new HashMap<>();
+        for (Node node : metadata.getNodes().values())
+        {
+            Optional<InetSocketAddress> address = node.getBroadcastAddress();
+            address.ifPresent(a -> nodes.put(a.getAddress(), node));
+        }
+        return nodes;
+    }
+
+    private static Boolean driverState(final Node node)
+    {
+        NodeState state = node.getState();
+        if (state == NodeState.UP)
+        {
+            return Boolean.TRUE;
+        }
+        if (state == NodeState.DOWN || state == NodeState.FORCED_DOWN)
+        {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    private static final class NodeIndex
+    {
+        private final Metadata myMetadata;
+        private final Map<InetAddress, Node> myNodes;
+
+        NodeIndex(final Metadata metadata, final Map<InetAddress, Node> nodes)
+        {
+            myMetadata = metadata;
+            myNodes = nodes;
+        }
+    }
+
+    public static class Builder
+    {
+        private CqlSession mySession;
+        private JmxProxyFactory myJmxProxyFactory;
+        private MeterRegistry myMeterRegistry = new CompositeMeterRegistry();
+        private long myRefreshIntervalInMs = DEFAULT_REFRESH_INTERVAL_IN_MS;
+
+        public final Builder withSession(final CqlSession session)
+        {
+            mySession = session;
+            return this;
+        }
+
+        public final Builder withJmxProxyFactory(final JmxProxyFactory jmxProxyFactory)
+        {
+            myJmxProxyFactory = jmxProxyFactory;
+            return this;
+        }
+
+        public final Builder withMeterRegistry(final MeterRegistry meterRegistry)
+        {
+            myMeterRegistry = meterRegistry;
+            return this;
+        }
+
+        public final Builder withRefreshIntervalInMs(final long refreshIntervalInMs)
+        {
+            myRefreshIntervalInMs = refreshIntervalInMs;
+            return this;
+        }
+
+        public final DriverHostStatesImpl build()
+        {
+            if (mySession == null)
+            {
+                throw new IllegalArgumentException("Session must be set");
+            }
+
+            if (myJmxProxyFactory == null)
+            {
+                throw new IllegalArgumentException("JMX Proxy Factory must be set");
+            }
+
+            return new DriverHostStatesImpl(this);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core;
+
+import java.time.Clock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stops JMX operations from being sent while the JMX connection is failing.
+ * <p>
+ * The circuit opens after a number of consecutive operations have timed out or failed on the connection. While open
+ * operations are rejected without contacting the node, once the open time has passed a single operation is let
+ * through to probe the connection and depending on the outcome the circuit is either closed or kept open.
+ */
+final class JmxCircuitBreaker
+{
+    private static final Logger LOG = LoggerFactory.getLogger(JmxCircuitBreaker.class);
+
+    private final int myFailureThreshold;
+    private final long myOpenTimeInMs;
+    private final Clock myClock;
+
+    private int myConsecutiveFailures;
+    private long myOpenUntil;
+    private boolean myProbing;
+
+    JmxCircuitBreaker(final int failureThreshold, final long openTimeInMs, final Clock clock)
+    {
+        myFailureThreshold = failureThreshold;
+        myOpenTimeInMs = openTimeInMs;
+        myClock = clock;
+    }
+
+    /**
+     * Check if an operation may be sent.
+     *
+     * @return True if the operation may be sent, false if the circuit is open.
+     */
+    synchronized boolean tryAcquire()
+    {
+        if (myConsecutiveFailures < myFailureThreshold)
+        {
+            return true;
+        }
+        if (myProbing || myClock.millis() < myOpenUntil)
+        {
+            return false;
+        }
+        myProbing = true;
+        return true;
+    }
+
+    synchronized void onSuccess()
+    {
+        if (myConsecutiveFailures >= myFailureThreshold)
+        {
+            LOG.info("JMX connection recovered, closing circuit");
+        }
+        myConsecutiveFailures = 0;
+        myProbing = false;
+    }
+
+    synchronized void onFailure()
+    {
+        myConsecutiveFailures++;
+        myProbing = false;
+        if (myConsecutiveFailures >= myFailureThreshold)
+        {
+            if (myConsecutiveFailures == myFailureThreshold)
+            {
+                LOG.warn("{} consecutive JMX operations failed, rejecting operations for {}ms",
+                        myConsecutiveFailures, myOpenTimeInMs);
+            }
+            myOpenUntil = myClock.millis() + myOpenTimeInMs;
+        }
+    }
+
+    /**
+     * Release an acquired operation that ended without an outcome, e.g. when it was interrupted or could not be
+     * submitted, so that a new probe can be let through.
+     */
+    synchronized void release()
+    {
+        myProbing = false;
+    }
+
+    synchronized boolean isOpen()
+    {
+        return myConsecutiveFailures >= myFailureThreshold;
+    }
+}
@@ -15,6 +15,8 @@
 package com.ericsson.bss.cassandra.ecchronos.core;
 
 import java.io.Closeable;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -82,6 +84,19 @@ public interface JmxProxy extends Closeable
      */
     void removeStorageServiceListener(NotificationListener listener);
 
+    /**
+     * Get the connection used by this proxy, listeners added through proxies sharing a connection receive the
+     * notifications on the same connection.
+     * <p>
+     * The connection is also the source of the connection notifications sent to the listeners.
+     *
+     * @return The connection of this proxy.
+     */
+    default Object getConnection()
+    {
+        return this;
+    }
+
     /**
      * Get the live disk space used for the provided table.
      *
@@ -109,6 +124,26 @@ public interface JmxProxy extends Closeable
      */
     double getPercentRepaired(TableReference tableReference);
 
+    /**
+     * Read the live disk space used and max repaired at of several tables together.
+     * <p>
+     * Implementations should use as few operations as possible, the default implementation reads the tables one by one.
+     *
+     * @param tableReferences The tables to read metrics for.
+     * @return The snapshot of the table metrics.
+     */
+    default TableMetricsSnapshot getTableMetrics(Collection<TableReference> tableReferences)
+    {
+        Map<TableReference, Long> liveDiskSpaceUsed = new HashMap<>();
+        Map<TableReference, Long> maxRepairedAt = new HashMap<>();
+        for (TableReference tableReference : tableReferences)
+        {
+            liveDiskSpaceUsed.put(tableReference, liveDiskSpaceUsed(tableReference));
+            maxRepairedAt.put(tableReference, getMaxRepairedAt(tableReference));
+        }
+        return new TableMetricsSnapshot(liveDiskSpaceUsed, maxRepairedAt);
+    }
+
     /**
      * Retrieves the current operational status of the local Cassandra node via JMX.
      * Returns a string indicating the node's state (e.g., "NORMAL", "JOINING", "LEAVING", "MOVING")
@@ -14,25 +14,43 @@
  */
 package com.ericsson.bss.cassandra.ecchronos.core;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Clock;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
-import javax.management.AttributeNotFoundException;
 import javax.management.InstanceNotFoundException;
-import javax.management.ListenerNotFoundException;
-import javax.management.MBeanException;
+import javax.management.JMException;
 import javax.management.MBeanServerConnection;
 import javax.management.MalformedObjectNameException;
 import javax.management.NotificationListener;
 import javax.management.ObjectName;
-import javax.management.ReflectionException;
 import javax.management.openmbean.CompositeData;
 import javax.management.remote.JMXConnector;
 
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,9 +58,17 @@ import com.ericsson.bss.cassandra.ecchronos.connection.JmxConnectionProvider;
 
 /**
  * A factory creating JMX proxies to Cassandra.
+ * <p>
+ * The MBean operations of the proxies are sent from a bounded pool of threads so that each operation can be given a
+ * timeout, a caller is never blocked longer than the timeout by a slow or hanging operation. Operations that time out
+ * or fail on the connection are counted by a circuit breaker that rejects operations for a while once too many
+ * consecutive operations have failed.
+ * <p>
+ * Starting a repair is not given a timeout since Cassandra might take a long time to prepare the repair before
+ * the command is returned, the caller would otherwise report a repair as failed that is actually running.
  */
 @SuppressWarnings("FinalClass")
-public class JmxProxyFactoryImpl implements JmxProxyFactory
+public class JmxProxyFactoryImpl implements JmxProxyFactory, Closeable
 {
     private static final Logger LOG = LoggerFactory.getLogger(JmxProxyFactoryImpl.class);
 
@@ -54,12 +80,41 @@ public class JmxProxyFactoryImpl implements JmxProxyFactory
     private static final String FORCE_TERMINATE_ALL_REPAIR_SESSIONS_METHOD = "forceTerminateAllRepairSessions";
     private static final String LIVE_NODES_ATTRIBUTE = "LiveNodes";
     private static final String UNREACHABLE_NODES_ATTRIBUTE = "UnreachableNodes";
+    private static final String TABLE_METRIC_FORMAT =
+            "org.apache.cassandra.metrics:type=Table,keyspace=%s,scope=%s,name=%s";
+    private static final String LIVE_DISK_SPACE_USED = "LiveDiskSpaceUsed";
+
+    static final String OPERATION_TIME = "jmx.operation";
+    static final String CIRCUIT_OPEN = "jmx.circuit.open";
+
+    private static final int DEFAULT_MAX_CONCURRENT_OPERATIONS = 8;
+    private static final long DEFAULT_OPERATION_TIMEOUT_IN_MS = TimeUnit.SECONDS.toMillis(30);
+    private static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    private static final long DEFAULT_OPEN_TIME_IN_MS = TimeUnit.SECONDS.toMillis(30);
+    private static final long IDLE_THREAD_KEEP_ALIVE_IN_SECONDS = 60L;
 
     private final JmxConnectionProvider myJmxConnectionProvider;
+    private final ThreadPoolExecutor myExecutor;
+    private final long myOperationTimeoutInMs;
+    private final JmxCircuitBreaker myCircuitBreaker;
+    private final MeterRegistry myMeterRegistry;
+    private final Map<String, Timer> mySuccessfulTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> myFailedTimers = new ConcurrentHashMap<>();
 
     private JmxProxyFactoryImpl(final Builder builder)
     {
         myJmxConnectionProvider = builder.myJmxConnectionProvider;
+        myOperationTimeoutInMs = builder.myOperationTimeoutInMs;
+        myCircuitBreaker = new JmxCircuitBreaker(builder.myFailureThreshold, builder.myOpenTimeInMs, builder.myClock);
+        myMeterRegistry = builder.myMeterRegistry;
+        // Idle threads time out so that short lived factories do not keep threads around
+        myExecutor = new ThreadPoolExecutor(builder.myMaxConcurrentOperations, builder.myMaxConcurrentOperations,
+                IDLE_THREAD_KEEP_ALIVE_IN_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("JmxOperation-%d").setDaemon(true).build());
+        myExecutor.allowCoreThreadTimeOut(true);
+        Gauge.builder(CIRCUIT_OPEN, myCircuitBreaker, breaker -> breaker.isOpen() ? 1 : 0)
+                .description("If JMX operations are rejected because too many consecutive operations failed")
+                .register(myMeterRegistry);
     }
 
     @Override
@@ -79,6 +134,109 @@ public class JmxProxyFactoryImpl implements JmxProxyFactory
         }
     }
 
+    @Override
+    public final void close()
+    {
+        myExecutor.shutdownNow();
+    }
+
+    /**
+     * An MBean operation sent over JMX.
+     *
+     * @param <T> The result type of the operation.
+     */
+    @FunctionalInterface
+    private interface JmxOperation<T>
+    {
+        T execute() throws JMException, IOException;
+    }
+
+    /**
+     * Send an MBean operation, waiting at most the operation timeout for the result.
+     * <p>
+     * Timeouts and connection failures are counted by the circuit breaker, while errors reported by the MBean are
+     * not since they show that the connection is working.
+     */
+    private <T> T execute(final String operation, final JmxOperation<T> jmxOperation)
+            throws JMException, IOException
+    {
+        return execute(operation, jmxOperation, true);
+    }
+
+    /**
+     * Send an MBean operation, waiting for the result.
+     *
+     * @param operation The name of the operation.
+     * @param jmxOperation The operation.
+     * @param timed If the operation timeout should be used, if false the operation is waited for until it completes.
+     */
+    private <T> T execute(final String operation, final JmxOperation<T> jmxOperation, final boolean timed)
+            throws JMException, IOException
+    {
+        if (!myCircuitBreaker.tryAcquire())
+        {
+            throw new IOException("Rejected " + operation + ", too many consecutive JMX operations failed");
+        }
+
+        long start = System.nanoTime();
+        boolean successful = false;
+        boolean recorded = false;
+        Future<T> future = null;
+        try
+        {
+            future = myExecutor.submit(jmxOperation::execute);
+            T result = timed ? future.get(myOperationTimeoutInMs, TimeUnit.MILLISECONDS) : future.get();
+            successful = true;
+            recorded = true;
+            myCircuitBreaker.onSuccess();
+            return result;
+        }
+        catch (TimeoutException e)
+        {
+            future.cancel(true);
+            recorded = true;
+            myCircuitBreaker.onFailure();
+            throw new IOException(operation + " timed out after " + myOperationTimeoutInMs + "ms", e);
+        }
+        catch (InterruptedException e)
+        {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + operation);
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            recorded = true;
+            if (cause instanceof IOException)
+            {
+                myCircuitBreaker.onFailure();
+                throw (IOException) cause;
+            }
+            myCircuitBreaker.onSuccess();
+            Throwables.throwIfInstanceOf(cause, JMException.class);
+            Throwables.throwIfUnchecked(cause);
+            throw new IOException("Unable to execute " + operation, cause);
+        }
+        finally
+        {
+            if (!recorded)
+            {
+                myCircuitBreaker.release();
+            }
+            timer(operation, successful).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(final String operation, final boolean successful)
+    {
+        Map<String, Timer> timers = successful ? mySuccessfulTimers : myFailedTimers;
+        return timers.computeIfAbsent(operation, o -> Timer.builder(OPERATION_TIME)
+                .tag("operation", o)
+                .tag("successful", Boolean.toString(successful))
+                .register(myMeterRegistry));
+    }
+
     private final class InternalJmxProxy implements JmxProxy
     {
         private final JMXConnector myJmxConnector;
@@ -103,15 +261,25 @@ public class JmxProxyFactoryImpl implements JmxProxyFactory
             // Should not close
         }
 
+        @Override
+        public Object getConnection()
+        {
+            return myJmxConnector;
+        }
+
         @Override
         public void addStorageServiceListener(final NotificationListener listener)
         {
             try
             {
                 myJmxConnector.addConnectionNotificationListener(listener, null, null);
-                myMbeanServerConnection.addNotificationListener(myStorageServiceObject, listener, null, null);
+                execute("addNotificationListener", () ->
+                {
+                    myMbeanServerConnection.addNotificationListener(myStorageServiceObject, listener, null, null);
+                    return null;
+                });
             }
-            catch (InstanceNotFoundException | IOException e)
+            catch (JMException | IOException e)
             {
                 LOG.error("Unable to add StorageService listener", e);
             }
@@ -123,14 +291,10 @@ public class JmxProxyFactoryImpl implements JmxProxyFactory
         {
             try
             {
-                return (List<String>) myMbeanServerConnection.getAttribute(myStorageServiceObject,
-                        LIVE_NODES_ATTRIBUTE);
+                return (List<String>) execute(LIVE_NODES_ATTRIBUTE,
+                        () -> myMbeanServerConnection.getAttribute(myStorageServiceObject, LIVE_NODES_ATTRIBUTE));
             }
-            catch (InstanceNotFoundException
-                   | MBeanException
-                   | ReflectionException
-                   | IOException
-                   | AttributeNotFoundException e)
+            catch (JMException | IOException e)
             {
                 LOG.error("Unable to get live nodes", e);
             }
@@ -143,14 +307,11 @@ public class JmxProxyFactoryImpl implements JmxProxyFactory
         {
             try
             {
-                return (List<String>) myMbeanServerConnection.getAttribute(myStorageServiceObject,
-                        UNREACHABLE_NODES_ATTRIBUTE);
+                return (List<String>) execute(UNREACHABLE_NODES_ATTRIBUTE,
+                        () -> myMbeanServerConnection.getAttribute(myStorageServiceObject,
+                                UNREACHABLE_NODES_ATTRIBUTE));
             }
-            catch (InstanceNotFoundException
-                   | MBeanException
-                   | ReflectionException
-                   | IOException
-                   | AttributeNotFoundException e)
+            catch (JMException | IOException e)
             {
                 LOG.error("Unable to get unreachable nodes", e);
             }
@@ -162,7 +323,7 @@ public class JmxProxyFactoryImpl implements JmxProxyFactory
         {
             try
             {
-                return (int) myMbeanServerConnection.invoke(myStorageServiceObject,
+                return (int) execute(REPAIR_ASYNC_METHOD, () -> myMbeanServerConnection.invoke(myStorageServiceObject,
                         REPAIR_ASYNC_METHOD,
                         new Object[]
                         {
@@ -171,9 +332,9 @@ public class JmxProxyFactoryImpl implements JmxProxyFactory
                         new String[]
                         {
                                 String.class.getName(), Map.class.getName()
-                        });
+                        }), false);
             }
-            catch (InstanceNotFoundException | MBeanException | ReflectionException | IOException e)
+            catch (JMException | IOException e)
             {
                 LOG.error("Unable to repair", e);
             }
@@ -189,14 +350,12 @@ public class JmxProxyFactoryImpl implements JmxProxyFactory
         {
             try
             {
-                myMbeanServerConnection.invoke(myStorageServiceObject,
-                        FORCE_TERMINATE_ALL_REPAIR_SESSIONS_METHOD,
-                        null, null);
+                execute(FORCE_TERMINATE_ALL_REPAIR_SESSIONS_METHOD,
+                        () -> myMbeanServerConnection.invoke(myStorageServiceObject,
+                                FORCE_TERMINATE_ALL_REPAIR_SESSIONS_METHOD,
+                                null, null));
             }
-            catch (InstanceNotFoundException
-                   | MBeanException
-                   | ReflectionException
-                   | IOException e)
+            catch (JMException | IOException e)
             {
                 LOG.error("Unable to terminate repair sessions");
             }
@@ -215,11 +374,13 @@ public class JmxProxyFactoryImpl implements JmxProxyFactory
             try
             {
                 myJmxConnector.removeConnectionNotificationListener(listener);
-                myMbeanServerConnection.removeNotificationListener(myStorageServiceObject, listener);
+                execute("removeNotificationListener", () ->
+                {
+                    myMbeanServerConnection.removeNotificationListener(myStorageServiceObject, listener);
+                    return null;
+                });
             }
-            catch (InstanceNotFoundException
-                   | ListenerNotFoundException
-                   | IOException e)
+            catch (JMException | IOException e)
             {
                 LOG.error("Unable to remove StorageService listener", e);
             }
@@ -237,18 +398,13 @@ public class JmxProxyFactoryImpl implements JmxProxyFactory
         {
             try
             {
-                ObjectName objectName = new ObjectName(String
-                        .format("org.apache.cassandra.metrics:type=Table,keyspace=%s,scope=%s,name=LiveDiskSpaceUsed",
-                                tableReference.getKeyspace(), tableReference.getTable()));
+                ObjectName objectName = new ObjectName(String.format(TABLE_METRIC_FORMAT,
+                        tableReference.getKeyspace(), tableReference.getTable(), LIVE_DISK_SPACE_USED));
 
-                return (Long) myMbeanServerConnection.getAttribute(objectName, "Count");
+                return (Long) execute(LIVE_DISK_SPACE_USED,
+                        () -> myMbeanServerConnection.getAttribute(objectName, "Count"));
             }
-            catch (AttributeNotFoundException
-                   | InstanceNotFoundException
-                   | MBeanException
-                   | ReflectionException
-                   | IOException
-                   | MalformedObjectNameException e)
+            catch (JMException | IOException e)
             {
                 LOG.error("Unable to retrieve disk space usage for {}", tableReference, e);
             }
@@ -264,33 +420,126 @@ public class JmxProxyFactoryImpl implements JmxProxyFactory
                 List<String> args = new ArrayList<>();
                 args.add(tableReference.getKeyspace());
                 args.add(tableReference.getTable());
-                List<CompositeData> compositeDatas = (List<CompositeData>) myMbeanServerConnection.invoke(
-                        myRepairServiceObject, REPAIR_STATS_METHOD,
-                        new Object[]
-                        {
-                                args, null
-                        },
-                        new String[]
-                        {
-                                List.class.getName(),
-                                String.class.getName()
-                        });
+                List<CompositeData> compositeDatas = (List<CompositeData>) execute(REPAIR_STATS_METHOD,
+                        () -> myMbeanServerConnection.invoke(
+                                myRepairServiceObject, REPAIR_STATS_METHOD,
+                                new Object[]
+                                {
+                                        args, null
+                                },
+                                new String[]
+                                {
+                                        List.class.getName(),
+                                        String.class.getName()
+                                }));
                 for (CompositeData data : compositeDatas)
                 {
                     long maxRepaired = (long) data.getAll(new String[]{"maxRepaired"})[0];
                     return maxRepaired;
                 }
             }
-            catch (InstanceNotFoundException
-                   | MBeanException
-                   | ReflectionException
-                   | IOException e)
+            catch (JMException | IOException e)
             {
                 LOG.error("Unable to get maxRepaired for {}", tableReference, e);
             }
             return 0;
         }
 
+        /**
+         * Read the metrics of all tables using one query for the live disk space MBeans that exist, one read per
+         * table of the live disk space and one repair stats operation covering all tables.
+         *
+         * @param tableReferences The tables to read metrics for.
+         * @return The snapshot of the table metrics.
+         */
+        @Override
+        public TableMetricsSnapshot getTableMetrics(final Collection<TableReference> tableReferences)
+        {
+            Map<String, TableReference> tablesByName = new HashMap<>();
+            for (TableReference tableReference : tableReferences)
+            {
+                tablesByName.put(tableName(tableReference.getKeyspace(), tableReference.getTable()), tableReference);
+            }
+            return new TableMetricsSnapshot(getLiveDiskSpaceUsed(tablesByName), getMaxRepairedAt(tablesByName));
+        }
+
+        private Map<TableReference, Long> getLiveDiskSpaceUsed(final Map<String, TableReference> tablesByName)
+        {
+            Map<TableReference, Long> liveDiskSpaceUsed = new HashMap<>();
+            try
+            {
+                ObjectName pattern = new ObjectName(String.format(TABLE_METRIC_FORMAT, "*", "*", LIVE_DISK_SPACE_USED));
+                Set<ObjectName> objectNames = execute("queryNames",
+                        () -> myMbeanServerConnection.queryNames(pattern, null));
+                for (ObjectName objectName : objectNames)
+                {
+                    TableReference tableReference = tablesByName.get(tableName(objectName.getKeyProperty("keyspace"),
+                            objectName.getKeyProperty("scope")));
+                    if (tableReference != null)
+                    {
+                        readLiveDiskSpaceUsed(objectName, tableReference, liveDiskSpaceUsed);
+                    }
+                }
+            }
+            catch (JMException | IOException e)
+            {
+                LOG.error("Unable to retrieve disk space usage", e);
+            }
+            return liveDiskSpaceUsed;
+        }
+
+        private void readLiveDiskSpaceUsed(final ObjectName objectName,
+                                           final TableReference tableReference,
+                                           final Map<TableReference, Long> liveDiskSpaceUsed)
+                throws JMException, IOException
+        {
+            try
+            {
+                liveDiskSpaceUsed.put(tableReference, (Long) execute(LIVE_DISK_SPACE_USED,
+                        () -> myMbeanServerConnection.getAttribute(objectName, "Count")));
+            }
+            catch (InstanceNotFoundException e)
+            {
+                LOG.debug("Disk space usage of {} is no longer available", tableReference);
+            }
+        }
+
+        @SuppressWarnings ("unchecked")
+        private Map<TableReference, Long> getMaxRepairedAt(final Map<String, TableReference> tablesByName)
+        {
+            Map<TableReference, Long> maxRepairedAt = new HashMap<>();
+            try
+            {
+                // Without schema arguments the repair stats of all tables are returned
+                List<CompositeData> compositeDatas = (List<CompositeData>) execute(REPAIR_STATS_METHOD,
+                        () -> myMbeanServerConnection.invoke(
+                                myRepairServiceObject, REPAIR_STATS_METHOD,
+                                new Object[]
+                                {
+                                        new ArrayList<String>(), null
+                                },
+                                new String[]
+                                {
+                                        List.class.getName(),
+                                        String.class.getName()
+                                }));
+                for (CompositeData data : compositeDatas)
+                {
+                    TableReference tableReference = tablesByName.get(tableName((String) data.get("keyspace"),
+                            (String) data.get("table")));
+                    if (tableReference != null)
+                    {
+                        maxRepairedAt.put(tableReference, (Long) data.get("maxRepaired"));
+                    }
+                }
+            }
+            catch (JMException | IOException e)
+            {
+                LOG.error("Unable to get maxRepaired for all tables", e);
+            }
+            return maxRepairedAt;
+        }
+
         @Override
         public double getPercentRepaired(final TableReference tableReference)
         {
@@ -300,15 +549,11 @@ public class JmxProxyFactoryImpl implements JmxProxyFactory
                         .format("org.apache.cassandra.metrics:type=Table,keyspace=%s,scope=%s,name=PercentRepaired",
                                 tableReference.getKeyspace(), tableReference.getTable()));
 
-                double percentRepaired = (double) myMbeanServerConnection.getAttribute(objectName, "Value");
+                double percentRepaired = (double) execute("PercentRepaired",
+                        () -> myMbeanServerConnection.getAttribute(objectName, "Value"));
                 return percentRepaired;
             }
-            catch (AttributeNotFoundException
-                   | InstanceNotFoundException
-                   | MBeanException
-                   | ReflectionException
-                   | IOException
-                   | MalformedObjectNameException e)
+            catch (JMException | IOException e)
             {
                 LOG.error("Unable to retrieve disk space usage for {}", tableReference, e);
             }
@@ -320,13 +565,10 @@ public class JmxProxyFactoryImpl implements JmxProxyFactory
         {
             try
             {
-                return (String) myMbeanServerConnection.getAttribute(myStorageServiceObject, "OperationMode");
+                return (String) execute("OperationMode",
+                        () -> myMbeanServerConnection.getAttribute(myStorageServiceObject, "OperationMode"));
             }
-            catch (InstanceNotFoundException
-                   | AttributeNotFoundException
-                   | MBeanException
-                   | ReflectionException
-                   | IOException e)
+            catch (JMException | IOException e)
             {
                 LOG.error("Unable to retrieve node status {}", e.getMessage());
                 return "Unknown";
@@ -334,6 +576,11 @@ public class JmxProxyFactoryImpl implements JmxProxyFactory
         }
     }
 
+    private static String tableName(final String keyspace, final String table)
+    {
+        return keyspace + "." + table;
+    }
+
     public static Builder builder()
     {
         return new Builder();
@@ -342,6 +589,12 @@ public class JmxProxyFactoryImpl implements JmxProxyFactory
     public static class Builder
     {
         private JmxConnectionProvider myJmxConnectionProvider;
+        private MeterRegistry myMeterRegistry = new CompositeMeterRegistry();
+        private int myMaxConcurrentOperations = DEFAULT_MAX_CONCURRENT_OPERATIONS;
+        private long myOperationTimeoutInMs = DEFAULT_OPERATION_TIMEOUT_IN_MS;
+        private int myFailureThreshold = DEFAULT_FAILURE_THRESHOLD;
+        private long myOpenTimeInMs = DEFAULT_OPEN_TIME_IN_MS;
+        private Clock myClock = Clock.systemDefaultZone();
 
         /**
          * Build with JMX connection provider.
@@ -355,6 +608,73 @@ public class JmxProxyFactoryImpl implements JmxProxyFactory
             return this;
         }
 
+        /**
+         * Build with meter registry.
+         *
+         * @param meterRegistry The meter registry
+         * @return Builder
+         */
+        public Builder withMeterRegistry(final MeterRegistry meterRegistry)
+        {
+            myMeterRegistry = meterRegistry;
+            return this;
+        }
+
+        /**
+         * Build with the maximum number of MBean operations sent concurrently.
+         *
+         * @param maxConcurrentOperations The maximum number of concurrent operations
+         * @return Builder
+         */
+        public Builder withMaxConcurrentOperations(final int maxConcurrentOperations)
+        {
+            Preconditions.checkArgument(maxConcurrentOperations > 0, "Max concurrent operations must be positive");
+            myMaxConcurrentOperations = maxConcurrentOperations;
+            return this;
+        }
+
+        /**
+         * Build with the time to wait for the result of an MBean operation.
+         *
+         * @param timeout The timeout
+         * @param timeUnit The time unit of the timeout
+         * @return Builder
+         */
+        public Builder withOperationTimeout(final long timeout, final TimeUnit timeUnit)
+        {
+            myOperationTimeoutInMs = timeUnit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * Build with the circuit breaker settings.
+         *
+         * @param failureThreshold The number of consecutive failed operations opening the circuit
+         * @param openTime The time operations are rejected once the circuit is open
+         * @param timeUnit The time unit of the open time
+         * @return Builder
+         */
+        public Builder withCircuitBreaker(final int failureThreshold, final long openTime, final TimeUnit timeUnit)
+        {
+            Preconditions.checkArgument(failureThreshold > 0, "Failure threshold must be positive");
+            myFailureThreshold = failureThreshold;
+            myOpenTimeInMs = timeUnit.toMillis(openTime);
+            return this;
+        }
+
+        /**
+         * Build with the clock used by the circuit breaker.
+         *
+         * @param clock The clock
+         * @return Builder
+         */
+        @VisibleForTesting
+        Builder withClock(final Clock clock)
+        {
+            myClock = clock;
+            return this;
+        }
+
         /**
          * Build.
          *
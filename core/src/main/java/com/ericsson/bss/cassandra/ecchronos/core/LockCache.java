@@ -81,6 +81,18 @@ public final class LockCache
         }
     }
 
+    /**
+     * Cache a locking failure for a resource that was not locked through this cache.
+     *
+     * @param dataCenter The data center the lock is for or null if it's a global lock.
+     * @param resource The resource the lock is for.
+     * @param e The locking failure.
+     */
+    void cacheFailure(final String dataCenter, final String resource, final LockException e)
+    {
+        myFailureCache.put(new LockKey(dataCenter, resource), e);
+    }
+
     private void throwCachedLockException(final LockException e) throws LockException
     {
         LOG.debug("Encountered cached locking failure, throwing exception", e);
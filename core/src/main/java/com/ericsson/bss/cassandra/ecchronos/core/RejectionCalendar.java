@@ -0,0 +1,235 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An immutable, compiled snapshot of the reject configuration.
+ * <p>
+ * The time windows are stored as milliseconds of the day in primitive arrays, indexed by keyspace and table with
+ * separate indexes for the wildcard entries. A lookup checks all keyspaces and all tables first, then all keyspaces
+ * for the table and last the table itself. Within each entry the windows are checked in the order they were added
+ * and the first window that rejects decides the rejection time.
+ */
+final class RejectionCalendar
+{
+    static final String ANY = "*";
+    static final long NOT_REJECTED = -1L;
+
+    private static final long MILLIS_PER_SECOND = TimeUnit.SECONDS.toMillis(1);
+    private static final long MILLIS_PER_MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long MILLIS_PER_HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long MILLIS_PER_DAY = TimeUnit.DAYS.toMillis(1);
+    private static final int HOURS_PER_DAY = 24;
+    private static final int MINUTES_PER_HOUR = 60;
+
+    private final Windows myAllTables;
+    private final Map<String, Windows> myAllKeyspaces;
+    private final Map<String, Map<String, Windows>> myTables;
+    private final long myPauseTime;
+
+    private RejectionCalendar(final Builder builder)
+    {
+        myAllTables = builder.myAllTables;
+        myAllKeyspaces = builder.myAllKeyspaces;
+        myTables = builder.myTables;
+        myPauseTime = builder.myPauseTime;
+    }
+
+    /**
+     * Get the time the table is rejected for.
+     *
+     * @param keyspace The keyspace of the table.
+     * @param table The table.
+     * @param millisOfDay The current local time as milliseconds of the day.
+     * @return The time in milliseconds until the rejection ends or -1 if the table is not rejected.
+     */
+    long rejectionTime(final String keyspace, final String table, final long millisOfDay)
+    {
+        long rejectionTime = rejectionTime(myAllTables, millisOfDay);
+        if (rejectionTime == NOT_REJECTED)
+        {
+            rejectionTime = rejectionTime(myAllKeyspaces.get(table), millisOfDay);
+        }
+        if (rejectionTime == NOT_REJECTED)
+        {
+            Map<String, Windows> keyspaceTables = myTables.get(keyspace);
+            if (keyspaceTables != null)
+            {
+                rejectionTime = rejectionTime(keyspaceTables.get(table), millisOfDay);
+            }
+        }
+        return rejectionTime;
+    }
+
+    private long rejectionTime(final Windows windows, final long millisOfDay)
+    {
+        if (windows == null)
+        {
+            return NOT_REJECTED;
+        }
+        if (windows.myInvalid)
+        {
+            return myPauseTime;
+        }
+
+        for (int i = 0; i < windows.mySize; i++)
+        {
+            long start = windows.myStarts[i];
+            long end = windows.myEnds[i];
+
+            // 00:00->00:00 means that the repair scheduling is paused,
+            // so wait the pause time instead of until 00:00
+            if (start == 0 && end == 0)
+            {
+                return myPauseTime;
+            }
+
+            if (end < start)
+            {
+                if (millisOfDay < end)
+                {
+                    return end - millisOfDay;
+                }
+                else if (millisOfDay > start)
+                {
+                    return end + MILLIS_PER_DAY - millisOfDay;
+                }
+            }
+            else if (millisOfDay > start && millisOfDay < end)
+            {
+                return end - millisOfDay;
+            }
+        }
+
+        return NOT_REJECTED;
+    }
+
+    /**
+     * Get the local time of the clock as milliseconds of the day.
+     *
+     * @param clock The clock.
+     * @return The milliseconds since the start of the day in the time zone of the clock.
+     */
+    static long millisOfDay(final Clock clock)
+    {
+        Instant now = clock.instant();
+        long offsetInMs = clock.getZone().getRules().getOffset(now).getTotalSeconds() * MILLIS_PER_SECOND;
+        return Math.floorMod(now.toEpochMilli() + offsetInMs, MILLIS_PER_DAY);
+    }
+
+    static Builder newBuilder(final long pauseTime)
+    {
+        return new Builder(pauseTime);
+    }
+
+    static final class Builder
+    {
+        private final Windows myAllTables = new Windows();
+        private final Map<String, Windows> myAllKeyspaces = new HashMap<>();
+        private final Map<String, Map<String, Windows>> myTables = new HashMap<>();
+        private final long myPauseTime;
+
+        private Builder(final long pauseTime)
+        {
+            myPauseTime = pauseTime;
+        }
+
+        /**
+         * Add a rejection window, the windows of a table must be added in the order they should be checked.
+         *
+         * @param keyspace The keyspace or * for all keyspaces.
+         * @param table The table or * for all tables.
+         * @param startHour The start hour.
+         * @param startMinute The start minute.
+         * @param endHour The end hour.
+         * @param endMinute The end minute.
+         * @return True if the window is valid, an invalid window rejects the table for the pause time.
+         */
+        boolean add(final String keyspace, final String table, final int startHour, final int startMinute,
+                final int endHour, final int endMinute)
+        {
+            Windows windows = getWindows(keyspace, table);
+            if (windows == null)
+            {
+                // Only all keyspaces, all keyspaces for a table and a specific table are looked up
+                return true;
+            }
+
+            if (!isValid(startHour, startMinute) || !isValid(endHour, endMinute))
+            {
+                windows.myInvalid = true;
+                return false;
+            }
+
+            windows.add(startHour * MILLIS_PER_HOUR + startMinute * MILLIS_PER_MINUTE,
+                    endHour * MILLIS_PER_HOUR + endMinute * MILLIS_PER_MINUTE);
+            return true;
+        }
+
+        private Windows getWindows(final String keyspace, final String table)
+        {
+            if (ANY.equals(keyspace))
+            {
+                return ANY.equals(table) ? myAllTables : myAllKeyspaces.computeIfAbsent(table, t -> new Windows());
+            }
+            if (ANY.equals(table))
+            {
+                return null;
+            }
+            return myTables.computeIfAbsent(keyspace, k -> new HashMap<>()).computeIfAbsent(table,
+                    t -> new Windows());
+        }
+
+        private static boolean isValid(final int hour, final int minute)
+        {
+            return hour >= 0 && hour < HOURS_PER_DAY && minute >= 0 && minute < MINUTES_PER_HOUR;
+        }
+
+        RejectionCalendar build()
+        {
+            return new RejectionCalendar(this);
+        }
+    }
+
+    /**
+     * The rejection windows of one configuration entry.
+     */
+    private static final class Windows
+    {
+        private long[] myStarts = new long[1];
+        private long[] myEnds = new long[1];
+        private int mySize;
+        private boolean myInvalid;
+
+        void add(final long start, final long end)
+        {
+            if (mySize == myStarts.length)
+            {
+                myStarts = Arrays.copyOf(myStarts, mySize * 2);
+                myEnds = Arrays.copyOf(myEnds, mySize * 2);
+            }
+            myStarts[mySize] = start;
+            myEnds[mySize] = end;
+            mySize++;
+        }
+    }
+}
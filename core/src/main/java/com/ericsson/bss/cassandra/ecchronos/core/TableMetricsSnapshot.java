@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core;
+
+import java.util.Map;
+
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * The table metrics of the local node read together at one point in time.
+ * <p>
+ * Tables whose metrics could not be read are not part of the snapshot.
+ */
+public final class TableMetricsSnapshot
+{
+    public static final TableMetricsSnapshot EMPTY = new TableMetricsSnapshot(ImmutableMap.of(), ImmutableMap.of());
+
+    private final ImmutableMap<TableReference, Long> myLiveDiskSpaceUsed;
+    private final ImmutableMap<TableReference, Long> myMaxRepairedAt;
+
+    public TableMetricsSnapshot(final Map<TableReference, Long> liveDiskSpaceUsed,
+                                final Map<TableReference, Long> maxRepairedAt)
+    {
+        myLiveDiskSpaceUsed = ImmutableMap.copyOf(liveDiskSpaceUsed);
+        myMaxRepairedAt = ImmutableMap.copyOf(maxRepairedAt);
+    }
+
+    /**
+     * Get the live disk space used by a table.
+     *
+     * @param tableReference The table.
+     * @return The live disk space used or 0 if it is not part of the snapshot.
+     */
+    public long getLiveDiskSpaceUsed(final TableReference tableReference)
+    {
+        return myLiveDiskSpaceUsed.getOrDefault(tableReference, 0L);
+    }
+
+    /**
+     * Get the live disk space used by all tables in the snapshot.
+     *
+     * @return The total live disk space used.
+     */
+    public long getLiveDiskSpaceUsed()
+    {
+        return myLiveDiskSpaceUsed.values().stream().mapToLong(e -> e).sum();
+    }
+
+    /**
+     * Check if max repaired at of a table is part of the snapshot.
+     *
+     * @param tableReference The table.
+     * @return True if max repaired at is known for the table.
+     */
+    public boolean hasMaxRepairedAt(final TableReference tableReference)
+    {
+        return myMaxRepairedAt.containsKey(tableReference);
+    }
+
+    /**
+     * Get max repaired at for a table.
+     *
+     * @param tableReference The table.
+     * @return Max repaired at or 0 if it is not part of the snapshot.
+     */
+    public long getMaxRepairedAt(final TableReference tableReference)
+    {
+        return myMaxRepairedAt.getOrDefault(tableReference, 0L);
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("TableMetricsSnapshot(tables=%d)", myLiveDiskSpaceUsed.size());
+    }
+}
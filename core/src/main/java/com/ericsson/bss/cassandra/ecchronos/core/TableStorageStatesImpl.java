@@ -16,8 +16,6 @@ package com.ericsson.bss.cassandra.ecchronos.core;
 
 import java.io.Closeable;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -30,15 +28,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.ImmutableMap;
 
+/**
+ * Keeps the table metrics of the local node updated.
+ * <p>
+ * The metrics of all replicated tables are read together into a snapshot which is also used by
+ * {@link CassandraMetrics} to avoid reading the same metrics once per table.
+ */
 public final class TableStorageStatesImpl implements TableStorageStates, Closeable
 {
     private static final Logger LOG = LoggerFactory.getLogger(TableStorageStatesImpl.class);
 
     private static final long DEFAULT_UPDATE_DELAY_IN_MS = TimeUnit.SECONDS.toMillis(60);
 
-    private final AtomicReference<ImmutableMap<TableReference, Long>> myTableSizes = new AtomicReference<>();
+    private final AtomicReference<TableMetricsSnapshot> myTableMetrics = new AtomicReference<>();
     private final ScheduledExecutorService myScheduledExecutorService;
 
     private final ReplicatedTableProvider myReplicatedTableProvider;
@@ -60,27 +63,24 @@ public final class TableStorageStatesImpl implements TableStorageStates, Closeab
     @Override
     public long getDataSize(final TableReference tableReference)
     {
-        ImmutableMap<TableReference, Long> dataSizes = myTableSizes.get();
-
-        if (dataSizes != null && dataSizes.containsKey(tableReference))
-        {
-            return dataSizes.get(tableReference);
-        }
-
-        return 0;
+        return getTableMetrics().getLiveDiskSpaceUsed(tableReference);
     }
 
     @Override
     public long getDataSize()
     {
-        ImmutableMap<TableReference, Long> dataSizes = myTableSizes.get();
-
-        if (dataSizes != null)
-        {
-            return dataSizes.values().stream().mapToLong(e -> e).sum();
-        }
+        return getTableMetrics().getLiveDiskSpaceUsed();
+    }
 
-        return 0;
+    /**
+     * Get the latest snapshot of the table metrics.
+     *
+     * @return The snapshot or an empty snapshot if the metrics have not been read yet.
+     */
+    public TableMetricsSnapshot getTableMetrics()
+    {
+        TableMetricsSnapshot tableMetrics = myTableMetrics.get();
+        return tableMetrics != null ? tableMetrics : TableMetricsSnapshot.EMPTY;
     }
 
     @Override
@@ -88,7 +88,7 @@ public final class TableStorageStatesImpl implements TableStorageStates, Closeab
     {
         myScheduledExecutorService.shutdown();
 
-        myTableSizes.set(null);
+        myTableMetrics.set(null);
     }
 
     public static Builder builder()
@@ -151,7 +151,7 @@ public final class TableStorageStatesImpl implements TableStorageStates, Closeab
         {
             try (JmxProxy jmxProxy = myJmxProxyFactory.connect())
             {
-                myTableSizes.set(getTableSizes(jmxProxy));
+                myTableMetrics.set(readTableMetrics(jmxProxy));
             }
             catch (IOException e)
             {
@@ -160,21 +160,15 @@ public final class TableStorageStatesImpl implements TableStorageStates, Closeab
         }
     }
 
-    private ImmutableMap<TableReference, Long> getTableSizes(final JmxProxy jmxProxy)
+    private TableMetricsSnapshot readTableMetrics(final JmxProxy jmxProxy)
     {
-        Map<TableReference, Long> dataSizes = new HashMap<>();
-
-        if (myReplicatedTableProvider != null)
+        if (myReplicatedTableProvider == null)
         {
-            for (TableReference tableReference : myReplicatedTableProvider.getAll())
-            {
-                long diskSpaceUsed = jmxProxy.liveDiskSpaceUsed(tableReference);
-
-                LOG.debug("{} -> {}", tableReference, diskSpaceUsed);
-                dataSizes.put(tableReference, diskSpaceUsed);
-            }
+            return TableMetricsSnapshot.EMPTY;
         }
 
-        return ImmutableMap.copyOf(dataSizes);
+        TableMetricsSnapshot tableMetrics = jmxProxy.getTableMetrics(myReplicatedTableProvider.getAll());
+        LOG.debug("Updated {}", tableMetrics);
+        return tableMetrics;
     }
 }
@@ -27,25 +27,18 @@ import com.ericsson.bss.cassandra.ecchronos.core.repair.TableRepairPolicy;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.RunPolicy;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.ScheduledJob;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Closeable;
 import java.time.Clock;
-import java.time.Duration;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
-import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.bindMarker;
-
 /**
  * Time based run policy.
  *
@@ -60,6 +53,9 @@ import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.bindMarker;
  * end_hour int,
  * end_minute int,
  * PRIMARY KEY(keyspace_name, table_name, start_hour, start_minute));
+ *
+ * The whole table is read in one scan and compiled into a {@link RejectionCalendar} which is refreshed in the
+ * background, so validating a job does not read from the table.
  */
 public class TimeBasedRunPolicy implements TableRepairPolicy, RunPolicy, Closeable
 {
@@ -75,7 +71,9 @@ public class TimeBasedRunPolicy implements TableRepairPolicy, RunPolicy, Closeab
     private final StatementDecorator myStatementDecorator;
     private final CqlSession mySession;
     private final Clock myClock;
-    private final LoadingCache<TableKey, TimeRejectionCollection> myTimeRejectionCache;
+    private final ScheduledExecutorService myExecutor;
+
+    private volatile RejectionCalendar myRejectionCalendar;
 
     public TimeBasedRunPolicy(final Builder builder)
     {
@@ -86,31 +84,45 @@ public class TimeBasedRunPolicy implements TableRepairPolicy, RunPolicy, Closeab
         myGetRejectionsStatement = mySession.prepare(
                 QueryBuilder.selectFrom(builder.myKeyspaceName, TABLE_REJECT_CONFIGURATION)
                 .all()
-                .whereColumn("keyspace_name")
-                .isEqualTo(bindMarker())
-                .whereColumn("table_name").isEqualTo(bindMarker())
                 .build());
 
-        myTimeRejectionCache = createConfigCache(builder.myCacheExpireTime);
+        myExecutor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("RejectionCalendarRefresher-%d").setDaemon(true).build());
+        myExecutor.scheduleWithFixedDelay(this::refresh, builder.myCacheExpireTime, builder.myCacheExpireTime,
+                TimeUnit.MILLISECONDS);
     }
 
-    private LoadingCache<TableKey, TimeRejectionCollection> createConfigCache(final long expireAfter)
+    private void refresh()
     {
-        return Caffeine.newBuilder()
-                .expireAfterWrite(expireAfter, TimeUnit.MILLISECONDS)
-                .executor(Runnable::run)
-                .build(key -> load(key));
+        try
+        {
+            myRejectionCalendar = load();
+        }
+        catch (Exception e)
+        {
+            LOG.warn("Unable to refresh rejection configuration", e);
+            myRejectionCalendar = null;
+        }
     }
 
-    private TimeRejectionCollection load(final TableKey key)
+    private RejectionCalendar load()
     {
-        Statement decoratedStatement =
-                myStatementDecorator.apply(myGetRejectionsStatement.bind(key.getKeyspace(),
-                        key.getTable()));
-
+        Statement decoratedStatement = myStatementDecorator.apply(myGetRejectionsStatement.bind());
         ResultSet resultSet = mySession.execute(decoratedStatement);
-        Iterator<Row> iterator = resultSet.iterator();
-        return new TimeRejectionCollection(iterator);
+
+        RejectionCalendar.Builder builder = RejectionCalendar.newBuilder(DEFAULT_REJECT_TIME);
+        for (Row row : resultSet)
+        {
+            String keyspace = row.getString("keyspace_name");
+            String table = row.getString("table_name");
+            if (!builder.add(keyspace, table, row.getInt("start_hour"), row.getInt("start_minute"),
+                    row.getInt("end_hour"), row.getInt("end_minute")))
+            {
+                LOG.warn("Invalid rejection time for {}.{}, repairs are rejected until it is corrected",
+                        keyspace, table);
+            }
+        }
+        return builder.build();
     }
 
     @Override
@@ -135,8 +147,8 @@ public class TimeBasedRunPolicy implements TableRepairPolicy, RunPolicy, Closeab
     @Override
     public final void close()
     {
-        myTimeRejectionCache.invalidateAll();
-        myTimeRejectionCache.cleanUp();
+        myExecutor.shutdownNow();
+        myRejectionCalendar = null;
     }
 
     public static Builder builder()
@@ -225,182 +237,27 @@ public class TimeBasedRunPolicy implements TableRepairPolicy, RunPolicy, Closeab
     @VisibleForTesting
     void clearCache()
     {
-        myTimeRejectionCache.invalidateAll();
-    }
-
-    class TimeRejectionCollection
-    {
-        private final List<TimeRejection> myRejections = new ArrayList<>();
-
-        TimeRejectionCollection(final Iterator<Row> iterator)
-        {
-            while (iterator.hasNext())
-            {
-                Row row = iterator.next();
-                myRejections.add(new TimeRejection(row));
-            }
-        }
-
-        public long rejectionTime()
-        {
-            for (TimeRejection rejection : myRejections)
-            {
-                long rejectionTime = rejection.rejectionTime();
-
-                if (rejectionTime != -1L)
-                {
-                    return rejectionTime;
-                }
-            }
-
-            return -1L;
-        }
-    }
-
-    class TimeRejection
-    {
-        private final LocalDateTime myStart;
-        private final LocalDateTime myEnd;
-
-        TimeRejection(final Row row)
-        {
-            myStart = toDateTime(row.getInt("start_hour"), row.getInt("start_minute"));
-            myEnd = toDateTime(row.getInt("end_hour"), row.getInt("end_minute"));
-        }
-
-        public long rejectionTime()
-        {
-            // 00:00->00:00 means that we pause the repair scheduling,
-            // so wait DEFAULT_REJECT_TIME instead of until 00:00
-            if (myStart.getHour() == 0
-                    && myStart.getMinute() == 0
-                    && myEnd.getHour() == 0
-                    && myEnd.getMinute() == 0)
-            {
-                return DEFAULT_REJECT_TIME;
-            }
-
-            return calculateRejectTime();
-        }
-
-        private long calculateRejectTime()
-        {
-            LocalDateTime now = LocalDateTime.now(myClock);
-
-            if (isWraparound())
-            {
-                if (now.isBefore(myEnd))
-                {
-                    return Duration.between(now, myEnd).toMillis();
-                }
-                else if (now.isAfter(myStart))
-                {
-                    return Duration.between(now, myEnd.plusDays(1)).toMillis();
-                }
-            }
-            else if (now.isAfter(myStart) && now.isBefore(myEnd))
-            {
-                return Duration.between(now, myEnd).toMillis();
-            }
-
-            return -1L;
-        }
-
-        private boolean isWraparound()
-        {
-            return myEnd.isBefore(myStart);
-        }
-
-        private LocalDateTime toDateTime(final int h, final int m)
-        {
-            return LocalDateTime.now(myClock)
-                    .withHour(h)
-                    .withMinute(m)
-                    .withSecond(0);
-        }
+        myRejectionCalendar = null;
     }
 
     private long getRejectionsForTable(final TableReference tableReference)
     {
-        long rejectTime = -1L;
         try
         {
-            TableKey[] tableKeys = new TableKey[]
-                    {
-                            allKeyspaces(),
-                            allKeyspaces(tableReference.getTable()),
-                            forTable(tableReference)
-                    };
-
-            for (int i = 0; i < tableKeys.length && rejectTime == -1L; i++)
+            RejectionCalendar rejectionCalendar = myRejectionCalendar;
+            if (rejectionCalendar == null)
             {
-                rejectTime = myTimeRejectionCache.get(tableKeys[i]).rejectionTime();
+                rejectionCalendar = load();
+                myRejectionCalendar = rejectionCalendar;
             }
+
+            return rejectionCalendar.rejectionTime(tableReference.getKeyspace(), tableReference.getTable(),
+                    RejectionCalendar.millisOfDay(myClock));
         }
         catch (Exception e)
         {
             LOG.warn("Unable to parse/fetch rejection time for {}", tableReference, e);
-            rejectTime = DEFAULT_REJECT_TIME;
-        }
-
-        return rejectTime;
-    }
-
-    private TableKey allKeyspaces()
-    {
-        return new TableKey("*", "*");
-    }
-
-    private TableKey allKeyspaces(final String table)
-    {
-        return new TableKey("*", table);
-    }
-
-    private TableKey forTable(final TableReference tableReference)
-    {
-        return new TableKey(tableReference.getKeyspace(), tableReference.getTable());
-    }
-
-    static class TableKey
-    {
-        private final String keyspace;
-        private final String table;
-
-        TableKey(final String aKeyspace, final String aTable)
-        {
-            this.keyspace = aKeyspace;
-            this.table = aTable;
-        }
-
-        String getKeyspace()
-        {
-            return keyspace;
-        }
-
-        String getTable()
-        {
-            return table;
-        }
-
-        @Override
-        public boolean equals(final Object o)
-        {
-            if (this == o)
-            {
-                return true;
-            }
-            if (o == null || getClass() != o.getClass())
-            {
-                return false;
-            }
-            TableKey tableKey = (TableKey) o;
-            return keyspace.equals(tableKey.keyspace) && table.equals(tableKey.table);
-        }
-
-        @Override
-        public int hashCode()
-        {
-            return Objects.hash(keyspace, table);
+            return DEFAULT_REJECT_TIME;
         }
     }
 }
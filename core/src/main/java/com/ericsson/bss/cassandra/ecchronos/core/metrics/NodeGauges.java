@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.metrics;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holder class for the node level repair metrics aggregated over the gauges of all tables.
+ * <p>
+ * The aggregates are updated with the change of each table update so that reading them does not iterate the tables.
+ * Sums are kept in striped adders, the repair ratio sum is kept in fixed point so that adding and removing the same
+ * ratio many times does not drift.
+ * The lowest last repaired at is lowered directly, if the table holding it is repaired the lowest last repaired at
+ * is recalculated once on the next read.
+ */
+final class NodeGauges
+{
+    private static final int RATIO_FRACTION_BITS = 40;
+    private static final double RATIO_SCALE = 1L << RATIO_FRACTION_BITS;
+
+    private final Collection<TableGauges> myTableGauges;
+    private final LongAdder myScaledRepairRatioSum = new LongAdder();
+    private final LongAdder myRemainingRepairTimeSum = new LongAdder();
+
+    private final Object myLastRepairedAtLock = new Object();
+    private long myMinLastRepairedAt = Long.MAX_VALUE;
+    private boolean myMinLastRepairedAtIsStale;
+
+    /**
+     * Create node gauges for a live view of the table gauges.
+     *
+     * @param tableGauges The gauges of all tables, used to recalculate the lowest last repaired at.
+     */
+    NodeGauges(final Collection<TableGauges> tableGauges)
+    {
+        myTableGauges = tableGauges;
+    }
+
+    /**
+     * Include a newly created table gauge.
+     *
+     * @param tableGauges The table gauges.
+     */
+    void tableAdded(final TableGauges tableGauges)
+    {
+        repairRatioChanged(0.0, tableGauges.getRepairRatio());
+        remainingRepairTimeChanged(0L, tableGauges.getRemainingRepairTime());
+        synchronized (myLastRepairedAtLock)
+        {
+            myMinLastRepairedAt = Math.min(myMinLastRepairedAt, tableGauges.getLastRepairedAt());
+        }
+    }
+
+    void repairRatioChanged(final double previous, final double current)
+    {
+        myScaledRepairRatioSum.add(Math.round(current * RATIO_SCALE) - Math.round(previous * RATIO_SCALE));
+    }
+
+    void remainingRepairTimeChanged(final long previous, final long current)
+    {
+        myRemainingRepairTimeSum.add(current - previous);
+    }
+
+    void lastRepairedAtChanged(final long previous, final long current)
+    {
+        synchronized (myLastRepairedAtLock)
+        {
+            if (current < myMinLastRepairedAt)
+            {
+                myMinLastRepairedAt = current;
+            }
+            else if (current > previous && previous == myMinLastRepairedAt)
+            {
+                myMinLastRepairedAtIsStale = true;
+            }
+        }
+    }
+
+    /**
+     * Get the average repair ratio of all tables.
+     *
+     * @param tables The number of tables.
+     * @return The average repair ratio or 0 if there are no tables.
+     */
+    double getRepairRatio(final int tables)
+    {
+        if (tables == 0)
+        {
+            return 0.0;
+        }
+        return myScaledRepairRatioSum.sum() / RATIO_SCALE / tables;
+    }
+
+    /**
+     * Get the total remaining repair time of all tables.
+     *
+     * @return The remaining repair time.
+     */
+    long getRemainingRepairTime()
+    {
+        return myRemainingRepairTimeSum.sum();
+    }
+
+    /**
+     * Get the lowest last repaired at of all tables.
+     *
+     * @return The lowest last repaired at or 0 if there are no tables.
+     */
+    long getMinLastRepairedAt()
+    {
+        synchronized (myLastRepairedAtLock)
+        {
+            if (myMinLastRepairedAtIsStale)
+            {
+                myMinLastRepairedAt = Long.MAX_VALUE;
+                for (TableGauges tableGauges : myTableGauges)
+                {
+                    myMinLastRepairedAt = Math.min(myMinLastRepairedAt, tableGauges.getLastRepairedAt());
+                }
+                myMinLastRepairedAtIsStale = false;
+            }
+            return myMinLastRepairedAt == Long.MAX_VALUE ? 0L : myMinLastRepairedAt;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.metrics;
+
+import com.ericsson.bss.cassandra.ecchronos.core.utils.StatusLogger;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Detects when the number of failed repair sessions within a sliding time window exceeds a threshold.
+ * <p>
+ * Failures are counted per table and for the node as they are reported. When the number of failures within the
+ * window goes above the threshold the breach is reported once, it is reported again only after the number of
+ * failures has been within the threshold. A breach for the node logs the node status using {@link StatusLogger}.
+ */
+public final class RepairFailureDetector
+{
+    private static final Logger LOG = LoggerFactory.getLogger(RepairFailureDetector.class);
+
+    private static final String KEYSPACE_TAG = "keyspace";
+    private static final String TABLE_TAG = "table";
+
+    static final String REPAIR_FAILURES_IN_WINDOW = "repair.failures.in.window";
+    static final String NODE_REPAIR_FAILURES_IN_WINDOW = "node.repair.failures.in.window";
+
+    private final ConcurrentHashMap<TableReference, FailureWindow> myTableWindows = new ConcurrentHashMap<>();
+    private final FailureWindow myNodeWindow;
+    private final MeterRegistry myMeterRegistry;
+    private final int myFailureThreshold;
+    private final long myTimeWindowInMs;
+    private final Clock myClock;
+
+    private RepairFailureDetector(final Builder builder)
+    {
+        myMeterRegistry = Preconditions.checkNotNull(builder.myMeterRegistry, "Meter registry cannot be null");
+        Preconditions.checkArgument(builder.myFailureThreshold >= 0, "Failure threshold cannot be negative");
+        myFailureThreshold = builder.myFailureThreshold;
+        myTimeWindowInMs = builder.myTimeWindowInMs;
+        myClock = builder.myClock;
+        myNodeWindow = newWindow();
+
+        Gauge.builder(NODE_REPAIR_FAILURES_IN_WINDOW, this, RepairFailureDetector::getNodeFailures)
+                .register(myMeterRegistry);
+    }
+
+    /**
+     * Report a failed repair session.
+     *
+     * @param tableReference The table the repair session was performed on.
+     */
+    public void repairFailed(final TableReference tableReference)
+    {
+        long now = myClock.millis();
+
+        FailureWindow tableWindow = myTableWindows.get(tableReference);
+        if (tableWindow == null)
+        {
+            tableWindow = myTableWindows.computeIfAbsent(tableReference, this::newTableWindow);
+        }
+
+        if (tableWindow.failed(now))
+        {
+            LOG.debug("Repair failures for {} above threshold, {} failures within the last {} ms",
+                    tableReference, tableWindow.count(now), myTimeWindowInMs);
+        }
+        if (myNodeWindow.failed(now))
+        {
+            StatusLogger.log(myMeterRegistry);
+        }
+    }
+
+    /**
+     * Get the number of failed repair sessions for the node within the time window.
+     *
+     * @return The number of failures.
+     */
+    public long getNodeFailures()
+    {
+        return myNodeWindow.count(myClock.millis());
+    }
+
+    /**
+     * Get the number of failed repair sessions within the time window for each table that has had a failure.
+     *
+     * @return The number of failures per table.
+     */
+    public Map<TableReference, Long> getTableFailures()
+    {
+        long now = myClock.millis();
+        Map<TableReference, Long> tableFailures = new HashMap<>();
+        for (Map.Entry<TableReference, FailureWindow> entry : myTableWindows.entrySet())
+        {
+            tableFailures.put(entry.getKey(), entry.getValue().count(now));
+        }
+        return tableFailures;
+    }
+
+    public int getFailureThreshold()
+    {
+        return myFailureThreshold;
+    }
+
+    public long getTimeWindow(final TimeUnit timeUnit)
+    {
+        return timeUnit.convert(myTimeWindowInMs, TimeUnit.MILLISECONDS);
+    }
+
+    private FailureWindow newWindow()
+    {
+        return new FailureWindow(new SlidingWindowCounter(myTimeWindowInMs, SlidingWindowCounter.DEFAULT_BUCKETS,
+                myClock.millis()), myFailureThreshold);
+    }
+
+    private FailureWindow newTableWindow(final TableReference tableReference)
+    {
+        FailureWindow window = newWindow();
+        Gauge.builder(REPAIR_FAILURES_IN_WINDOW, window, (w) -> w.count(myClock.millis()))
+                .tags(KEYSPACE_TAG, tableReference.getKeyspace(), TABLE_TAG, tableReference.getTable())
+                .register(myMeterRegistry);
+        return window;
+    }
+
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    public static class Builder
+    {
+        private static final int DEFAULT_TIME_WINDOW_IN_MINUTES = 30;
+        private static final int DEFAULT_FAILURE_THRESHOLD = 5;
+
+        private MeterRegistry myMeterRegistry;
+        private int myFailureThreshold = DEFAULT_FAILURE_THRESHOLD;
+        private long myTimeWindowInMs = TimeUnit.MINUTES.toMillis(DEFAULT_TIME_WINDOW_IN_MINUTES);
+        private Clock myClock = Clock.systemDefaultZone();
+
+        /**
+         * Build with meter registry.
+         *
+         * @param meterRegistry meter registry to register the failure metrics towards
+         * @return Builder
+         */
+        public Builder withMeterRegistry(final MeterRegistry meterRegistry)
+        {
+            myMeterRegistry = meterRegistry;
+            return this;
+        }
+
+        /**
+         * Build with failure threshold.
+         *
+         * @param failureThreshold The number of failures within the time window that is tolerated
+         * @return Builder
+         */
+        public Builder withFailureThreshold(final int failureThreshold)
+        {
+            myFailureThreshold = failureThreshold;
+            return this;
+        }
+
+        /**
+         * Build with time window.
+         *
+         * @param timeWindow The length of the sliding time window
+         * @param timeUnit The time unit of the time window
+         * @return Builder
+         */
+        public Builder withTimeWindow(final long timeWindow, final TimeUnit timeUnit)
+        {
+            myTimeWindowInMs = timeUnit.toMillis(timeWindow);
+            return this;
+        }
+
+        /**
+         * Build with clock.
+         *
+         * @param clock The clock used to get the time of failures
+         * @return Builder
+         */
+        @VisibleForTesting
+        Builder withClock(final Clock clock)
+        {
+            myClock = clock;
+            return this;
+        }
+
+        /**
+         * Build repair failure detector.
+         *
+         * @return RepairFailureDetector
+         */
+        public RepairFailureDetector build()
+        {
+            return new RepairFailureDetector(this);
+        }
+    }
+
+    /**
+     * A sliding window of failures that remembers if it is above the threshold to report a breach only once.
+     */
+    private static final class FailureWindow
+    {
+        private final SlidingWindowCounter myCounter;
+        private final int myThreshold;
+        private final AtomicBoolean myAboveThreshold = new AtomicBoolean();
+
+        FailureWindow(final SlidingWindowCounter counter, final int threshold)
+        {
+            myCounter = counter;
+            myThreshold = threshold;
+        }
+
+        /**
+         * Count a failure.
+         *
+         * @return True if this failure took the window above the threshold.
+         */
+        boolean failed(final long now)
+        {
+            // Failures might have left the window since the last failure
+            count(now);
+            if (myCounter.increment(now) > myThreshold)
+            {
+                return myAboveThreshold.compareAndSet(false, true);
+            }
+            return false;
+        }
+
+        /**
+         * Get the number of failures within the window, a breach is reported again once the number of failures is
+         * back within the threshold.
+         *
+         * @return The number of failures.
+         */
+        long count(final long now)
+        {
+            long failures = myCounter.count(now);
+            if (failures <= myThreshold)
+            {
+                myAboveThreshold.set(false);
+            }
+            return failures;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.metrics;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock free count of events within a sliding time window.
+ * <p>
+ * The window is split into a ring of buckets. Each bucket holds its count together with the bucket number it was last
+ * written for, packed into a single long so that a bucket is moved to a new lap around the ring with one
+ * compare-and-set. Buckets written for an earlier lap are treated as empty.
+ * <p>
+ * The window slides one bucket at a time, so the count can include events up to one bucket older than the window.
+ */
+final class SlidingWindowCounter
+{
+    static final int DEFAULT_BUCKETS = 60;
+
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray myBuckets;
+    private final long myBucketSizeInMs;
+    private final long myStartTime;
+
+    SlidingWindowCounter(final long windowInMs, final int buckets, final long startTime)
+    {
+        Preconditions.checkArgument(buckets > 0, "Number of buckets must be positive");
+        Preconditions.checkArgument(windowInMs >= buckets, "Window must be at least one millisecond per bucket");
+        myBuckets = new AtomicLongArray(buckets);
+        myBucketSizeInMs = windowInMs / buckets;
+        myStartTime = startTime;
+    }
+
+    /**
+     * Count an event.
+     *
+     * @param now The time of the event in milliseconds.
+     * @return The number of events within the window ending at the provided time, including this event.
+     */
+    long increment(final long now)
+    {
+        long bucket = bucketOf(now);
+        int index = (int) (bucket % myBuckets.length());
+
+        while (true)
+        {
+            long current = myBuckets.get(index);
+            long next;
+            if ((current >>> COUNT_BITS) >= bucket)
+            {
+                if ((current & COUNT_MASK) == COUNT_MASK)
+                {
+                    break;
+                }
+                next = current + 1;
+            }
+            else
+            {
+                next = (bucket << COUNT_BITS) | 1;
+            }
+
+            if (myBuckets.compareAndSet(index, current, next))
+            {
+                break;
+            }
+        }
+
+        return count(now);
+    }
+
+    /**
+     * Get the number of events within the window ending at the provided time.
+     *
+     * @param now The end of the window in milliseconds.
+     * @return The number of events.
+     */
+    long count(final long now)
+    {
+        long oldestBucket = bucketOf(now) - myBuckets.length() + 1;
+        long count = 0;
+        for (int i = 0; i < myBuckets.length(); i++)
+        {
+            long current = myBuckets.get(i);
+            if ((current >>> COUNT_BITS) >= oldestBucket)
+            {
+                count += current & COUNT_MASK;
+            }
+        }
+        return count;
+    }
+
+    private long bucketOf(final long now)
+    {
+        return Math.max(0, now - myStartTime) / myBucketSizeInMs;
+    }
+}
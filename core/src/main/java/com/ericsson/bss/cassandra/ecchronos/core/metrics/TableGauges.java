@@ -15,32 +15,55 @@
 package com.ericsson.bss.cassandra.ecchronos.core.metrics;
 
 import java.io.Closeable;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Holder class for repair metrics gauges for a specific table.
  */
 public class TableGauges implements Closeable
 {
-    private final AtomicReference<Double> myRepairRatio = new AtomicReference<>(0.0);
-    private final AtomicReference<Long> myLastRepairedAt = new AtomicReference<>(0L);
-    private final AtomicReference<Long> myRemainingRepairTime = new AtomicReference<>(0L);
+    private final AtomicLong myRepairRatioBits = new AtomicLong(Double.doubleToLongBits(0.0));
+    private final AtomicLong myLastRepairedAt = new AtomicLong(0L);
+    private final AtomicLong myRemainingRepairTime = new AtomicLong(0L);
 
     /**
      * Update repair ratio.
      *
      * @param repairedRanges Ranges repaired
      * @param notRepairedRanges Ranges NOT repaired
+     * @return The previous repair ratio
      */
-    void repairRatio(final int repairedRanges, final int notRepairedRanges)
+    double repairRatio(final int repairedRanges, final int notRepairedRanges)
+    {
+        return repairRatio(toRepairRatio(repairedRanges, notRepairedRanges));
+    }
+
+    /**
+     * Update repair ratio.
+     *
+     * @param repairRatio The repair ratio
+     * @return The previous repair ratio
+     */
+    double repairRatio(final double repairRatio)
+    {
+        return Double.longBitsToDouble(myRepairRatioBits.getAndSet(Double.doubleToLongBits(repairRatio)));
+    }
+
+    /**
+     * Calculate the repair ratio of ranges.
+     *
+     * @param repairedRanges Ranges repaired
+     * @param notRepairedRanges Ranges NOT repaired
+     * @return The ratio of repaired ranges
+     */
+    static double toRepairRatio(final int repairedRanges, final int notRepairedRanges)
     {
-        double repairRatio = 0.0;
         int allRanges = repairedRanges + notRepairedRanges;
         if (allRanges > 0)
         {
-            repairRatio = (double) repairedRanges / (repairedRanges + notRepairedRanges);
+            return (double) repairedRanges / allRanges;
         }
-        myRepairRatio.set(repairRatio);
+        return 0.0;
     }
 
     /**
@@ -50,17 +73,18 @@ public class TableGauges implements Closeable
      */
     Double getRepairRatio()
     {
-        return myRepairRatio.get();
+        return Double.longBitsToDouble(myRepairRatioBits.get());
     }
 
     /**
      * Update last repaired at.
      *
      * @param lastRepairedAt Last repaired at
+     * @return The previous last repaired at
      */
-    void lastRepairedAt(final long lastRepairedAt)
+    long lastRepairedAt(final long lastRepairedAt)
     {
-        myLastRepairedAt.set(lastRepairedAt);
+        return myLastRepairedAt.getAndSet(lastRepairedAt);
     }
 
     /**
@@ -77,10 +101,11 @@ public class TableGauges implements Closeable
      * Update remaining repair time.
      *
      * @param remainingRepairTime Remaining repair time
+     * @return The previous remaining repair time
      */
-    public void remainingRepairTime(final long remainingRepairTime)
+    public long remainingRepairTime(final long remainingRepairTime)
     {
-        myRemainingRepairTime.set(remainingRepairTime);
+        return myRemainingRepairTime.getAndSet(remainingRepairTime);
     }
 
     /**
@@ -18,12 +18,17 @@ import com.ericsson.bss.cassandra.ecchronos.core.TableStorageStates;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterators;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.TimeGauge;
 import io.micrometer.core.instrument.Timer;
 
 import java.io.Closeable;
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
@@ -32,6 +37,7 @@ public final class TableRepairMetricsImpl implements TableRepairMetrics, TableRe
 {
     private static final String KEYSPACE_TAG = "keyspace";
     private static final String TABLE_TAG = "table";
+    private static final String SUCCESSFUL_TAG = "successful";
 
     static final String REPAIRED_RATIO = "repaired.ratio";
     static final String TIME_SINCE_LAST_REPAIRED = "time.since.last.repaired";
@@ -51,15 +57,24 @@ public final class TableRepairMetricsImpl implements TableRepairMetrics, TableRe
     @VisibleForTesting
     static Clock clock = () -> System.currentTimeMillis();
 
-    private final ConcurrentHashMap<TableReference, TableGauges> myTableGauges = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<TableReference, TableMeters> myTableMeters = new ConcurrentHashMap<>();
+    private final NodeGauges myNodeGauges = new NodeGauges(new TableGaugesView(myTableMeters));
     private final TableStorageStates myTableStorageStates;
     private final MeterRegistry myMeterRegistry;
+    private final RepairFailureDetector myRepairFailureDetector;
+
+    private volatile boolean myNodeRepairedRatioRegistered;
+    private volatile boolean myNodeTimeSinceLastRepairedRegistered;
+    private volatile boolean myNodeRemainingRepairTimeRegistered;
+    private volatile Timer myNodeSuccessfulRepairSessions;
+    private volatile Timer myNodeFailedRepairSessions;
 
     private TableRepairMetricsImpl(final Builder builder)
     {
         myTableStorageStates = Preconditions.checkNotNull(builder.myTableStorageStates,
                 "Table storage states cannot be null");
         myMeterRegistry = Preconditions.checkNotNull(builder.myMeterRegistry, "Meter registry cannot be null");
+        myRepairFailureDetector = builder.myRepairFailureDetector;
     }
 
     @Override
@@ -67,56 +82,89 @@ public final class TableRepairMetricsImpl implements TableRepairMetrics, TableRe
                             final int repairedRanges,
                             final int notRepairedRanges)
     {
-        createOrGetTableGauges(tableReference).repairRatio(repairedRanges, notRepairedRanges);
-        Gauge.builder(REPAIRED_RATIO, myTableGauges,
-                        (tableGauges) -> tableGauges.get(tableReference).getRepairRatio())
-                .tags(KEYSPACE_TAG, tableReference.getKeyspace(), TABLE_TAG, tableReference.getTable())
-                .register(myMeterRegistry);
-        Gauge.builder(NODE_REPAIRED_RATIO, myTableGauges,
-                        (tableGauges) -> tableGauges.values().stream().mapToDouble(TableGauges::getRepairRatio)
-                                .average().orElse(0))
-                .register(myMeterRegistry);
+        TableMeters tableMeters = createOrGetTableMeters(tableReference);
+        TableGauges tableGauges = tableMeters.myTableGauges;
+        double repairRatio = TableGauges.toRepairRatio(repairedRanges, notRepairedRanges);
+        double previous = tableGauges.repairRatio(repairRatio);
+        myNodeGauges.repairRatioChanged(previous, repairRatio);
+
+        if (!tableMeters.myRepairedRatioRegistered)
+        {
+            Gauge.builder(REPAIRED_RATIO, tableGauges, TableGauges::getRepairRatio)
+                    .tags(tableMeters.myTags)
+                    .register(myMeterRegistry);
+            tableMeters.myRepairedRatioRegistered = true;
+        }
+        if (!myNodeRepairedRatioRegistered)
+        {
+            Gauge.builder(NODE_REPAIRED_RATIO, myNodeGauges, (nodeGauges) -> nodeGauges.getRepairRatio(
+                            myTableMeters.size()))
+                    .register(myMeterRegistry);
+            myNodeRepairedRatioRegistered = true;
+        }
     }
 
     @Override
     public Optional<Double> getRepairRatio(final TableReference tableReference)
     {
-        if (myTableGauges.get(tableReference) == null)
+        TableMeters tableMeters = myTableMeters.get(tableReference);
+        if (tableMeters == null)
         {
             return Optional.empty();
         }
-        return Optional.ofNullable(myTableGauges.get(tableReference).getRepairRatio());
+        return Optional.ofNullable(tableMeters.myTableGauges.getRepairRatio());
     }
 
     @Override
     public void lastRepairedAt(final TableReference tableReference,
                                final long lastRepairedAt)
     {
-        createOrGetTableGauges(tableReference).lastRepairedAt(lastRepairedAt);
-        TimeGauge.builder(TIME_SINCE_LAST_REPAIRED, myTableGauges, TimeUnit.MILLISECONDS,
-                        (tableGauges) -> clock.timeNow() - tableGauges.get(tableReference).getLastRepairedAt())
-                .tags(KEYSPACE_TAG, tableReference.getKeyspace(), TABLE_TAG, tableReference.getTable())
-                .register(myMeterRegistry);
-        TimeGauge.builder(NODE_TIME_SINCE_LAST_REPAIRED, myTableGauges, TimeUnit.MILLISECONDS,
-                        (tableGauges) ->
-                                clock.timeNow() - tableGauges.values().stream()
-                                        .mapToDouble(TableGauges::getLastRepairedAt).min().orElse(0))
-                .register(myMeterRegistry);
+        TableMeters tableMeters = createOrGetTableMeters(tableReference);
+        TableGauges tableGauges = tableMeters.myTableGauges;
+        long previous = tableGauges.lastRepairedAt(lastRepairedAt);
+        myNodeGauges.lastRepairedAtChanged(previous, lastRepairedAt);
+
+        if (!tableMeters.myTimeSinceLastRepairedRegistered)
+        {
+            TimeGauge.builder(TIME_SINCE_LAST_REPAIRED, tableGauges, TimeUnit.MILLISECONDS,
+                            (gauges) -> clock.timeNow() - gauges.getLastRepairedAt())
+                    .tags(tableMeters.myTags)
+                    .register(myMeterRegistry);
+            tableMeters.myTimeSinceLastRepairedRegistered = true;
+        }
+        if (!myNodeTimeSinceLastRepairedRegistered)
+        {
+            TimeGauge.builder(NODE_TIME_SINCE_LAST_REPAIRED, myNodeGauges, TimeUnit.MILLISECONDS,
+                            (nodeGauges) -> clock.timeNow() - nodeGauges.getMinLastRepairedAt())
+                    .register(myMeterRegistry);
+            myNodeTimeSinceLastRepairedRegistered = true;
+        }
     }
 
     @Override
     public void remainingRepairTime(final TableReference tableReference,
                                     final long remainingRepairTime)
     {
-        createOrGetTableGauges(tableReference).remainingRepairTime(remainingRepairTime);
-        TimeGauge.builder(REMAINING_REPAIR_TIME, myTableGauges, TimeUnit.MILLISECONDS,
-                        (tableGauges) -> tableGauges.get(tableReference).getRemainingRepairTime())
-                .tags(KEYSPACE_TAG, tableReference.getKeyspace(), TABLE_TAG, tableReference.getTable())
-                .register(myMeterRegistry);
-        TimeGauge.builder(NODE_REMAINING_REPAIR_TIME, myTableGauges, TimeUnit.MILLISECONDS,
-                        (tableGauges) ->
-                                tableGauges.values().stream().mapToDouble(TableGauges::getRemainingRepairTime).sum())
-                .register(myMeterRegistry);
+        TableMeters tableMeters = createOrGetTableMeters(tableReference);
+        TableGauges tableGauges = tableMeters.myTableGauges;
+        long previous = tableGauges.remainingRepairTime(remainingRepairTime);
+        myNodeGauges.remainingRepairTimeChanged(previous, remainingRepairTime);
+
+        if (!tableMeters.myRemainingRepairTimeRegistered)
+        {
+            TimeGauge.builder(REMAINING_REPAIR_TIME, tableGauges, TimeUnit.MILLISECONDS,
+                            TableGauges::getRemainingRepairTime)
+                    .tags(tableMeters.myTags)
+                    .register(myMeterRegistry);
+            tableMeters.myRemainingRepairTimeRegistered = true;
+        }
+        if (!myNodeRemainingRepairTimeRegistered)
+        {
+            TimeGauge.builder(NODE_REMAINING_REPAIR_TIME, myNodeGauges, TimeUnit.MILLISECONDS,
+                            NodeGauges::getRemainingRepairTime)
+                    .register(myMeterRegistry);
+            myNodeRemainingRepairTimeRegistered = true;
+        }
     }
 
     @Override
@@ -125,24 +173,41 @@ public final class TableRepairMetricsImpl implements TableRepairMetrics, TableRe
                               final TimeUnit timeUnit,
                               final boolean successful)
     {
-        Timer.builder(REPAIR_SESSIONS)
-                .tags(KEYSPACE_TAG, tableReference.getKeyspace(),
-                      TABLE_TAG, tableReference.getTable(),
-                      "successful", Boolean.toString(successful))
-                .register(myMeterRegistry)
-                .record(timeTaken, timeUnit);
-        Timer.builder(NODE_REPAIR_SESSIONS)
-                .tags("successful", Boolean.toString(successful))
-                .register(myMeterRegistry)
-                .record(timeTaken, timeUnit);
+        TableMeters tableMeters = createOrGetTableMeters(tableReference);
+        tableMeters.getRepairSessions(myMeterRegistry, successful).record(timeTaken, timeUnit);
+        getNodeRepairSessions(successful).record(timeTaken, timeUnit);
+        if (!successful && myRepairFailureDetector != null)
+        {
+            myRepairFailureDetector.repairFailed(tableReference);
+        }
+    }
+
+    private Timer getNodeRepairSessions(final boolean successful)
+    {
+        Timer timer = successful ? myNodeSuccessfulRepairSessions : myNodeFailedRepairSessions;
+        if (timer == null)
+        {
+            timer = Timer.builder(NODE_REPAIR_SESSIONS)
+                    .tags(SUCCESSFUL_TAG, Boolean.toString(successful))
+                    .register(myMeterRegistry);
+            if (successful)
+            {
+                myNodeSuccessfulRepairSessions = timer;
+            }
+            else
+            {
+                myNodeFailedRepairSessions = timer;
+            }
+        }
+        return timer;
     }
 
     @Override
     public void close()
     {
-        for (TableGauges tableGauges : myTableGauges.values())
+        for (TableMeters tableMeters : myTableMeters.values())
         {
-            tableGauges.close();
+            tableMeters.myTableGauges.close();
         }
     }
 
@@ -155,6 +220,7 @@ public final class TableRepairMetricsImpl implements TableRepairMetrics, TableRe
     {
         private TableStorageStates myTableStorageStates;
         private MeterRegistry myMeterRegistry;
+        private RepairFailureDetector myRepairFailureDetector;
 
         /**
          * Build with table storage states.
@@ -180,6 +246,18 @@ public final class TableRepairMetricsImpl implements TableRepairMetrics, TableRe
             return this;
         }
 
+        /**
+         * Build with repair failure detector.
+         *
+         * @param repairFailureDetector detector to report failed repair sessions to, may be null
+         * @return Builder
+         */
+        public Builder withRepairFailureDetector(final RepairFailureDetector repairFailureDetector)
+        {
+            myRepairFailureDetector = repairFailureDetector;
+            return this;
+        }
+
         /**
          * Build table repair metrics.
          *
@@ -191,23 +269,86 @@ public final class TableRepairMetricsImpl implements TableRepairMetrics, TableRe
         }
     }
 
-    private TableGauges createOrGetTableGauges(final TableReference tableReference)
+    private TableMeters createOrGetTableMeters(final TableReference tableReference)
     {
-        TableGauges tableGauges = myTableGauges.get(tableReference);
+        TableMeters tableMeters = myTableMeters.get(tableReference);
 
-        if (tableGauges == null)
+        if (tableMeters == null)
         {
-            tableGauges = new TableGauges();
+            tableMeters = myTableMeters.computeIfAbsent(tableReference, (table) ->
+            {
+                TableMeters newTableMeters = new TableMeters(table);
+                myNodeGauges.tableAdded(newTableMeters.myTableGauges);
+                return newTableMeters;
+            });
+        }
+
+        return tableMeters;
+    }
+
+    /**
+     * The gauges of a table together with the meters registered for it, meters are registered on first use and
+     * the handles are kept so that updates do not look them up in the registry again.
+     */
+    private static final class TableMeters
+    {
+        private final TableGauges myTableGauges = new TableGauges();
+        private final Tags myTags;
+
+        private volatile boolean myRepairedRatioRegistered;
+        private volatile boolean myTimeSinceLastRepairedRegistered;
+        private volatile boolean myRemainingRepairTimeRegistered;
+        private volatile Timer mySuccessfulRepairSessions;
+        private volatile Timer myFailedRepairSessions;
 
-            TableGauges oldTableGauges = myTableGauges.putIfAbsent(tableReference,
-                    tableGauges);
+        TableMeters(final TableReference tableReference)
+        {
+            myTags = Tags.of(KEYSPACE_TAG, tableReference.getKeyspace(), TABLE_TAG, tableReference.getTable());
+        }
 
-            if (oldTableGauges != null)
+        Timer getRepairSessions(final MeterRegistry meterRegistry, final boolean successful)
+        {
+            Timer timer = successful ? mySuccessfulRepairSessions : myFailedRepairSessions;
+            if (timer == null)
             {
-                tableGauges = oldTableGauges;
+                timer = Timer.builder(REPAIR_SESSIONS)
+                        .tags(myTags.and(SUCCESSFUL_TAG, Boolean.toString(successful)))
+                        .register(meterRegistry);
+                if (successful)
+                {
+                    mySuccessfulRepairSessions = timer;
+                }
+                else
+                {
+                    myFailedRepairSessions = timer;
+                }
             }
+            return timer;
+        }
+    }
+
+    /**
+     * A live view of the table gauges of all tables.
+     */
+    private static final class TableGaugesView extends AbstractCollection<TableGauges>
+    {
+        private final Map<TableReference, TableMeters> myTableMeters;
+
+        TableGaugesView(final Map<TableReference, TableMeters> tableMeters)
+        {
+            myTableMeters = tableMeters;
         }
 
-        return tableGauges;
+        @Override
+        public Iterator<TableGauges> iterator()
+        {
+            return Iterators.transform(myTableMeters.values().iterator(), (tableMeters) -> tableMeters.myTableGauges);
+        }
+
+        @Override
+        public int size()
+        {
+            return myTableMeters.size();
+        }
     }
 }
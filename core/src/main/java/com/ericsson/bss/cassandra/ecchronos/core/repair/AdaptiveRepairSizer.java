@@ -0,0 +1,194 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair;
+
+import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetrics;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TokenMath;
+import com.google.common.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picks the amount of data to repair in each repair session of a table based on the repair throughput observed for
+ * earlier sessions of the table.
+ * <p>
+ * The throughput (bytes per second) and the session time are tracked as exponentially weighted moving averages of the
+ * successful repair sessions. Until a session has been observed the target repair size of the configuration is used.
+ */
+public final class AdaptiveRepairSizer
+{
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveRepairSizer.class);
+
+    private static final double SMOOTHING_FACTOR = 0.3d;
+    private static final double MS_PER_SECOND = 1000.0d;
+
+    private final long myTargetRepairSizeInBytes;
+    private final long myTargetSessionTimeInMs;
+    private final long myMinRepairSizeInBytes;
+    private final long myMaxRepairSizeInBytes;
+
+    private double myBytesPerSecond = Double.NaN;
+    private double mySessionTimeInMs = Double.NaN;
+
+    public AdaptiveRepairSizer(final RepairConfiguration repairConfiguration)
+    {
+        myTargetRepairSizeInBytes = repairConfiguration.getTargetRepairSizeInBytes();
+        myTargetSessionTimeInMs = repairConfiguration.getTargetRepairSessionTimeInMs();
+        myMinRepairSizeInBytes = repairConfiguration.getMinRepairSizeInBytes();
+        myMaxRepairSizeInBytes = repairConfiguration.getMaxRepairSizeInBytes();
+    }
+
+    /**
+     * Check if the repair size is adapted to the observed throughput.
+     *
+     * @return True if both a target repair size and a target session time are configured.
+     */
+    public boolean isEnabled()
+    {
+        return myTargetRepairSizeInBytes != RepairConfiguration.FULL_REPAIR_SIZE
+                && myTargetSessionTimeInMs != RepairConfiguration.NO_TARGET_SESSION_TIME;
+    }
+
+    /**
+     * Get the amount of data that is expected to be repaired within the target session time.
+     *
+     * @return The repair size in bytes.
+     */
+    public synchronized long getRepairSizeInBytes()
+    {
+        if (!isEnabled() || Double.isNaN(myBytesPerSecond))
+        {
+            return myTargetRepairSizeInBytes;
+        }
+
+        double repairSizeInBytes = myBytesPerSecond * myTargetSessionTimeInMs / MS_PER_SECOND;
+        return (long) Math.max(myMinRepairSizeInBytes, Math.min(myMaxRepairSizeInBytes, repairSizeInBytes));
+    }
+
+    /**
+     * Get the number of tokens to repair in each session.
+     *
+     * @param bytesPerToken The estimated amount of data per token of the table.
+     * @return The unsigned number of tokens per repair session, see {@link TokenMath}.
+     */
+    public long getTokensPerRepair(final double bytesPerToken)
+    {
+        if (bytesPerToken <= 0.0d)
+        {
+            return TokenMath.FULL_RING;
+        }
+
+        return TokenMath.sizeFromDouble(getRepairSizeInBytes() / bytesPerToken);
+    }
+
+    /**
+     * Decorate table repair metrics so that the repair session time is used to update the observed throughput.
+     *
+     * @param delegate The table repair metrics to decorate.
+     * @param sessionSizeInBytes The estimated amount of data repaired in the session.
+     * @return The decorated table repair metrics.
+     */
+    public TableRepairMetrics observe(final TableRepairMetrics delegate, final long sessionSizeInBytes)
+    {
+        return new ObservingTableRepairMetrics(delegate, sessionSizeInBytes);
+    }
+
+    @VisibleForTesting
+    synchronized void onRepairSession(final long sessionSizeInBytes, final long timeTakenInMs,
+                                      final boolean successful)
+    {
+        if (!successful || sessionSizeInBytes <= 0 || timeTakenInMs <= 0)
+        {
+            return;
+        }
+
+        double bytesPerSecond = sessionSizeInBytes * MS_PER_SECOND / timeTakenInMs;
+        myBytesPerSecond = smooth(myBytesPerSecond, bytesPerSecond);
+        mySessionTimeInMs = smooth(mySessionTimeInMs, timeTakenInMs);
+        LOG.debug("Repaired {} bytes in {} ms, average throughput {} bytes/s and session time {} ms",
+                sessionSizeInBytes, timeTakenInMs, (long) myBytesPerSecond, (long) mySessionTimeInMs);
+    }
+
+    /**
+     * Get the average time of the observed repair sessions.
+     *
+     * @return The average session time in milliseconds or NaN if no session has been observed.
+     */
+    public synchronized double getSessionTimeInMs()
+    {
+        return mySessionTimeInMs;
+    }
+
+    /**
+     * Get the average throughput of the observed repair sessions.
+     *
+     * @return The average throughput in bytes per second or NaN if no session has been observed.
+     */
+    public synchronized double getBytesPerSecond()
+    {
+        return myBytesPerSecond;
+    }
+
+    private static double smooth(final double average, final double value)
+    {
+        if (Double.isNaN(average))
+        {
+            return value;
+        }
+        return average + SMOOTHING_FACTOR * (value - average);
+    }
+
+    private final class ObservingTableRepairMetrics implements TableRepairMetrics
+    {
+        private final TableRepairMetrics myDelegate;
+        private final long mySessionSizeInBytes;
+
+        ObservingTableRepairMetrics(final TableRepairMetrics delegate, final long sessionSizeInBytes)
+        {
+            myDelegate = delegate;
+            mySessionSizeInBytes = sessionSizeInBytes;
+        }
+
+        @Override
+        public void repairState(final TableReference tableReference, final int repairedRanges,
+                                final int notRepairedRanges)
+        {
+            myDelegate.repairState(tableReference, repairedRanges, notRepairedRanges);
+        }
+
+        @Override
+        public void lastRepairedAt(final TableReference tableReference, final long lastRepairedAt)
+        {
+            myDelegate.lastRepairedAt(tableReference, lastRepairedAt);
+        }
+
+        @Override
+        public void remainingRepairTime(final TableReference tableReference, final long remainingRepairTime)
+        {
+            myDelegate.remainingRepairTime(tableReference, remainingRepairTime);
+        }
+
+        @Override
+        public void repairSession(final TableReference tableReference, final long timeTaken, final TimeUnit timeUnit,
+                                  final boolean successful)
+        {
+            myDelegate.repairSession(tableReference, timeTaken, timeUnit, successful);
+            onRepairSession(mySessionSizeInBytes, timeUnit.toMillis(timeTaken), successful);
+        }
+    }
+}
@@ -15,6 +15,7 @@
 package com.ericsson.bss.cassandra.ecchronos.core.repair;
 
 import java.io.Closeable;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -49,6 +50,9 @@ public final class OnDemandRepairSchedulerImpl implements OnDemandRepairSchedule
 {
     private static final Logger LOG = LoggerFactory.getLogger(OnDemandRepairSchedulerImpl.class);
     private static final int ONGOING_JOBS_PERIOD_SECONDS = 10;
+    // Shorter than the time to live of the status table so that old jobs are filtered out of the listing
+    private static final long DEFAULT_JOB_VIEW_RETENTION_IN_MS = TimeUnit.DAYS.toMillis(7);
+    private static final long DEFAULT_JOB_VIEW_CACHE_TIME_IN_MS = TimeUnit.SECONDS.toMillis(5);
 
     private final Map<UUID, OnDemandRepairJob> myScheduledJobs = new HashMap<>();
     private final Object myLock = new Object();
@@ -62,6 +66,9 @@ public final class OnDemandRepairSchedulerImpl implements OnDemandRepairSchedule
     private final RepairConfiguration myRepairConfiguration;
     private final RepairHistory myRepairHistory;
     private final OnDemandStatus myOnDemandStatus;
+    private final long myJobViewRetentionInMs;
+    private final long myJobViewCacheTimeInMs;
+    private volatile CachedJobViews myCachedClusterWideJobViews;
     private final ScheduledExecutorService myExecutor = Executors.newSingleThreadScheduledExecutor(
             new ThreadFactoryBuilder().setNameFormat("OngoingJobsScheduler-%d").build());
 
@@ -76,6 +83,8 @@ public final class OnDemandRepairSchedulerImpl implements OnDemandRepairSchedule
         myRepairConfiguration = builder.repairConfiguration;
         myRepairHistory = builder.repairHistory;
         myOnDemandStatus = builder.onDemandStatus;
+        myJobViewRetentionInMs = builder.jobViewRetentionInMs;
+        myJobViewCacheTimeInMs = builder.jobViewCacheTimeInMs;
         myExecutor.scheduleAtFixedRate(() -> getOngoingJobs(), 0, ONGOING_JOBS_PERIOD_SECONDS, TimeUnit.SECONDS);
     }
 
@@ -158,6 +167,7 @@ public final class OnDemandRepairSchedulerImpl implements OnDemandRepairSchedule
                 {
                     OnDemandRepairJob job = getRepairJob(tableReference, isClusterWide, repairType);
                     myScheduledJobs.put(job.getId(), job);
+                    myCachedClusterWideJobViews = null;
                     myScheduleManager.schedule(job);
                     return job.getView();
                 }
@@ -191,16 +201,25 @@ public final class OnDemandRepairSchedulerImpl implements OnDemandRepairSchedule
 
     /**
      * Get all cluster wide repair jobs.
+     * <p>
+     * The views are read without creating repair jobs and are cached for a short time, jobs that finished longer
+     * ago than the retention are not included.
      *
      * @return Repair job view list
      */
     @Override
     public List<OnDemandRepairJobView> getAllClusterWideRepairJobs()
     {
-        return myOnDemandStatus.getAllClusterWideJobs().stream()
-                .map(job -> getOngoingRepairJob(job))
-                .map(OnDemandRepairJob::getView)
-                .collect(Collectors.toList());
+        long now = System.currentTimeMillis();
+        CachedJobViews cached = myCachedClusterWideJobViews;
+        if (cached == null || cached.isExpired(now))
+        {
+            long completedAfter = now - myJobViewRetentionInMs;
+            cached = new CachedJobViews(myOnDemandStatus.getAllClusterWideJobViews(completedAfter),
+                    now + myJobViewCacheTimeInMs);
+            myCachedClusterWideJobViews = cached;
+        }
+        return new ArrayList<>(cached.myViews);
     }
 
     /**
@@ -288,6 +307,23 @@ public final class OnDemandRepairSchedulerImpl implements OnDemandRepairSchedule
         return new Builder();
     }
 
+    private static final class CachedJobViews
+    {
+        private final List<OnDemandRepairJobView> myViews;
+        private final long myExpiresAt;
+
+        CachedJobViews(final List<OnDemandRepairJobView> views, final long expiresAt)
+        {
+            myViews = views;
+            myExpiresAt = expiresAt;
+        }
+
+        boolean isExpired(final long now)
+        {
+            return now >= myExpiresAt;
+        }
+    }
+
     public static class Builder
     {
         private JmxProxyFactory myJmxProxyFactory;
@@ -299,6 +335,8 @@ public final class OnDemandRepairSchedulerImpl implements OnDemandRepairSchedule
         private RepairConfiguration repairConfiguration;
         private RepairHistory repairHistory;
         private OnDemandStatus onDemandStatus;
+        private long jobViewRetentionInMs = DEFAULT_JOB_VIEW_RETENTION_IN_MS;
+        private long jobViewCacheTimeInMs = DEFAULT_JOB_VIEW_CACHE_TIME_IN_MS;
 
         /**
          * Build on demand repair scheduler with JMX proxy factory.
@@ -408,6 +446,32 @@ public final class OnDemandRepairSchedulerImpl implements OnDemandRepairSchedule
             return this;
         }
 
+        /**
+         * Build on demand repair scheduler with the time finished jobs are included in the cluster wide job listing.
+         *
+         * @param retention The retention.
+         * @param timeUnit The time unit of the retention.
+         * @return Builder
+         */
+        public Builder withJobViewRetention(final long retention, final TimeUnit timeUnit)
+        {
+            this.jobViewRetentionInMs = timeUnit.toMillis(retention);
+            return this;
+        }
+
+        /**
+         * Build on demand repair scheduler with the time the cluster wide job listing is cached.
+         *
+         * @param cacheTime The cache time.
+         * @param timeUnit The time unit of the cache time.
+         * @return Builder
+         */
+        public Builder withJobViewCacheTime(final long cacheTime, final TimeUnit timeUnit)
+        {
+            this.jobViewCacheTimeInMs = timeUnit.toMillis(cacheTime);
+            return this;
+        }
+
         /**
          * Build on demand repair scheduler.
          *
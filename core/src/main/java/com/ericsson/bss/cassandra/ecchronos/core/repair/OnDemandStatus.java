@@ -29,21 +29,30 @@ import com.ericsson.bss.cassandra.ecchronos.connection.NativeConnectionProvider;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.OngoingJob.Status;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.ReplicationState;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.ReplicationStateImpl;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.DriverNode;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.NodeResolver;
-import com.ericsson.bss.cassandra.ecchronos.core.utils.NodeResolverImpl;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReferenceFactory;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReferenceFactoryImpl;
+import com.google.common.collect.ImmutableSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.bindMarker;
 import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.insertInto;
@@ -64,6 +73,7 @@ public class OnDemandStatus
     private static final String TABLE_REFERENCE_COLUMN_NAME = "table_reference";
     private static final String TOKEN_MAP_HASH_COLUMN_NAME = "token_map_hash";
     private static final String REPAIRED_TOKENS_COLUMN_NAME = "repaired_tokens";
+    private static final String REPAIRED_TOKEN_BITMAP_COLUMN_NAME = "repaired_token_bitmap";
     private static final String UDT_TOKEN_RANGE_NAME = "token_range";
     private static final String UDT_START_TOKEN_NAME = "start";
     private static final String UDT_END_TOKEN_NAME = "end";
@@ -72,28 +82,34 @@ public class OnDemandStatus
     private static final String UDT_KEYSPACE_NAME = "keyspace_name";
     private static final String UDT_TABLE_NAME = "table_name";
     private static final String COMPLETED_TIME_COLUMN_NAME = "completed_time";
+    private static final int JOB_VIEW_PAGE_SIZE = 100;
 
     private final CqlSession mySession;
     private final UUID myHostId;
     private final UserDefinedType myUDTTokenType;
     private final UserDefinedType myUDTTableReferenceType;
     private final PreparedStatement myGetStatusStatement;
+    private final PreparedStatement myGetJobViewStatement;
     private final PreparedStatement myInsertNewJobStatement;
     private final PreparedStatement myUpdateRepairedTokenForJobStatement;
+    private final PreparedStatement myUpdateRepairedTokenBitmapForJobStatement;
     private final PreparedStatement myUpdateJobToFinishedStatement;
     private final PreparedStatement myUpdateJobToFailedStatement;
     private final TableReferenceFactory myTableReferenceFactory;
+    private final NodeResolver myNodeResolver;
 
     /**
      * Constructor.
      *
      * @param nativeConnectionProvider The native connection provider.
+     * @param nodeResolver The node resolver used to resolve the replicas of the jobs of other nodes.
      */
-    public OnDemandStatus(final NativeConnectionProvider nativeConnectionProvider)
+    public OnDemandStatus(final NativeConnectionProvider nativeConnectionProvider, final NodeResolver nodeResolver)
     {
         mySession = nativeConnectionProvider.getSession();
         myHostId = nativeConnectionProvider.getLocalNode().getHostId();
         myTableReferenceFactory = new TableReferenceFactoryImpl(mySession);
+        myNodeResolver = nodeResolver;
         myUDTTokenType = mySession.getMetadata()
                 .getKeyspace(KEYSPACE_NAME)
                 .flatMap(ks -> ks.getUserDefinedType(UDT_TOKEN_RANGE_NAME))
@@ -102,11 +118,29 @@ public class OnDemandStatus
                 .getKeyspace(KEYSPACE_NAME)
                 .flatMap(ks -> ks.getUserDefinedType(UDT_TABLE_REFERENCE_NAME))
                 .orElseThrow(() -> new IllegalArgumentException("Missing UDT " + UDT_TABLE_REFERENCE_NAME));
+        boolean hasRepairedTokenBitmap = mySession.getMetadata()
+                .getKeyspace(KEYSPACE_NAME)
+                .flatMap(ks -> ks.getTable(TABLE_NAME))
+                .flatMap(table -> table.getColumn(REPAIRED_TOKEN_BITMAP_COLUMN_NAME))
+                .isPresent();
 
         SimpleStatement getStatusStatement = selectFrom(KEYSPACE_NAME, TABLE_NAME)
                 .all()
                 .whereColumn(HOST_ID_COLUMN_NAME).isEqualTo(bindMarker())
                 .build().setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+        List<String> jobViewColumns = new ArrayList<>(Arrays.asList(JOB_ID_COLUMN_NAME, TABLE_REFERENCE_COLUMN_NAME,
+                STATUS_COLUMN_NAME, COMPLETED_TIME_COLUMN_NAME, REPAIR_TYPE_COLUMN_NAME, REPAIRED_TOKENS_COLUMN_NAME,
+                TOKEN_MAP_HASH_COLUMN_NAME));
+        if (hasRepairedTokenBitmap)
+        {
+            jobViewColumns.add(REPAIRED_TOKEN_BITMAP_COLUMN_NAME);
+        }
+        SimpleStatement getJobViewStatement = selectFrom(KEYSPACE_NAME, TABLE_NAME)
+                .columns(jobViewColumns)
+                .whereColumn(HOST_ID_COLUMN_NAME).isEqualTo(bindMarker())
+                .build()
+                .setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM)
+                .setPageSize(JOB_VIEW_PAGE_SIZE);
         SimpleStatement insertNewJobStatement = insertInto(KEYSPACE_NAME, TABLE_NAME)
                 .value(HOST_ID_COLUMN_NAME, bindMarker())
                 .value(JOB_ID_COLUMN_NAME, bindMarker())
@@ -135,8 +169,24 @@ public class OnDemandStatus
                 .build().setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
 
         myGetStatusStatement = mySession.prepare(getStatusStatement);
+        myGetJobViewStatement = mySession.prepare(getJobViewStatement);
         myInsertNewJobStatement = mySession.prepare(insertNewJobStatement);
         myUpdateRepairedTokenForJobStatement = mySession.prepare(updateRepairedTokenForJobStatement);
+        if (hasRepairedTokenBitmap)
+        {
+            SimpleStatement updateRepairedTokenBitmapForJobStatement = update(KEYSPACE_NAME, TABLE_NAME)
+                    .setColumn(REPAIRED_TOKEN_BITMAP_COLUMN_NAME, bindMarker())
+                    .whereColumn(HOST_ID_COLUMN_NAME).isEqualTo(bindMarker())
+                    .whereColumn(JOB_ID_COLUMN_NAME).isEqualTo(bindMarker())
+                    .build().setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+            myUpdateRepairedTokenBitmapForJobStatement = mySession.prepare(updateRepairedTokenBitmapForJobStatement);
+        }
+        else
+        {
+            LOG.warn("Column {}.{}.{} is missing, on demand repair progress will be stored in {}",
+                    KEYSPACE_NAME, TABLE_NAME, REPAIRED_TOKEN_BITMAP_COLUMN_NAME, REPAIRED_TOKENS_COLUMN_NAME);
+            myUpdateRepairedTokenBitmapForJobStatement = null;
+        }
         myUpdateJobToFinishedStatement = mySession.prepare(updateJobToFinishedStatement);
         myUpdateJobToFailedStatement = mySession.prepare(updateJobToFailedStatement);
     }
@@ -193,17 +243,150 @@ public class OnDemandStatus
     public Set<OngoingJob> getAllClusterWideJobs()
     {
         Metadata metadata = mySession.getMetadata();
-        NodeResolver nodeResolver = new NodeResolverImpl(mySession);
         Collection<Node> nodes = metadata.getNodes().values();
         Set<OngoingJob> ongoingJobs = new HashSet<>();
         for (Node node : nodes)
         {
-            ReplicationState replState = new ReplicationStateImpl(nodeResolver, mySession, node);
+            ReplicationState replState = new ReplicationStateImpl(myNodeResolver, mySession, node);
             ongoingJobs.addAll(getAllJobsForHost(replState, node.getHostId()));
         }
         return ongoingJobs;
     }
 
+    /**
+     * Get views of the jobs for all the nodes without creating repair jobs for them.
+     * <p>
+     * The progress is calculated from the number of repaired token ranges stored for the job, the token ranges of a
+     * node are only calculated once per table and only for jobs that are not finished. Like the repair jobs, a vnode
+     * job that is not finished is reported as failed if the token ranges have changed since it was started.
+     *
+     * @param completedAfter Jobs that finished or failed before this time in milliseconds are skipped.
+     * @return List of job views
+     */
+    public List<OnDemandRepairJobView> getAllClusterWideJobViews(final long completedAfter)
+    {
+        List<OnDemandRepairJobView> views = new ArrayList<>();
+        for (Node node : mySession.getMetadata().getNodes().values())
+        {
+            ReplicationState replicationState = new ReplicationStateImpl(myNodeResolver, mySession, node);
+            Map<TableReference, Map<LongTokenRange, ImmutableSet<DriverNode>>> tokenRanges = new HashMap<>();
+            Function<TableReference, Map<LongTokenRange, ImmutableSet<DriverNode>>> tokenRangesForTable =
+                    tableReference -> tokenRanges.computeIfAbsent(tableReference,
+                            replicationState::getTokenRangeToReplicas);
+
+            UUID hostId = node.getHostId();
+            ResultSet result = mySession.execute(myGetJobViewStatement.bind(hostId));
+            for (Row row : result)
+            {
+                OnDemandRepairJobView view = createJobView(row, hostId, completedAfter, tokenRangesForTable);
+                if (view != null)
+                {
+                    views.add(view);
+                }
+            }
+        }
+        return views;
+    }
+
+    private OnDemandRepairJobView createJobView(final Row row,
+                                                final UUID hostId,
+                                                final long completedAfter,
+                                                final Function<TableReference,
+                                                        Map<LongTokenRange, ImmutableSet<DriverNode>>> tokenRanges)
+    {
+        UUID jobId = row.getUuid(JOB_ID_COLUMN_NAME);
+        Status status;
+        try
+        {
+            status = Status.valueOf(row.getString(STATUS_COLUMN_NAME));
+        }
+        catch (IllegalArgumentException e)
+        {
+            LOG.warn("Ignoring table repair job with id {} and hostId {}, unable to parse status", jobId, hostId);
+            return null;
+        }
+
+        Instant completed = row.get(COMPLETED_TIME_COLUMN_NAME, Instant.class);
+        long completedTime = completed != null ? completed.toEpochMilli() : -1L;
+        if (status != Status.started && completed != null && completedTime < completedAfter)
+        {
+            return null;
+        }
+
+        UdtValue uDTTableReference = row.getUdtValue(TABLE_REFERENCE_COLUMN_NAME);
+        TableReference tableReference = myTableReferenceFactory.forTable(uDTTableReference.getString(UDT_KEYSPACE_NAME),
+                uDTTableReference.getString(UDT_TABLE_NAME));
+        if (tableReference == null || !uDTTableReference.getUuid(UDT_ID_NAME).equals(tableReference.getId()))
+        {
+            return null;
+        }
+
+        RepairOptions.RepairType repairType = RepairOptions.RepairType.VNODE;
+        String repairTypeStr = row.getString(REPAIR_TYPE_COLUMN_NAME);
+        if (repairTypeStr != null && !repairTypeStr.isEmpty())
+        {
+            repairType = RepairOptions.RepairType.valueOf(repairTypeStr);
+        }
+
+        double progress;
+        if (status == Status.finished)
+        {
+            progress = 1;
+        }
+        else if (repairType == RepairOptions.RepairType.INCREMENTAL)
+        {
+            progress = 0;
+        }
+        else
+        {
+            Map<LongTokenRange, ImmutableSet<DriverNode>> tokens = tokenRanges.apply(tableReference);
+            int totalTokens = tokens.size();
+            progress = totalTokens == 0 ? 0 : (double) getRepairedTokenCount(row) / totalTokens;
+            if (status == Status.started && hasTopologyChanged(row.getInt(TOKEN_MAP_HASH_COLUMN_NAME), tokens))
+            {
+                LOG.debug("Repair job with id {} failed. Token ranges have changed since the repair was triggered",
+                        jobId);
+                status = Status.failed;
+            }
+        }
+
+        return new OnDemandRepairJobView(jobId, hostId, tableReference, toViewStatus(status), progress,
+                completedTime, repairType);
+    }
+
+    private static boolean hasTopologyChanged(final int tokenMapHash,
+                                              final Map<LongTokenRange, ImmutableSet<DriverNode>> tokens)
+    {
+        return tokenMapHash != tokens.keySet().hashCode() && tokenMapHash != tokens.hashCode();
+    }
+
+    private int getRepairedTokenCount(final Row row)
+    {
+        if (myUpdateRepairedTokenBitmapForJobStatement != null)
+        {
+            ByteBuffer repairedTokenBitmap = row.getByteBuffer(REPAIRED_TOKEN_BITMAP_COLUMN_NAME);
+            if (repairedTokenBitmap != null)
+            {
+                // The bitmap includes the ranges of repaired_tokens once it has been written
+                return BitSet.valueOf(repairedTokenBitmap).cardinality();
+            }
+        }
+        return row.getSet(REPAIRED_TOKENS_COLUMN_NAME, UdtValue.class).size();
+    }
+
+    private static OnDemandRepairJobView.Status toViewStatus(final Status status)
+    {
+        switch (status)
+        {
+        case failed:
+            return OnDemandRepairJobView.Status.ERROR;
+        case finished:
+            return OnDemandRepairJobView.Status.COMPLETED;
+        default:
+            return OnDemandRepairJobView.Status.IN_QUEUE;
+        }
+    }
+
     /**
      * Get all jobs for this host, independent of the status.
      *
@@ -250,6 +433,11 @@ public class OnDemandStatus
         UUID jobId = row.getUuid(JOB_ID_COLUMN_NAME);
         int tokenMapHash = row.getInt(TOKEN_MAP_HASH_COLUMN_NAME);
         Set<UdtValue> repairedTokens = row.getSet(REPAIRED_TOKENS_COLUMN_NAME, UdtValue.class);
+        ByteBuffer repairedTokenBitmap = null;
+        if (myUpdateRepairedTokenBitmapForJobStatement != null)
+        {
+            repairedTokenBitmap = row.getByteBuffer(REPAIRED_TOKEN_BITMAP_COLUMN_NAME);
+        }
         UdtValue uDTTableReference = row.getUdtValue(TABLE_REFERENCE_COLUMN_NAME);
         String keyspace = uDTTableReference.getString(UDT_KEYSPACE_NAME);
         String table = uDTTableReference.getString(UDT_TABLE_NAME);
@@ -274,6 +462,7 @@ public class OnDemandStatus
                     .withTableReference(tableReference)
                     .withReplicationState(replicationState)
                     .withOngoingJobInfo(jobId, tokenMapHash, repairedTokens, status, completedTime, repairType)
+                    .withRepairedTokenBitmap(repairedTokenBitmap)
                     .withHostId(hostId)
                     .withRepairType(repairType)
                     .build();
@@ -343,6 +532,31 @@ public class OnDemandStatus
         mySession.execute(myUpdateRepairedTokenForJobStatement.bind(repairedTokens, myHostId, jobId));
     }
 
+    /**
+     * Update job with repaired tokens.
+     * <p>
+     * The repaired tokens are stored as a bitmap over the token ranges of the job when the table has the
+     * {@value #REPAIRED_TOKEN_BITMAP_COLUMN_NAME} column, otherwise the full set of repaired tokens is rewritten.
+     *
+     * @param jobId Job id.
+     * @param tokenRangeBitmap The bitmap encoding for the token ranges of the job.
+     * @param repairedTokens Repaired tokens.
+     */
+    void updateJob(final UUID jobId, final TokenRangeBitmap tokenRangeBitmap, final Set<LongTokenRange> repairedTokens)
+    {
+        if (myUpdateRepairedTokenBitmapForJobStatement != null)
+        {
+            mySession.execute(myUpdateRepairedTokenBitmapForJobStatement.bind(tokenRangeBitmap.encode(repairedTokens),
+                    myHostId, jobId));
+        }
+        else
+        {
+            Set<UdtValue> repairedTokensUDT = new HashSet<>();
+            repairedTokens.forEach(t -> repairedTokensUDT.add(createUDTTokenRangeValue(t.start, t.end)));
+            updateJob(jobId, repairedTokensUDT);
+        }
+    }
+
     /**
      * Update a job as finished with current time stamp.
      *
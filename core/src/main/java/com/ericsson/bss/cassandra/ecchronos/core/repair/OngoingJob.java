@@ -14,6 +14,7 @@
  */
 package com.ericsson.bss.cassandra.ecchronos.core.repair;
 
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -40,7 +41,8 @@ public class OngoingJob
     private final UUID myHostId;
     private final TableReference myTableReference;
     private final Map<LongTokenRange, ImmutableSet<DriverNode>> myTokens;
-    private final Set<UdtValue> myRepairedTokens;
+    private final TokenRangeBitmap myTokenRangeBitmap;
+    private final Set<LongTokenRange> myRepairedTokens;
     private final OnDemandStatus myOnDemandStatus;
     private final ReplicationState myReplicationState;
     private final Integer myTokenHash;
@@ -56,7 +58,10 @@ public class OngoingJob
         myTableReference = builder.myTableReference;
         myReplicationState = builder.myReplicationState;
         myTokens = myReplicationState.getTokenRangeToReplicas(myTableReference);
-        myRepairedTokens = builder.myRepairedTokens;
+        myTokenRangeBitmap = new TokenRangeBitmap(myTokens.keySet());
+        myRepairedTokens = myTokenRangeBitmap.decode(builder.myRepairedTokenBitmap);
+        builder.myRepairedTokens.forEach(t -> myRepairedTokens
+                .add(new LongTokenRange(myOnDemandStatus.getStartTokenFrom(t), myOnDemandStatus.getEndTokenFrom(t))));
         myTokenHash = builder.myTokenMapHash;
         myStatus = builder.myStatus;
         myCompletedTime = builder.myCompletedTime;
@@ -100,16 +105,13 @@ public class OngoingJob
 
     public Set<LongTokenRange> getRepairedTokens()
     {
-        Set<LongTokenRange> repairedLongTokenRanges = new HashSet<>();
-        myRepairedTokens.forEach(t -> repairedLongTokenRanges
-                .add(new LongTokenRange(myOnDemandStatus.getStartTokenFrom(t), myOnDemandStatus.getEndTokenFrom(t))));
-        return repairedLongTokenRanges;
+        return new HashSet<>(myRepairedTokens);
     }
 
     public void finishRanges(final Set<LongTokenRange> ranges)
     {
-        ranges.forEach(t -> myRepairedTokens.add(myOnDemandStatus.createUDTTokenRangeValue(t.start, t.end)));
-        myOnDemandStatus.updateJob(myJobId, myRepairedTokens);
+        myRepairedTokens.addAll(ranges);
+        myOnDemandStatus.updateJob(myJobId, myTokenRangeBitmap, myRepairedTokens);
     }
 
     public Map<LongTokenRange, ImmutableSet<DriverNode>> getTokens()
@@ -198,6 +200,7 @@ public class OngoingJob
         private UUID myHostId;
         private TableReference myTableReference;
         private Set<UdtValue> myRepairedTokens = new HashSet<>();
+        private ByteBuffer myRepairedTokenBitmap = null;
         private OnDemandStatus myOnDemandStatus;
         private ReplicationState myReplicationState;
         private Integer myTokenMapHash = null;
@@ -236,6 +239,18 @@ public class OngoingJob
             return this;
         }
 
+        /**
+         * Ongoing job build with repaired tokens encoded as a bitmap over the token ranges of the job.
+         *
+         * @param theRepairedTokenBitmap Repaired tokens bitmap, may be null.
+         * @return The builder
+         */
+        public Builder withRepairedTokenBitmap(final ByteBuffer theRepairedTokenBitmap)
+        {
+            this.myRepairedTokenBitmap = theRepairedTokenBitmap;
+            return this;
+        }
+
         /**
          * Ongoing job build with table reference.
          *
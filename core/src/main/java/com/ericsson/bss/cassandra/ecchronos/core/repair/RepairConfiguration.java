@@ -19,6 +19,8 @@ import static com.ericsson.bss.cassandra.ecchronos.core.repair.RepairOptions.Rep
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
+import com.google.common.base.Preconditions;
+
 /**
  * Configuration options for table repairs.
  */
@@ -27,6 +29,7 @@ public class RepairConfiguration
 {
     public static final double NO_UNWIND = 0.0d;
     public static final long FULL_REPAIR_SIZE = Long.MAX_VALUE;
+    public static final long NO_TARGET_SESSION_TIME = 0L;
 
     private static final long DEFAULT_REPAIR_INTERVAL_IN_MS = TimeUnit.DAYS.toMillis(7);
     private static final long DEFAULT_REPAIR_WARNING_TIME_IN_MS = TimeUnit.DAYS.toMillis(8);
@@ -35,6 +38,9 @@ public class RepairConfiguration
     private static final RepairOptions.RepairType DEFAULT_REPAIR_TYPE = RepairOptions.RepairType.VNODE;
     private static final double DEFAULT_UNWIND_RATIO = NO_UNWIND;
     private static final long DEFAULT_TARGET_REPAIR_SIZE_IN_BYTES = FULL_REPAIR_SIZE;
+    private static final long DEFAULT_TARGET_REPAIR_SESSION_TIME_IN_MS = NO_TARGET_SESSION_TIME;
+    private static final long DEFAULT_MIN_REPAIR_SIZE_IN_BYTES = 1L;
+    private static final long DEFAULT_MAX_REPAIR_SIZE_IN_BYTES = FULL_REPAIR_SIZE;
 
     private static final long DEFAULT_BACKOFF_IN_MS = TimeUnit.MINUTES.toMillis(30);
     private static final boolean DEFAULT_IGNORE_TWCS_TABLES = false;
@@ -51,6 +57,9 @@ public class RepairConfiguration
     private final long myRepairErrorTimeInMs;
     private final double myRepairUnwindRatio;
     private final long myTargetRepairSizeInBytes;
+    private final long myTargetRepairSessionTimeInMs;
+    private final long myMinRepairSizeInBytes;
+    private final long myMaxRepairSizeInBytes;
     private final boolean myIgnoreTWCSTables;
     private final long myBackoffInMs;
     private final TimeUnit myPriorityGranularityUnit;
@@ -67,6 +76,9 @@ public class RepairConfiguration
         myRepairErrorTimeInMs = builder.myRepairErrorTimeInMs;
         myRepairUnwindRatio = builder.myRepairUnwindRatio;
         myTargetRepairSizeInBytes = builder.myTargetRepairSizeInBytes;
+        myTargetRepairSessionTimeInMs = builder.myTargetRepairSessionTimeInMs;
+        myMinRepairSizeInBytes = builder.myMinRepairSizeInBytes;
+        myMaxRepairSizeInBytes = builder.myMaxRepairSizeInBytes;
         myIgnoreTWCSTables = builder.myIgnoreTWCSTables;
         myBackoffInMs = builder.myBackoffInMs;
         myRepairType = builder.myRepairType;
@@ -114,6 +126,21 @@ public class RepairConfiguration
         return myTargetRepairSizeInBytes;
     }
 
+    public long getTargetRepairSessionTimeInMs()
+    {
+        return myTargetRepairSessionTimeInMs;
+    }
+
+    public long getMinRepairSizeInBytes()
+    {
+        return myMinRepairSizeInBytes;
+    }
+
+    public long getMaxRepairSizeInBytes()
+    {
+        return myMaxRepairSizeInBytes;
+    }
+
     public long getBackoffInMs()
     {
         return myBackoffInMs;
@@ -183,6 +210,9 @@ public class RepairConfiguration
                 && myRepairErrorTimeInMs == that.myRepairErrorTimeInMs
                 && Double.compare(that.myRepairUnwindRatio, myRepairUnwindRatio) == 0
                 && myTargetRepairSizeInBytes == that.myTargetRepairSizeInBytes
+                && myTargetRepairSessionTimeInMs == that.myTargetRepairSessionTimeInMs
+                && myMinRepairSizeInBytes == that.myMinRepairSizeInBytes
+                && myMaxRepairSizeInBytes == that.myMaxRepairSizeInBytes
                 && myRepairParallelism == that.myRepairParallelism
                 && myIgnoreTWCSTables == that.myIgnoreTWCSTables
                 && myBackoffInMs == that.myBackoffInMs
@@ -194,8 +224,9 @@ public class RepairConfiguration
     public int hashCode()
     {
         return Objects.hash(myRepairParallelism, myRepairIntervalInMs, myInitialDelayInMs, myRepairWarningTimeInMs,
-                myRepairErrorTimeInMs, myRepairUnwindRatio, myTargetRepairSizeInBytes, myIgnoreTWCSTables,
-                myBackoffInMs, myRepairType, myPriorityGranularityUnit);
+                myRepairErrorTimeInMs, myRepairUnwindRatio, myTargetRepairSizeInBytes, myTargetRepairSessionTimeInMs,
+                myMinRepairSizeInBytes, myMaxRepairSizeInBytes, myIgnoreTWCSTables, myBackoffInMs, myRepairType,
+                myPriorityGranularityUnit);
     }
 
     public static class Builder
@@ -207,6 +238,9 @@ public class RepairConfiguration
         private long myRepairErrorTimeInMs = DEFAULT_REPAIR_ERROR_TIME_IN_MS;
         private double myRepairUnwindRatio = DEFAULT_UNWIND_RATIO;
         private long myTargetRepairSizeInBytes = DEFAULT_TARGET_REPAIR_SIZE_IN_BYTES;
+        private long myTargetRepairSessionTimeInMs = DEFAULT_TARGET_REPAIR_SESSION_TIME_IN_MS;
+        private long myMinRepairSizeInBytes = DEFAULT_MIN_REPAIR_SIZE_IN_BYTES;
+        private long myMaxRepairSizeInBytes = DEFAULT_MAX_REPAIR_SIZE_IN_BYTES;
         private long myBackoffInMs = DEFAULT_BACKOFF_IN_MS;
         private boolean myIgnoreTWCSTables = DEFAULT_IGNORE_TWCS_TABLES;
         private TimeUnit myPriorityGranularityUnit = TimeUnit.HOURS;
@@ -236,6 +270,9 @@ public class RepairConfiguration
             myRepairWarningTimeInMs = from.getRepairWarningTimeInMs();
             myRepairErrorTimeInMs = from.getRepairErrorTimeInMs();
             myRepairUnwindRatio = from.getRepairUnwindRatio();
+            myTargetRepairSessionTimeInMs = from.getTargetRepairSessionTimeInMs();
+            myMinRepairSizeInBytes = from.getMinRepairSizeInBytes();
+            myMaxRepairSizeInBytes = from.getMaxRepairSizeInBytes();
             myBackoffInMs = from.getBackoffInMs();
             myPriorityGranularityUnit = from.getPriorityGranularityUnit();
         }
@@ -354,6 +391,45 @@ public class RepairConfiguration
             return this;
         }
 
+        /**
+         * Set the target time of a repair session.
+         *
+         * When set together with a target repair size the size of the sub ranges is adapted to the repair throughput
+         * observed for the table, aiming for repair sessions of this length.
+         * The target repair size is used until the throughput is known.
+         *
+         * @param targetRepairSessionTime The target time per repair session
+         * @param timeUnit The time unit
+         * @return The builder
+         * @see #withRepairSizeBounds(long, long)
+         */
+        public Builder withTargetRepairSessionTime(final long targetRepairSessionTime, final TimeUnit timeUnit)
+        {
+            myTargetRepairSessionTimeInMs = timeUnit.toMillis(targetRepairSessionTime);
+            return this;
+        }
+
+        /**
+         * Set the bounds of the repair size picked from the target repair session time.
+         *
+         * @param minRepairSizeInBytes The minimum data per repair session
+         * @param maxRepairSizeInBytes The maximum data per repair session
+         * @return The builder
+         * @throws IllegalArgumentException If the minimum is not positive or larger than the maximum
+         * @see #withTargetRepairSessionTime(long, TimeUnit)
+         */
+        public Builder withRepairSizeBounds(final long minRepairSizeInBytes, final long maxRepairSizeInBytes)
+        {
+            Preconditions.checkArgument(minRepairSizeInBytes > 0,
+                    "Minimum repair size must be positive, got %s", minRepairSizeInBytes);
+            Preconditions.checkArgument(minRepairSizeInBytes <= maxRepairSizeInBytes,
+                    "Minimum repair size %s must not be larger than maximum repair size %s",
+                    minRepairSizeInBytes, maxRepairSizeInBytes);
+            myMinRepairSizeInBytes = minRepairSizeInBytes;
+            myMaxRepairSizeInBytes = maxRepairSizeInBytes;
+            return this;
+        }
+
         /**
          * Build with ignore TWCS tables.
          *
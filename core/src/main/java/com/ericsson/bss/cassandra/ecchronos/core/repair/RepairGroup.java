@@ -24,13 +24,13 @@ import com.ericsson.bss.cassandra.ecchronos.core.scheduling.LockFactory;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.ScheduledTask;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TokenMath;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TokenSubRangeUtil;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -57,7 +57,9 @@ public class RepairGroup extends ScheduledTask
     private final RepairLockFactory myRepairLockFactory;
     private final List<TableRepairPolicy> myRepairPolicies;
     private final UUID myJobId;
-    private BigInteger myTokensPerRepair;
+    private final AdaptiveRepairSizer myRepairSizer;
+    private final double myBytesPerToken;
+    private final long myTokensPerRepair;
     private RepairHistory myRepairHistory;
 
     public RepairGroup(final int priority, final Builder builder)
@@ -84,13 +86,11 @@ public class RepairGroup extends ScheduledTask
             myRepairHistory = Preconditions
                     .checkNotNull(builder.myRepairHistory, "Repair history must be set");
         }
-        if (myRepairConfiguration.getRepairType().equals(RepairOptions.RepairType.VNODE))
-        {
-            myTokensPerRepair = Preconditions
-                    .checkNotNull(builder.myTokensPerRepair, "Tokens per repair must be set");
-        }
+        myTokensPerRepair = builder.myTokensPerRepair;
         myJobId = Preconditions
                 .checkNotNull(builder.myJobId, "Job id must be set");
+        myRepairSizer = builder.myRepairSizer;
+        myBytesPerToken = builder.myBytesPerToken;
     }
 
     /**
@@ -195,12 +195,23 @@ public class RepairGroup extends ScheduledTask
         }
         else
         {
+            boolean adaptive = myRepairSizer != null && myRepairSizer.isEnabled();
+            long tokensPerRepair = adaptive
+                    ? myRepairSizer.getTokensPerRepair(myBytesPerToken)
+                    : myTokensPerRepair;
             for (LongTokenRange range : myReplicaRepairGroup)
             {
-                for (LongTokenRange subRange : new TokenSubRangeUtil(range).generateSubRanges(myTokensPerRepair))
+                for (LongTokenRange subRange : new TokenSubRangeUtil(range).generateSubRanges(tokensPerRepair))
                 {
+                    TableRepairMetrics tableRepairMetrics = myTableRepairMetrics;
+                    if (adaptive)
+                    {
+                        long sessionSizeInBytes = (long) (TokenMath.sizeToDouble(subRange.unsignedRangeSize())
+                                * myBytesPerToken);
+                        tableRepairMetrics = myRepairSizer.observe(myTableRepairMetrics, sessionSizeInBytes);
+                    }
                     tasks.add(new VnodeRepairTask(myJmxProxyFactory, myTableReference, myRepairConfiguration,
-                            myTableRepairMetrics, myRepairHistory, Collections.singleton(subRange),
+                            tableRepairMetrics, myRepairHistory, Collections.singleton(subRange),
                             new HashSet<>(myReplicaRepairGroup.getReplicas()), myJobId));
                 }
             }
@@ -224,9 +235,11 @@ public class RepairGroup extends ScheduledTask
         private RepairResourceFactory myRepairResourceFactory;
         private RepairLockFactory myRepairLockFactory;
         private List<TableRepairPolicy> myRepairPolicies = new ArrayList<>();
-        private BigInteger myTokensPerRepair = LongTokenRange.FULL_RANGE;
+        private long myTokensPerRepair = TokenMath.FULL_RING;
         private RepairHistory myRepairHistory;
         private UUID myJobId;
+        private AdaptiveRepairSizer myRepairSizer;
+        private double myBytesPerToken;
 
         /**
          * Build with table reference.
@@ -327,15 +340,29 @@ public class RepairGroup extends ScheduledTask
         /**
          * Build with tokens per repair.
          *
-         * @param tokensPerRepair Tokens per repair.
+         * @param tokensPerRepair The unsigned number of tokens per repair, see {@link TokenMath}.
          * @return Builder
          */
-        public Builder withTokensPerRepair(final BigInteger tokensPerRepair)
+        public Builder withTokensPerRepair(final long tokensPerRepair)
         {
             myTokensPerRepair = tokensPerRepair;
             return this;
         }
 
+        /**
+         * Build with an adaptive repair sizer, used instead of the tokens per repair when it is enabled.
+         *
+         * @param repairSizer The repair sizer of the table.
+         * @param bytesPerToken The estimated amount of data per token of the table.
+         * @return Builder
+         */
+        public Builder withRepairSizer(final AdaptiveRepairSizer repairSizer, final double bytesPerToken)
+        {
+            myRepairSizer = repairSizer;
+            myBytesPerToken = bytesPerToken;
+            return this;
+        }
+
         /**
          * Build with repair history.
          *
@@ -16,6 +16,7 @@ package com.ericsson.bss.cassandra.ecchronos.core.repair;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -27,6 +28,7 @@ import org.slf4j.LoggerFactory;
 import com.ericsson.bss.cassandra.ecchronos.core.LockCollection;
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.LockException;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.LockFactory;
+import com.ericsson.bss.cassandra.ecchronos.core.scheduling.MultiResourceLockFactory;
 
 public class RepairLockFactoryImpl implements RepairLockFactory
 {
@@ -59,10 +61,21 @@ public class RepairLockFactoryImpl implements RepairLockFactory
 
         validateNoCachedFailures(lockFactory, repairResources);
 
-        Collection<LockFactory.DistributedLock> locks = getRepairResourceLocks(lockFactory,
-                repairResources,
-                metadata,
-                priority);
+        Collection<LockFactory.DistributedLock> locks;
+        if (lockFactory instanceof MultiResourceLockFactory && repairResources.size() > 1)
+        {
+            locks = getRepairResourceLocksConcurrently((MultiResourceLockFactory) lockFactory,
+                    repairResources,
+                    metadata,
+                    priority);
+        }
+        else
+        {
+            locks = getRepairResourceLocks(lockFactory,
+                    repairResources,
+                    metadata,
+                    priority);
+        }
 
         return new LockCollection(locks);
     }
@@ -112,6 +125,33 @@ public class RepairLockFactoryImpl implements RepairLockFactory
         }
     }
 
+    private Collection<LockFactory.DistributedLock> getRepairResourceLocksConcurrently(
+            final MultiResourceLockFactory lockFactory,
+            final Collection<RepairResource> repairResources,
+            final Map<String, String> metadata,
+            final int priority)
+            throws LockException
+    {
+        Map<String, String> resources = new LinkedHashMap<>();
+        for (RepairResource repairResource : repairResources)
+        {
+            resources.put(repairResource.getResourceName(LOCKS_PER_RESOURCE), repairResource.getDataCenter());
+        }
+
+        try
+        {
+            return lockFactory.tryLocks(resources, priority, metadata);
+        }
+        catch (LockException e)
+        {
+            LOG.debug("{} - Unable to get repair resource locks {} - {}",
+                    this,
+                    repairResources,
+                    e.getMessage());
+            throw e;
+        }
+    }
+
     private LockFactory.DistributedLock getLockForRepairResource(
             final LockFactory lockFactory,
             final RepairResource repairResource,
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair;
+
+import com.ericsson.bss.cassandra.ecchronos.core.JmxProxy;
+import com.ericsson.bss.cassandra.ecchronos.core.JmxProxyFactory;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.google.common.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.Notification;
+import javax.management.NotificationListener;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes repair progress notifications from the storage service to the repair tasks waiting for them.
+ * <p>
+ * One listener is added to the storage service per JMX connection while any repair task is running on it, instead of
+ * one listener per task that has to look at the notifications of all other tasks. Progress notifications are routed on
+ * the command number in their source. The command number is only known once the repair has been started, so
+ * notifications for a command that is not registered yet are kept and delivered when it is registered. A progress
+ * notification received on more than one connection is only delivered once, based on its sequence number. Connection
+ * notifications are delivered to the tasks registered on that connection.
+ * <p>
+ * Handlers are invoked without holding the lock of the dispatcher, notifications for one command are delivered one
+ * at a time and in order.
+ */
+final class RepairNotificationDispatcher implements NotificationListener
+{
+    private static final Logger LOG = LoggerFactory.getLogger(RepairNotificationDispatcher.class);
+
+    private static final String PROGRESS_TYPE = "progress";
+    private static final String REPAIR_TAG_PREFIX = "repair:";
+    private static final int MAX_UNCLAIMED_COMMANDS = 64;
+    private static final int MAX_UNCLAIMED_NOTIFICATIONS = 256;
+
+    // The dispatchers are shared by all tasks using the same JMX proxy factory
+    private static final LoadingCache<JmxProxyFactory, RepairNotificationDispatcher> DISPATCHERS = Caffeine.newBuilder()
+            .weakKeys()
+            .weakValues()
+            .build(jmxProxyFactory -> new RepairNotificationDispatcher());
+
+    private final Object mySubscriptionLock = new Object();
+    private final Map<Object, Subscription> mySubscriptions = new HashMap<>();
+    private final Map<Integer, Registration> myRegistrations = new HashMap<>();
+    private final Map<Integer, List<Notification>> myUnclaimed = new LinkedHashMap<>()
+    {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Integer, List<Notification>> eldest)
+        {
+            return size() > MAX_UNCLAIMED_COMMANDS;
+        }
+    };
+
+    @VisibleForTesting
+    RepairNotificationDispatcher()
+    {
+        // Use forFactory()
+    }
+
+    /**
+     * Get the dispatcher shared by all repair tasks using the JMX proxy factory.
+     *
+     * @param jmxProxyFactory The JMX proxy factory.
+     * @return The dispatcher.
+     */
+    static RepairNotificationDispatcher forFactory(final JmxProxyFactory jmxProxyFactory)
+    {
+        return DISPATCHERS.get(jmxProxyFactory);
+    }
+
+    /**
+     * Start receiving notifications on the connection of the proxy, the listener is added to the storage service by
+     * the first subscriber on the connection.
+     * <p>
+     * Must be called before the repair is started to not miss any notification for it.
+     *
+     * @param proxy The JMX proxy of the subscriber.
+     */
+    void subscribe(final JmxProxy proxy)
+    {
+        synchronized (mySubscriptionLock)
+        {
+            Subscription subscription = mySubscriptions.get(proxy.getConnection());
+            if (subscription == null)
+            {
+                proxy.addStorageServiceListener(this);
+                subscription = new Subscription(proxy);
+                mySubscriptions.put(proxy.getConnection(), subscription);
+            }
+            subscription.mySubscribers++;
+        }
+    }
+
+    /**
+     * Stop receiving notifications on the connection of the proxy, the listener is removed from the storage service
+     * by the last subscriber on the connection.
+     *
+     * @param proxy The JMX proxy of the subscriber.
+     */
+    void unsubscribe(final JmxProxy proxy)
+    {
+        synchronized (mySubscriptionLock)
+        {
+            Subscription subscription = mySubscriptions.get(proxy.getConnection());
+            if (subscription == null)
+            {
+                return;
+            }
+            subscription.mySubscribers--;
+            if (subscription.mySubscribers == 0)
+            {
+                mySubscriptions.remove(proxy.getConnection());
+                subscription.myProxy.removeStorageServiceListener(this);
+                if (mySubscriptions.isEmpty())
+                {
+                    clearUnclaimed();
+                }
+            }
+        }
+    }
+
+    /**
+     * Register the handler of a repair command, notifications already received for the command are delivered before
+     * this method returns.
+     *
+     * @param command The repair command.
+     * @param proxy The JMX proxy the repair was started with.
+     * @param handler The handler.
+     */
+    void register(final int command, final JmxProxy proxy, final NotificationListener handler)
+    {
+        Registration registration = new Registration(proxy.getConnection(), handler);
+        // Hold the registration while replaying so that new notifications are delivered after the replayed ones
+        synchronized (registration)
+        {
+            List<Notification> unclaimed;
+            synchronized (this)
+            {
+                myRegistrations.put(command, registration);
+                unclaimed = myUnclaimed.remove(command);
+            }
+            if (unclaimed != null)
+            {
+                for (Notification notification : unclaimed)
+                {
+                    registration.deliverProgress(notification, null);
+                }
+            }
+        }
+    }
+
+    synchronized void unregister(final int command)
+    {
+        myRegistrations.remove(command);
+    }
+
+    @Override
+    public void handleNotification(final Notification notification, final Object handback)
+    {
+        if (!PROGRESS_TYPE.equals(notification.getType()))
+        {
+            for (Registration registration : getRegistrations(notification.getSource()))
+            {
+                registration.deliver(notification, handback);
+            }
+            return;
+        }
+
+        Integer command = getCommand(notification.getSource());
+        if (command == null)
+        {
+            return;
+        }
+
+        Registration registration = getRegistrationOrKeep(command, notification);
+        if (registration != null)
+        {
+            registration.deliverProgress(notification, handback);
+        }
+    }
+
+    /**
+     * Get the registrations on a connection, or all registrations if the connection is not subscribed to.
+     */
+    private synchronized List<Registration> getRegistrations(final Object connection)
+    {
+        List<Registration> registrations = new ArrayList<>();
+        for (Registration registration : myRegistrations.values())
+        {
+            if (connection.equals(registration.myConnection))
+            {
+                registrations.add(registration);
+            }
+        }
+        return registrations.isEmpty() ? new ArrayList<>(myRegistrations.values()) : registrations;
+    }
+
+    private synchronized Registration getRegistrationOrKeep(final int command, final Notification notification)
+    {
+        Registration registration = myRegistrations.get(command);
+        if (registration == null)
+        {
+            List<Notification> unclaimed = myUnclaimed.computeIfAbsent(command, c -> new ArrayList<>());
+            if (unclaimed.size() < MAX_UNCLAIMED_NOTIFICATIONS && !containsSequence(unclaimed, notification))
+            {
+                unclaimed.add(notification);
+            }
+        }
+        return registration;
+    }
+
+    private synchronized void clearUnclaimed()
+    {
+        myUnclaimed.clear();
+    }
+
+    private static boolean containsSequence(final List<Notification> notifications, final Notification notification)
+    {
+        for (Notification other : notifications)
+        {
+            if (other.getSequenceNumber() == notification.getSequenceNumber())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Integer getCommand(final Object source)
+    {
+        if (!(source instanceof String) || !((String) source).startsWith(REPAIR_TAG_PREFIX))
+        {
+            return null;
+        }
+
+        try
+        {
+            return Integer.parseInt(((String) source).substring(REPAIR_TAG_PREFIX.length()));
+        }
+        catch (NumberFormatException e)
+        {
+            LOG.debug("Ignoring notification from {}", source);
+            return null;
+        }
+    }
+
+    private static final class Subscription
+    {
+        private final JmxProxy myProxy;
+        private int mySubscribers;
+
+        Subscription(final JmxProxy proxy)
+        {
+            myProxy = proxy;
+        }
+    }
+
+    private static final class Registration
+    {
+        private final Object myConnection;
+        private final NotificationListener myHandler;
+        private long myLastSequenceNumber = -1;
+
+        Registration(final Object connection, final NotificationListener handler)
+        {
+            myConnection = connection;
+            myHandler = handler;
+        }
+
+        synchronized void deliver(final Notification notification, final Object handback)
+        {
+            myHandler.handleNotification(notification, handback);
+        }
+
+        /**
+         * Deliver a progress notification unless it was already delivered from another connection.
+         */
+        synchronized void deliverProgress(final Notification notification, final Object handback)
+        {
+            if (notification.getSequenceNumber() <= myLastSequenceNumber)
+            {
+                return;
+            }
+            myLastSequenceNumber = notification.getSequenceNumber();
+            myHandler.handleNotification(notification, handback);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair;
+
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairEntry;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistory;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairState;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairStatus;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.DriverNode;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A repair history that reports successful repair sessions to a {@link RepairState}.
+ * <p>
+ * The session is first finished in the delegate repair history so that the repair entry is persisted before the
+ * repair state is notified.
+ */
+final class RepairStateNotifyingRepairHistory implements RepairHistory
+{
+    private final RepairHistory myDelegate;
+    private final RepairState myRepairState;
+
+    RepairStateNotifyingRepairHistory(final RepairHistory delegate, final RepairState repairState)
+    {
+        myDelegate = delegate;
+        myRepairState = repairState;
+    }
+
+    @Override
+    public RepairSession newSession(final TableReference tableReference,
+                                    final UUID jobId,
+                                    final LongTokenRange range,
+                                    final Set<DriverNode> participants)
+    {
+        return new NotifyingRepairSession(myDelegate.newSession(tableReference, jobId, range, participants),
+                range, participants);
+    }
+
+    private final class NotifyingRepairSession implements RepairSession
+    {
+        private final RepairSession myDelegateSession;
+        private final LongTokenRange myRange;
+        private final Set<DriverNode> myParticipants;
+        private volatile long myStartedAt;
+
+        NotifyingRepairSession(final RepairSession delegateSession,
+                               final LongTokenRange range,
+                               final Set<DriverNode> participants)
+        {
+            myDelegateSession = delegateSession;
+            myRange = range;
+            myParticipants = participants;
+        }
+
+        @Override
+        public void start()
+        {
+            myStartedAt = System.currentTimeMillis();
+            myDelegateSession.start();
+        }
+
+        @Override
+        public void finish(final RepairStatus repairStatus)
+        {
+            myDelegateSession.finish(repairStatus);
+            if (repairStatus == RepairStatus.SUCCESS && myStartedAt != 0L)
+            {
+                myRepairState.repairFinished(new RepairEntry(myRange, myStartedAt, System.currentTimeMillis(),
+                        myParticipants, repairStatus.toString()));
+            }
+        }
+    }
+}
@@ -31,30 +31,33 @@ import javax.management.Notification;
 import javax.management.NotificationListener;
 import javax.management.remote.JMXConnectionNotification;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public abstract class RepairTask implements NotificationListener
 {
     private static final Logger LOG = LoggerFactory.getLogger(RepairTask.class);
-    private static final Pattern RANGE_PATTERN = Pattern.compile("\\((-?[0-9]+),(-?[0-9]+)\\]");
     private static final int HEALTH_CHECK_INTERVAL = 10;
-    private final ScheduledExecutorService myExecutor = Executors.newSingleThreadScheduledExecutor(
-            new ThreadFactoryBuilder().setNameFormat("HangPreventingTask-%d").build());
-    private final CountDownLatch myLatch = new CountDownLatch(1);
+    private static final int RADIX = 10;
+    private static final long HEALTH_CHECK_INTERVAL_IN_NANOS = TimeUnit.MINUTES.toNanos(HEALTH_CHECK_INTERVAL);
+    // The hang preventing checks of all repair tasks are scheduled on the same thread
+    private static final ScheduledThreadPoolExecutor HANG_PREVENTION_EXECUTOR = createHangPreventionExecutor();
+    private final CompletableFuture<Void> myCompletion = new CompletableFuture<>();
+    private final RepairNotificationDispatcher myNotificationDispatcher;
     private final JmxProxyFactory myJmxProxyFactory;
     private final TableReference myTableReference;
     private final TableRepairMetrics myTableRepairMetrics;
     private final RepairConfiguration myRepairConfiguration;
     private volatile ScheduledFuture<?> myHangPreventFuture;
+    private volatile long myLastProgressInNanos;
     private volatile ScheduledJobException myLastError;
     private volatile boolean hasLostNotification = false;
     private volatile int myCommand;
@@ -68,6 +71,15 @@ public abstract class RepairTask implements NotificationListener
         myTableReference = Preconditions.checkNotNull(tableReference, "Table reference must be set");
         myRepairConfiguration = Preconditions.checkNotNull(repairConfiguration, "Repair configuration must be set");
         myTableRepairMetrics = tableRepairMetrics;
+        myNotificationDispatcher = RepairNotificationDispatcher.forFactory(myJmxProxyFactory);
+    }
+
+    private static ScheduledThreadPoolExecutor createHangPreventionExecutor()
+    {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+                new ThreadFactoryBuilder().setNameFormat("HangPreventingTask-%d").setDaemon(true).build());
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
     }
 
     /**
@@ -85,7 +97,7 @@ public abstract class RepairTask implements NotificationListener
         onExecute();
         try (JmxProxy proxy = myJmxProxyFactory.connect())
         {
-            rescheduleHangPrevention();
+            scheduleHangPrevention();
             repair(proxy);
             onFinish(RepairStatus.SUCCESS);
         }
@@ -119,34 +131,55 @@ public abstract class RepairTask implements NotificationListener
 
     private void repair(final JmxProxy proxy) throws ScheduledJobException
     {
-        proxy.addStorageServiceListener(this);
-        myCommand = proxy.repairAsync(myTableReference.getKeyspace(), getOptions());
-        if (myCommand > 0)
+        myNotificationDispatcher.subscribe(proxy);
+        try
         {
-            try
+            myCommand = proxy.repairAsync(myTableReference.getKeyspace(), getOptions());
+            if (myCommand > 0)
             {
-                myLatch.await();
-                proxy.removeStorageServiceListener(this);
-                verifyRepair(proxy);
-                if (myLastError != null)
-                {
-                    throw myLastError;
-                }
-                if (hasLostNotification)
-                {
-                    String msg = String.format("Repair-%d of %s had lost notifications", myCommand, myTableReference);
-                    LOG.warn(msg);
-                    throw new ScheduledJobException(msg);
-                }
-                LOG.debug("{} completed successfully", this);
-            }
-            catch (InterruptedException e)
-            {
-                LOG.warn("{} was interrupted", this, e);
-                Thread.currentThread().interrupt();
-                throw new ScheduledJobException(e);
+                awaitRepair(proxy);
             }
         }
+        finally
+        {
+            myNotificationDispatcher.unsubscribe(proxy);
+        }
+    }
+
+    private void awaitRepair(final JmxProxy proxy) throws ScheduledJobException
+    {
+        myNotificationDispatcher.register(myCommand, proxy, this);
+        try
+        {
+            myCompletion.get();
+        }
+        catch (InterruptedException e)
+        {
+            LOG.warn("{} was interrupted", this, e);
+            Thread.currentThread().interrupt();
+            throw new ScheduledJobException(e);
+        }
+        catch (ExecutionException e)
+        {
+            throw new ScheduledJobException(e.getCause());
+        }
+        finally
+        {
+            myNotificationDispatcher.unregister(myCommand);
+        }
+
+        verifyRepair(proxy);
+        if (myLastError != null)
+        {
+            throw myLastError;
+        }
+        if (hasLostNotification)
+        {
+            String msg = String.format("Repair-%d of %s had lost notifications", myCommand, myTableReference);
+            LOG.warn(msg);
+            throw new ScheduledJobException(msg);
+        }
+        LOG.debug("{} completed successfully", this);
     }
 
     /**
@@ -205,7 +238,11 @@ public abstract class RepairTask implements NotificationListener
      */
     public void cleanup()
     {
-        myExecutor.shutdown();
+        ScheduledFuture<?> hangPreventFuture = myHangPreventFuture;
+        if (hangPreventFuture != null)
+        {
+            hangPreventFuture.cancel(false);
+        }
     }
 
     /**
@@ -224,17 +261,13 @@ public abstract class RepairTask implements NotificationListener
         switch (notification.getType())
         {
         case "progress":
-            rescheduleHangPrevention();
-            String tag = (String) notification.getSource();
-            if (tag.equals("repair:" + myCommand))
-            {
-                Map<String, Integer> progress = (Map<String, Integer>) notification.getUserData();
+            myLastProgressInNanos = System.nanoTime();
+            Map<String, Integer> progress = (Map<String, Integer>) notification.getUserData();
 
-                String message = notification.getMessage();
-                ProgressEventType type = ProgressEventType.values()[progress.get("type")];
+            String message = notification.getMessage();
+            ProgressEventType type = ProgressEventType.values()[progress.get("type")];
 
-                this.progress(type, message);
-            }
+            this.progress(type, message);
             break;
 
         case JMXConnectionNotification.NOTIFS_LOST:
@@ -245,7 +278,7 @@ public abstract class RepairTask implements NotificationListener
         case JMXConnectionNotification.CLOSED:
             myLastError = new ScheduledJobException(
                     String.format("Unable to repair %s, error: %s", myTableReference, notification.getType()));
-            myLatch.countDown();
+            myCompletion.complete(null);
             break;
         default:
             LOG.warn("Unknown JMXConnectionNotification type: {}", notification.getType());
@@ -253,14 +286,11 @@ public abstract class RepairTask implements NotificationListener
         }
     }
 
-    private void rescheduleHangPrevention()
+    private void scheduleHangPrevention()
     {
-        if (myHangPreventFuture != null)
-        {
-            myHangPreventFuture.cancel(false);
-        }
+        myLastProgressInNanos = System.nanoTime();
         // Schedule the first check to happen after 10 minutes
-        myHangPreventFuture = myExecutor.schedule(new HangPreventingTask(), HEALTH_CHECK_INTERVAL,
+        myHangPreventFuture = HANG_PREVENTION_EXECUTOR.schedule(new HangPreventingTask(), HEALTH_CHECK_INTERVAL,
                 TimeUnit.MINUTES);
     }
 
@@ -284,13 +314,8 @@ public abstract class RepairTask implements NotificationListener
                 {
                     repairStatus = RepairStatus.FAILED;
                 }
-                Matcher rangeMatcher = RANGE_PATTERN.matcher(message);
-                while (rangeMatcher.find())
+                for (LongTokenRange completedRange : parseRanges(message))
                 {
-                    long start = Long.parseLong(rangeMatcher.group(1));
-                    long end = Long.parseLong(rangeMatcher.group(2));
-
-                    LongTokenRange completedRange = new LongTokenRange(start, end);
                     onRangeFinished(completedRange, repairStatus);
                 }
             }
@@ -301,10 +326,63 @@ public abstract class RepairTask implements NotificationListener
         }
         if (type == ProgressEventType.COMPLETE)
         {
-            myLatch.countDown();
+            myCompletion.complete(null);
         }
     }
 
+    /**
+     * Parse all token ranges in the format "(start,end]" from a progress message.
+     *
+     * @param message The progress message.
+     * @return The token ranges in the order they appear in the message.
+     */
+    @VisibleForTesting
+    static List<LongTokenRange> parseRanges(final String message)
+    {
+        List<LongTokenRange> ranges = new ArrayList<>();
+        int rangeStart = message.indexOf('(');
+        while (rangeStart != -1)
+        {
+            int separator = skipToken(message, rangeStart + 1);
+            if (separator != -1 && message.charAt(separator) == ',')
+            {
+                int rangeEnd = skipToken(message, separator + 1);
+                if (rangeEnd != -1 && message.charAt(rangeEnd) == ']')
+                {
+                    long start = Long.parseLong(message, rangeStart + 1, separator, RADIX);
+                    long end = Long.parseLong(message, separator + 1, rangeEnd, RADIX);
+                    ranges.add(new LongTokenRange(start, end));
+                }
+            }
+            rangeStart = message.indexOf('(', rangeStart + 1);
+        }
+        return ranges;
+    }
+
+    /**
+     * Skip a possibly negative number starting at the index.
+     *
+     * @return The index of the character following the number or -1 if there is no number or nothing follows it.
+     */
+    private static int skipToken(final String message, final int from)
+    {
+        int index = from;
+        if (index < message.length() && message.charAt(index) == '-')
+        {
+            index++;
+        }
+        int digitsStart = index;
+        while (index < message.length() && Character.isDigit(message.charAt(index)))
+        {
+            index++;
+        }
+        if (index == digitsStart || index >= message.length())
+        {
+            return -1;
+        }
+        return index;
+    }
+
     /**
      * Method called once a range is finished successfully. In case of multiple ranges being repaired this will be
      * called once per range. If this method is overriden make sure to call the super method.
@@ -374,7 +452,15 @@ public abstract class RepairTask implements NotificationListener
         {
             try (JmxProxy proxy = myJmxProxyFactory.connect())
             {
-                if (checkCount < MAX_CHECKS)
+                long sinceProgress = System.nanoTime() - myLastProgressInNanos;
+                if (sinceProgress < HEALTH_CHECK_INTERVAL_IN_NANOS)
+                {
+                    // Progress was made since the check was scheduled, wait until a full interval has passed without it
+                    checkCount = 0;
+                    myHangPreventFuture = HANG_PREVENTION_EXECUTOR.schedule(this,
+                            HEALTH_CHECK_INTERVAL_IN_NANOS - sinceProgress, TimeUnit.NANOSECONDS);
+                }
+                else if (checkCount < MAX_CHECKS)
                 {
                     String nodeStatus = proxy.getNodeStatus();
                     if (!NORMAL_STATUS.equals(nodeStatus))
@@ -382,19 +468,20 @@ public abstract class RepairTask implements NotificationListener
                         LOG.error("Local Cassandra node is down, aborting repair task.");
                         myLastError = new ScheduledJobException("Local Cassandra node is down");
                         proxy.forceTerminateAllRepairSessions();
-                        myLatch.countDown(); // Signal to abort the repair task
+                        myCompletion.complete(null); // Signal to abort the repair task
                     }
                     else
                     {
                         checkCount++;
-                        myHangPreventFuture = myExecutor.schedule(this, HEALTH_CHECK_INTERVAL, TimeUnit.MINUTES);
+                        myHangPreventFuture = HANG_PREVENTION_EXECUTOR.schedule(this, HEALTH_CHECK_INTERVAL,
+                                TimeUnit.MINUTES);
                     }
                 }
                 else
                 {
                     // After 3 successful checks or 30 minutes if still task is running terminate all repair sessions
                     proxy.forceTerminateAllRepairSessions();
-                    myLatch.countDown();
+                    myCompletion.complete(null);
                 }
             }
             catch (IOException e)
@@ -24,13 +24,12 @@ import com.ericsson.bss.cassandra.ecchronos.core.repair.state.ReplicaRepairGroup
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.VnodeRepairState;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.VnodeRepairStates;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.ScheduledTask;
-import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TokenMath;
 import com.google.common.base.Preconditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -53,6 +52,7 @@ public class TableRepairJob extends ScheduledRepairJob
     private final RepairState myRepairState;
     private final TableStorageStates myTableStorageStates;
     private final RepairHistory myRepairHistory;
+    private final AdaptiveRepairSizer myRepairSizer;
 
     TableRepairJob(final Builder builder)
     {
@@ -66,6 +66,7 @@ public class TableRepairJob extends ScheduledRepairJob
                         "Table storage states must be set");
         myRepairHistory = Preconditions.checkNotNull(builder.repairHistory,
                 "Repair history must be set");
+        myRepairSizer = new AdaptiveRepairSizer(builder.repairConfiguration);
     }
 
     /**
@@ -144,7 +145,11 @@ public class TableRepairJob extends ScheduledRepairJob
         {
             List<ScheduledTask> taskList = new ArrayList<>();
 
-            BigInteger tokensPerRepair = getTokensPerRepair(repairStateSnapshot.getVnodeRepairStates());
+            long tokensPerRepair = getTokensPerRepair(repairStateSnapshot.getVnodeRepairStates());
+            double bytesPerToken = myRepairSizer.isEnabled()
+                    ? getBytesPerToken(repairStateSnapshot.getVnodeRepairStates())
+                    : 0.0d;
+            RepairHistory repairHistory = new RepairStateNotifyingRepairHistory(myRepairHistory, myRepairState);
 
             for (ReplicaRepairGroup replicaRepairGroup : repairStateSnapshot.getRepairGroups())
             {
@@ -157,8 +162,9 @@ public class TableRepairJob extends ScheduledRepairJob
                         .withRepairResourceFactory(getRepairLockType().getLockFactory())
                         .withRepairLockFactory(REPAIR_LOCK_FACTORY)
                         .withTokensPerRepair(tokensPerRepair)
+                        .withRepairSizer(myRepairSizer, bytesPerToken)
                         .withRepairPolicies(getRepairPolicies())
-                        .withRepairHistory(myRepairHistory)
+                        .withRepairHistory(repairHistory)
                         .withJobId(getId());
 
                 taskList.add(builder.build(getRealPriority(replicaRepairGroup.getLastCompletedAt())));
@@ -280,28 +286,28 @@ public class TableRepairJob extends ScheduledRepairJob
         return String.format("Repair job of %s", getTableReference());
     }
 
-    private BigInteger getTokensPerRepair(final VnodeRepairStates vnodeRepairStates)
+    private long getTokensPerRepair(final VnodeRepairStates vnodeRepairStates)
     {
-        BigInteger tokensPerRepair = LongTokenRange.FULL_RANGE;
+        long tokensPerRepair = TokenMath.FULL_RING;
 
-        if (getRepairConfiguration().getTargetRepairSizeInBytes() != RepairConfiguration.FULL_REPAIR_SIZE)
+        long targetSizeInBytes = getRepairConfiguration().getTargetRepairSizeInBytes();
+        if (targetSizeInBytes != RepairConfiguration.FULL_REPAIR_SIZE
+                && !vnodeRepairStates.getVnodeRepairStates().isEmpty())
         {
-            BigInteger tableSizeInBytes = BigInteger.valueOf(myTableStorageStates.getDataSize(getTableReference()));
+            long tableSizeInBytes = myTableStorageStates.getDataSize(getTableReference());
 
-            if (!BigInteger.ZERO.equals(tableSizeInBytes))
+            if (tableSizeInBytes > targetSizeInBytes)
             {
-                BigInteger fullRangeSize = vnodeRepairStates.getVnodeRepairStates().stream()
-                        .map(VnodeRepairState::getTokenRange)
-                        .map(LongTokenRange::rangeSize)
-                        .reduce(BigInteger.ZERO, BigInteger::add);
+                long fullRangeSize = getFullRangeSize(vnodeRepairStates);
+                long targetRepairs = tableSizeInBytes / targetSizeInBytes;
 
-                BigInteger targetSizeInBytes = BigInteger.valueOf(
-                        getRepairConfiguration().getTargetRepairSizeInBytes());
-
-                if (tableSizeInBytes.compareTo(targetSizeInBytes) > 0)
+                if (TokenMath.compareSizes(fullRangeSize, targetRepairs) < 0)
+                {
+                    tokensPerRepair = 1L;
+                }
+                else
                 {
-                    BigInteger targetRepairs = tableSizeInBytes.divide(targetSizeInBytes);
-                    tokensPerRepair = fullRangeSize.divide(targetRepairs);
+                    tokensPerRepair = TokenMath.divideSize(fullRangeSize, targetRepairs);
                 }
             }
         }
@@ -309,6 +315,29 @@ public class TableRepairJob extends ScheduledRepairJob
         return tokensPerRepair;
     }
 
+    /**
+     * Sum the sizes of the vnodes, they are not overlapping so the sum is at most the full token ring.
+     */
+    private static long getFullRangeSize(final VnodeRepairStates vnodeRepairStates)
+    {
+        long fullRangeSize = 0L;
+        for (VnodeRepairState vnodeRepairState : vnodeRepairStates.getVnodeRepairStates())
+        {
+            fullRangeSize += vnodeRepairState.getTokenRange().unsignedRangeSize();
+        }
+        return fullRangeSize;
+    }
+
+    private double getBytesPerToken(final VnodeRepairStates vnodeRepairStates)
+    {
+        if (vnodeRepairStates.getVnodeRepairStates().isEmpty())
+        {
+            return 0.0d;
+        }
+        double fullRangeSize = TokenMath.sizeToDouble(getFullRangeSize(vnodeRepairStates));
+        return myTableStorageStates.getDataSize(getTableReference()) / fullRangeSize;
+    }
+
     @Override
     public final boolean equals(final Object o)
     {
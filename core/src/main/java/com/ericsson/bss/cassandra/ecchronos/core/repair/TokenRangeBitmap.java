@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair;
+
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Encodes the repaired token ranges of an on demand repair job as a bitmap over the sorted token ranges of the job.
+ * <p>
+ * A bitmap is only valid for the token ranges it was created from, the job is already discarded if its token ranges
+ * change so the index is stable for the lifetime of the job.
+ */
+final class TokenRangeBitmap
+{
+    private static final Comparator<LongTokenRange> RANGE_ORDER = Comparator
+            .<LongTokenRange>comparingLong(r -> r.start)
+            .thenComparingLong(r -> r.end);
+
+    private final LongTokenRange[] myRanges;
+    private final Map<LongTokenRange, Integer> myIndex;
+
+    TokenRangeBitmap(final Collection<LongTokenRange> ranges)
+    {
+        myRanges = ranges.toArray(new LongTokenRange[0]);
+        Arrays.sort(myRanges, RANGE_ORDER);
+        myIndex = new HashMap<>();
+        for (int i = 0; i < myRanges.length; i++)
+        {
+            myIndex.put(myRanges[i], i);
+        }
+    }
+
+    /**
+     * Encode the provided ranges, ranges that are not part of the job are ignored.
+     *
+     * @param ranges The repaired ranges.
+     * @return The bitmap
+     */
+    ByteBuffer encode(final Collection<LongTokenRange> ranges)
+    {
+        BitSet bits = new BitSet(myRanges.length);
+        for (LongTokenRange range : ranges)
+        {
+            Integer index = myIndex.get(range);
+            if (index != null)
+            {
+                bits.set(index);
+            }
+        }
+        return ByteBuffer.wrap(bits.toByteArray());
+    }
+
+    /**
+     * Decode a bitmap created by {@link #encode(Collection)}.
+     *
+     * @param bitmap The bitmap, may be null.
+     * @return The repaired ranges
+     */
+    Set<LongTokenRange> decode(final ByteBuffer bitmap)
+    {
+        Set<LongTokenRange> ranges = new HashSet<>();
+        if (bitmap == null)
+        {
+            return ranges;
+        }
+
+        BitSet bits = BitSet.valueOf(bitmap);
+        for (int i = bits.nextSetBit(0); i >= 0 && i < myRanges.length; i = bits.nextSetBit(i + 1))
+        {
+            ranges.add(myRanges[i]);
+        }
+        return ranges;
+    }
+}
@@ -17,10 +17,11 @@ package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
 import com.datastax.oss.driver.api.core.ConsistencyLevel;
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.PreparedStatement;
-import com.datastax.oss.driver.api.core.cql.ResultSet;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.schema.ClusteringOrder;
 import com.datastax.oss.driver.api.core.uuid.Uuids;
 import com.datastax.oss.driver.api.querybuilder.QueryBuilder;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.DriverNode;
@@ -32,6 +33,9 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
 import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableSet;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -67,12 +71,19 @@ public final class EccRepairHistory implements RepairHistory, RepairHistoryProvi
     private static final String COLUMN_STARTED_AT = "started_at";
     private static final String COLUMN_FINISHED_AT = "finished_at";
 
+    private static final long DEFAULT_SLICE_TIME_IN_MS = TimeUnit.DAYS.toMillis(1);
+    private static final long WRITE_TIMEOUT_IN_MS = TimeUnit.SECONDS.toMillis(10);
+
     private final long lookbackTimeInMs;
+    private final long sliceTimeInMs;
 
     private final CqlSession session;
     private final DriverNode localNode;
     private final StatementDecorator statementDecorator;
     private final ReplicationState replicationState;
+    private final RepairHistoryWriter repairHistoryWriter;
+    private final Counter rowsRead;
+    private final Counter bytesRead;
 
     private final PreparedStatement iterateStatement;
 
@@ -92,6 +103,12 @@ public final class EccRepairHistory implements RepairHistory, RepairHistoryProvi
         replicationState = Preconditions.checkNotNull(builder.replicationState,
                 "Replication state must be set");
         lookbackTimeInMs = builder.lookbackTimeInMs;
+        Preconditions.checkArgument(builder.sliceTimeInMs > 0,
+                "Slice time must be a positive number");
+        sliceTimeInMs = builder.sliceTimeInMs;
+        repairHistoryWriter = builder.repairHistoryWriter;
+        rowsRead = Counter.builder(PagedRowIterator.ROWS_READ).register(builder.meterRegistry);
+        bytesRead = Counter.builder(PagedRowIterator.BYTES_READ).baseUnit("bytes").register(builder.meterRegistry);
 
         createStatement = session.prepare(QueryBuilder.insertInto(builder.keyspaceName, "repair_history")
                         .value(COLUMN_TABLE_ID, bindMarker())
@@ -111,7 +128,8 @@ public final class EccRepairHistory implements RepairHistory, RepairHistoryProvi
                 .whereColumn(COLUMN_TABLE_ID).isEqualTo(bindMarker())
                 .whereColumn(COLUMN_NODE_ID).isEqualTo(bindMarker())
                 .whereColumn(COLUMN_REPAIR_ID).isGreaterThanOrEqualTo(bindMarker())
-                .whereColumn(COLUMN_REPAIR_ID).isLessThanOrEqualTo(bindMarker()).build()
+                .whereColumn(COLUMN_REPAIR_ID).isLessThanOrEqualTo(bindMarker())
+                .orderBy(COLUMN_REPAIR_ID, ClusteringOrder.DESC).build()
                 .setConsistencyLevel(ConsistencyLevel.LOCAL_ONE));
     }
 
@@ -157,23 +175,29 @@ public final class EccRepairHistory implements RepairHistory, RepairHistoryProvi
                                          final long from,
                                          final Predicate<RepairEntry> predicate)
     {
-        UUID start = Uuids.startOf(from);
-        UUID finish = Uuids.endOf(to);
-
         boolean clusterWide = false;
         if (!nodeId.equals(localNode.getId()))
         {
             clusterWide = true;
         }
-        Statement statement = iterateStatement.bind(tableReference.getId(), nodeId, start, finish);
-        ResultSet resultSet = execute(statement);
+        Iterator<Row> rowIterator = new PagedRowIterator(session, statementDecorator,
+                (sliceFrom, sliceTo) -> iterateStatement.bind(tableReference.getId(), nodeId,
+                        Uuids.startOf(sliceFrom), Uuids.endOf(sliceTo)),
+                from, to, sliceTimeInMs, rowsRead, bytesRead);
 
-        return new RepairEntryIterator(tableReference, resultSet, predicate, clusterWide);
+        return new RepairEntryIterator(tableReference, rowIterator, predicate, clusterWide);
     }
 
-    private ResultSet execute(final Statement statement)
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The repair history is clustered on the repair id in descending order and read starting with the most recent
+     * time slice. The repair id is generated when the session is finished.
+     */
+    @Override
+    public boolean isNewestFirst()
     {
-        return session.execute(statementDecorator.apply(statement));
+        return true;
     }
 
     private CompletionStage<AsyncResultSet> executeAsync(final Statement statement)
@@ -189,12 +213,12 @@ public final class EccRepairHistory implements RepairHistory, RepairHistoryProvi
         private final boolean clusterWide;
 
         RepairEntryIterator(final TableReference aTableReference,
-                            final ResultSet aResultSet,
+                            final Iterator<Row> aRowIterator,
                             final Predicate<RepairEntry> aPredicate,
                             final boolean isClusterWide)
         {
             this.tableReference = aTableReference;
-            this.rowIterator = aResultSet.iterator();
+            this.rowIterator = aRowIterator;
             this.predicate = aPredicate;
             this.clusterWide = isClusterWide;
         }
@@ -331,9 +355,43 @@ public final class EccRepairHistory implements RepairHistory, RepairHistoryProvi
             String rangeEnd = Long.toString(range.end);
             Instant finishedAt = Instant.now();
             repairId.compareAndSet(null, Uuids.timeBased());
+            if (repairHistoryWriter != null)
+            {
+                CompletableFuture<?>[] writes = new CompletableFuture[participants.size()];
+                int i = 0;
+                for (UUID participant : participants)
+                {
+                    writes[i++] = repairHistoryWriter.write(tableId, participant,
+                            bindFinish(rangeBegin, rangeEnd, repairStatus, finishedAt, participant));
+                }
+                repairHistoryWriter.requestFlush();
+                awaitWrites(writes);
+                return;
+            }
             insertWithRetry(participant -> insertFinish(rangeBegin, rangeEnd, repairStatus, finishedAt, participant));
         }
 
+        /**
+         * Wait for the queued writes so that the entry is persisted before the session is reported as finished.
+         * The repair id is generated when the session finishes, an entry written after it has been read past would
+         * not be seen by readers of the repair history.
+         */
+        private void awaitWrites(final CompletableFuture<?>[] writes)
+        {
+            try
+            {
+                CompletableFuture.allOf(writes).get(WRITE_TIMEOUT_IN_MS, TimeUnit.MILLISECONDS);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            catch (ExecutionException | TimeoutException e)
+            {
+                LOG.warn("Unable to update repair history for {}", this, e);
+            }
+        }
+
         private void insertWithRetry(final Function<UUID, CompletionStage<AsyncResultSet>> insertFunction)
         {
             Map<UUID, CompletableFuture> futures = new HashMap<>();
@@ -378,9 +436,17 @@ public final class EccRepairHistory implements RepairHistory, RepairHistoryProvi
                                                              final Instant finishedAt,
                                                              final UUID participant)
         {
-            Statement statement = createStatement.bind(tableId, participant, repairId.get(), jobId, nodeId, rangeBegin,
+            return executeAsync(bindFinish(rangeBegin, rangeEnd, repairStatus, finishedAt, participant));
+        }
+
+        private BoundStatement bindFinish(final String rangeBegin,
+                                          final String rangeEnd,
+                                          final RepairStatus repairStatus,
+                                          final Instant finishedAt,
+                                          final UUID participant)
+        {
+            return createStatement.bind(tableId, participant, repairId.get(), jobId, nodeId, rangeBegin,
                     rangeEnd, repairStatus.toString(), startedAt.get(), finishedAt);
-            return executeAsync(statement);
         }
 
         /**
@@ -421,6 +487,9 @@ public final class EccRepairHistory implements RepairHistory, RepairHistoryProvi
         private ReplicationState replicationState;
         private long lookbackTimeInMs;
         private String keyspaceName = "ecchronos";
+        private RepairHistoryWriter repairHistoryWriter;
+        private long sliceTimeInMs = DEFAULT_SLICE_TIME_IN_MS;
+        private MeterRegistry meterRegistry = new CompositeMeterRegistry();
 
         /**
          * Build ECC repair history with session.
@@ -495,6 +564,46 @@ public final class EccRepairHistory implements RepairHistory, RepairHistoryProvi
             return this;
         }
 
+        /**
+         * Build ECC repair history with a write-behind repair history writer.
+         * <p>
+         * When set, the inserts of finished sessions are batched with the inserts of other sessions in the writer. A
+         * session still waits for its inserts to be written before it is finished.
+         *
+         * @param aRepairHistoryWriter The repair history writer.
+         * @return Builder
+         */
+        public Builder withRepairHistoryWriter(final RepairHistoryWriter aRepairHistoryWriter)
+        {
+            this.repairHistoryWriter = aRepairHistoryWriter;
+            return this;
+        }
+
+        /**
+         * Build ECC repair history with the length of the time slices the repair history is read in.
+         *
+         * @param sliceTime Slice time.
+         * @param unit Time unit.
+         * @return Builder
+         */
+        public Builder withSliceTime(final long sliceTime, final TimeUnit unit)
+        {
+            this.sliceTimeInMs = TimeUnit.MILLISECONDS.convert(sliceTime, unit);
+            return this;
+        }
+
+        /**
+         * Build ECC repair history with meter registry.
+         *
+         * @param aMeterRegistry The meter registry.
+         * @return Builder
+         */
+        public Builder withMeterRegistry(final MeterRegistry aMeterRegistry)
+        {
+            this.meterRegistry = aMeterRegistry;
+            return this;
+        }
+
         /**
          * Build ECC repair history.
          *
@@ -15,8 +15,8 @@
 package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
 
 import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TokenMath;
 
-import java.math.BigInteger;
 import java.util.Objects;
 
 /**
@@ -30,19 +30,21 @@ import java.util.Objects;
  * smaller than the end.
  * This is useful to avoid dealing with token ranges wrapping around
  * the end of the token range.
+ *
+ * Normalized tokens are unsigned offsets as described in {@link TokenMath}.
  */
 @SuppressWarnings("VisibilityModifier")
 public class NormalizedBaseRange
 {
-    private static final BigInteger NORMALIZED_RANGE_START = BigInteger.ZERO;
+    private static final long NORMALIZED_RANGE_START = 0L;
 
     private final VnodeRepairState baseVnode;
-    final BigInteger end;
+    final long end;
 
     public NormalizedBaseRange(final VnodeRepairState aBaseVnode)
     {
         this.baseVnode = aBaseVnode;
-        this.end = baseVnode.getTokenRange().rangeSize();
+        this.end = baseVnode.getTokenRange().unsignedRangeSize();
     }
 
     /**
@@ -51,9 +53,9 @@ public class NormalizedBaseRange
      * @param normalizedToken The normalized token.
      * @return True if the token is in this range.
      */
-    public boolean inRange(final BigInteger normalizedToken)
+    public boolean inRange(final long normalizedToken)
     {
-        return normalizedToken.compareTo(NORMALIZED_RANGE_START) >= 0 && normalizedToken.compareTo(end) <= 0;
+        return TokenMath.compareOffsetToSize(normalizedToken, end) <= 0;
     }
 
     /**
@@ -71,15 +73,9 @@ public class NormalizedBaseRange
             throw new IllegalArgumentException(baseVnode + " is not covering " + subRange);
         }
 
-        BigInteger baseStart = BigInteger.valueOf(baseVnode.getTokenRange().start);
-
-        BigInteger normalizedStart = BigInteger.valueOf(subRange.getTokenRange().start).subtract(baseStart);
-        if (normalizedStart.compareTo(BigInteger.ZERO) < 0)
-        {
-            normalizedStart = normalizedStart.add(LongTokenRange.FULL_RANGE);
-        }
-
-        BigInteger normalizedEnd = normalizedStart.add(subRange.getTokenRange().rangeSize());
+        LongTokenRange tokenRange = subRange.getTokenRange();
+        long normalizedStart = TokenMath.rangeSize(baseVnode.getTokenRange().start, tokenRange.start);
+        long normalizedEnd = normalizedStart + tokenRange.unsignedRangeSize();
 
         return new NormalizedRange(this, normalizedStart, normalizedEnd, subRange.getStartedAt(),
                 subRange.getFinishedAt(), subRange.getRepairTime());
@@ -96,24 +92,13 @@ public class NormalizedBaseRange
      */
     public VnodeRepairState transform(final NormalizedRange range)
     {
-        BigInteger baseStart = BigInteger.valueOf(baseVnode.getTokenRange().start);
-
-        BigInteger startOffset = range.start();
-        BigInteger endOffset = range.end();
+        long baseStart = baseVnode.getTokenRange().start;
 
-        BigInteger realStart = baseStart.add(startOffset);
-        BigInteger realEnd = baseStart.add(endOffset);
-
-        if (realStart.compareTo(LongTokenRange.RANGE_END) > 0)
-        {
-            realStart = realStart.subtract(LongTokenRange.FULL_RANGE);
-        }
-        if (realEnd.compareTo(LongTokenRange.RANGE_END) > 0)
-        {
-            realEnd = realEnd.subtract(LongTokenRange.FULL_RANGE);
-        }
+        // Wraps around the token ring
+        long realStart = baseStart + range.start();
+        long realEnd = baseStart + range.end();
 
-        return new VnodeRepairState(new LongTokenRange(realStart.longValueExact(), realEnd.longValueExact()),
+        return new VnodeRepairState(new LongTokenRange(realStart, realEnd),
                 baseVnode.getReplicas(), range.getStartedAt(), range.getFinishedAt(), range.getRepairTime());
     }
 
@@ -135,7 +120,7 @@ public class NormalizedBaseRange
             return false;
         }
         NormalizedBaseRange that = (NormalizedBaseRange) o;
-        return baseVnode.equals(that.baseVnode) && end.equals(that.end);
+        return baseVnode.equals(that.baseVnode) && end == that.end;
     }
 
     /**
@@ -157,6 +142,6 @@ public class NormalizedBaseRange
     @Override
     public String toString()
     {
-        return String.format("(%d, %d]", NORMALIZED_RANGE_START, end);
+        return String.format("(%d, %d]", NORMALIZED_RANGE_START, TokenMath.sizeToBigInteger(end));
     }
 }
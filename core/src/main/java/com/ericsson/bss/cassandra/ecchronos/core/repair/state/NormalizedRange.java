@@ -14,7 +14,8 @@
  */
 package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
 
-import java.math.BigInteger;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TokenMath;
+
 import java.util.Objects;
 
 /**
@@ -25,21 +26,24 @@ import java.util.Objects;
  * When comparing normalized ranges the ones with lowest start comes first.
  * If two normalized ranges have the same start the one including more is sorted first.
  * E.g (5, 10], (5, 15] is ordered as (5, 15], (5, 10]
+ *
+ * The start and end are unsigned offsets as described in {@link TokenMath}, an end of 2^64 is represented by
+ * {@link TokenMath#FULL_RING}.
  */
 public class NormalizedRange implements Comparable<NormalizedRange>
 {
     static final long UNKNOWN_REPAIR_TIME = 0L;
     private final NormalizedBaseRange base;
-    private final BigInteger start;
-    private final BigInteger end;
+    private final long start;
+    private final long end;
 
     private final long startedAt;
     private final long finishedAt;
     private final long repairTime;
 
     NormalizedRange(final NormalizedBaseRange theBase,
-                    final BigInteger theStart,
-                    final BigInteger theEnd,
+                    final long theStart,
+                    final long theEnd,
                     final long wasStartedAt,
                     final long wasFinishedAt,
                     final long theRepairTime)
@@ -53,8 +57,8 @@ public class NormalizedRange implements Comparable<NormalizedRange>
     }
 
     NormalizedRange(final NormalizedBaseRange theBase,
-                    final BigInteger theStart,
-                    final BigInteger theEnd,
+                    final long theStart,
+                    final long theEnd,
                     final long wasStartedAt,
                     final long wasFinishedAt)
     {
@@ -76,7 +80,7 @@ public class NormalizedRange implements Comparable<NormalizedRange>
      *
      * @return The normalized start token
      */
-    public BigInteger start()
+    public long start()
     {
         return start;
     }
@@ -86,7 +90,7 @@ public class NormalizedRange implements Comparable<NormalizedRange>
      *
      * @return The normalized end token
      */
-    public BigInteger end()
+    public long end()
     {
         return end;
     }
@@ -128,7 +132,7 @@ public class NormalizedRange implements Comparable<NormalizedRange>
      * @param newStart The new normalized start token to use.
      * @return The new normalized range.
      */
-    public NormalizedRange mutateStart(final BigInteger newStart)
+    public NormalizedRange mutateStart(final long newStart)
     {
         if (!base.inRange(newStart))
         {
@@ -145,7 +149,7 @@ public class NormalizedRange implements Comparable<NormalizedRange>
      * @param newEnd The new normalized end token to use.
      * @return The new normalized range.
      */
-    public NormalizedRange mutateEnd(final BigInteger newEnd)
+    public NormalizedRange mutateEnd(final long newEnd)
     {
         if (!base.inRange(newEnd))
         {
@@ -171,7 +175,7 @@ public class NormalizedRange implements Comparable<NormalizedRange>
     {
         verifySameBaseRange(other.base);
 
-        if (end.compareTo(other.start) >= 0)
+        if (TokenMath.compareOffsetToSize(other.start, end) <= 0)
         {
             throw new IllegalArgumentException("Cannot create range between " + this + " -> " + other);
         }
@@ -191,7 +195,7 @@ public class NormalizedRange implements Comparable<NormalizedRange>
     {
         verifySameBaseRange(other.base);
 
-        if (start.compareTo(other.start) > 0 || other.start.compareTo(end) >= 0)
+        if (Long.compareUnsigned(start, other.start) > 0 || TokenMath.compareOffsetToSize(other.start, end) >= 0)
         {
             throw new IllegalArgumentException("Cannot split end of " + this + " with " + other);
         }
@@ -214,7 +218,7 @@ public class NormalizedRange implements Comparable<NormalizedRange>
     {
         verifySameBaseRange(other.base);
 
-        if (other.start.compareTo(end) != 0)
+        if (TokenMath.compareOffsetToSize(other.start, end) != 0)
         {
             throw new IllegalArgumentException("Range " + other + " is not adjacent to " + this);
         }
@@ -235,7 +239,7 @@ public class NormalizedRange implements Comparable<NormalizedRange>
     {
         verifySameBaseRange(other.base);
 
-        return start.compareTo(other.start) <= 0 && end.compareTo(other.end) >= 0;
+        return Long.compareUnsigned(start, other.start) <= 0 && TokenMath.compareSizes(end, other.end) >= 0;
     }
 
     private void verifySameBaseRange(final NormalizedBaseRange other)
@@ -254,13 +258,13 @@ public class NormalizedRange implements Comparable<NormalizedRange>
     {
         verifySameBaseRange(o.base);
 
-        int cmp = start.compareTo(o.start);
+        int cmp = Long.compareUnsigned(start, o.start);
         if (cmp != 0)
         {
             return cmp;
         }
 
-        return o.end.compareTo(end);
+        return TokenMath.compareSizes(o.end, end);
     }
 
     /**
@@ -282,8 +286,8 @@ public class NormalizedRange implements Comparable<NormalizedRange>
                 && finishedAt == that.finishedAt
                 && repairTime == that.repairTime
                 && base.equals(that.base)
-                && start.equals(that.start)
-                && end.equals(that.end);
+                && start == that.start
+                && end == that.end;
     }
 
     /**
@@ -301,7 +305,8 @@ public class NormalizedRange implements Comparable<NormalizedRange>
     @Override
     public String toString()
     {
-        return String.format("(%d, %d], %d-%d, repairtime: %d", start, end, startedAt, finishedAt, repairTime);
+        return String.format("(%s, %s], %d-%d, repairtime: %d", Long.toUnsignedString(start),
+                TokenMath.sizeToBigInteger(end), startedAt, finishedAt, repairTime);
     }
 
 }
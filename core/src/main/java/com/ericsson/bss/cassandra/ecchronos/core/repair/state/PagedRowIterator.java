@@ -0,0 +1,145 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.ericsson.bss.cassandra.ecchronos.connection.StatementDecorator;
+import com.google.common.base.Throwables;
+import com.google.common.collect.AbstractIterator;
+import io.micrometer.core.instrument.Counter;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Iterates the rows of a repair history table, reading the time window in slices starting with the most recent slice.
+ * <p>
+ * Each slice is read page by page using asynchronous requests, the next page of the slice is requested as soon as the
+ * current page is received. The next slice is only read when the last page of the previous slice has been consumed so
+ * a caller that stops iterating early will not read the remaining slices.
+ */
+final class PagedRowIterator extends AbstractIterator<Row>
+{
+    static final String ROWS_READ = "repair.history.read.rows";
+    static final String BYTES_READ = "repair.history.read.bytes";
+
+    /**
+     * Creates the statement reading the slice between two points in time, both inclusive.
+     */
+    @FunctionalInterface
+    interface SliceStatementFactory
+    {
+        Statement newStatement(long sliceFrom, long sliceTo);
+    }
+
+    private final CqlSession mySession;
+    private final StatementDecorator myStatementDecorator;
+    private final SliceStatementFactory mySliceStatementFactory;
+    private final long myFrom;
+    private final long mySliceInMs;
+    private final Counter myRowsRead;
+    private final Counter myBytesRead;
+
+    private long myNextSliceTo;
+    private Iterator<Row> myCurrentPage = Collections.emptyIterator();
+    private CompletionStage<AsyncResultSet> myNextPage;
+
+    PagedRowIterator(final CqlSession session,
+                     final StatementDecorator statementDecorator,
+                     final SliceStatementFactory sliceStatementFactory,
+                     final long from,
+                     final long to,
+                     final long sliceInMs,
+                     final Counter rowsRead,
+                     final Counter bytesRead)
+    {
+        mySession = session;
+        myStatementDecorator = statementDecorator;
+        mySliceStatementFactory = sliceStatementFactory;
+        myFrom = from;
+        mySliceInMs = sliceInMs;
+        myRowsRead = rowsRead;
+        myBytesRead = bytesRead;
+        myNextSliceTo = to;
+        myNextPage = readNextSlice();
+    }
+
+    @Override
+    protected Row computeNext()
+    {
+        while (!myCurrentPage.hasNext())
+        {
+            if (myNextPage == null)
+            {
+                myNextPage = readNextSlice();
+                if (myNextPage == null)
+                {
+                    return endOfData();
+                }
+            }
+
+            AsyncResultSet page = await(myNextPage);
+            myRowsRead.increment(page.remaining());
+            long responseSize = page.getExecutionInfo().getResponseSizeInBytes();
+            if (responseSize > 0)
+            {
+                myBytesRead.increment(responseSize);
+            }
+
+            myCurrentPage = page.currentPage().iterator();
+            myNextPage = page.hasMorePages() ? page.fetchNextPage() : null;
+        }
+
+        return myCurrentPage.next();
+    }
+
+    private CompletionStage<AsyncResultSet> readNextSlice()
+    {
+        if (myNextSliceTo < myFrom)
+        {
+            return null;
+        }
+
+        long sliceTo = myNextSliceTo;
+        long sliceFrom = Math.max(myFrom, sliceTo - mySliceInMs + 1);
+        myNextSliceTo = sliceFrom - 1;
+
+        Statement statement = mySliceStatementFactory.newStatement(sliceFrom, sliceTo);
+        return mySession.executeAsync(myStatementDecorator.apply(statement));
+    }
+
+    private static AsyncResultSet await(final CompletionStage<AsyncResultSet> stage)
+    {
+        try
+        {
+            return stage.toCompletableFuture().get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading repair history", e);
+        }
+        catch (ExecutionException e)
+        {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException("Unable to read repair history", e.getCause());
+        }
+    }
+}
@@ -62,4 +62,15 @@ public interface RepairHistoryProvider
      */
     Iterator<RepairEntry> iterate(UUID nodeId, TableReference tableReference, long to, long from,
                                   Predicate<RepairEntry> predicate);
+
+    /**
+     * Check if the repair entries are iterated strictly in the order they finished, starting with the most recent.
+     * This allows the caller to stop iterating once all ranges are known to be repaired after the current entry.
+     *
+     * @return True if the repair entries are iterated newest first.
+     */
+    default boolean isNewestFirst()
+    {
+        return false;
+    }
 }
@@ -16,9 +16,7 @@ package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
 
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.cql.PreparedStatement;
-import com.datastax.oss.driver.api.core.cql.ResultSet;
 import com.datastax.oss.driver.api.core.cql.Row;
-import com.datastax.oss.driver.api.core.cql.Statement;
 import com.ericsson.bss.cassandra.ecchronos.connection.StatementDecorator;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.DriverNode;
@@ -27,6 +25,9 @@ import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Predicate;
 import com.google.common.collect.AbstractIterator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,9 +36,10 @@ import java.time.Clock;
 import java.time.Instant;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation of the RepairHistoryProvider interface that retrieves the repair history from Cassandra.
@@ -57,6 +59,8 @@ public class RepairHistoryProviderImpl implements RepairHistoryProvider
     private static final String KEYSPACE_NAME = "system_distributed";
     private static final String REPAIR_HISTORY = "repair_history";
 
+    private static final long SLICE_TIME_IN_MS = TimeUnit.DAYS.toMillis(1);
+
     private static final String REPAIR_HISTORY_BY_TIME_STATEMENT = String
             .format("SELECT started_at, finished_at, range_begin, range_end, status, participants, coordinator "
                     + "FROM %s.%s WHERE keyspace_name=? AND columnfamily_name=? AND id >= minTimeuuid(?) and id <= "
@@ -69,13 +73,24 @@ public class RepairHistoryProviderImpl implements RepairHistoryProvider
     private final PreparedStatement myRepairHistoryByTimeStatement;
     private final long myLookbackTime;
     private final Clock myClock;
+    private final Counter myRowsRead;
+    private final Counter myBytesRead;
 
     public RepairHistoryProviderImpl(final NodeResolver nodeResolver,
                                      final CqlSession session,
                                      final StatementDecorator statementDecorator,
                                      final long lookbackTime)
     {
-        this(nodeResolver, session, statementDecorator, lookbackTime, Clock.systemDefaultZone());
+        this(nodeResolver, session, statementDecorator, lookbackTime, new CompositeMeterRegistry());
+    }
+
+    public RepairHistoryProviderImpl(final NodeResolver nodeResolver,
+                                     final CqlSession session,
+                                     final StatementDecorator statementDecorator,
+                                     final long lookbackTime,
+                                     final MeterRegistry meterRegistry)
+    {
+        this(nodeResolver, session, statementDecorator, lookbackTime, Clock.systemDefaultZone(), meterRegistry);
     }
 
     @VisibleForTesting
@@ -84,6 +99,16 @@ public class RepairHistoryProviderImpl implements RepairHistoryProvider
                               final StatementDecorator statementDecorator,
                               final long lookbackTime,
                               final Clock clock)
+    {
+        this(nodeResolver, session, statementDecorator, lookbackTime, clock, new CompositeMeterRegistry());
+    }
+
+    private RepairHistoryProviderImpl(final NodeResolver nodeResolver,
+                                      final CqlSession session,
+                                      final StatementDecorator statementDecorator,
+                                      final long lookbackTime,
+                                      final Clock clock,
+                                      final MeterRegistry meterRegistry)
     {
         myNodeResolver = nodeResolver;
         mySession = session;
@@ -91,6 +116,8 @@ public class RepairHistoryProviderImpl implements RepairHistoryProvider
         myRepairHistoryByTimeStatement = mySession.prepare(REPAIR_HISTORY_BY_TIME_STATEMENT);
         myLookbackTime = lookbackTime;
         myClock = clock;
+        myRowsRead = Counter.builder(PagedRowIterator.ROWS_READ).register(meterRegistry);
+        myBytesRead = Counter.builder(PagedRowIterator.BYTES_READ).baseUnit("bytes").register(meterRegistry);
     }
 
     /**
@@ -121,11 +148,12 @@ public class RepairHistoryProviderImpl implements RepairHistoryProvider
             throw new IllegalArgumentException(
                     "Invalid range when iterating " + tableReference + ", from (" + fromDate + ") to (" + toDate + ")");
         }
-        ResultSet resultSet =
-                execute(myRepairHistoryByTimeStatement.bind(tableReference.getKeyspace(), tableReference.getTable(),
-                        fromDate, toDate));
+        Iterator<Row> rowIterator = new PagedRowIterator(mySession, myStatementDecorator,
+                (sliceFrom, sliceTo) -> myRepairHistoryByTimeStatement.bind(tableReference.getKeyspace(),
+                        tableReference.getTable(), Instant.ofEpochMilli(sliceFrom), Instant.ofEpochMilli(sliceTo)),
+                from, to, SLICE_TIME_IN_MS, myRowsRead, myBytesRead);
 
-        return new RepairEntryIterator(resultSet.iterator(), predicate);
+        return new RepairEntryIterator(rowIterator, predicate);
     }
 
     /**
@@ -141,11 +169,6 @@ public class RepairHistoryProviderImpl implements RepairHistoryProvider
         return iterate(tableReference, to, from, predicate);
     }
 
-    private ResultSet execute(final Statement statement)
-    {
-        return mySession.execute(myStatementDecorator.apply(statement));
-    }
-
     class RepairEntryIterator extends AbstractIterator<RepairEntry>
     {
         private final Iterator<Row> myIterator;
@@ -171,27 +194,30 @@ public class RepairHistoryProviderImpl implements RepairHistoryProvider
 
                     LongTokenRange tokenRange = new LongTokenRange(rangeBegin, rangeEnd);
                     Set<InetAddress> participants = row.getSet(PARTICIPANTS_COLUMN, InetAddress.class);
-                    Set<DriverNode> nodes = new HashSet<>();
                     InetAddress coordinator = row.get(COORDINATOR_COLUMN, InetAddress.class);
-                    Optional<DriverNode> coordinatorNode = myNodeResolver.fromIp(coordinator);
-                    if (!coordinatorNode.isPresent())
+                    Set<InetAddress> addresses = new HashSet<>(participants);
+                    addresses.add(coordinator);
+                    Map<InetAddress, DriverNode> resolvedNodes = myNodeResolver.fromIps(addresses);
+                    Set<DriverNode> nodes = new HashSet<>();
+                    DriverNode coordinatorNode = resolvedNodes.get(coordinator);
+                    if (coordinatorNode == null)
                     {
                         LOG.warn("Coordinator node {} not found in metadata", coordinator);
                     }
                     else
                     {
-                        nodes.add(coordinatorNode.get());
+                        nodes.add(coordinatorNode);
                     }
                     for (InetAddress participant : participants)
                     {
-                        Optional<DriverNode> node = myNodeResolver.fromIp(participant);
-                        if (!node.isPresent())
+                        DriverNode node = resolvedNodes.get(participant);
+                        if (node == null)
                         {
                             LOG.warn("Node {} not found in metadata", participant);
                         }
                         else
                         {
-                            nodes.add(node.get());
+                            nodes.add(node);
                         }
                     }
                     String status = row.getString(STATUS_COLUMN);
@@ -0,0 +1,588 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
+
+import com.datastax.oss.driver.api.core.ConsistencyLevel;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchType;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.ericsson.bss.cassandra.ecchronos.connection.StatementDecorator;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind pipeline for repair history entries.
+ * <p>
+ * Inserts are queued and periodically grouped by their (table_id, node_id) partition into unlogged batches, so that
+ * each batch is a single partition write. The number of batches in flight is bounded and failed batches are retried
+ * with an exponential backoff. Queued entries are flushed when the writer is closed.
+ * <p>
+ * Each write returns a future that is completed once the entry has been written, so that a caller can wait for its
+ * entries to be persisted before they are relied upon. The number of queued writes is bounded, writes are rejected
+ * while the queue is full.
+ */
+public final class RepairHistoryWriter implements Closeable
+{
+    private static final Logger LOG = LoggerFactory.getLogger(RepairHistoryWriter.class);
+
+    static final String QUEUE_DEPTH = "repair.history.write.queue";
+    static final String WRITE_TIME = "repair.history.write";
+
+    private static final int DEFAULT_BATCH_SIZE = 16;
+    private static final int DEFAULT_MAX_IN_FLIGHT = 8;
+    private static final int DEFAULT_MAX_QUEUED_WRITES = 10_000;
+    private static final long DEFAULT_FLUSH_INTERVAL_IN_MS = 200;
+    private static final int DEFAULT_MAX_RETRIES = 3;
+    private static final long DEFAULT_RETRY_BACKOFF_IN_MS = 500;
+    private static final long DEFAULT_SHUTDOWN_TIMEOUT_IN_MS = TimeUnit.SECONDS.toMillis(10);
+
+    private final CqlSession mySession;
+    private final StatementDecorator myStatementDecorator;
+    private final int myBatchSize;
+    private final int myMaxQueuedWrites;
+    private final int myMaxRetries;
+    private final long myRetryBackoffInMs;
+    private final long myShutdownTimeoutInMs;
+
+    private final Queue<PendingWrite> myQueue = new ConcurrentLinkedQueue<>();
+    private final Deque<Batch> myUnsentBatches = new ArrayDeque<>();
+    private final AtomicInteger myQueuedWrites = new AtomicInteger();
+    private final AtomicBoolean myFlushRequested = new AtomicBoolean();
+    private final Semaphore myInFlightPermits;
+    private final Set<CompletableFuture<Void>> myInFlightBatches = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService myExecutor;
+
+    private final Timer mySuccessfulWriteTimer;
+    private final Timer myFailedWriteTimer;
+
+    private volatile boolean myClosed;
+
+    private RepairHistoryWriter(final Builder builder)
+    {
+        Preconditions.checkArgument(builder.myBatchSize > 0, "Batch size must be a positive number");
+        Preconditions.checkArgument(builder.myMaxInFlight > 0, "Max in flight must be a positive number");
+        Preconditions.checkArgument(builder.myMaxQueuedWrites > 0, "Max queued writes must be a positive number");
+        Preconditions.checkArgument(builder.myMaxRetries >= 0, "Max retries cannot be negative");
+
+        mySession = Preconditions.checkNotNull(builder.mySession, "Session cannot be null");
+        myStatementDecorator = Preconditions.checkNotNull(builder.myStatementDecorator,
+                "Statement decorator must be set");
+        myBatchSize = builder.myBatchSize;
+        myMaxQueuedWrites = builder.myMaxQueuedWrites;
+        myMaxRetries = builder.myMaxRetries;
+        myRetryBackoffInMs = builder.myRetryBackoffInMs;
+        myShutdownTimeoutInMs = builder.myShutdownTimeoutInMs;
+        myInFlightPermits = new Semaphore(builder.myMaxInFlight);
+
+        Gauge.builder(QUEUE_DEPTH, myQueuedWrites, AtomicInteger::get).register(builder.myMeterRegistry);
+        mySuccessfulWriteTimer = Timer.builder(WRITE_TIME)
+                .tags("successful", Boolean.TRUE.toString())
+                .register(builder.myMeterRegistry);
+        myFailedWriteTimer = Timer.builder(WRITE_TIME)
+                .tags("successful", Boolean.FALSE.toString())
+                .register(builder.myMeterRegistry);
+
+        myExecutor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("RepairHistoryWriter-%d").setDaemon(true).build());
+        myExecutor.scheduleWithFixedDelay(this::flushSafely, builder.myFlushIntervalInMs,
+                builder.myFlushIntervalInMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queue an insert into the repair history.
+     *
+     * @param tableId The table id of the partition written to.
+     * @param nodeId The node id of the partition written to.
+     * @param statement The insert statement.
+     * @return A future completed when the insert has been written or completed exceptionally if it was dropped.
+     */
+    public CompletableFuture<Void> write(final UUID tableId, final UUID nodeId, final BoundStatement statement)
+    {
+        if (myClosed && myExecutor.isShutdown())
+        {
+            LOG.warn("Repair history writer is closed, dropping write for table {} and node {}", tableId, nodeId);
+            return CompletableFuture.failedFuture(new IllegalStateException("Repair history writer is closed"));
+        }
+
+        if (myQueuedWrites.incrementAndGet() > myMaxQueuedWrites)
+        {
+            myQueuedWrites.decrementAndGet();
+            LOG.warn("Repair history write queue is full ({}), dropping write for table {} and node {}",
+                    myMaxQueuedWrites, tableId, nodeId);
+            return CompletableFuture.failedFuture(new IllegalStateException("Repair history write queue is full"));
+        }
+
+        PendingWrite pendingWrite = new PendingWrite(new Partition(tableId, nodeId), statement);
+        myQueue.add(pendingWrite);
+        if (myQueuedWrites.get() >= myBatchSize)
+        {
+            requestFlush();
+        }
+        return pendingWrite.myDone;
+    }
+
+    /**
+     * Flush the queued writes as soon as possible instead of waiting for the next flush interval.
+     */
+    public void requestFlush()
+    {
+        if (myFlushRequested.compareAndSet(false, true))
+        {
+            try
+            {
+                myExecutor.execute(this::flushSafely);
+            }
+            catch (RejectedExecutionException e)
+            {
+                myFlushRequested.set(false);
+                LOG.debug("Repair history writer is shutting down, writes will be flushed on close");
+            }
+        }
+    }
+
+    /**
+     * Get the number of queued writes that are not yet sent.
+     *
+     * @return The number of queued writes.
+     */
+    public int getQueueDepth()
+    {
+        return myQueuedWrites.get();
+    }
+
+    private void flushSafely()
+    {
+        try
+        {
+            flush();
+        }
+        catch (Exception e)
+        {
+            LOG.warn("Unable to flush repair history writes", e);
+        }
+    }
+
+    /**
+     * Group queued writes into batches and send as many as the in flight limit allows.
+     * Batches that cannot be sent are kept until the next flush.
+     */
+    @VisibleForTesting
+    synchronized void flush()
+    {
+        myFlushRequested.set(false);
+        Map<Partition, List<PendingWrite>> partitions = new LinkedHashMap<>();
+        for (PendingWrite pendingWrite = myQueue.poll(); pendingWrite != null; pendingWrite = myQueue.poll())
+        {
+            partitions.computeIfAbsent(pendingWrite.myPartition, p -> new ArrayList<>()).add(pendingWrite);
+        }
+
+        for (List<PendingWrite> writes : partitions.values())
+        {
+            for (int i = 0; i < writes.size(); i += myBatchSize)
+            {
+                myUnsentBatches.add(new Batch(writes.subList(i, Math.min(writes.size(), i + myBatchSize))));
+            }
+        }
+
+        while (!myUnsentBatches.isEmpty() && myInFlightPermits.tryAcquire())
+        {
+            Batch batch = myUnsentBatches.poll();
+            myQueuedWrites.addAndGet(-batch.myWrites.size());
+            myInFlightBatches.add(batch.myDone);
+            send(batch, 0);
+        }
+    }
+
+    private void send(final Batch batch, final int attempt)
+    {
+        long start = System.nanoTime();
+        CompletableFuture<?> future;
+        try
+        {
+            future = mySession.executeAsync(myStatementDecorator.apply(batch.toStatement())).toCompletableFuture();
+        }
+        catch (Exception e)
+        {
+            future = CompletableFuture.failedFuture(e);
+        }
+
+        future.whenComplete((result, throwable) ->
+        {
+            long timeTaken = System.nanoTime() - start;
+            if (throwable == null)
+            {
+                mySuccessfulWriteTimer.record(timeTaken, TimeUnit.NANOSECONDS);
+                complete(batch, null);
+            }
+            else
+            {
+                myFailedWriteTimer.record(timeTaken, TimeUnit.NANOSECONDS);
+                retry(batch, attempt, throwable);
+            }
+        });
+    }
+
+    private void retry(final Batch batch, final int attempt, final Throwable throwable)
+    {
+        if (attempt >= myMaxRetries)
+        {
+            LOG.warn("Unable to write {} repair history entries after {} attempts", batch.myWrites.size(),
+                    attempt + 1, throwable);
+            complete(batch, throwable);
+            return;
+        }
+
+        long backoffInMs = myRetryBackoffInMs << attempt;
+        LOG.debug("Unable to write {} repair history entries, retrying in {}ms", batch.myWrites.size(),
+                backoffInMs, throwable);
+        try
+        {
+            myExecutor.schedule(() -> send(batch, attempt + 1), backoffInMs, TimeUnit.MILLISECONDS);
+        }
+        catch (RejectedExecutionException e)
+        {
+            LOG.warn("Repair history writer is closed, dropping {} repair history entries",
+                    batch.myWrites.size(), throwable);
+            complete(batch, throwable);
+        }
+    }
+
+    private void complete(final Batch batch, final Throwable throwable)
+    {
+        myInFlightBatches.remove(batch.myDone);
+        myInFlightPermits.release();
+        batch.myDone.complete(null);
+        for (PendingWrite write : batch.myWrites)
+        {
+            if (throwable == null)
+            {
+                write.myDone.complete(null);
+            }
+            else
+            {
+                write.myDone.completeExceptionally(throwable);
+            }
+        }
+    }
+
+    private synchronized boolean isDrained()
+    {
+        return myQueue.isEmpty() && myUnsentBatches.isEmpty() && myInFlightBatches.isEmpty();
+    }
+
+    /**
+     * Flush all queued writes, waiting for them to complete for at most the shutdown timeout.
+     */
+    @Override
+    public void close()
+    {
+        myClosed = true;
+        long deadline = System.currentTimeMillis() + myShutdownTimeoutInMs;
+
+        try
+        {
+            while (!isDrained() && System.currentTimeMillis() < deadline)
+            {
+                flush();
+                CompletableFuture<?>[] inFlightBatches = myInFlightBatches.toArray(new CompletableFuture[0]);
+                if (inFlightBatches.length > 0)
+                {
+                    CompletableFuture.anyOf(inFlightBatches)
+                            .get(Math.max(1, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException | TimeoutException e)
+        {
+            LOG.debug("Interrupted while waiting for repair history writes", e);
+        }
+
+        myExecutor.shutdownNow();
+
+        if (myQueuedWrites.get() > 0 || !myInFlightBatches.isEmpty())
+        {
+            LOG.warn("Unable to write {} queued repair history entries and {} batches before shutdown",
+                    myQueuedWrites.get(), myInFlightBatches.size());
+        }
+        failUnsent();
+    }
+
+    private synchronized void failUnsent()
+    {
+        IllegalStateException closed = new IllegalStateException("Repair history writer is closed");
+        for (PendingWrite pendingWrite = myQueue.poll(); pendingWrite != null; pendingWrite = myQueue.poll())
+        {
+            pendingWrite.myDone.completeExceptionally(closed);
+        }
+        for (Batch batch = myUnsentBatches.poll(); batch != null; batch = myUnsentBatches.poll())
+        {
+            for (PendingWrite pendingWrite : batch.myWrites)
+            {
+                pendingWrite.myDone.completeExceptionally(closed);
+            }
+        }
+    }
+
+    private static final class Partition
+    {
+        private final UUID myTableId;
+        private final UUID myNodeId;
+
+        Partition(final UUID tableId, final UUID nodeId)
+        {
+            myTableId = tableId;
+            myNodeId = nodeId;
+        }
+
+        @Override
+        public boolean equals(final Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass())
+            {
+                return false;
+            }
+            Partition partition = (Partition) o;
+            return myTableId.equals(partition.myTableId) && myNodeId.equals(partition.myNodeId);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(myTableId, myNodeId);
+        }
+    }
+
+    private static final class PendingWrite
+    {
+        private final Partition myPartition;
+        private final BoundStatement myStatement;
+        private final CompletableFuture<Void> myDone = new CompletableFuture<>();
+
+        PendingWrite(final Partition partition, final BoundStatement statement)
+        {
+            myPartition = partition;
+            myStatement = statement;
+        }
+    }
+
+    private static final class Batch
+    {
+        private final List<PendingWrite> myWrites;
+        private final CompletableFuture<Void> myDone = new CompletableFuture<>();
+
+        Batch(final List<PendingWrite> writes)
+        {
+            myWrites = new ArrayList<>(writes);
+        }
+
+        Statement toStatement()
+        {
+            if (myWrites.size() == 1)
+            {
+                return myWrites.get(0).myStatement;
+            }
+            BoundStatement[] statements = new BoundStatement[myWrites.size()];
+            for (int i = 0; i < statements.length; i++)
+            {
+                statements[i] = myWrites.get(i).myStatement;
+            }
+            return BatchStatement.newInstance(BatchType.UNLOGGED, statements)
+                    .setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+        }
+    }
+
+    public static Builder newBuilder()
+    {
+        return new Builder();
+    }
+
+    public static class Builder
+    {
+        private CqlSession mySession;
+        private StatementDecorator myStatementDecorator;
+        private MeterRegistry myMeterRegistry = new CompositeMeterRegistry();
+        private int myBatchSize = DEFAULT_BATCH_SIZE;
+        private int myMaxInFlight = DEFAULT_MAX_IN_FLIGHT;
+        private int myMaxQueuedWrites = DEFAULT_MAX_QUEUED_WRITES;
+        private long myFlushIntervalInMs = DEFAULT_FLUSH_INTERVAL_IN_MS;
+        private int myMaxRetries = DEFAULT_MAX_RETRIES;
+        private long myRetryBackoffInMs = DEFAULT_RETRY_BACKOFF_IN_MS;
+        private long myShutdownTimeoutInMs = DEFAULT_SHUTDOWN_TIMEOUT_IN_MS;
+
+        /**
+         * Build repair history writer with session.
+         *
+         * @param session Session.
+         * @return Builder
+         */
+        public Builder withSession(final CqlSession session)
+        {
+            mySession = session;
+            return this;
+        }
+
+        /**
+         * Build repair history writer with statement decorator.
+         *
+         * @param statementDecorator The statement decorator.
+         * @return Builder
+         */
+        public Builder withStatementDecorator(final StatementDecorator statementDecorator)
+        {
+            myStatementDecorator = statementDecorator;
+            return this;
+        }
+
+        /**
+         * Build repair history writer with meter registry.
+         *
+         * @param meterRegistry The meter registry.
+         * @return Builder
+         */
+        public Builder withMeterRegistry(final MeterRegistry meterRegistry)
+        {
+            myMeterRegistry = meterRegistry;
+            return this;
+        }
+
+        /**
+         * Build repair history writer with the maximum number of entries per batch.
+         *
+         * @param batchSize The batch size.
+         * @return Builder
+         */
+        public Builder withBatchSize(final int batchSize)
+        {
+            myBatchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Build repair history writer with the maximum number of batches in flight.
+         *
+         * @param maxInFlight The maximum number of batches in flight.
+         * @return Builder
+         */
+        public Builder withMaxInFlight(final int maxInFlight)
+        {
+            myMaxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Build repair history writer with the maximum number of queued writes that are not yet sent.
+         *
+         * @param maxQueuedWrites The maximum number of queued writes.
+         * @return Builder
+         */
+        public Builder withMaxQueuedWrites(final int maxQueuedWrites)
+        {
+            myMaxQueuedWrites = maxQueuedWrites;
+            return this;
+        }
+
+        /**
+         * Build repair history writer with flush interval.
+         *
+         * @param flushInterval The flush interval.
+         * @param unit Time unit.
+         * @return Builder
+         */
+        public Builder withFlushInterval(final long flushInterval, final TimeUnit unit)
+        {
+            myFlushIntervalInMs = unit.toMillis(flushInterval);
+            return this;
+        }
+
+        /**
+         * Build repair history writer with retries.
+         *
+         * @param maxRetries The maximum number of retries for a batch.
+         * @param backoff The backoff before the first retry, doubled for each retry.
+         * @param unit Time unit.
+         * @return Builder
+         */
+        public Builder withRetries(final int maxRetries, final long backoff, final TimeUnit unit)
+        {
+            myMaxRetries = maxRetries;
+            myRetryBackoffInMs = unit.toMillis(backoff);
+            return this;
+        }
+
+        /**
+         * Build repair history writer with the maximum time to wait for queued writes on close.
+         *
+         * @param shutdownTimeout The shutdown timeout.
+         * @param unit Time unit.
+         * @return Builder
+         */
+        public Builder withShutdownTimeout(final long shutdownTimeout, final TimeUnit unit)
+        {
+            myShutdownTimeoutInMs = unit.toMillis(shutdownTimeout);
+            return this;
+        }
+
+        /**
+         * Build repair history writer.
+         *
+         * @return RepairHistoryWriter
+         */
+        public RepairHistoryWriter build()
+        {
+            return new RepairHistoryWriter(this);
+        }
+    }
+}
@@ -26,6 +26,15 @@ public interface RepairState
      */
     void update();
 
+    /**
+     * Notify the repair state that a repair of a token range has finished on the local node.
+     *
+     * The repair entry is applied to the repair state on the next {@link #update()}.
+     *
+     * @param repairEntry The finished repair.
+     */
+    void repairFinished(RepairEntry repairEntry);
+
     /**
      * Get an immutable copy of the current repair state.
      *
@@ -24,9 +24,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
@@ -37,7 +41,10 @@ public class RepairStateImpl implements RepairState
     private static final ThreadLocal<SimpleDateFormat> MY_DATE_FORMAT
             = ThreadLocal.withInitial(() -> new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US));
 
+    public static final long DEFAULT_RECONCILIATION_INTERVAL_IN_MS = TimeUnit.MINUTES.toMillis(5);
+
     private final AtomicReference<RepairStateSnapshot> myRepairStateSnapshot = new AtomicReference<>();
+    private final Queue<RepairEntry> myLocalRepairEntries = new ConcurrentLinkedQueue<>();
 
     private final TableReference myTableReference;
     private final RepairConfiguration myRepairConfiguration;
@@ -46,6 +53,9 @@ public class RepairStateImpl implements RepairState
     private final TableRepairMetrics myTableRepairMetrics;
     private final ReplicaRepairGroupFactory myReplicaRepairGroupFactory;
     private final PostUpdateHook myPostUpdateHook;
+    private final long myReconciliationIntervalInMs;
+
+    private volatile long myLastReconciledAt;
 
     public RepairStateImpl(final TableReference tableReference,
                            final RepairConfiguration repairConfiguration,
@@ -54,6 +64,36 @@ public class RepairStateImpl implements RepairState
                            final TableRepairMetrics tableRepairMetrics,
                            final ReplicaRepairGroupFactory replicaRepairGroupFactory,
                            final PostUpdateHook postUpdateHook)
+    {
+        this(tableReference, repairConfiguration, vnodeRepairStateFactory, hostStates, tableRepairMetrics,
+                replicaRepairGroupFactory, postUpdateHook, DEFAULT_RECONCILIATION_INTERVAL_IN_MS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * Local repair entries reported through {@link #repairFinished(RepairEntry)} are applied directly to the
+     * current snapshot. The repair history is read again at most once per reconciliation interval while the table
+     * needs repair, to pick up repairs performed by other nodes. Local repair entries are applied on top of the
+     * reconciled state as well since they might not have been written to the repair history yet.
+     *
+     * @param tableReference The table.
+     * @param repairConfiguration The repair configuration.
+     * @param vnodeRepairStateFactory The vnode repair state factory.
+     * @param hostStates The host states.
+     * @param tableRepairMetrics The table repair metrics.
+     * @param replicaRepairGroupFactory The replica repair group factory.
+     * @param postUpdateHook The post update hook.
+     * @param reconciliationIntervalInMs The minimum time between two reads of the repair history.
+     */
+    public RepairStateImpl(final TableReference tableReference,
+                           final RepairConfiguration repairConfiguration,
+                           final VnodeRepairStateFactory vnodeRepairStateFactory,
+                           final HostStates hostStates,
+                           final TableRepairMetrics tableRepairMetrics,
+                           final ReplicaRepairGroupFactory replicaRepairGroupFactory,
+                           final PostUpdateHook postUpdateHook,
+                           final long reconciliationIntervalInMs)
     {
         myTableReference = tableReference;
         myRepairConfiguration = repairConfiguration;
@@ -62,6 +102,7 @@ public class RepairStateImpl implements RepairState
         myTableRepairMetrics = tableRepairMetrics;
         myReplicaRepairGroupFactory = replicaRepairGroupFactory;
         myPostUpdateHook = postUpdateHook;
+        myReconciliationIntervalInMs = reconciliationIntervalInMs;
 
         update();
     }
@@ -72,28 +113,35 @@ public class RepairStateImpl implements RepairState
         RepairStateSnapshot oldRepairStateSnapshot = myRepairStateSnapshot.get();
         long now = System.currentTimeMillis();
         if (oldRepairStateSnapshot == null
-                || isRepairNeeded(oldRepairStateSnapshot.lastCompletedAt(),
+                || (now - myLastReconciledAt >= myReconciliationIntervalInMs
+                && isRepairNeeded(oldRepairStateSnapshot.lastCompletedAt(),
                 oldRepairStateSnapshot.getEstimatedRepairTime(),
-                now))
+                now)))
         {
+            List<RepairEntry> repairEntries = drainLocalRepairEntries();
             RepairStateSnapshot newRepairStateSnapshot = generateNewRepairState(oldRepairStateSnapshot, now);
-            if (myRepairStateSnapshot.compareAndSet(oldRepairStateSnapshot, newRepairStateSnapshot))
+            if (!repairEntries.isEmpty())
+            {
+                // The entries might not be written to the repair history yet
+                newRepairStateSnapshot = applyLocalRepairEntries(newRepairStateSnapshot, repairEntries);
+            }
+            if (switchRepairState(oldRepairStateSnapshot, newRepairStateSnapshot))
+            {
+                myLastReconciledAt = now;
+            }
+            else
             {
-                myTableRepairMetrics.lastRepairedAt(myTableReference, newRepairStateSnapshot.lastCompletedAt());
-
-                int nonRepairedRanges
-                        = (int) newRepairStateSnapshot.getVnodeRepairStates().getVnodeRepairStates().stream()
-                        .filter(v -> vnodeIsRepairable(v, newRepairStateSnapshot, System.currentTimeMillis()))
-                        .count();
-
-                int repairedRanges
-                        = newRepairStateSnapshot.getVnodeRepairStates().getVnodeRepairStates().size()
-                        - nonRepairedRanges;
-                myTableRepairMetrics.repairState(myTableReference, repairedRanges, nonRepairedRanges);
-                myTableRepairMetrics.remainingRepairTime(myTableReference,
-                        newRepairStateSnapshot.getRemainingRepairTime(System.currentTimeMillis(),
-                        myRepairConfiguration.getRepairIntervalInMs()));
-                LOG.trace("Table {} switched to repair state {}", myTableReference, newRepairStateSnapshot);
+                myLocalRepairEntries.addAll(repairEntries);
+            }
+        }
+        else if (!myLocalRepairEntries.isEmpty())
+        {
+            List<RepairEntry> repairEntries = drainLocalRepairEntries();
+            RepairStateSnapshot newRepairStateSnapshot = applyLocalRepairEntries(oldRepairStateSnapshot,
+                    repairEntries);
+            if (!switchRepairState(oldRepairStateSnapshot, newRepairStateSnapshot))
+            {
+                myLocalRepairEntries.addAll(repairEntries);
             }
         }
         else
@@ -103,6 +151,42 @@ public class RepairStateImpl implements RepairState
         myPostUpdateHook.postUpdate(myRepairStateSnapshot.get());
     }
 
+    /**
+     * Queue a repair entry of the local node to be applied on the next update.
+     *
+     * @param repairEntry The finished repair.
+     */
+    @Override
+    public void repairFinished(final RepairEntry repairEntry)
+    {
+        myLocalRepairEntries.add(repairEntry);
+    }
+
+    private boolean switchRepairState(final RepairStateSnapshot oldRepairStateSnapshot,
+                                      final RepairStateSnapshot newRepairStateSnapshot)
+    {
+        if (!myRepairStateSnapshot.compareAndSet(oldRepairStateSnapshot, newRepairStateSnapshot))
+        {
+            return false;
+        }
+        myTableRepairMetrics.lastRepairedAt(myTableReference, newRepairStateSnapshot.lastCompletedAt());
+
+        int nonRepairedRanges
+                = (int) newRepairStateSnapshot.getVnodeRepairStates().getVnodeRepairStates().stream()
+                .filter(v -> vnodeIsRepairable(v, newRepairStateSnapshot, System.currentTimeMillis()))
+                .count();
+
+        int repairedRanges
+                = newRepairStateSnapshot.getVnodeRepairStates().getVnodeRepairStates().size()
+                - nonRepairedRanges;
+        myTableRepairMetrics.repairState(myTableReference, repairedRanges, nonRepairedRanges);
+        myTableRepairMetrics.remainingRepairTime(myTableReference,
+                newRepairStateSnapshot.getRemainingRepairTime(System.currentTimeMillis(),
+                myRepairConfiguration.getRepairIntervalInMs()));
+        LOG.trace("Table {} switched to repair state {}", myTableReference, newRepairStateSnapshot);
+        return true;
+    }
+
     /**
      * Returns the repair state snapshot.
      *
@@ -121,6 +205,33 @@ public class RepairStateImpl implements RepairState
         return generateSnapshotForVnode(vnodeRepairStates, old, now);
     }
 
+    /**
+     * Apply the queued local repair entries to the snapshot.
+     *
+     * The creation time of the old snapshot is kept so that the next reconciliation reads all repair history
+     * written since the last time the history was read.
+     */
+    private RepairStateSnapshot applyLocalRepairEntries(final RepairStateSnapshot old,
+                                                        final List<RepairEntry> repairEntries)
+    {
+        VnodeRepairStates vnodeRepairStates = myVnodeRepairStateFactory.applyRepairEntries(myTableReference, old,
+                repairEntries);
+
+        return generateSnapshotForVnode(vnodeRepairStates, old, old.getCreatedAt());
+    }
+
+    private List<RepairEntry> drainLocalRepairEntries()
+    {
+        List<RepairEntry> repairEntries = new ArrayList<>();
+        RepairEntry repairEntry = myLocalRepairEntries.poll();
+        while (repairEntry != null)
+        {
+            repairEntries.add(repairEntry);
+            repairEntry = myLocalRepairEntries.poll();
+        }
+        return repairEntries;
+    }
+
     private RepairStateSnapshot generateSnapshotForVnode(final VnodeRepairStates vnodeRepairStates,
                                                          final RepairStateSnapshot old, final long createdAt)
     {
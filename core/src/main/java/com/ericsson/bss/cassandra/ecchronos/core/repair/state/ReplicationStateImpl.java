@@ -14,13 +14,17 @@
  */
 package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
 
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.metadata.Metadata;
@@ -35,32 +39,64 @@ import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.DriverNode;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.NodeResolver;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TokenRingIndex;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 
 import static com.ericsson.bss.cassandra.ecchronos.core.utils.Metadata.quoteIfNeeded;
 
 /**
  * Utility class to generate a token -&gt; replicas map for a specific table.
+ * <p>
+ * The replication of a keyspace is cached together with the driver {@link TokenMap} it was built from.
+ * The driver creates a new token map whenever the topology or the replication of a keyspace changes,
+ * so the replication is only rebuilt when the token map instance changes.
  */
 public class ReplicationStateImpl implements ReplicationState
 {
     private static final Logger LOG = LoggerFactory.getLogger(ReplicationStateImpl.class);
 
-    private static final Map<String, ImmutableMap<LongTokenRange, ImmutableSet<DriverNode>>>
-            KEYSPACE_REPLICATION_CACHE = new ConcurrentHashMap<>();
-    private static final Map<String, ImmutableMap<LongTokenRange, ImmutableSet<DriverNode>>>
-            CLUSTER_WIDE_KEYSPACE_REPLICATION_CACHE = new ConcurrentHashMap<>();
+    static final String REPLICATION_CACHE = "replication.cache";
+    static final String REPLICATION_REBUILD = "replication.rebuild";
+
+    private static final Map<String, CachedReplication> KEYSPACE_REPLICATION_CACHE = new ConcurrentHashMap<>();
+    private static final Map<String, CachedReplication> CLUSTER_WIDE_KEYSPACE_REPLICATION_CACHE
+            = new ConcurrentHashMap<>();
+    // Weak keys are compared by identity, the index is rebuilt when the cached replication is replaced
+    private static final Cache<ImmutableMap<LongTokenRange, ImmutableSet<DriverNode>>,
+            TokenRingIndex<ImmutableSet<DriverNode>>> TOKEN_RING_INDEX_CACHE = Caffeine.newBuilder()
+            .weakKeys()
+            .build();
 
     private final NodeResolver myNodeResolver;
     private final CqlSession mySession;
     private final Node myLocalNode;
+    private final Counter myCacheHits;
+    private final Counter myCacheMisses;
+    private final Timer myRebuildTimer;
 
     public ReplicationStateImpl(final NodeResolver nodeResolver, final CqlSession session, final Node localNode)
+    {
+        this(nodeResolver, session, localNode, new CompositeMeterRegistry());
+    }
+
+    public ReplicationStateImpl(final NodeResolver nodeResolver,
+                                final CqlSession session,
+                                final Node localNode,
+                                final MeterRegistry meterRegistry)
     {
         myNodeResolver = nodeResolver;
         mySession = session;
         myLocalNode = localNode;
+        myCacheHits = Counter.builder(REPLICATION_CACHE).tags("result", "hit").register(meterRegistry);
+        myCacheMisses = Counter.builder(REPLICATION_CACHE).tags("result", "miss").register(meterRegistry);
+        myRebuildTimer = Timer.builder(REPLICATION_REBUILD).register(meterRegistry);
     }
 
     /**
@@ -110,14 +146,7 @@ public class ReplicationStateImpl implements ReplicationState
 
         if (nodes == null)
         {
-            for (Map.Entry<LongTokenRange, ImmutableSet<DriverNode>> entry : replication.entrySet())
-            {
-                if (entry.getKey().isCovering(tokenRange))
-                {
-                    nodes = entry.getValue();
-                    break;
-                }
-            }
+            nodes = TOKEN_RING_INDEX_CACHE.get(replication, TokenRingIndex::new).getCovering(tokenRange);
         }
 
         return nodes;
@@ -139,9 +168,7 @@ public class ReplicationStateImpl implements ReplicationState
 
     private ImmutableMap<LongTokenRange, ImmutableSet<DriverNode>> maybeRenew(final String keyspace)
     {
-        ImmutableMap<LongTokenRange, ImmutableSet<DriverNode>> replication = buildTokenMap(keyspace, false);
-
-        return KEYSPACE_REPLICATION_CACHE.compute(keyspace, (k, v) -> !replication.equals(v) ? replication : v);
+        return maybeRenew(KEYSPACE_REPLICATION_CACHE, keyspace, false);
     }
 
     /**
@@ -159,38 +186,78 @@ public class ReplicationStateImpl implements ReplicationState
 
     private ImmutableMap<LongTokenRange, ImmutableSet<DriverNode>> maybeRenewClusterWide(final String keyspace)
     {
-        ImmutableMap<LongTokenRange, ImmutableSet<DriverNode>> replication = buildTokenMap(keyspace, true);
+        return maybeRenew(CLUSTER_WIDE_KEYSPACE_REPLICATION_CACHE, keyspace, true);
+    }
 
-        return CLUSTER_WIDE_KEYSPACE_REPLICATION_CACHE
-                .compute(keyspace, (k, v) -> !replication.equals(v) ? replication : v);
+    private ImmutableMap<LongTokenRange, ImmutableSet<DriverNode>> maybeRenew(
+            final Map<String, CachedReplication> cache,
+            final String keyspace,
+            final boolean clusterWide)
+    {
+        TokenMap tokenMap = getTokenMap();
+
+        CachedReplication cachedReplication = cache.get(keyspace);
+        if (cachedReplication != null && cachedReplication.myTokenMap == tokenMap)
+        {
+            myCacheHits.increment();
+            return cachedReplication.myReplication;
+        }
+
+        myCacheMisses.increment();
+        return cache.compute(keyspace, (k, v) ->
+        {
+            if (v != null && v.myTokenMap == tokenMap)
+            {
+                return v;
+            }
+
+            long start = System.nanoTime();
+            ImmutableMap<LongTokenRange, ImmutableSet<DriverNode>> replication
+                    = buildTokenMap(tokenMap, keyspace, clusterWide);
+            myRebuildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            // Keep the previous instance when unchanged so that derived caches stay valid
+            if (v != null && replication.equals(v.myReplication))
+            {
+                return new CachedReplication(tokenMap, v.myReplication);
+            }
+            LOG.debug("Replication for keyspace {} changed", keyspace);
+            return new CachedReplication(tokenMap, replication);
+        }).myReplication;
     }
 
-    private ImmutableMap<LongTokenRange, ImmutableSet<DriverNode>> buildTokenMap(final String keyspace,
-                                                                                 final boolean clusterWide)
+    private TokenMap getTokenMap()
     {
-        ImmutableMap.Builder<LongTokenRange, ImmutableSet<DriverNode>> replicationBuilder = ImmutableMap.builder();
-        Map<Set<Node>, ImmutableSet<DriverNode>> replicaCache = new HashMap<>();
         Metadata metadata = mySession.getMetadata();
         Optional<TokenMap> tokenMap = metadata.getTokenMap();
         if (!tokenMap.isPresent())
         {
             throw new IllegalStateException("Cannot determine ranges, is metadata/tokenMap disabled?");
         }
+        return tokenMap.get();
+    }
+
+    private ImmutableMap<LongTokenRange, ImmutableSet<DriverNode>> buildTokenMap(final TokenMap tokenMap,
+                                                                                 final String keyspace,
+                                                                                 final boolean clusterWide)
+    {
+        ImmutableMap.Builder<LongTokenRange, ImmutableSet<DriverNode>> replicationBuilder = ImmutableMap.builder();
+        Map<Set<Node>, ImmutableSet<DriverNode>> replicaCache = new HashMap<>();
         String keyspaceName = quoteIfNeeded(keyspace);
         Set<TokenRange> tokenRanges;
         if (clusterWide)
         {
-            tokenRanges = tokenMap.get().getTokenRanges();
+            tokenRanges = tokenMap.getTokenRanges();
         }
         else
         {
-            tokenRanges = tokenMap.get().getTokenRanges(keyspaceName, myLocalNode);
+            tokenRanges = tokenMap.getTokenRanges(keyspaceName, myLocalNode);
         }
         for (TokenRange tokenRange : tokenRanges)
         {
             LongTokenRange longTokenRange = convert(tokenRange);
             ImmutableSet<DriverNode> replicas
-                    = replicaCache.computeIfAbsent(tokenMap.get().getReplicas(keyspaceName, tokenRange), this::convert);
+                    = replicaCache.computeIfAbsent(tokenMap.getReplicas(keyspaceName, tokenRange), this::convert);
 
             replicationBuilder.put(longTokenRange, replicas);
         }
@@ -200,26 +267,37 @@ public class ReplicationStateImpl implements ReplicationState
 
     private ImmutableSet<DriverNode> convert(final Set<Node> nodes)
     {
+        List<InetAddress> addresses = new ArrayList<>(nodes.size());
+        for (Node node : nodes)
+        {
+            Optional<InetSocketAddress> broadcastAddress = node.getBroadcastAddress();
+            if (broadcastAddress.isPresent())
+            {
+                addresses.add(broadcastAddress.get().getAddress());
+            }
+            else
+            {
+                LOG.warn("Could not determine broadcast address for node {}", node.getHostId());
+            }
+        }
+
+        Map<InetAddress, DriverNode> resolvedNodes = myNodeResolver.fromIps(addresses);
         ImmutableSet.Builder<DriverNode> builder = new ImmutableSet.Builder<>();
         for (Node node : nodes)
         {
             Optional<InetSocketAddress> broadcastAddress = node.getBroadcastAddress();
             if (broadcastAddress.isPresent())
             {
-                Optional<DriverNode> resolvedNode = myNodeResolver.fromIp(broadcastAddress.get().getAddress());
-                if (resolvedNode.isPresent())
+                DriverNode resolvedNode = resolvedNodes.get(broadcastAddress.get().getAddress());
+                if (resolvedNode != null)
                 {
-                    builder.add(resolvedNode.get());
+                    builder.add(resolvedNode);
                 }
                 else
                 {
                     LOG.warn("Node {} - {} not found in node resolver", node.getHostId(), broadcastAddress.get());
                 }
             }
-            else
-            {
-                LOG.warn("Could not determine broadcast address for node {}", node.getHostId());
-            }
         }
         return builder.build();
     }
@@ -231,4 +309,17 @@ public class ReplicationStateImpl implements ReplicationState
         long end = ((Murmur3Token) range.getEnd()).getValue();
         return new LongTokenRange(start, end);
     }
+
+    private static final class CachedReplication
+    {
+        private final TokenMap myTokenMap;
+        private final ImmutableMap<LongTokenRange, ImmutableSet<DriverNode>> myReplication;
+
+        CachedReplication(final TokenMap tokenMap,
+                          final ImmutableMap<LongTokenRange, ImmutableSet<DriverNode>> replication)
+        {
+            myTokenMap = tokenMap;
+            myReplication = replication;
+        }
+    }
 }
@@ -15,9 +15,11 @@
 package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
 
 import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TokenRingIndex;
 import com.google.common.collect.ImmutableList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -93,16 +95,20 @@ public final class SubRangeRepairStates implements VnodeRepairStates // CPD-OFF
     public static class Builder implements VnodeRepairStates.Builder
     {
         private final ImmutableList<VnodeRepairState> myVnodeRepairStatesBase;
+        private final TokenRingIndex<VnodeRepairState> myVnodeRepairStatesBaseIndex;
         private final Map<LongTokenRange, VnodeRepairState> myActualVnodeRepairStates = new HashMap<>();
 
         public Builder(final Collection<VnodeRepairState> vnodeRepairStates)
         {
             ImmutableList.Builder<VnodeRepairState> builder = ImmutableList.builder();
+            Map<LongTokenRange, VnodeRepairState> baseRanges = new LinkedHashMap<>();
             for (VnodeRepairState vnodeRepairState : vnodeRepairStates)
             {
                 builder.add(vnodeRepairState);
+                baseRanges.putIfAbsent(vnodeRepairState.getTokenRange(), vnodeRepairState);
             }
             myVnodeRepairStatesBase = builder.build();
+            myVnodeRepairStatesBaseIndex = new TokenRingIndex<>(baseRanges);
         }
 
         /**
@@ -114,13 +120,10 @@ public final class SubRangeRepairStates implements VnodeRepairStates // CPD-OFF
         @Override
         public VnodeRepairStates.Builder updateVnodeRepairState(final VnodeRepairState vnodeRepairState)
         {
-            for (VnodeRepairState baseVnode : myVnodeRepairStatesBase)
+            VnodeRepairState baseVnode = myVnodeRepairStatesBaseIndex.getCovering(vnodeRepairState.getTokenRange());
+            if (baseVnode != null)
             {
-                if (baseVnode.getTokenRange().isCovering(vnodeRepairState.getTokenRange()))
-                {
-                    replaceIfNewer(baseVnode, vnodeRepairState);
-                    break;
-                }
+                replaceIfNewer(baseVnode, vnodeRepairState);
             }
 
             return this;
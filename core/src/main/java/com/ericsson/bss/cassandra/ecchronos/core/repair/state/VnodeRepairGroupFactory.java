@@ -21,10 +21,9 @@ import com.google.common.collect.ImmutableSet;
 
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * A factory for {@link ReplicaRepairGroup} that creates repair groups for all vnodes with common replicas.
@@ -41,34 +40,60 @@ public final class VnodeRepairGroupFactory implements ReplicaRepairGroupFactory
         // Nothing to do here
     }
 
+    /**
+     * Generate the repair groups with one pass over the vnodes.
+     * <br><br>
+     * The vnodes are put in a bucket per replica set, each bucket keeps the vnodes in the provided order and tracks
+     * the lowest repaired at.
+     * The buckets are then sorted on the lowest repaired at, where buckets with the same repaired at are ordered
+     * on the first vnode having it, which gives the same order as visiting the vnodes sorted on repaired at.
+     */
     @Override
     public List<ReplicaRepairGroup> generateReplicaRepairGroups(final List<VnodeRepairState> availableVnodeRepairStates)
     {
-        List<VnodeRepairState> sortedVnodeRepairStates = availableVnodeRepairStates.stream()
-                .sorted(Comparator.comparingLong(VnodeRepairState::lastRepairedAt))
-                .collect(Collectors.toList());
+        Map<ImmutableSet<DriverNode>, ReplicaGroupBucket> buckets = new HashMap<>();
 
-        List<ReplicaRepairGroup> sortedRepairGroups = new ArrayList<>();
-        Set<Set<DriverNode>> countedReplicaGroups = new HashSet<>();
-
-        for (VnodeRepairState vnodeRepairState : sortedVnodeRepairStates)
+        for (int i = 0; i < availableVnodeRepairStates.size(); i++)
         {
-            ImmutableSet<DriverNode> replicas = vnodeRepairState.getReplicas();
+            VnodeRepairState vnodeRepairState = availableVnodeRepairStates.get(i);
+            buckets.computeIfAbsent(vnodeRepairState.getReplicas(), ReplicaGroupBucket::new).add(vnodeRepairState, i);
+        }
 
-            if (countedReplicaGroups.add(replicas))
-            {
-                List<VnodeRepairState> vnodesForReplicas = availableVnodeRepairStates.stream()
-                        .filter(v -> v.getReplicas().equals(replicas)).collect(Collectors.toList());
-                RepairedAt repairedAt = RepairedAt.generate(vnodesForReplicas);
-                List<LongTokenRange> commonVnodes = vnodesForReplicas.stream()
-                        .map(VnodeRepairState::getTokenRange)
-                        .collect(Collectors.toList());
+        List<ReplicaGroupBucket> sortedBuckets = new ArrayList<>(buckets.values());
+        sortedBuckets.sort(Comparator.comparingLong((ReplicaGroupBucket b) -> b.myMinRepairedAt)
+                .thenComparingInt(b -> b.myMinRepairedAtIndex));
 
-                sortedRepairGroups.add(new ReplicaRepairGroup(replicas, ImmutableList.copyOf(commonVnodes),
-                        repairedAt.getMinRepairedAt()));
-            }
+        List<ReplicaRepairGroup> sortedRepairGroups = new ArrayList<>(sortedBuckets.size());
+        for (ReplicaGroupBucket bucket : sortedBuckets)
+        {
+            sortedRepairGroups.add(new ReplicaRepairGroup(bucket.myReplicas, bucket.myVnodes.build(),
+                    bucket.myMinRepairedAt));
         }
 
         return sortedRepairGroups;
     }
+
+    private static final class ReplicaGroupBucket
+    {
+        private final ImmutableSet<DriverNode> myReplicas;
+        private final ImmutableList.Builder<LongTokenRange> myVnodes = ImmutableList.builder();
+        private long myMinRepairedAt = Long.MAX_VALUE;
+        private int myMinRepairedAtIndex = -1;
+
+        ReplicaGroupBucket(final ImmutableSet<DriverNode> replicas)
+        {
+            myReplicas = replicas;
+        }
+
+        void add(final VnodeRepairState vnodeRepairState, final int index)
+        {
+            myVnodes.add(vnodeRepairState.getTokenRange());
+
+            if (myMinRepairedAtIndex == -1 || vnodeRepairState.lastRepairedAt() < myMinRepairedAt)
+            {
+                myMinRepairedAt = vnodeRepairState.lastRepairedAt();
+                myMinRepairedAtIndex = index;
+            }
+        }
+    }
 }
@@ -16,6 +16,8 @@ package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
 
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
 
+import java.util.Collection;
+
 /**
  * A factory to create {@link VnodeRepairStates} for a specific table.
  */
@@ -34,6 +36,19 @@ public interface VnodeRepairStateFactory
     VnodeRepairStates calculateNewState(TableReference tableReference, RepairStateSnapshot previous,
             long iterateToTime);
 
+    /**
+     * Apply repair entries on top of the previous repair state without reading the repair history.
+     *
+     * Entries that are not successful or that do not match the current replicas of the table are ignored.
+     *
+     * @param tableReference The table to apply the repair entries for.
+     * @param previous The previous repair state.
+     * @param repairEntries The repair entries to apply.
+     * @return The repair state with the repair entries applied.
+     */
+    VnodeRepairStates applyRepairEntries(TableReference tableReference, RepairStateSnapshot previous,
+            Collection<RepairEntry> repairEntries);
+
     /**
      * Calculate the repair state for a time window.
      *
@@ -17,16 +17,24 @@ package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.DriverNode;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TokenRingIndex;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A repair state factory which uses a {@link RepairHistoryProvider} to determine repair state.
@@ -35,6 +43,12 @@ public class VnodeRepairStateFactoryImpl implements VnodeRepairStateFactory
 {
     private static final Logger LOG = LoggerFactory.getLogger(VnodeRepairStateFactoryImpl.class);
 
+    // Allowed difference between the finished at time and the time of the repair id for an entry
+    private static final long CLOCK_MARGIN_IN_MS = TimeUnit.SECONDS.toMillis(1);
+
+    // Number of nodes for which the repair history is read at the same time when calculating cluster wide state
+    private static final int MAX_CONCURRENT_NODE_READS = 8;
+
     private final ReplicationState myReplicationState;
     private final RepairHistoryProvider myRepairHistoryProvider;
     private final boolean useSubRanges;
@@ -57,6 +71,7 @@ public class VnodeRepairStateFactoryImpl implements VnodeRepairStateFactory
     {
         Map<LongTokenRange, ImmutableSet<DriverNode>> tokenRangeToReplicaMap
                 = myReplicationState.getTokenRangeToReplicas(tableReference);
+        TokenRingIndex<ImmutableSet<DriverNode>> tokenRingIndex = new TokenRingIndex<>(tokenRangeToReplicaMap);
         long lastRepairedAt = previousLastRepairedAt(previous, tokenRangeToReplicaMap);
 
         Iterator<RepairEntry> repairEntryIterator;
@@ -65,17 +80,41 @@ public class VnodeRepairStateFactoryImpl implements VnodeRepairStateFactory
         {
             LOG.debug("No last repaired at found for {}, iterating over all repair entries", tableReference);
             repairEntryIterator = myRepairHistoryProvider.iterate(tableReference, iterateToTime,
-                    (repairEntry) -> acceptRepairEntries(repairEntry, tokenRangeToReplicaMap));
+                    (repairEntry) -> acceptRepairEntries(repairEntry, tokenRangeToReplicaMap, tokenRingIndex));
         }
         else
         {
             LOG.debug("Table {} snapshot created at {}, iterating repair entries until that time", tableReference,
                     previous.getCreatedAt());
             repairEntryIterator = myRepairHistoryProvider.iterate(tableReference, iterateToTime,
-                    previous.getCreatedAt(), (repairEntry) -> acceptRepairEntries(repairEntry, tokenRangeToReplicaMap));
+                    previous.getCreatedAt(),
+                    (repairEntry) -> acceptRepairEntries(repairEntry, tokenRangeToReplicaMap, tokenRingIndex));
         }
 
-        return generateVnodeRepairStates(lastRepairedAt, previous, repairEntryIterator, tokenRangeToReplicaMap);
+        return generateVnodeRepairStates(lastRepairedAt, previous, repairEntryIterator, tokenRangeToReplicaMap,
+                tokenRingIndex, myRepairHistoryProvider.isNewestFirst());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public VnodeRepairStates applyRepairEntries(final TableReference tableReference,
+                                                final RepairStateSnapshot previous,
+                                                final Collection<RepairEntry> repairEntries)
+    {
+        Map<LongTokenRange, ImmutableSet<DriverNode>> tokenRangeToReplicaMap
+                = myReplicationState.getTokenRangeToReplicas(tableReference);
+        TokenRingIndex<ImmutableSet<DriverNode>> tokenRingIndex = new TokenRingIndex<>(tokenRangeToReplicaMap);
+        long lastRepairedAt = previousLastRepairedAt(previous, tokenRangeToReplicaMap);
+
+        Iterator<RepairEntry> repairEntryIterator = repairEntries.stream()
+                .filter(repairEntry -> acceptRepairEntries(repairEntry, tokenRangeToReplicaMap, tokenRingIndex))
+                .iterator();
+
+        LOG.debug("Applying {} local repair entries to table {}", repairEntries.size(), tableReference);
+        return generateVnodeRepairStates(lastRepairedAt, previous, repairEntryIterator, tokenRangeToReplicaMap,
+                tokenRingIndex, false);
     }
 
     /**
@@ -88,10 +127,12 @@ public class VnodeRepairStateFactoryImpl implements VnodeRepairStateFactory
     {
         Map<LongTokenRange, ImmutableSet<DriverNode>> tokenRangeToReplicaMap
                 = myReplicationState.getTokenRangeToReplicas(tableReference);
+        TokenRingIndex<ImmutableSet<DriverNode>> tokenRingIndex = new TokenRingIndex<>(tokenRangeToReplicaMap);
         Iterator<RepairEntry> repairEntryIterator = myRepairHistoryProvider.iterate(tableReference, to, from,
-                (repairEntry) -> acceptRepairEntries(repairEntry, tokenRangeToReplicaMap));
+                (repairEntry) -> acceptRepairEntries(repairEntry, tokenRangeToReplicaMap, tokenRingIndex));
         return generateVnodeRepairStates(VnodeRepairState.UNREPAIRED,
-                null, repairEntryIterator, tokenRangeToReplicaMap);
+                null, repairEntryIterator, tokenRangeToReplicaMap, tokenRingIndex,
+                myRepairHistoryProvider.isNewestFirst());
     }
 
     /**
@@ -103,27 +144,35 @@ public class VnodeRepairStateFactoryImpl implements VnodeRepairStateFactory
                                                        final long from)
     {
         Map<LongTokenRange, ImmutableSet<DriverNode>> tokenRanges = myReplicationState.getTokenRanges(tableReference);
+        TokenRingIndex<ImmutableSet<DriverNode>> tokenRingIndex = new TokenRingIndex<>(tokenRanges);
         Set<DriverNode> allNodes = new HashSet<>();
         tokenRanges.values().forEach(n -> allNodes.addAll(n));
         List<RepairEntry> allRepairEntries = new ArrayList<>();
-        for (DriverNode node : allNodes)
+        // The history is requested asynchronously when iterating starts, keep the next nodes open while reading one
+        Deque<Iterator<RepairEntry>> openIterators = new ArrayDeque<>();
+        Iterator<DriverNode> nodeIterator = allNodes.iterator();
+        while (nodeIterator.hasNext() || !openIterators.isEmpty())
         {
-            Iterator<RepairEntry> repairEntryIterator = myRepairHistoryProvider.iterate(node.getId(),
-                    tableReference, to, from, (repairEntry) -> acceptRepairEntries(repairEntry, tokenRanges));
-            while (repairEntryIterator.hasNext())
+            while (nodeIterator.hasNext() && openIterators.size() < MAX_CONCURRENT_NODE_READS)
             {
-                RepairEntry repairEntry = repairEntryIterator.next();
-                allRepairEntries.add(repairEntry);
+                openIterators.add(myRepairHistoryProvider.iterate(nodeIterator.next().getId(),
+                        tableReference, to, from,
+                        (repairEntry) -> acceptRepairEntries(repairEntry, tokenRanges, tokenRingIndex)));
             }
+            Iterators.addAll(allRepairEntries, openIterators.poll());
         }
-        return generateVnodeRepairStates(VnodeRepairState.UNREPAIRED, null, allRepairEntries.iterator(), tokenRanges);
+        return generateVnodeRepairStates(VnodeRepairState.UNREPAIRED, null, allRepairEntries.iterator(), tokenRanges,
+                tokenRingIndex, false);
     }
 
     private VnodeRepairStates generateVnodeRepairStates(final long lastRepairedAt,
                                                         final RepairStateSnapshot previous,
                                                         final Iterator<RepairEntry> repairEntryIterator,
                                                         final Map<LongTokenRange, ImmutableSet<DriverNode>>
-                                                                tokenRangeToReplicaMap)
+                                                                tokenRangeToReplicaMap,
+                                                        final TokenRingIndex<ImmutableSet<DriverNode>>
+                                                                tokenRingIndex,
+                                                        final boolean newestFirst)
     {
         List<VnodeRepairState> vnodeRepairStatesBase = new ArrayList<>();
 
@@ -149,16 +198,29 @@ public class VnodeRepairStateFactoryImpl implements VnodeRepairStateFactory
             vnodeRepairStatusesBuilder.updateVnodeRepairStates(previous.getVnodeRepairStates().getVnodeRepairStates());
         }
 
+        RepairedVnodes repairedVnodes = new RepairedVnodes(tokenRangeToReplicaMap.keySet());
+
         while (repairEntryIterator.hasNext())
         {
             RepairEntry repairEntry = repairEntryIterator.next();
             LongTokenRange longTokenRange = repairEntry.getRange();
-            ImmutableSet<DriverNode> replicas = getReplicasForRange(longTokenRange, tokenRangeToReplicaMap);
+            ImmutableSet<DriverNode> replicas = getReplicasForRange(longTokenRange, tokenRangeToReplicaMap,
+                    tokenRingIndex);
 
             VnodeRepairState vnodeRepairState = new VnodeRepairState(longTokenRange,
                     replicas, repairEntry.getStartedAt(), repairEntry.getFinishedAt());
 
             vnodeRepairStatusesBuilder.updateVnodeRepairState(vnodeRepairState);
+
+            if (newestFirst)
+            {
+                repairedVnodes.update(repairEntry);
+                if (repairedVnodes.allRepairedAfter(repairEntry.getFinishedAt() + CLOCK_MARGIN_IN_MS))
+                {
+                    LOG.debug("All vnodes repaired after {}, skipping older repair entries", repairEntry);
+                    break;
+                }
+            }
         }
 
         return vnodeRepairStatusesBuilder.build();
@@ -194,7 +256,8 @@ public class VnodeRepairStateFactoryImpl implements VnodeRepairStateFactory
     }
 
     private boolean acceptRepairEntries(final RepairEntry repairEntry,
-                                        final Map<LongTokenRange, ImmutableSet<DriverNode>> tokenRangeToReplicaMap)
+                                        final Map<LongTokenRange, ImmutableSet<DriverNode>> tokenRangeToReplicaMap,
+                                        final TokenRingIndex<ImmutableSet<DriverNode>> tokenRingIndex)
     {
         if (RepairStatus.SUCCESS != repairEntry.getStatus())
         {
@@ -204,7 +267,7 @@ public class VnodeRepairStateFactoryImpl implements VnodeRepairStateFactory
 
         LongTokenRange repairedRange = repairEntry.getRange();
 
-        ImmutableSet<DriverNode> nodes = getReplicasForRange(repairedRange, tokenRangeToReplicaMap);
+        ImmutableSet<DriverNode> nodes = getReplicasForRange(repairedRange, tokenRangeToReplicaMap, tokenRingIndex);
         if (nodes == null)
         {
             LOG.trace("Ignoring entry {}, replicas not present in tokenRangeToReplicas", repairEntry);
@@ -222,21 +285,62 @@ public class VnodeRepairStateFactoryImpl implements VnodeRepairStateFactory
 
     private ImmutableSet<DriverNode> getReplicasForRange(final LongTokenRange range,
                                                          final Map<LongTokenRange, ImmutableSet<DriverNode>>
-                                                                 tokenRangeToReplicaMap)
+                                                                 tokenRangeToReplicaMap,
+                                                         final TokenRingIndex<ImmutableSet<DriverNode>>
+                                                                 tokenRingIndex)
     {
         ImmutableSet<DriverNode> nodes = tokenRangeToReplicaMap.get(range);
         if (nodes == null && useSubRanges)
         {
-            for (Map.Entry<LongTokenRange, ImmutableSet<DriverNode>> vnode : tokenRangeToReplicaMap.entrySet())
+            nodes = tokenRingIndex.getCovering(range);
+        }
+
+        return nodes;
+    }
+
+    /**
+     * Keeps track of the most recent repair of each vnode seen while iterating repair entries newest first.
+     * <p>
+     * Entries finished before all vnodes were repaired cannot change the repair state, since a repair can not
+     * be started after it finished.
+     */
+    private static final class RepairedVnodes
+    {
+        private final Map<LongTokenRange, Long> myLastRepairedAt = new HashMap<>();
+        private int myUnrepairedVnodes;
+        private long myOldestRepairedAt = VnodeRepairState.UNREPAIRED;
+
+        RepairedVnodes(final Set<LongTokenRange> vnodes)
+        {
+            for (LongTokenRange vnode : vnodes)
             {
-                if (vnode.getKey().isCovering(range))
-                {
-                    nodes = vnode.getValue();
-                    break;
-                }
+                myLastRepairedAt.put(vnode, VnodeRepairState.UNREPAIRED);
             }
+            myUnrepairedVnodes = myLastRepairedAt.size();
         }
 
-        return nodes;
+        void update(final RepairEntry repairEntry)
+        {
+            Long lastRepairedAt = myLastRepairedAt.get(repairEntry.getRange());
+            if (lastRepairedAt == null || repairEntry.getStartedAt() <= lastRepairedAt)
+            {
+                return;
+            }
+
+            myLastRepairedAt.put(repairEntry.getRange(), repairEntry.getStartedAt());
+            if (lastRepairedAt == VnodeRepairState.UNREPAIRED)
+            {
+                myUnrepairedVnodes--;
+            }
+            if (myUnrepairedVnodes == 0 && lastRepairedAt == myOldestRepairedAt)
+            {
+                myOldestRepairedAt = Collections.min(myLastRepairedAt.values());
+            }
+        }
+
+        boolean allRepairedAfter(final long time)
+        {
+            return myUnrepairedVnodes == 0 && myOldestRepairedAt > time;
+        }
     }
 }
@@ -14,10 +14,17 @@
  */
 package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
 
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TokenMath;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TokenRingIndex;
+import com.google.common.collect.Lists;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -92,6 +99,65 @@ public final class VnodeRepairStateSummarizer
     public static List<VnodeRepairState> summarizePartialVnodes(final List<VnodeRepairState> baseVnodes,
                                                                 final Collection<VnodeRepairState> partialVnodes,
                                                                 final MergeStrategy mergeStrategy)
+    {
+        Map<LongTokenRange, Integer> baseIndexes = new LinkedHashMap<>();
+        for (int i = 0; i < baseVnodes.size(); i++)
+        {
+            baseIndexes.putIfAbsent(baseVnodes.get(i).getTokenRange(), i);
+        }
+        TokenRingIndex<Integer> baseIndex = new TokenRingIndex<>(baseIndexes);
+
+        if (baseIndexes.size() != baseVnodes.size() || !baseIndex.isDisjoint())
+        {
+            return summarizeOverlappingVnodes(baseVnodes, partialVnodes, mergeStrategy);
+        }
+
+        // With disjoint base vnodes each partial vnode is covered by at most one base vnode
+        List<List<VnodeRepairState>> coveringPerBase = new ArrayList<>(Collections.nCopies(baseVnodes.size(), null));
+        List<VnodeRepairState> vnodeRepairStates = new ArrayList<>(partialVnodes.size() + baseVnodes.size());
+        for (VnodeRepairState actualState : partialVnodes)
+        {
+            Integer baseIndexOfState = baseIndex.getCovering(actualState.getTokenRange());
+            if (baseIndexOfState == null)
+            {
+                vnodeRepairStates.add(actualState);
+            }
+            else
+            {
+                if (coveringPerBase.get(baseIndexOfState) == null)
+                {
+                    coveringPerBase.set(baseIndexOfState, new ArrayList<>());
+                }
+                coveringPerBase.get(baseIndexOfState).add(actualState);
+            }
+        }
+
+        for (int i = 0; i < baseVnodes.size(); i++)
+        {
+            List<VnodeRepairState> covering = coveringPerBase.get(i);
+            if (covering == null)
+            {
+                vnodeRepairStates.add(baseVnodes.get(i));
+            }
+            else
+            {
+                vnodeRepairStates.addAll(new VnodeRepairStateSummarizer(baseVnodes.get(i), covering,
+                        mergeStrategy).summarize());
+            }
+        }
+
+        return vnodeRepairStates;
+    }
+
+    /**
+     * Summarize partial vnodes when the base vnodes overlap each other.
+     * <br><br>
+     * Base vnodes are handled in order and the summarized states of a base vnode can be summarized again by a later
+     * base vnode covering them.
+     */
+    private static List<VnodeRepairState> summarizeOverlappingVnodes(final List<VnodeRepairState> baseVnodes,
+                                                                     final Collection<VnodeRepairState> partialVnodes,
+                                                                     final MergeStrategy mergeStrategy)
     {
         List<VnodeRepairState> vnodeRepairStates = new ArrayList<>(partialVnodes);
 
@@ -123,68 +189,88 @@ public final class VnodeRepairStateSummarizer
 
     public List<VnodeRepairState> summarize()
     {
-        splitOverlapping();
+        List<VnodeRepairState> summarized = new ArrayList<>();
 
-        int i = 0;
-        for (; i < mySummarizedRanges.size() - 1; i++)
+        NormalizedRange current = null;
+        for (NormalizedRange next : splitOverlapping())
         {
-            NormalizedRange current = mySummarizedRanges.get(i);
-            NormalizedRange next = mySummarizedRanges.get(i + 1);
-
-            if (myMergeStrategy.shouldMerge(current, next))
+            if (current == null)
+            {
+                current = next;
+            }
+            else if (myMergeStrategy.shouldMerge(current, next))
             {
                 // If two vnodes are close in time we merge them together using
-                // the lowest timestamp of the two
-                mySummarizedRanges.add(i, current.combine(next));
-
-                mySummarizedRanges.remove(current);
-                mySummarizedRanges.remove(next);
-
-                // Check the newly generated vnode since it might be possible
-                // to merge it again
-                i--;
+                // the lowest timestamp of the two, the merged vnode might be merged again
+                current = current.combine(next);
+            }
+            else
+            {
+                summarized.add(myBaseVnode.transform(current));
+                current = next;
             }
         }
 
-        return mySummarizedRanges.stream()
-                .map(myBaseVnode::transform)
-                .collect(Collectors.toList());
+        if (current != null)
+        {
+            summarized.add(myBaseVnode.transform(current));
+        }
+
+        return summarized;
     }
 
-    private void splitOverlapping()
+    /**
+     * Sweep over the ranges in order and split them into adjacent non-overlapping ranges.
+     * <br><br>
+     * The current range is always the lowest pending range and is compared with the next lowest.
+     * Pending ranges are kept in descending order so that the sweep removes ranges from the end of the list,
+     * ranges split out during the sweep start at or after the current range and are inserted close to the end.
+     * Ranges that can not overlap any pending range are moved to the split ranges.
+     */
+    private List<NormalizedRange> splitOverlapping()
     {
-        int i = 0;
-        for (; i < mySummarizedRanges.size() - 1; i++)
+        List<NormalizedRange> splitRanges = new ArrayList<>(mySummarizedRanges.size());
+        List<NormalizedRange> pending = new ArrayList<>(Lists.reverse(mySummarizedRanges));
+
+        while (pending.size() > 1)
         {
-            NormalizedRange current = mySummarizedRanges.get(i);
-            NormalizedRange next = mySummarizedRanges.get(i + 1);
+            NormalizedRange current = pending.get(pending.size() - 1);
+            NormalizedRange next = pending.get(pending.size() - 2);
 
             if (current.isCovering(next))
             {
-                splitCoveringRange(current, next);
-                i--;
+                splitCoveringRange(current, next, splitRanges, pending);
             }
-            else if (current.end().compareTo(next.start()) > 0)
+            else if (TokenMath.compareOffsetToSize(next.start(), current.end()) < 0)
             {
                 // Replace e.g. "(5, 15], (8, 30]" with "(5, 8], (8, 15], (15, 30]"
                 // The middle section (8, 15] gets the highest "repaired at" of the two overlapping ranges
-                mySummarizedRanges.remove(current);
-                mySummarizedRanges.remove(next);
+                pending.remove(pending.size() - 1);
+                pending.remove(pending.size() - 1);
 
-                insertSorted(current.mutateEnd(next.start()), mySummarizedRanges);
-                insertSorted(current.splitEnd(next), mySummarizedRanges);
-                insertSorted(next.mutateStart(current.end()), mySummarizedRanges);
-                i--;
+                insertSorted(current.mutateEnd(next.start()), splitRanges, pending);
+                insertSorted(current.splitEnd(next), splitRanges, pending);
+                insertSorted(next.mutateStart(current.end()), splitRanges, pending);
+            }
+            else
+            {
+                splitRanges.add(pending.remove(pending.size() - 1));
             }
         }
+
+        splitRanges.addAll(pending);
+        return splitRanges;
     }
 
-    private void splitCoveringRange(final NormalizedRange covering, final NormalizedRange covered)
+    private void splitCoveringRange(final NormalizedRange covering,
+                                    final NormalizedRange covered,
+                                    final List<NormalizedRange> splitRanges,
+                                    final List<NormalizedRange> pending)
     {
         if (covering.getStartedAt() >= covered.getStartedAt())
         {
             // We already cover the sub range with a later repaired at, remove it
-            mySummarizedRanges.remove(covered);
+            pending.remove(pending.size() - 2);
         }
         else
         {
@@ -192,29 +278,61 @@ public final class VnodeRepairStateSummarizer
             // we replace the covering range with smaller ranges around the covered
             // range. The covered range is already in place in the list so there
             // is no need to modify it.
-            mySummarizedRanges.remove(covering);
+            pending.remove(pending.size() - 1);
 
-            if (covering.start().compareTo(covered.start()) != 0)
+            if (covering.start() != covered.start())
             {
-                insertSorted(covering.mutateEnd(covered.start()), mySummarizedRanges);
+                insertSorted(covering.mutateEnd(covered.start()), splitRanges, pending);
             }
-            if (covering.end().compareTo(covered.end()) != 0)
+            if (covering.end() != covered.end())
             {
-                insertSorted(covering.mutateStart(covered.end()), mySummarizedRanges);
+                insertSorted(covering.mutateStart(covered.end()), splitRanges, pending);
             }
         }
     }
 
-    private static void insertSorted(final NormalizedRange toInsert, final List<NormalizedRange> collection)
+    /**
+     * Insert a range as if the split ranges followed by the pending ranges in ascending order were one sorted list.
+     * <br><br>
+     * The binary search is the same as {@link java.util.Collections#binarySearch(List, Object)} on that list so that
+     * equal ranges end up in the same order as when inserting into a single list.
+     */
+    private static void insertSorted(final NormalizedRange toInsert,
+                                     final List<NormalizedRange> splitRanges,
+                                     final List<NormalizedRange> pending)
     {
-        int index = Collections.binarySearch(collection, toInsert);
+        int low = 0;
+        int high = splitRanges.size() + pending.size() - 1;
+        int index = -1;
+
+        while (low <= high && index == -1)
+        {
+            int mid = (low + high) >>> 1;
+            NormalizedRange midRange = mid < splitRanges.size()
+                    ? splitRanges.get(mid)
+                    : pending.get(pending.size() - 1 - (mid - splitRanges.size()));
+            int cmp = midRange.compareTo(toInsert);
+
+            if (cmp < 0)
+            {
+                low = mid + 1;
+            }
+            else if (cmp > 0)
+            {
+                high = mid - 1;
+            }
+            else
+            {
+                index = mid;
+            }
+        }
 
-        if (index < 0)
+        if (index == -1)
         {
-            index = (-index) - 1;
+            index = low;
         }
 
-        collection.add(index, toInsert);
+        pending.add(pending.size() - (index - splitRanges.size()), toInsert);
     }
 
     private static boolean isCloseInTime(final NormalizedRange v1, final NormalizedRange v2)
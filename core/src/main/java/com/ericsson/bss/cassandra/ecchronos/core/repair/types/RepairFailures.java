@@ -0,0 +1,80 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair.types;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import java.util.List;
+import java.util.Objects;
+
+@SuppressWarnings("VisibilityModifier")
+public class RepairFailures
+{
+    @NotBlank
+    @Min(0)
+    public long timeWindowInMs;
+    @NotBlank
+    @Min(0)
+    public int failureThreshold;
+    @NotBlank
+    @Min(0)
+    public long failures;
+    @NotBlank
+    public List<TableRepairFailures> tableFailures;
+
+    public RepairFailures(final long theTimeWindowInMs, final int theFailureThreshold, final long theFailures,
+                          final List<TableRepairFailures> theTableFailures)
+    {
+        this.timeWindowInMs = theTimeWindowInMs;
+        this.failureThreshold = theFailureThreshold;
+        this.failures = theFailures;
+        this.tableFailures = theTableFailures;
+    }
+
+    /**
+     * Equality.
+     *
+     * @param o The object to compare to.
+     * @return boolean
+     */
+    @Override
+    public boolean equals(final Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass())
+        {
+            return false;
+        }
+        RepairFailures that = (RepairFailures) o;
+        return timeWindowInMs == that.timeWindowInMs
+                && failureThreshold == that.failureThreshold
+                && failures == that.failures
+                && tableFailures.equals(that.tableFailures);
+    }
+
+    /**
+     * Hash representation.
+     *
+     * @return int
+     */
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(timeWindowInMs, failureThreshold, failures, tableFailures);
+    }
+}
@@ -31,12 +31,21 @@ public class RepairInfo
     public long toInMs;
     @NotBlank
     public List<RepairStats> repairStats;
+    @NotBlank
+    public boolean complete;
 
     public RepairInfo(final long since, final long to, final List<RepairStats> theRepairStats)
+    {
+        this(since, to, theRepairStats, true);
+    }
+
+    public RepairInfo(final long since, final long to, final List<RepairStats> theRepairStats,
+                      final boolean isComplete)
     {
         this.sinceInMs = since;
         this.toInMs = to;
         this.repairStats = theRepairStats;
+        this.complete = isComplete;
     }
 
     /**
@@ -59,6 +68,7 @@ public class RepairInfo
         RepairInfo that = (RepairInfo) o;
         return sinceInMs == that.sinceInMs
                 && toInMs == that.toInMs
+                && complete == that.complete
                 && repairStats.size() == that.repairStats.size()
                 && repairStats.containsAll(that.repairStats);
     }
@@ -71,6 +81,6 @@ public class RepairInfo
     @Override
     public int hashCode()
     {
-        return Objects.hash(sinceInMs, toInMs, repairStats);
+        return Objects.hash(sinceInMs, toInMs, repairStats, complete);
     }
 }
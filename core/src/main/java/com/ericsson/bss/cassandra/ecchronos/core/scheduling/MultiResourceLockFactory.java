@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.scheduling;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.ericsson.bss.cassandra.ecchronos.core.exceptions.LockException;
+
+/**
+ * Lock factory able to lock several distributed resources in one operation.
+ */
+public interface MultiResourceLockFactory extends LockFactory
+{
+    /**
+     * Try to lock all of the provided resources using the provided priority.
+     * <p>
+     * Either all resources are locked or none of them, any lock acquired is released before an exception is thrown.
+     *
+     * @param resources
+     *            The resources to lock mapped to the data center they belong to or null if it's a global lock.
+     * @param priority
+     *            The priority of the locks.
+     * @param metadata
+     *            The metadata of the locks.
+     * @return The locks, one for each resource.
+     * @throws LockException
+     *            If any of the resources could not be locked.
+     */
+    Collection<DistributedLock> tryLocks(Map<String, String> resources, int priority, Map<String, String> metadata)
+            throws LockException;
+}
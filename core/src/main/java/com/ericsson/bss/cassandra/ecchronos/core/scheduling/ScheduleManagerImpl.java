@@ -15,15 +15,23 @@
 package com.ericsson.bss.cassandra.ecchronos.core.scheduling;
 
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.LockException;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
@@ -31,6 +39,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * ScheduleManager handles the run scheduler and update scheduler.
+ * <p>
+ * Jobs are run by a configurable number of workers that share the same {@link ScheduledJobQueue}. A job is only run by
+ * one worker at a time, while the distributed locks of the tasks make sure that workers never repair overlapping
+ * resources concurrently.
  */
 public final class ScheduleManagerImpl implements ScheduleManager, Closeable
 {
@@ -38,40 +50,58 @@ public final class ScheduleManagerImpl implements ScheduleManager, Closeable
 
     static final long DEFAULT_RUN_DELAY_IN_MS = TimeUnit.SECONDS.toMillis(30);
 
+    static final int DEFAULT_WORKERS = 1;
+
     private static final String NO_RUNNING_JOB = "No job is currently running";
 
     private final ScheduledJobQueue myQueue = new ScheduledJobQueue(new DefaultJobComparator());
-    private final AtomicReference<ScheduledJob> currentExecutingJob = new AtomicReference<>();
+    private final Set<UUID> myRunningJobs = ConcurrentHashMap.newKeySet();
     private final Set<RunPolicy> myRunPolicies = Sets.newConcurrentHashSet();
-    private final ScheduledFuture<?> myRunFuture;
+    private final List<ScheduledFuture<?>> myRunFutures = new ArrayList<>();
 
-    private final JobRunTask myRunTask = new JobRunTask();
+    private final List<JobRunTask> myRunTasks = new ArrayList<>();
     private final LockFactory myLockFactory;
-    private final ScheduledExecutorService myExecutor = Executors.newSingleThreadScheduledExecutor(
-            new ThreadFactoryBuilder().setNameFormat("TaskExecutor-%d").build());
+    private final ScheduledExecutorService myExecutor;
 
     private ScheduleManagerImpl(final Builder builder)
     {
         myLockFactory = builder.myLockFactory;
-        myRunFuture = myExecutor.scheduleWithFixedDelay(myRunTask,
-                builder.myRunIntervalInMs,
-                builder.myRunIntervalInMs,
-                TimeUnit.MILLISECONDS);
+        myExecutor = Executors.newScheduledThreadPool(builder.myWorkers,
+                new ThreadFactoryBuilder().setNameFormat("TaskExecutor-%d").build());
+
+        for (int worker = 0; worker < builder.myWorkers; worker++)
+        {
+            JobRunTask runTask = new JobRunTask(worker);
+            myRunTasks.add(runTask);
+            myRunFutures.add(myExecutor.scheduleWithFixedDelay(runTask,
+                    builder.myRunIntervalInMs,
+                    builder.myRunIntervalInMs,
+                    TimeUnit.MILLISECONDS));
+        }
     }
 
+    /**
+     * Get the status of the jobs currently being run.
+     * <p>
+     * With a single worker the status of the running job is returned, with multiple workers the status of each
+     * worker is returned.
+     *
+     * @return The status of the running job(s).
+     */
     @Override
     public String getCurrentJobStatus()
     {
-        ScheduledJob job = currentExecutingJob.get();
-        if (job != null)
+        if (myRunTasks.size() == 1)
         {
-            String jobId = job.getId().toString();
-            return "Job ID: " + jobId + ", Status: Running";
+            return myRunTasks.get(0).getStatus();
         }
-        else
+
+        StringJoiner status = new StringJoiner("; ");
+        for (JobRunTask runTask : myRunTasks)
         {
-            return ScheduleManagerImpl.NO_RUNNING_JOB;
+            status.add("Worker " + runTask.myWorkerId + ": " + runTask.getStatus());
         }
+        return status.toString();
     }
     public boolean addRunPolicy(final RunPolicy runPolicy)
     {
@@ -100,9 +130,9 @@ public final class ScheduleManagerImpl implements ScheduleManager, Closeable
     @Override
     public void close()
     {
-        if (myRunFuture != null)
+        for (ScheduledFuture<?> runFuture : myRunFutures)
         {
-            myRunFuture.cancel(false);
+            runFuture.cancel(false);
         }
 
         myExecutor.shutdown();
@@ -115,7 +145,29 @@ public final class ScheduleManagerImpl implements ScheduleManager, Closeable
     @VisibleForTesting
     public void run()
     {
-        myRunTask.run();
+        run(0);
+    }
+
+    /**
+     * Made available for testing.
+     *
+     * @param worker The worker to run.
+     */
+    @VisibleForTesting
+    public void run(final int worker)
+    {
+        myRunTasks.get(worker).run();
+    }
+
+    /**
+     * Made available for testing.
+     *
+     * @return int Number of workers.
+     */
+    @VisibleForTesting
+    public int getWorkers()
+    {
+        return myRunTasks.size();
     }
 
     /**
@@ -146,15 +198,32 @@ public final class ScheduleManagerImpl implements ScheduleManager, Closeable
 
 
     /**
-     * Internal run task that is scheduled by the {@link ScheduleManagerImpl}.
+     * Internal run task that is scheduled by the {@link ScheduleManagerImpl}, one instance per worker.
      * <p>
      * Retrieves a job from the queue and tries to run it provided that it's possible to get the required locks.
+     * Jobs are claimed by a worker before their state is refreshed or validated, jobs claimed by another worker are
+     * skipped so that the state of a job is only accessed by one worker at a time.
      */
     private class JobRunTask implements Runnable
     {
+        private final int myWorkerId;
+        private final AtomicBoolean myIsRunning = new AtomicBoolean();
+        private final AtomicReference<ScheduledJob> myCurrentExecutingJob = new AtomicReference<>();
+
+        JobRunTask(final int workerId)
+        {
+            myWorkerId = workerId;
+        }
+
         @Override
         public void run()
         {
+            if (!myIsRunning.compareAndSet(false, true))
+            {
+                LOG.debug("Worker {} is already running", myWorkerId);
+                return;
+            }
+
             try
             {
                 tryRunNext();
@@ -163,22 +232,49 @@ public final class ScheduleManagerImpl implements ScheduleManager, Closeable
             {
                 LOG.error("Unexpected exception while running job", e);
             }
+            finally
+            {
+                myIsRunning.set(false);
+            }
+        }
+
+        String getStatus()
+        {
+            ScheduledJob job = myCurrentExecutingJob.get();
+            if (job != null)
+            {
+                String jobId = job.getId().toString();
+                return "Job ID: " + jobId + ", Status: Running";
+            }
+            else
+            {
+                return ScheduleManagerImpl.NO_RUNNING_JOB;
+            }
         }
 
         private void tryRunNext()
         {
-            for (ScheduledJob next : myQueue)
+            Iterator<ScheduledJob> iterator = myQueue.claimingIterator(myRunningJobs);
+            while (iterator.hasNext())
             {
-                if (validate(next))
+                ScheduledJob next = iterator.next();
+                try
                 {
-                    currentExecutingJob.set(next);
-                    if (tryRunTasks(next))
+                    if (validate(next))
                     {
-                        break;
+                        myCurrentExecutingJob.set(next);
+                        if (tryRunTasks(next))
+                        {
+                            break;
+                        }
                     }
                 }
+                finally
+                {
+                    myCurrentExecutingJob.set(null);
+                    myRunningJobs.remove(next.getId());
+                }
             }
-            currentExecutingJob.set(null);
         }
 
         private boolean validate(final ScheduledJob job)
@@ -256,6 +352,7 @@ public final class ScheduleManagerImpl implements ScheduleManager, Closeable
     {
         private LockFactory myLockFactory;
         private long myRunIntervalInMs = DEFAULT_RUN_DELAY_IN_MS;
+        private int myWorkers = DEFAULT_WORKERS;
 
         public final Builder withLockFactory(final LockFactory lockFactory)
         {
@@ -269,6 +366,18 @@ public final class ScheduleManagerImpl implements ScheduleManager, Closeable
             return this;
         }
 
+        /**
+         * Set the number of workers that run jobs in parallel.
+         *
+         * @param workers The number of workers, must be at least one.
+         * @return The builder
+         */
+        public final Builder withWorkers(final int workers)
+        {
+            Preconditions.checkArgument(workers > 0, "Number of workers must be positive");
+            myWorkers = workers;
+            return this;
+        }
 
         public final ScheduleManagerImpl build()
         {
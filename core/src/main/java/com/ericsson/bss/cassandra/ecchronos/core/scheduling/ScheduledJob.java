@@ -113,6 +113,20 @@ public abstract class ScheduledJob implements Iterable<ScheduledTask>
         return myNextRunTime <= System.currentTimeMillis() && getRealPriority() > -1;
     }
 
+    /**
+     * Get the earliest point in time at which this job could become runnable.
+     * <p>
+     * This is the time when the job is allowed to run again, either after a back off or after the run interval has
+     * passed since the last successful run. The job is not runnable before this time, but it is not guaranteed to be
+     * runnable after it.
+     *
+     * @return The next eligible time in milliseconds since epoch.
+     */
+    public long getNextEligibleTime()
+    {
+        return Math.max(myNextRunTime, getLastSuccessfulRun() + myRunIntervalInMs - getRunOffset());
+    }
+
     /**
      * Get current State of the job.
      *
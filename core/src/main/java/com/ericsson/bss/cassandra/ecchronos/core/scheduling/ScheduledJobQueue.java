@@ -14,34 +14,50 @@
  */
 package com.ericsson.bss.cassandra.ecchronos.core.scheduling;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.EnumMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
 import java.util.PriorityQueue;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import com.google.common.collect.AbstractIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.ericsson.bss.cassandra.ecchronos.core.utils.ManyToOneIterator;
 import com.google.common.annotations.VisibleForTesting;
 
 /**
  * Dynamic priority queue for scheduled jobs.
  * <p>
- * This queue is divided in several smaller queues, one for each {@link ScheduledJob.Priority priority type} and are
- * then retrieved using a
- * {@link ManyToOneIterator}.
+ * Jobs that are not due are kept in a min-heap ordered by their {@link ScheduledJob#getNextEligibleTime() next
+ * eligible time}. Only jobs that are due are refreshed and ranked using the provided comparator each time the queue is
+ * iterated, jobs that turn out not to be due after the refresh are parked in the heap until their next eligible time.
+ * <p>
+ * A job is parked for at most {@link #DEFAULT_MAX_PARK_TIME_IN_MS} at a time so that the state of parked jobs is still
+ * refreshed at a low rate, e.g. to pick up repairs performed by other nodes or topology changes.
+ * <p>
+ * Removed jobs are only dropped from the index of parked jobs, their heap entries are discarded once they are polled.
  */
 public class ScheduledJobQueue implements Iterable<ScheduledJob>
 {
     private static final Logger LOG = LoggerFactory.getLogger(ScheduledJobQueue.class);
 
+    static final long DEFAULT_MAX_PARK_TIME_IN_MS = TimeUnit.MINUTES.toMillis(1);
+
     private final Comparator<ScheduledJob> myComparator;
+    private final long myMaxParkTimeInMs;
 
-    private final EnumMap<ScheduledJob.Priority, PriorityQueue<ScheduledJob>> myJobQueues
-            = new EnumMap<>(ScheduledJob.Priority.class);
+    private final PriorityQueue<ParkedJob> myParkedJobs = new PriorityQueue<>();
+    private final Map<ScheduledJob, ParkedJob> myParkedIndex = new IdentityHashMap<>();
+    private final Set<ScheduledJob> myDueJobs = Collections.newSetFromMap(new IdentityHashMap<>());
 
     /**
      * Construct a new job queue that prioritizes the jobs based on the provided comparator.
@@ -51,12 +67,14 @@ public class ScheduledJobQueue implements Iterable<ScheduledJob>
      */
     public ScheduledJobQueue(final Comparator<ScheduledJob> comparator)
     {
-        this.myComparator = comparator;
+        this(comparator, DEFAULT_MAX_PARK_TIME_IN_MS);
+    }
 
-        for (ScheduledJob.Priority priority : ScheduledJob.Priority.values())
-        {
-            myJobQueues.put(priority, new PriorityQueue<>(1, comparator));
-        }
+    @VisibleForTesting
+    ScheduledJobQueue(final Comparator<ScheduledJob> comparator, final long maxParkTimeInMs)
+    {
+        this.myComparator = comparator;
+        this.myMaxParkTimeInMs = maxParkTimeInMs;
     }
 
     /**
@@ -93,44 +111,169 @@ public class ScheduledJobQueue implements Iterable<ScheduledJob>
     public synchronized void remove(final ScheduledJob job)
     {
         LOG.debug("Removing job: {}", job);
-        myJobQueues.get(job.getPriority()).remove(job);
+        if (!myDueJobs.remove(job))
+        {
+            myParkedIndex.remove(job);
+        }
     }
 
     private void addJobInternal(final ScheduledJob job)
     {
         LOG.debug("Adding job: {}, Priority: {}", job, job.getPriority());
-        myJobQueues.get(job.getPriority()).add(job);
+        myParkedIndex.remove(job);
+        myDueJobs.add(job);
     }
 
     @VisibleForTesting
-    final int size()
+    final synchronized int size()
+    {
+        return myDueJobs.size() + myParkedIndex.size();
+    }
+
+    @VisibleForTesting
+    final synchronized int parkedSize()
+    {
+        return myParkedIndex.size();
+    }
+
+    @Override
+    public final Iterator<ScheduledJob> iterator()
+    {
+        return iterator(null);
+    }
+
+    /**
+     * Iterate the runnable jobs on behalf of one of several concurrent workers.
+     * <p>
+     * Each job is claimed by adding its id to the provided set before its state is read and it is returned, jobs that
+     * are already claimed by another worker are neither refreshed nor returned. The caller must remove the id of a
+     * returned job from the set once it is done with it.
+     *
+     * @param claimedJobs
+     *            The ids of the jobs currently claimed by the workers, must be thread safe.
+     * @return An iterator over the runnable jobs that were claimed by the caller.
+     */
+    public final Iterator<ScheduledJob> claimingIterator(final Set<UUID> claimedJobs)
+    {
+        return iterator(claimedJobs);
+    }
+
+    private synchronized Iterator<ScheduledJob> iterator(final Set<UUID> claimedJobs)
     {
-        int size = 0;
+        long now = System.currentTimeMillis();
 
-        for (PriorityQueue<ScheduledJob> queue : myJobQueues.values())
+        while (!myParkedJobs.isEmpty() && myParkedJobs.peek().myEligibleTime <= now)
         {
-            size += queue.size();
+            ParkedJob parkedJob = myParkedJobs.poll();
+            if (myParkedIndex.remove(parkedJob.myJob, parkedJob))
+            {
+                myDueJobs.add(parkedJob.myJob);
+            }
+        }
+
+        List<ScheduledJob> dueJobs = new ArrayList<>(myDueJobs.size());
+        Iterator<ScheduledJob> dueIterator = myDueJobs.iterator();
+        while (dueIterator.hasNext())
+        {
+            ScheduledJob job = dueIterator.next();
+            if (!claim(job, claimedJobs))
+            {
+                LOG.trace("Job {} is claimed by another worker", job);
+                continue;
+            }
+
+            long eligibleTime;
+            try
+            {
+                job.refreshState();
+                eligibleTime = job.getNextEligibleTime();
+            }
+            finally
+            {
+                release(job, claimedJobs);
+            }
+
+            if (eligibleTime > now)
+            {
+                long parkedUntil = Math.min(eligibleTime, now + myMaxParkTimeInMs);
+                LOG.trace("Parking job: {} until {}", job, parkedUntil);
+                dueIterator.remove();
+                ParkedJob parkedJob = new ParkedJob(job, parkedUntil);
+                myParkedIndex.put(job, parkedJob);
+                myParkedJobs.add(parkedJob);
+            }
+            else
+            {
+                dueJobs.add(job);
+            }
         }
 
-        return size;
+        dueJobs.sort(myComparator);
+
+        return new RunnableJobIterator(dueJobs.iterator(), claimedJobs);
     }
 
-    @Override
-    public final synchronized Iterator<ScheduledJob> iterator()
+    private static boolean claim(final ScheduledJob job, final Set<UUID> claimedJobs)
     {
-        myJobQueues.values().forEach(q -> q.forEach(ScheduledJob::refreshState));
-        Iterator<ScheduledJob> baseIterator = new ManyToOneIterator<>(myJobQueues.values(), myComparator);
+        return claimedJobs == null || claimedJobs.add(job.getId());
+    }
+
+    private static void release(final ScheduledJob job, final Set<UUID> claimedJobs)
+    {
+        if (claimedJobs != null)
+        {
+            claimedJobs.remove(job.getId());
+        }
+    }
+
+    private static final class ParkedJob implements Comparable<ParkedJob>
+    {
+        private final ScheduledJob myJob;
+        private final long myEligibleTime;
+
+        ParkedJob(final ScheduledJob job, final long eligibleTime)
+        {
+            myJob = job;
+            myEligibleTime = eligibleTime;
+        }
+
+        @Override
+        public int compareTo(final ParkedJob other)
+        {
+            return Long.compare(myEligibleTime, other.myEligibleTime);
+        }
 
-        return new RunnableJobIterator(baseIterator);
+        @Override
+        public boolean equals(final Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass())
+            {
+                return false;
+            }
+            ParkedJob that = (ParkedJob) o;
+            return myJob == that.myJob && myEligibleTime == that.myEligibleTime;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(System.identityHashCode(myJob), myEligibleTime);
+        }
     }
 
     private class RunnableJobIterator extends AbstractIterator<ScheduledJob>
     {
         private final Iterator<ScheduledJob> myBaseIterator;
+        private final Set<UUID> myClaimedJobs;
 
-        RunnableJobIterator(final Iterator<ScheduledJob> baseIterator)
+        RunnableJobIterator(final Iterator<ScheduledJob> baseIterator, final Set<UUID> claimedJobs)
         {
             myBaseIterator = baseIterator;
+            myClaimedJobs = claimedJobs;
         }
 
         @Override
@@ -139,18 +282,35 @@ public class ScheduledJobQueue implements Iterable<ScheduledJob>
             while (myBaseIterator.hasNext())
             {
                 ScheduledJob job = myBaseIterator.next();
+                if (!claim(job, myClaimedJobs))
+                {
+                    LOG.trace("Job {} is claimed by another worker", job);
+                    continue;
+                }
 
-                ScheduledJob.State state = job.getState();
-                if (state == ScheduledJob.State.FAILED || state == ScheduledJob.State.FINISHED)
+                boolean retrieved = false;
+                try
                 {
-                    LOG.info("{}: {}, descheduling", job, state);
-                    job.finishJob();
-                    ScheduledJobQueue.this.remove(job);
+                    ScheduledJob.State state = job.getState();
+                    if (state == ScheduledJob.State.FAILED || state == ScheduledJob.State.FINISHED)
+                    {
+                        LOG.info("{}: {}, descheduling", job, state);
+                        job.finishJob();
+                        ScheduledJobQueue.this.remove(job);
+                    }
+                    else if (state != ScheduledJob.State.PARKED)
+                    {
+                        LOG.debug("Retrieving job: {}, Priority: {}", job, job.getPriority());
+                        retrieved = true;
+                        return job;
+                    }
                 }
-                else if (state != ScheduledJob.State.PARKED)
+                finally
                 {
-                    LOG.debug("Retrieving job: {}, Priority: {}", job, job.getPriority());
-                    return job;
+                    if (!retrieved)
+                    {
+                        release(job, myClaimedJobs);
+                    }
                 }
             }
 
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.utils;
+
+import com.ericsson.bss.cassandra.ecchronos.core.repair.types.RepairInfo;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.types.RepairStats;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A repair stats provider calculating the stats of multiple tables concurrently using a bounded number of threads.
+ * <p>
+ * The stats of a table are cached for a short time and reused by requests for the same time window length ending
+ * within the cache time, which makes repeated requests for the same duration cheap.
+ */
+public final class ConcurrentRepairStatsProvider implements RepairStatsProvider, Closeable
+{
+    private static final Logger LOG = LoggerFactory.getLogger(ConcurrentRepairStatsProvider.class);
+
+    private static final int DEFAULT_THREADS = 4;
+    private static final long DEFAULT_CACHE_TIME_IN_MS = TimeUnit.SECONDS.toMillis(10);
+    private static final long MAX_CACHED_STATS = 10_000L;
+
+    private final RepairStatsProvider myDelegate;
+    private final ExecutorService myExecutor;
+    private final long myCacheTimeInMs;
+    private final Cache<CacheKey, CachedStats> myCache;
+
+    private ConcurrentRepairStatsProvider(final Builder builder)
+    {
+        myDelegate = Preconditions.checkNotNull(builder.myDelegate, "Repair stats provider must be set");
+        myExecutor = Executors.newFixedThreadPool(builder.myThreads,
+                new ThreadFactoryBuilder().setNameFormat("RepairStatsProvider-%d").setDaemon(true).build());
+        myCacheTimeInMs = builder.myCacheTimeInMs;
+        myCache = Caffeine.newBuilder()
+                .expireAfterWrite(myCacheTimeInMs, TimeUnit.MILLISECONDS)
+                .maximumSize(MAX_CACHED_STATS)
+                .build();
+    }
+
+    @Override
+    public RepairStats getRepairStats(final TableReference tableReference,
+                                      final long since,
+                                      final long to,
+                                      final boolean isLocal)
+    {
+        CacheKey key = new CacheKey(tableReference, isLocal, to - since);
+        CachedStats cached = myCache.getIfPresent(key);
+        if (cached != null && Math.abs(to - cached.myTo) <= myCacheTimeInMs)
+        {
+            return cached.myRepairStats;
+        }
+
+        RepairStats repairStats = myDelegate.getRepairStats(tableReference, since, to, isLocal);
+        myCache.put(key, new CachedStats(to, repairStats));
+        return repairStats;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The tables are calculated concurrently, tables that are not calculated before the deadline or that failed are
+     * not included.
+     */
+    @Override
+    public RepairInfo getRepairInfo(final Collection<TableReference> tableReferences,
+                                    final long since,
+                                    final long to,
+                                    final boolean isLocal,
+                                    final long deadline)
+    {
+        List<CompletableFuture<RepairStats>> futures = new ArrayList<>(tableReferences.size());
+        for (TableReference tableReference : tableReferences)
+        {
+            futures.add(CompletableFuture.supplyAsync(() -> getRepairStats(tableReference, since, to, isLocal),
+                    myExecutor));
+        }
+
+        awaitAll(futures, deadline);
+
+        boolean complete = true;
+        List<RepairStats> repairStats = new ArrayList<>(futures.size());
+        for (CompletableFuture<RepairStats> future : futures)
+        {
+            if (future.isDone() && !future.isCompletedExceptionally())
+            {
+                repairStats.add(future.join());
+            }
+            else
+            {
+                complete = false;
+                // Tasks that have not started are skipped once cancelled
+                future.cancel(false);
+            }
+        }
+        return new RepairInfo(since, to, repairStats, complete);
+    }
+
+    private static void awaitAll(final List<CompletableFuture<RepairStats>> futures, final long deadline)
+    {
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+        try
+        {
+            if (deadline == Long.MAX_VALUE)
+            {
+                all.get();
+            }
+            else
+            {
+                all.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException e)
+        {
+            LOG.warn("Unable to calculate repair stats for all tables", e.getCause());
+        }
+        catch (TimeoutException e)
+        {
+            LOG.debug("Deadline passed before repair stats were calculated for all tables");
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        myExecutor.shutdownNow();
+    }
+
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    public static class Builder
+    {
+        private RepairStatsProvider myDelegate;
+        private int myThreads = DEFAULT_THREADS;
+        private long myCacheTimeInMs = DEFAULT_CACHE_TIME_IN_MS;
+
+        /**
+         * Build with the repair stats provider calculating the stats of a single table.
+         *
+         * @param repairStatsProvider The repair stats provider.
+         * @return Builder
+         */
+        public Builder withRepairStatsProvider(final RepairStatsProvider repairStatsProvider)
+        {
+            myDelegate = repairStatsProvider;
+            return this;
+        }
+
+        /**
+         * Build with the number of tables calculated concurrently.
+         *
+         * @param threads The number of threads.
+         * @return Builder
+         */
+        public Builder withThreads(final int threads)
+        {
+            Preconditions.checkArgument(threads > 0, "Threads must be positive");
+            myThreads = threads;
+            return this;
+        }
+
+        /**
+         * Build with the time the stats of a table are cached.
+         *
+         * @param cacheTime The cache time.
+         * @param timeUnit The time unit of the cache time.
+         * @return Builder
+         */
+        public Builder withCacheTime(final long cacheTime, final TimeUnit timeUnit)
+        {
+            myCacheTimeInMs = timeUnit.toMillis(cacheTime);
+            return this;
+        }
+
+        /**
+         * Build concurrent repair stats provider.
+         *
+         * @return ConcurrentRepairStatsProvider
+         */
+        public ConcurrentRepairStatsProvider build()
+        {
+            return new ConcurrentRepairStatsProvider(this);
+        }
+    }
+
+    private static final class CacheKey
+    {
+        private final TableReference myTableReference;
+        private final boolean myIsLocal;
+        private final long myWindowInMs;
+
+        CacheKey(final TableReference tableReference, final boolean isLocal, final long windowInMs)
+        {
+            myTableReference = tableReference;
+            myIsLocal = isLocal;
+            myWindowInMs = windowInMs;
+        }
+
+        @Override
+        public boolean equals(final Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass())
+            {
+                return false;
+            }
+            CacheKey that = (CacheKey) o;
+            return myIsLocal == that.myIsLocal
+                    && myWindowInMs == that.myWindowInMs
+                    && myTableReference.equals(that.myTableReference);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(myTableReference, myIsLocal, myWindowInMs);
+        }
+    }
+
+    private static final class CachedStats
+    {
+        private final long myTo;
+        private final RepairStats myRepairStats;
+
+        CachedStats(final long to, final RepairStats repairStats)
+        {
+            myTo = to;
+            myRepairStats = repairStats;
+        }
+    }
+}
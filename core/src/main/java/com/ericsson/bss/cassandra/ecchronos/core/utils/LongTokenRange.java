@@ -58,17 +58,17 @@ public class LongTokenRange
      */
     public BigInteger rangeSize()
     {
-        BigInteger tokenStart = BigInteger.valueOf(start);
-        BigInteger tokenEnd = BigInteger.valueOf(end);
-
-        BigInteger rangeSize = tokenEnd.subtract(tokenStart);
-
-        if (rangeSize.compareTo(BigInteger.ZERO) <= 0)
-        {
-            rangeSize = rangeSize.add(FULL_RANGE);
-        }
+        return TokenMath.sizeToBigInteger(unsignedRangeSize());
+    }
 
-        return rangeSize;
+    /**
+     * Calculate the size of the token range without allocating.
+     *
+     * @return The unsigned size of the token range, see {@link TokenMath}.
+     */
+    public long unsignedRangeSize()
+    {
+        return TokenMath.rangeSize(start, end);
     }
 
     /**
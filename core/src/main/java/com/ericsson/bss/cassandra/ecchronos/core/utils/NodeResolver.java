@@ -15,6 +15,9 @@
 package com.ericsson.bss.cassandra.ecchronos.core.utils;
 
 import java.net.InetAddress;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -31,5 +34,21 @@ public interface NodeResolver
      */
     Optional<DriverNode> fromIp(InetAddress inetAddress);
 
+    /**
+     * Retrieve the nodes for a set of public ip addresses, e.g. the participants of a repair session.
+     *
+     * @param inetAddresses The public ip addresses of the node instances.
+     * @return The resolved nodes mapped by their ip address, addresses that could not be resolved are left out.
+     */
+    default Map<InetAddress, DriverNode> fromIps(Collection<InetAddress> inetAddresses)
+    {
+        Map<InetAddress, DriverNode> nodes = new HashMap<>();
+        for (InetAddress inetAddress : inetAddresses)
+        {
+            fromIp(inetAddress).ifPresent(node -> nodes.put(inetAddress, node));
+        }
+        return nodes;
+    }
+
     Optional<DriverNode> fromUUID(UUID nodeId);
 }
@@ -14,87 +14,214 @@
  */
 package com.ericsson.bss.cassandra.ecchronos.core.utils;
 
+import java.io.Closeable;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.context.DriverContext;
 import com.datastax.oss.driver.api.core.metadata.Metadata;
 import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.internal.core.context.EventBus;
+import com.datastax.oss.driver.internal.core.context.InternalDriverContext;
+import com.datastax.oss.driver.internal.core.metadata.NodeStateEvent;
 
-public class NodeResolverImpl implements NodeResolver
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+/**
+ * Node resolver keeping address and host id indexes of the nodes in the cluster.
+ * <p>
+ * The indexes are updated from the node state events of the driver as nodes are added, removed or change state.
+ * A lookup that misses the indexes re-indexes all nodes in the driver metadata once before giving up, this covers
+ * address changes that are not signaled through events.
+ */
+public class NodeResolverImpl implements NodeResolver, Closeable
 {
-    private final ConcurrentMap<InetAddress, DriverNode> addressToNodeMap = new ConcurrentHashMap<>();
-    private final ConcurrentMap<UUID, DriverNode> idToNodeMap = new ConcurrentHashMap<>();
+    static final String NODE_RESOLVER_LOOKUPS = "node.resolver.lookups";
 
-    private final CqlSession session;
+    private final ConcurrentMap<InetAddress, DriverNode> myAddressToNode = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, DriverNode> myIdToNode = new ConcurrentHashMap<>();
+
+    private final CqlSession mySession;
+    private final Counter myHits;
+    private final Counter myMisses;
+    private final EventBus myEventBus;
+    private final Object myEventListenerKey;
 
     public NodeResolverImpl(final CqlSession aSession)
     {
-        this.session = aSession;
+        this(aSession, new CompositeMeterRegistry());
+    }
+
+    public NodeResolverImpl(final CqlSession aSession, final MeterRegistry meterRegistry)
+    {
+        mySession = aSession;
+        myHits = Counter.builder(NODE_RESOLVER_LOOKUPS).tags("result", "hit").register(meterRegistry);
+        myMisses = Counter.builder(NODE_RESOLVER_LOOKUPS).tags("result", "miss").register(meterRegistry);
+
+        DriverContext context = aSession.getContext();
+        if (context instanceof InternalDriverContext)
+        {
+            myEventBus = ((InternalDriverContext) context).getEventBus();
+            myEventListenerKey = myEventBus.register(NodeStateEvent.class, this::onNodeStateEvent);
+        }
+        else
+        {
+            myEventBus = null;
+            myEventListenerKey = null;
+        }
     }
 
     @Override
     public final Optional<DriverNode> fromIp(final InetAddress inetAddress)
     {
-        DriverNode node = addressToNodeMap.get(inetAddress);
+        DriverNode node = getIndexed(inetAddress);
+        if (node != null)
+        {
+            myHits.increment();
+            return Optional.of(node);
+        }
+
+        myMisses.increment();
+        reindex();
+        return Optional.ofNullable(getIndexed(inetAddress));
+    }
+
+    @Override
+    public final Map<InetAddress, DriverNode> fromIps(final Collection<InetAddress> inetAddresses)
+    {
+        Map<InetAddress, DriverNode> nodes = new HashMap<>();
+        List<InetAddress> missing = new ArrayList<>();
 
-        if (node == null)
+        for (InetAddress inetAddress : inetAddresses)
         {
-            node = addressToNodeMap.computeIfAbsent(inetAddress, address -> lookup(inetAddress));
+            DriverNode node = getIndexed(inetAddress);
+            if (node != null)
+            {
+                nodes.put(inetAddress, node);
+            }
+            else
+            {
+                missing.add(inetAddress);
+            }
         }
-        else if (!inetAddress.equals(node.getPublicAddress()))
+        myHits.increment(nodes.size());
+
+        if (!missing.isEmpty())
         {
-            // IP mapping is wrong, we should remove the old entry and retry
-            addressToNodeMap.remove(inetAddress, node);
-            return fromIp(inetAddress);
+            myMisses.increment(missing.size());
+            reindex();
+            for (InetAddress inetAddress : missing)
+            {
+                DriverNode node = getIndexed(inetAddress);
+                if (node != null)
+                {
+                    nodes.put(inetAddress, node);
+                }
+            }
         }
 
-        return Optional.ofNullable(node);
+        return nodes;
     }
 
     @Override
     public final Optional<DriverNode> fromUUID(final UUID nodeId)
     {
-        return Optional.ofNullable(resolve(nodeId));
+        DriverNode node = myIdToNode.get(nodeId);
+        if (node != null)
+        {
+            myHits.increment();
+            return Optional.of(node);
+        }
+
+        myMisses.increment();
+        reindex();
+        return Optional.ofNullable(myIdToNode.get(nodeId));
+    }
+
+    /**
+     * Stop listening for node state events.
+     */
+    @Override
+    public void close()
+    {
+        if (myEventBus != null)
+        {
+            myEventBus.unregister(myEventListenerKey, NodeStateEvent.class);
+        }
     }
 
-    private DriverNode resolve(final UUID nodeId)
+    private DriverNode getIndexed(final InetAddress inetAddress)
     {
-        DriverNode node = idToNodeMap.get(nodeId);
-        if (node == null)
+        DriverNode node = myAddressToNode.get(inetAddress);
+
+        if (node != null && !inetAddress.equals(node.getPublicAddress()))
         {
-            node = idToNodeMap.computeIfAbsent(nodeId, this::lookup);
+            // IP mapping is wrong, the node has changed address
+            myAddressToNode.remove(inetAddress, node);
+            return null;
         }
 
         return node;
     }
 
-    private DriverNode lookup(final UUID nodeId)
+    private void onNodeStateEvent(final NodeStateEvent event)
     {
-        Metadata metadata = session.getMetadata();
-        for (Node node : metadata.getNodes().values())
+        if (event.newState == null)
         {
-            if (node.getHostId().equals(nodeId))
-            {
-                return new DriverNode(node);
-            }
+            unindex(event.node);
+        }
+        else
+        {
+            index(event.node);
         }
-        return null;
     }
 
-    private DriverNode lookup(final InetAddress inetAddress)
+    private void reindex()
     {
-        Metadata metadata = session.getMetadata();
+        Metadata metadata = mySession.getMetadata();
         for (Node node : metadata.getNodes().values())
         {
-            if (node.getBroadcastAddress().get().getAddress().equals(inetAddress))
-            {
-                return resolve(node.getHostId());
-            }
+            index(node);
+        }
+    }
+
+    private void index(final Node node)
+    {
+        UUID hostId = node.getHostId();
+        Optional<InetSocketAddress> broadcastAddress = node.getBroadcastAddress();
+        if (hostId == null || !broadcastAddress.isPresent())
+        {
+            return;
+        }
+
+        DriverNode driverNode = myIdToNode.computeIfAbsent(hostId, id -> new DriverNode(node));
+        myAddressToNode.put(broadcastAddress.get().getAddress(), driverNode);
+    }
+
+    private void unindex(final Node node)
+    {
+        UUID hostId = node.getHostId();
+        if (hostId == null)
+        {
+            return;
+        }
+
+        DriverNode driverNode = myIdToNode.remove(hostId);
+        if (driverNode != null)
+        {
+            myAddressToNode.values().removeIf(driverNode::equals);
         }
-        return null;
     }
 }
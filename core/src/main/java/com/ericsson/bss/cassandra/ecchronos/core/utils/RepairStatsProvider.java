@@ -15,9 +15,42 @@
 
 package com.ericsson.bss.cassandra.ecchronos.core.utils;
 
+import com.ericsson.bss.cassandra.ecchronos.core.repair.types.RepairInfo;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.types.RepairStats;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 public interface RepairStatsProvider
 {
     RepairStats getRepairStats(TableReference tableReference, long since, long to, boolean isLocal);
+
+    /**
+     * Get repair stats for multiple tables.
+     * <p>
+     * If the deadline passes before the stats for all tables are calculated the stats calculated so far are returned
+     * and the repair info is marked as not complete.
+     *
+     * @param tableReferences The tables.
+     * @param since The start of the time window.
+     * @param to The end of the time window.
+     * @param isLocal If the stats should be calculated for the local node only.
+     * @param deadline The deadline in milliseconds since epoch or {@link Long#MAX_VALUE} for no deadline.
+     * @return The repair info
+     */
+    default RepairInfo getRepairInfo(Collection<TableReference> tableReferences, long since, long to, boolean isLocal,
+                                     long deadline)
+    {
+        List<RepairStats> repairStats = new ArrayList<>();
+        for (TableReference tableReference : tableReferences)
+        {
+            if (System.currentTimeMillis() >= deadline)
+            {
+                return new RepairInfo(since, to, repairStats, false);
+            }
+            repairStats.add(getRepairStats(tableReference, since, to, isLocal));
+        }
+        return new RepairInfo(since, to, repairStats);
+    }
 }
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.utils;
+
+import java.math.BigInteger;
+
+/**
+ * Token arithmetic on the 2^64 token ring using primitive longs.
+ * <p>
+ * Range sizes are between 1 and 2^64 tokens and are represented as unsigned 64-bit values where the full ring of 2^64
+ * tokens is represented by {@link #FULL_RING} (0). The same applies to offsets from the start of a range, an offset is
+ * between 0 and 2^64 - 1 while the offset of a range end (the size up to and including it) is between 1 and 2^64.
+ * Adding a size or offset to a token wraps around the ring the same way Cassandra tokens do.
+ */
+public final class TokenMath
+{
+    /**
+     * The size of the full token ring, 2^64, as represented by the methods in this class.
+     */
+    public static final long FULL_RING = 0L;
+
+    private static final double TWO_POW_63 = 0x1.0p63;
+    private static final double TWO_POW_64 = 0x1.0p64;
+
+    private TokenMath()
+    {
+        // Utility class
+    }
+
+    /**
+     * Calculate the size of the token range (start, end].
+     *
+     * @param start The exclusive start token.
+     * @param end The inclusive end token.
+     * @return The unsigned size of the range or {@link #FULL_RING} if start and end are the same.
+     */
+    public static long rangeSize(final long start, final long end)
+    {
+        return end - start;
+    }
+
+    /**
+     * Compare two sizes (or two range end offsets).
+     *
+     * @param size1 The first size.
+     * @param size2 The second size.
+     * @return A negative value, zero or a positive value if the first size is smaller than, equal to or larger than
+     * the second size.
+     */
+    public static int compareSizes(final long size1, final long size2)
+    {
+        // Shift 1..2^64 down to 0..2^64-1 so that FULL_RING becomes the largest unsigned value
+        return Long.compareUnsigned(size1 - 1, size2 - 1);
+    }
+
+    /**
+     * Compare an offset from the start of a range with a size (or a range end offset).
+     *
+     * @param offset The offset, between 0 and 2^64 - 1.
+     * @param size The size.
+     * @return A negative value, zero or a positive value if the offset is smaller than, equal to or larger than the
+     * size.
+     */
+    public static int compareOffsetToSize(final long offset, final long size)
+    {
+        if (size == FULL_RING)
+        {
+            return -1;
+        }
+        return Long.compareUnsigned(offset, size);
+    }
+
+    /**
+     * Divide a size, rounding down.
+     *
+     * @param size The size to divide.
+     * @param divisor The unsigned divisor, must be positive and not larger than the size.
+     * @return The unsigned quotient or {@link #FULL_RING} if the full ring is divided by one.
+     */
+    public static long divideSize(final long size, final long divisor)
+    {
+        if (size != FULL_RING)
+        {
+            return Long.divideUnsigned(size, divisor);
+        }
+
+        // 2^64 / d is (2^64 - 1) / d unless d divides 2^64, in which case it's one more
+        long quotient = Long.divideUnsigned(-1L, divisor);
+        if (Long.remainderUnsigned(-1L, divisor) == divisor - 1)
+        {
+            quotient++;
+        }
+        return quotient;
+    }
+
+    /**
+     * Calculate the remainder of a size division.
+     *
+     * @param size The size to divide.
+     * @param divisor The unsigned divisor, must be positive.
+     * @return The unsigned remainder.
+     */
+    public static long remainderSize(final long size, final long divisor)
+    {
+        if (size != FULL_RING)
+        {
+            return Long.remainderUnsigned(size, divisor);
+        }
+
+        long remainder = Long.remainderUnsigned(-1L, divisor) + 1;
+        return remainder == divisor ? 0L : remainder;
+    }
+
+    /**
+     * Calculate the carry into the 65th bit when adding a size to an unsigned sum.
+     * <p>
+     * A size of 2^64 is only counted in the carry, which means the sum of n full rings is represented by a sum of 0
+     * and a carry of n.
+     *
+     * @param sum The current unsigned sum.
+     * @param size The size to add.
+     * @return 1 if adding the size to the unsigned sum overflows, otherwise 0.
+     */
+    public static int carry(final long sum, final long size)
+    {
+        if (size == FULL_RING)
+        {
+            return 1;
+        }
+        return Long.compareUnsigned(sum + size, sum) < 0 ? 1 : 0;
+    }
+
+    /**
+     * Convert a size to a double.
+     *
+     * @param size The size.
+     * @return The size as a double.
+     */
+    public static double sizeToDouble(final long size)
+    {
+        if (size == FULL_RING)
+        {
+            return TWO_POW_64;
+        }
+        return size >= 0 ? size : TWO_POW_64 + size;
+    }
+
+    /**
+     * Convert a double to a size, rounding down.
+     *
+     * @param value The value, values smaller than one are raised to one and values of 2^64 or larger (including
+     * infinity) are capped to the full ring.
+     * @return The unsigned size.
+     */
+    public static long sizeFromDouble(final double value)
+    {
+        if (value >= TWO_POW_64)
+        {
+            return FULL_RING;
+        }
+        if (!(value >= 1.0d))
+        {
+            return 1L;
+        }
+        if (value < TWO_POW_63)
+        {
+            return (long) value;
+        }
+        return (long) (value - TWO_POW_63) + Long.MIN_VALUE;
+    }
+
+    /**
+     * Convert a size to a {@link BigInteger}.
+     *
+     * @param size The size.
+     * @return The size as a BigInteger.
+     */
+    public static BigInteger sizeToBigInteger(final long size)
+    {
+        if (size == FULL_RING)
+        {
+            return LongTokenRange.FULL_RANGE;
+        }
+        return offsetToBigInteger(size);
+    }
+
+    /**
+     * Convert an offset to a {@link BigInteger}.
+     *
+     * @param offset The offset.
+     * @return The offset as a BigInteger.
+     */
+    public static BigInteger offsetToBigInteger(final long offset)
+    {
+        BigInteger value = BigInteger.valueOf(offset);
+        if (offset < 0)
+        {
+            value = value.add(LongTokenRange.FULL_RANGE);
+        }
+        return value;
+    }
+
+    /**
+     * Convert a {@link BigInteger} size to the representation used by this class.
+     *
+     * @param size The size, sizes larger than the full ring are capped to the full ring.
+     * @return The unsigned size.
+     */
+    public static long fromBigInteger(final BigInteger size)
+    {
+        if (size.compareTo(LongTokenRange.FULL_RANGE) >= 0)
+        {
+            return FULL_RING;
+        }
+        return size.longValue();
+    }
+}
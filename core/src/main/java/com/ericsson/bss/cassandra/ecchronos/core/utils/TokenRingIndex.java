@@ -0,0 +1,196 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.utils;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable index of token ranges used to find the range covering another range.
+ * <p>
+ * Non-wrapping ranges are kept sorted on their start token so that a lookup is a binary search. At most one
+ * wrapping range can be part of a set of disjoint ranges and it is checked separately.
+ * <p>
+ * If the indexed ranges overlap each other the lookup falls back to a linear scan in the iteration order of the
+ * provided map, returning the first covering range just like {@link LongTokenRange#isCovering(LongTokenRange)}
+ * would when iterating the map.
+ *
+ * @param <V> The type of the value associated with each range.
+ */
+public final class TokenRingIndex<V>
+{
+    private static final int NOT_FOUND = -1;
+
+    private final long[] myStarts;
+    private final List<Map.Entry<LongTokenRange, V>> mySortedEntries;
+    private final LongTokenRange myWrappingRange;
+    private final V myWrappingValue;
+    private final List<Map.Entry<LongTokenRange, V>> myOverlappingEntries;
+
+    /**
+     * Create an index of the provided ranges.
+     *
+     * @param ranges The ranges and their associated values.
+     */
+    public TokenRingIndex(final Map<LongTokenRange, ? extends V> ranges)
+    {
+        List<Map.Entry<LongTokenRange, V>> entries = new ArrayList<>(ranges.size());
+        for (Map.Entry<LongTokenRange, ? extends V> entry : ranges.entrySet())
+        {
+            entries.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+        }
+
+        List<Map.Entry<LongTokenRange, V>> sortedEntries = new ArrayList<>(entries.size());
+        Map.Entry<LongTokenRange, V> wrappingEntry = null;
+        boolean disjoint = true;
+
+        for (Map.Entry<LongTokenRange, V> entry : entries)
+        {
+            if (!entry.getKey().isWrapAround())
+            {
+                sortedEntries.add(entry);
+            }
+            else if (wrappingEntry == null)
+            {
+                wrappingEntry = entry;
+            }
+            else
+            {
+                disjoint = false;
+            }
+        }
+        sortedEntries.sort(Comparator.comparingLong(e -> e.getKey().start));
+
+        myStarts = new long[sortedEntries.size()];
+        for (int i = 0; i < sortedEntries.size(); i++)
+        {
+            myStarts[i] = sortedEntries.get(i).getKey().start;
+
+            if (i > 0 && sortedEntries.get(i - 1).getKey().end > myStarts[i])
+            {
+                disjoint = false;
+            }
+        }
+        mySortedEntries = ImmutableList.copyOf(sortedEntries);
+
+        if (wrappingEntry != null)
+        {
+            myWrappingRange = wrappingEntry.getKey();
+            myWrappingValue = wrappingEntry.getValue();
+            if (!sortedEntries.isEmpty()
+                    && (myStarts[0] < myWrappingRange.end
+                    || sortedEntries.get(sortedEntries.size() - 1).getKey().end > myWrappingRange.start))
+            {
+                disjoint = false;
+            }
+        }
+        else
+        {
+            myWrappingRange = null;
+            myWrappingValue = null;
+        }
+
+        myOverlappingEntries = disjoint ? null : ImmutableList.copyOf(entries);
+    }
+
+    /**
+     * Check if the indexed ranges are disjoint, in which case at most one indexed range can cover a range.
+     *
+     * @return True if no indexed ranges overlap.
+     */
+    public boolean isDisjoint()
+    {
+        return myOverlappingEntries == null;
+    }
+
+    /**
+     * Get the value associated with the range covering the provided range.
+     *
+     * @param range The range to find the covering range for.
+     * @return The value of the covering range or null if no indexed range covers the provided range.
+     */
+    public V getCovering(final LongTokenRange range)
+    {
+        if (myOverlappingEntries != null)
+        {
+            return getCoveringLinear(range);
+        }
+
+        // A covering range must contain the first token of the range
+        long firstToken = range.start == Long.MAX_VALUE ? Long.MIN_VALUE : range.start + 1;
+
+        if (myWrappingRange != null
+                && (firstToken > myWrappingRange.start || firstToken <= myWrappingRange.end))
+        {
+            return myWrappingRange.isCovering(range) ? myWrappingValue : null;
+        }
+
+        int index = indexOf(firstToken);
+        if (index == NOT_FOUND)
+        {
+            return null;
+        }
+
+        Map.Entry<LongTokenRange, V> entry = mySortedEntries.get(index);
+        return entry.getKey().isCovering(range) ? entry.getValue() : null;
+    }
+
+    private V getCoveringLinear(final LongTokenRange range)
+    {
+        for (Map.Entry<LongTokenRange, V> entry : myOverlappingEntries)
+        {
+            if (entry.getKey().isCovering(range))
+            {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find the non-wrapping range (start, end] containing the token.
+     */
+    private int indexOf(final long token)
+    {
+        int low = 0;
+        int high = myStarts.length - 1;
+        int candidate = NOT_FOUND;
+
+        while (low <= high)
+        {
+            int mid = (low + high) >>> 1;
+            if (myStarts[mid] < token)
+            {
+                candidate = mid;
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid - 1;
+            }
+        }
+
+        if (candidate != NOT_FOUND && token <= mySortedEntries.get(candidate).getKey().end)
+        {
+            return candidate;
+        }
+        return NOT_FOUND;
+    }
+}
@@ -31,14 +31,12 @@ public class TokenSubRangeUtil
     private static final Logger LOG = LoggerFactory.getLogger(TokenSubRangeUtil.class);
 
     private final LongTokenRange tokenRange;
-    private final BigInteger tokenStart;
-    private final BigInteger totalRangeSize;
+    private final long totalRangeSize;
 
     public TokenSubRangeUtil(final LongTokenRange aTokenRange)
     {
         this.tokenRange = aTokenRange;
-        this.tokenStart = BigInteger.valueOf(aTokenRange.start);
-        this.totalRangeSize = this.tokenRange.rangeSize();
+        this.totalRangeSize = this.tokenRange.unsignedRangeSize();
     }
 
     /**
@@ -51,25 +49,40 @@ public class TokenSubRangeUtil
      */
     public List<LongTokenRange> generateSubRanges(final BigInteger tokenPerSubRange)
     {
-        if (totalRangeSize.compareTo(tokenPerSubRange) <= 0)
+        return generateSubRanges(TokenMath.fromBigInteger(tokenPerSubRange));
+    }
+
+    /**
+     * Generates a number of sub ranges of mostly equal size.
+     * The last sub range can be slightly smaller than the others
+     * due to rounding.
+     *
+     * @param tokenPerSubRange The unsigned number of wanted tokens per subrange, see {@link TokenMath}.
+     * @return The sub ranges containing the full range.
+     */
+    public List<LongTokenRange> generateSubRanges(final long tokenPerSubRange)
+    {
+        if (TokenMath.compareSizes(totalRangeSize, tokenPerSubRange) <= 0)
         {
             return Lists.newArrayList(tokenRange); // Full range is smaller than wanted tokens
         }
 
-        long actualSubRangeCount = totalRangeSize.divide(tokenPerSubRange).longValueExact();
-        if (totalRangeSize.remainder(tokenPerSubRange).compareTo(BigInteger.ZERO) > 0)
+        long actualSubRangeCount = TokenMath.divideSize(totalRangeSize, tokenPerSubRange);
+        if (TokenMath.remainderSize(totalRangeSize, tokenPerSubRange) != 0)
         {
             actualSubRangeCount++;
         }
 
         List<LongTokenRange> subRanges = new ArrayList<>();
+        long rangeStart = tokenRange.start;
         for (long l = 0; l < actualSubRangeCount - 1; l++)
         {
-            subRanges.add(newSubRange(tokenPerSubRange, l));
+            long rangeEnd = rangeStart + tokenPerSubRange; // Wraps around the token ring
+            subRanges.add(new LongTokenRange(rangeStart, rangeEnd));
+            rangeStart = rangeEnd;
         }
 
-        LongTokenRange lastRange = subRanges.get(subRanges.size() - 1);
-        subRanges.add(new LongTokenRange(lastRange.end, tokenRange.end));
+        subRanges.add(new LongTokenRange(rangeStart, tokenRange.end));
 
         // Verify sub range size match full range size
         validateSubRangeSize(subRanges);
@@ -79,16 +92,22 @@ public class TokenSubRangeUtil
 
     private void validateSubRangeSize(final List<LongTokenRange> subRanges)
     {
-        BigInteger subRangeSize = BigInteger.ZERO;
+        long subRangeSize = 0L;
+        int carry = 0;
 
         for (LongTokenRange range : subRanges)
         {
-            subRangeSize = subRangeSize.add(range.rangeSize());
+            long rangeSize = range.unsignedRangeSize();
+            carry += TokenMath.carry(subRangeSize, rangeSize);
+            subRangeSize += rangeSize;
         }
 
-        if (subRangeSize.compareTo(totalRangeSize) != 0)
+        int expectedCarry = totalRangeSize == TokenMath.FULL_RING ? 1 : 0;
+        if (subRangeSize != totalRangeSize || carry != expectedCarry)
         {
-            BigInteger difference = totalRangeSize.subtract(subRangeSize).abs();
+            BigInteger actualSize = TokenMath.offsetToBigInteger(subRangeSize)
+                    .add(LongTokenRange.FULL_RANGE.multiply(BigInteger.valueOf(carry)));
+            BigInteger difference = tokenRange.rangeSize().subtract(actualSize).abs();
             String msg = String.format(
                     "Unexpected sub-range generation for %s. Difference: %s. Sub-ranges generated: %s",
                     tokenRange,
@@ -99,26 +118,4 @@ public class TokenSubRangeUtil
             throw new InternalException(msg);
         }
     }
-
-    private LongTokenRange newSubRange(final BigInteger rangeSize, final long rangeId)
-    {
-        BigInteger rangeOffset = rangeSize.multiply(BigInteger.valueOf(rangeId));
-        BigInteger rangeStartTmp = tokenStart.add(rangeOffset);
-        BigInteger rangeEndTmp = rangeStartTmp.add(rangeSize);
-
-        long rangeStart = enforceValidBounds(rangeStartTmp);
-        long rangeEnd = enforceValidBounds(rangeEndTmp);
-
-        return new LongTokenRange(rangeStart, rangeEnd);
-    }
-
-    private long enforceValidBounds(final BigInteger tokenValue)
-    {
-        if (tokenValue.compareTo(LongTokenRange.RANGE_END) > 0)
-        {
-            return tokenValue.subtract(LongTokenRange.FULL_RANGE).longValueExact();
-        }
-
-        return tokenValue.longValueExact();
-    }
 }
@@ -27,15 +27,12 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -129,9 +126,12 @@ public class TestCASLockFactory extends AbstractCassandraContainerTest
     @After
     public void testCleanup()
     {
-        execute(SimpleStatement.newInstance(
-                String.format("DELETE FROM %s.%s WHERE resource='%s'", myKeyspaceName, TABLE_LOCK_PRIORITY, "lock")));
-        execute(myRemoveLockStatement.bind("lock"));
+        for (String resource : Arrays.asList("lock", "lock1", "lock2"))
+        {
+            execute(SimpleStatement.newInstance(
+                    String.format("DELETE FROM %s.%s WHERE resource='%s'", myKeyspaceName, TABLE_LOCK_PRIORITY, resource)));
+            execute(myRemoveLockStatement.bind(resource));
+        }
         myLockFactory.close();
     }
 
@@ -224,6 +224,54 @@ public class TestCASLockFactory extends AbstractCassandraContainerTest
         return inFlightQueries;
     }
 
+    @Test
+    public void testGetLocks() throws LockException
+    {
+        Map<String, String> resources = new LinkedHashMap<>();
+        resources.put("lock1", DATA_CENTER);
+        resources.put("lock2", DATA_CENTER);
+
+        Collection<DistributedLock> locks = myLockFactory.tryLocks(resources, 1, new HashMap<>());
+        assertThat(locks).hasSize(2);
+        assertPrioritiesInList("lock1", 1);
+        assertPrioritiesInList("lock2", 1);
+
+        locks.forEach(DistributedLock::close);
+
+        assertPriorityListEmpty("lock1");
+        assertPriorityListEmpty("lock2");
+    }
+
+    @Test
+    public void testGetLocksWithOneTakenReleasesAll()
+    {
+        execute(myLockStatement.bind("lock2", UUID.randomUUID(), new HashMap<>()));
+        Map<String, String> resources = new LinkedHashMap<>();
+        resources.put("lock1", DATA_CENTER);
+        resources.put("lock2", DATA_CENTER);
+
+        assertThatExceptionOfType(LockException.class).isThrownBy(() -> myLockFactory.tryLocks(resources, 1, new HashMap<>()));
+        assertThat(execute(SimpleStatement.newInstance(
+                String.format("SELECT * FROM %s.%s WHERE resource='lock1'", myKeyspaceName, TABLE_LOCK))).one()).isNull();
+        assertPriorityListEmpty("lock1");
+        assertThat(myLockFactory.getCachedFailure(DATA_CENTER, "lock1")).isEmpty();
+        assertThat(myLockFactory.getCachedFailure(DATA_CENTER, "lock2")).isNotEmpty();
+    }
+
+    @Test
+    public void testGetLocksWithLowerPriorityDoesNotLock()
+    {
+        execute(myCompeteStatement.bind("lock2", UUID.randomUUID(), 2));
+        Map<String, String> resources = new LinkedHashMap<>();
+        resources.put("lock1", DATA_CENTER);
+        resources.put("lock2", DATA_CENTER);
+
+        assertThatExceptionOfType(LockException.class).isThrownBy(() -> myLockFactory.tryLocks(resources, 1, new HashMap<>()));
+        assertPriorityListEmpty("lock1");
+        assertPrioritiesInList("lock2", 1, 2);
+        assertThat(myLockFactory.getCachedFailure(DATA_CENTER, "lock2")).isNotEmpty();
+    }
+
     @Test
     public void testGetLockWithLowerPriority()
     {
@@ -289,42 +337,6 @@ public class TestCASLockFactory extends AbstractCassandraContainerTest
         assertThat(myLockFactory.getCachedFailure(DATA_CENTER, "lock")).isEmpty();
     }
 
-    @Test
-    public void testInterruptCasLockUpdate() throws InterruptedException
-    {
-        Map<String, String> metadata = new HashMap<>();
-
-        ExecutorService executorService = Executors.newFixedThreadPool(1);
-
-        try
-        {
-            Future<?> future = executorService.submit(
-                new CASLock(
-                    DATA_CENTER,
-                    "lock",
-                    1,
-                    metadata,
-                    myLockFactory.getHostId(),
-                    myLockFactory.getCasLockStatement()
-                    )
-                );
-
-            Thread.sleep(100);
-
-            future.cancel(true);
-
-            executorService.shutdown();
-            assertThat(executorService.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
-        }
-        finally
-        {
-            if (!executorService.isShutdown())
-            {
-                executorService.shutdownNow();
-            }
-        }
-    }
-
     @Test
     public void testFailedLockRetryAttempts()
     {
@@ -340,12 +352,12 @@ public class TestCASLockFactory extends AbstractCassandraContainerTest
         {
             for (int i = 0; i < 10; i++)
             {
-                lockUpdateTask.run();
+                lockUpdateTask.renewAsync().toCompletableFuture().join();
                 assertThat(lockUpdateTask.getFailedAttempts()).isEqualTo(i + 1);
             }
 
             execute(myLockStatement.bind("lock", myLockFactory.getHostId(), new HashMap<>()));
-            lockUpdateTask.run();
+            lockUpdateTask.renewAsync().toCompletableFuture().join();
             assertThat(lockUpdateTask.getFailedAttempts()).isEqualTo(0);
         }
 
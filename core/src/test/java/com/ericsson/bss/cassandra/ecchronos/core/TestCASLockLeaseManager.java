@@ -0,0 +1,253 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class TestCASLockLeaseManager
+{
+    private static final long LOCK_TIME_IN_SECONDS = 600;
+    private static final long RENEWAL_INTERVAL_IN_SECONDS = 60;
+
+    @Mock
+    private Clock mockClock;
+
+    private final MeterRegistry myMeterRegistry = new SimpleMeterRegistry();
+
+    private CASLockLeaseManager myLeaseManager;
+
+    @Before
+    public void setup()
+    {
+        withTime(0);
+        myLeaseManager = new CASLockLeaseManager(LOCK_TIME_IN_SECONDS, RENEWAL_INTERVAL_IN_SECONDS, 2,
+                myMeterRegistry, mockClock);
+    }
+
+    @Test
+    public void testAllLocksAreRenewed()
+    {
+        CASLock lock1 = lock(CompletableFuture.completedFuture(true));
+        CASLock lock2 = lock(CompletableFuture.completedFuture(true));
+        CASLock lock3 = lock(CompletableFuture.completedFuture(true));
+        myLeaseManager.add(lock1);
+        myLeaseManager.add(lock2);
+        myLeaseManager.add(lock3);
+
+        myLeaseManager.run();
+
+        verify(lock1).renewAsync();
+        verify(lock2).renewAsync();
+        verify(lock3).renewAsync();
+        assertThat(myLeaseManager.isRenewing()).isFalse();
+        assertThat(renewals(true)).isEqualTo(3);
+    }
+
+    @Test
+    public void testConcurrentRenewalsAreBounded()
+    {
+        CompletableFuture<Boolean> renewal1 = new CompletableFuture<>();
+        CompletableFuture<Boolean> renewal2 = new CompletableFuture<>();
+        CompletableFuture<Boolean> renewal3 = new CompletableFuture<>();
+        CASLock lock1 = lock(renewal1);
+        CASLock lock2 = lock(renewal2);
+        CASLock lock3 = lock(renewal3);
+        myLeaseManager.add(lock1);
+        myLeaseManager.add(lock2);
+        myLeaseManager.add(lock3);
+
+        myLeaseManager.run();
+
+        assertThat(renewAsyncCalls(lock1, lock2, lock3)).isEqualTo(2);
+
+        myLeaseManager.run();
+        assertThat(renewAsyncCalls(lock1, lock2, lock3)).isEqualTo(2);
+
+        renewal1.complete(true);
+        renewal2.complete(true);
+        assertThat(renewAsyncCalls(lock1, lock2, lock3)).isEqualTo(3);
+        assertThat(myLeaseManager.isRenewing()).isTrue();
+
+        renewal3.complete(true);
+        assertThat(myLeaseManager.isRenewing()).isFalse();
+    }
+
+    @Test
+    public void testReleasedLocksAreNotRenewed()
+    {
+        CASLock lock = lock(CompletableFuture.completedFuture(true));
+        myLeaseManager.add(lock);
+        when(lock.isLocked()).thenReturn(false);
+
+        myLeaseManager.run();
+
+        verify(lock, never()).renewAsync();
+        assertThat(myLeaseManager.getLockCount()).isZero();
+    }
+
+    @Test
+    public void testFailedRenewalIsRetriedWhileTheLeaseIsValid()
+    {
+        CASLock lock = lock(CompletableFuture.completedFuture(false));
+        myLeaseManager.add(lock);
+
+        withTime(TimeUnit.SECONDS.toMillis(LOCK_TIME_IN_SECONDS - RENEWAL_INTERVAL_IN_SECONDS - 1));
+        myLeaseManager.run();
+
+        assertThat(myLeaseManager.getLockCount()).isEqualTo(1);
+        assertThat(renewals(false)).isEqualTo(1);
+        assertThat(abandoned()).isZero();
+    }
+
+    @Test
+    public void testAbandonedLockIsStillRenewed()
+    {
+        CASLock lock = lock(CompletableFuture.completedFuture(false));
+        myLeaseManager.add(lock);
+
+        withTime(TimeUnit.SECONDS.toMillis(LOCK_TIME_IN_SECONDS - RENEWAL_INTERVAL_IN_SECONDS + 1));
+        myLeaseManager.run();
+
+        assertThat(myLeaseManager.getLockCount()).isEqualTo(1);
+        assertThat(abandoned()).isEqualTo(1);
+
+        myLeaseManager.run();
+        verify(lock, times(2)).renewAsync();
+        assertThat(abandoned()).isEqualTo(1);
+    }
+
+    @Test
+    public void testExpiredLockIsAbandonedAndRenewed()
+    {
+        CASLock lock = lock(CompletableFuture.completedFuture(true));
+        myLeaseManager.add(lock);
+
+        withTime(TimeUnit.SECONDS.toMillis(LOCK_TIME_IN_SECONDS));
+        myLeaseManager.run();
+
+        verify(lock).renewAsync();
+        assertThat(abandoned()).isEqualTo(1);
+        assertThat(renewals(true)).isEqualTo(1);
+    }
+
+    @Test
+    public void testAbandonedLockIsNotRenewedAfterRelease()
+    {
+        CASLock lock = lock(CompletableFuture.completedFuture(false));
+        myLeaseManager.add(lock);
+
+        withTime(TimeUnit.SECONDS.toMillis(LOCK_TIME_IN_SECONDS));
+        myLeaseManager.run();
+        assertThat(abandoned()).isEqualTo(1);
+
+        when(lock.isLocked()).thenReturn(false);
+        myLeaseManager.run();
+
+        verify(lock, times(1)).renewAsync();
+        assertThat(myLeaseManager.getLockCount()).isZero();
+    }
+
+    @Test
+    public void testRenewedLockIsAbandonedAgain()
+    {
+        CASLock lock = lock(CompletableFuture.completedFuture(true));
+        myLeaseManager.add(lock);
+
+        withTime(TimeUnit.SECONDS.toMillis(LOCK_TIME_IN_SECONDS));
+        myLeaseManager.run();
+        assertThat(abandoned()).isEqualTo(1);
+
+        withTime(TimeUnit.SECONDS.toMillis(2 * LOCK_TIME_IN_SECONDS));
+        myLeaseManager.run();
+        assertThat(abandoned()).isEqualTo(2);
+    }
+
+    @Test
+    public void testRenewalLag()
+    {
+        CASLock lock = lock(CompletableFuture.completedFuture(true));
+        myLeaseManager.add(lock);
+
+        withTime(TimeUnit.SECONDS.toMillis(30));
+        assertThat(renewalLag()).isEqualTo(30.0d);
+
+        myLeaseManager.run();
+        withTime(TimeUnit.SECONDS.toMillis(35));
+        assertThat(renewalLag()).isEqualTo(5.0d);
+    }
+
+    private CASLock lock(final CompletableFuture<Boolean> renewal)
+    {
+        CASLock lock = mock(CASLock.class);
+        when(lock.isLocked()).thenReturn(true);
+        when(lock.renewAsync()).thenReturn(renewal);
+        return lock;
+    }
+
+    private void withTime(final long timeInMs)
+    {
+        when(mockClock.millis()).thenReturn(timeInMs);
+    }
+
+    private int renewAsyncCalls(final CASLock... locks)
+    {
+        int calls = 0;
+        for (CASLock lock : locks)
+        {
+            calls += mockingDetails(lock).getInvocations().stream()
+                    .filter(i -> i.getMethod().getName().equals("renewAsync"))
+                    .count();
+        }
+        return calls;
+    }
+
+    private long renewals(final boolean successful)
+    {
+        return myMeterRegistry.get(CASLockLeaseManager.RENEWAL_TIME)
+                .tag("successful", Boolean.toString(successful))
+                .timer()
+                .count();
+    }
+
+    private double abandoned()
+    {
+        return myMeterRegistry.get(CASLockLeaseManager.ABANDONED).counter().count();
+    }
+
+    private double renewalLag()
+    {
+        return myMeterRegistry.get(CASLockLeaseManager.RENEWAL_LAG).gauge().value();
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.ericsson.bss.cassandra.ecchronos.core.exceptions.LockException;
+import com.ericsson.bss.cassandra.ecchronos.core.scheduling.LockFactory.DistributedLock;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.ConsistencyType;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class TestCASLockPipeline
+{
+    private static final String DATA_CENTER = "DC1";
+    private static final String RESOURCE_1 = "RepairResource-DC1-1";
+    private static final String RESOURCE_2 = "RepairResource-DC2-1";
+    private static final UUID HOST_ID = UUID.randomUUID();
+
+    @Mock
+    private CASLockStatement mockCasLockStatement;
+
+    private final ScheduledExecutorService myExecutor = Executors.newSingleThreadScheduledExecutor();
+    private final MeterRegistry myMeterRegistry = new SimpleMeterRegistry();
+    private final Map<BoundStatement, String> myBoundStatements = new HashMap<>();
+    private final List<String> myExecutedStatements = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, List<Row>> myPriorities = new HashMap<>();
+    private final Map<String, Boolean> myLockResults = new HashMap<>();
+
+    private LockCache myLockCache;
+    private CASLockPipeline myCasLockPipeline;
+
+    @Before
+    public void setup()
+    {
+        myLockCache = new LockCache(mock(LockCache.LockSupplier.class), 30L);
+        CASLockProperties casLockProperties = new CASLockProperties(false, "ecchronos", myExecutor,
+                ConsistencyType.DEFAULT, null, s -> s);
+        CASLockFactoryCacheContext cacheContext = CASLockFactoryCacheContext.newBuilder()
+                .withLockUpdateTimeInSeconds(60)
+                .withFailedLockRetryAttempts(9)
+                .withLockCache(myLockCache)
+                .build();
+        when(mockCasLockStatement.getCasLockProperties()).thenReturn(casLockProperties);
+        when(mockCasLockStatement.getCasLockFactoryCacheContext()).thenReturn(cacheContext);
+
+        PreparedStatement priorityStatement = preparedStatement("priority");
+        PreparedStatement competeStatement = preparedStatement("compete");
+        PreparedStatement lockStatement = preparedStatement("lock");
+        PreparedStatement removeLockStatement = preparedStatement("removeLock");
+        PreparedStatement removePriorityStatement = preparedStatement("removePriority");
+        when(mockCasLockStatement.getGetPriorityStatement()).thenReturn(priorityStatement);
+        when(mockCasLockStatement.getCompeteStatement()).thenReturn(competeStatement);
+        when(mockCasLockStatement.getLockStatement()).thenReturn(lockStatement);
+        when(mockCasLockStatement.getRemoveLockStatement()).thenReturn(removeLockStatement);
+        when(mockCasLockStatement.getRemoveLockPriorityStatement()).thenReturn(removePriorityStatement);
+
+        when(mockCasLockStatement.executeAsync(any(), any(BoundStatement.class))).thenAnswer(invocation ->
+        {
+            String statement = myBoundStatements.get(invocation.getArgument(1, BoundStatement.class));
+            myExecutedStatements.add(statement);
+            return CompletableFuture.completedFuture(asyncResultSet(statement));
+        });
+        when(mockCasLockStatement.execute(any(), any(BoundStatement.class))).thenAnswer(invocation ->
+        {
+            myExecutedStatements.add(myBoundStatements.get(invocation.getArgument(1, BoundStatement.class)));
+            return mock(ResultSet.class);
+        });
+
+        CASLockLeaseManager leaseManager = new CASLockLeaseManager(600, 60, 16, myMeterRegistry,
+                Clock.systemDefaultZone());
+        myCasLockPipeline = new CASLockPipeline(HOST_ID, mockCasLockStatement, leaseManager, myMeterRegistry);
+    }
+
+    @After
+    public void cleanup()
+    {
+        myExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testAllResourcesAreLocked() throws LockException
+    {
+        Collection<DistributedLock> locks = myCasLockPipeline.lock(resources(), 1, new HashMap<>());
+
+        assertThat(locks).hasSize(2);
+        assertThat(myExecutedStatements).containsExactly(
+                "priority-" + RESOURCE_1, "compete-" + RESOURCE_1,
+                "priority-" + RESOURCE_2, "compete-" + RESOURCE_2,
+                "lock-" + RESOURCE_1, "lock-" + RESOURCE_2);
+        assertThat(phaseCount(CASLockPipeline.PHASE_PRIORITY)).isEqualTo(2);
+        assertThat(phaseCount(CASLockPipeline.PHASE_COMPETE)).isEqualTo(2);
+        assertThat(phaseCount(CASLockPipeline.PHASE_LOCK)).isEqualTo(2);
+
+        myExecutedStatements.clear();
+        locks.forEach(DistributedLock::close);
+
+        assertThat(myExecutedStatements).containsExactly(
+                "removeLock-" + RESOURCE_1, "removePriority-" + RESOURCE_1,
+                "removeLock-" + RESOURCE_2, "removePriority-" + RESOURCE_2);
+    }
+
+    @Test
+    public void testLowerPriorityDoesNotLockAnyResource()
+    {
+        myPriorities.put(RESOURCE_2, Collections.singletonList(priorityRow(UUID.randomUUID(), 2)));
+
+        assertThatExceptionOfType(LockException.class)
+                .isThrownBy(() -> myCasLockPipeline.lock(resources(), 1, new HashMap<>()));
+
+        assertThat(myExecutedStatements).doesNotContain("lock-" + RESOURCE_1, "lock-" + RESOURCE_2);
+        assertThat(myExecutedStatements).contains("removePriority-" + RESOURCE_1);
+        assertThat(myExecutedStatements).doesNotContain("removePriority-" + RESOURCE_2);
+        assertThat(phaseCount(CASLockPipeline.PHASE_LOCK)).isZero();
+        assertThat(myLockCache.getCachedFailure(DATA_CENTER, RESOURCE_1)).isEmpty();
+        assertThat(myLockCache.getCachedFailure(DATA_CENTER, RESOURCE_2)).isNotEmpty();
+    }
+
+    @Test
+    public void testTakenLockReleasesAcquiredLocks()
+    {
+        myLockResults.put(RESOURCE_2, false);
+
+        assertThatExceptionOfType(LockException.class)
+                .isThrownBy(() -> myCasLockPipeline.lock(resources(), 1, new HashMap<>()));
+
+        assertThat(myExecutedStatements).contains("removeLock-" + RESOURCE_1, "removePriority-" + RESOURCE_1);
+        assertThat(myExecutedStatements).doesNotContain("removeLock-" + RESOURCE_2);
+        assertThat(myLockCache.getCachedFailure(DATA_CENTER, RESOURCE_1)).isEmpty();
+        assertThat(myLockCache.getCachedFailure(DATA_CENTER, RESOURCE_2)).isNotEmpty();
+    }
+
+    @Test
+    public void testFailedRequestIsThrownAsLockException()
+    {
+        DriverTimeoutException timeout = new DriverTimeoutException("timeout");
+        when(mockCasLockStatement.executeAsync(any(), any(BoundStatement.class)))
+                .thenReturn(CompletableFuture.failedFuture(timeout));
+
+        assertThatExceptionOfType(LockException.class)
+                .isThrownBy(() -> myCasLockPipeline.lock(resources(), 1, new HashMap<>()))
+                .withCause(timeout);
+    }
+
+    private long phaseCount(final String phase)
+    {
+        return myMeterRegistry.get(CASLockPipeline.LOCK_ACQUIRE_TIME)
+                .tag(CASLockPipeline.PHASE_TAG, phase)
+                .timer()
+                .count();
+    }
+
+    private Map<String, String> resources()
+    {
+        Map<String, String> resources = new LinkedHashMap<>();
+        resources.put(RESOURCE_1, DATA_CENTER);
+        resources.put(RESOURCE_2, DATA_CENTER);
+        return resources;
+    }
+
+    private PreparedStatement preparedStatement(final String name)
+    {
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        when(preparedStatement.bind(any(Object[].class))).thenAnswer(invocation ->
+        {
+            BoundStatement boundStatement = mock(BoundStatement.class);
+            myBoundStatements.put(boundStatement, name + "-" + invocation.getArgument(0));
+            return boundStatement;
+        });
+        return preparedStatement;
+    }
+
+    private AsyncResultSet asyncResultSet(final String statement)
+    {
+        String resource = statement.substring(statement.indexOf('-') + 1);
+        AsyncResultSet resultSet = mock(AsyncResultSet.class);
+        when(resultSet.currentPage()).thenReturn(myPriorities.getOrDefault(resource, Collections.emptyList()));
+        when(resultSet.wasApplied()).thenReturn(myLockResults.getOrDefault(resource, true));
+        return resultSet;
+    }
+
+    private static Row priorityRow(final UUID node, final int priority)
+    {
+        Row row = mock(Row.class);
+        when(row.getInt(CASLockStatement.COLUMN_PRIORITY)).thenReturn(priority);
+        when(row.getUuid(CASLockStatement.COLUMN_NODE)).thenReturn(node);
+        return row;
+    }
+}
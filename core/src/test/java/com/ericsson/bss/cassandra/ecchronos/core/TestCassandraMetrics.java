@@ -16,6 +16,7 @@
 package com.ericsson.bss.cassandra.ecchronos.core;
 
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.google.common.collect.ImmutableMap;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -27,9 +28,11 @@ import java.io.IOException;
 
 import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory.tableReference;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -118,6 +121,34 @@ public class TestCassandraMetrics
         verify(myJmxProxyFactoryMock, times(2)).connect();
     }
 
+    @Test
+    public void testMaxRepairedAtFromTableMetrics()
+    {
+        TableReference tableReference = tableReference("keyspace", "table");
+        TableMetricsSnapshot tableMetrics = new TableMetricsSnapshot(ImmutableMap.of(),
+                ImmutableMap.of(tableReference, 3456L));
+        CassandraMetrics cassandraMetrics = new CassandraMetrics(myJmxProxyFactoryMock, () -> tableMetrics);
+        doReturn(0.5d).when(myJmxProxyMock).getPercentRepaired(eq(tableReference));
+
+        assertThat(cassandraMetrics.getMaxRepairedAt(tableReference)).isEqualTo(3456L);
+        assertThat(cassandraMetrics.getPercentRepaired(tableReference)).isEqualTo(0.5d);
+        verify(myJmxProxyMock, never()).getMaxRepairedAt(any());
+        cassandraMetrics.close();
+    }
+
+    @Test
+    public void testMaxRepairedAtForTableMissingInTableMetrics()
+    {
+        TableReference tableReference = tableReference("keyspace", "table");
+        TableMetricsSnapshot tableMetrics = new TableMetricsSnapshot(ImmutableMap.of(),
+                ImmutableMap.of(tableReference("keyspace", "table2"), 3456L));
+        CassandraMetrics cassandraMetrics = new CassandraMetrics(myJmxProxyFactoryMock, () -> tableMetrics);
+        mockTable(tableReference, 1234L, 0.5d);
+
+        assertThat(cassandraMetrics.getMaxRepairedAt(tableReference)).isEqualTo(1234L);
+        cassandraMetrics.close();
+    }
+
     private void mockTable(TableReference tableReference, long maxRepairedAt, double percentRepaired)
     {
         doReturn(maxRepairedAt).when(myJmxProxyMock).getMaxRepairedAt(eq(tableReference));
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metadata.NodeState;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.DriverNode;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class TestDriverHostStatesImpl
+{
+    @Mock
+    private CqlSession mockSession;
+
+    @Mock
+    private Metadata mockMetadata;
+
+    @Mock
+    private JmxProxyFactory mockJmxProxyFactory;
+
+    @Mock
+    private JmxProxy mockJmxProxy;
+
+    private final MeterRegistry myMeterRegistry = new SimpleMeterRegistry();
+    private final Map<UUID, Node> myNodes = new HashMap<>();
+
+    private InetAddress myAddress1;
+    private InetAddress myAddress2;
+
+    private DriverHostStatesImpl myHostStates;
+
+    @Before
+    public void setup() throws IOException
+    {
+        myAddress1 = InetAddress.getByName("127.0.0.1");
+        myAddress2 = InetAddress.getByName("127.0.0.2");
+
+        when(mockSession.getMetadata()).thenReturn(mockMetadata);
+        when(mockMetadata.getNodes()).thenReturn(myNodes);
+        when(mockJmxProxyFactory.connect()).thenReturn(mockJmxProxy);
+        when(mockJmxProxy.getLiveNodes()).thenReturn(Collections.emptyList());
+        when(mockJmxProxy.getUnreachableNodes()).thenReturn(Collections.emptyList());
+
+        myHostStates = DriverHostStatesImpl.builder()
+                .withSession(mockSession)
+                .withJmxProxyFactory(mockJmxProxyFactory)
+                .withMeterRegistry(myMeterRegistry)
+                .withRefreshIntervalInMs(TimeUnit.HOURS.toMillis(1))
+                .build();
+        // Wait for the initial reconciliation so that it does not race with the stubbing in the tests
+        verify(mockJmxProxy, timeout(TimeUnit.SECONDS.toMillis(1))).close();
+    }
+
+    @After
+    public void cleanup()
+    {
+        myHostStates.close();
+    }
+
+    @Test
+    public void testBuildWithoutSessionShouldThrow()
+    {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> DriverHostStatesImpl.builder()
+                        .withJmxProxyFactory(mockJmxProxyFactory)
+                        .build());
+    }
+
+    @Test
+    public void testBuildWithoutJmxProxyFactoryShouldThrow()
+    {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> DriverHostStatesImpl.builder()
+                        .withSession(mockSession)
+                        .build());
+    }
+
+    @Test
+    public void testDriverStateIsUsed()
+    {
+        Node upNode = withNode(myAddress1, NodeState.UP);
+        Node downNode = withNode(myAddress2, NodeState.DOWN);
+
+        assertThat(myHostStates.isUp(upNode)).isTrue();
+        assertThat(myHostStates.isUp(myAddress1)).isTrue();
+        assertThat(myHostStates.isUp(new DriverNode(upNode))).isTrue();
+        assertThat(myHostStates.isUp(downNode)).isFalse();
+        assertThat(myHostStates.isUp(myAddress2)).isFalse();
+    }
+
+    @Test
+    public void testDriverStateChangeIsSeenWithoutRefresh()
+    {
+        Node node = withNode(myAddress1, NodeState.UP);
+        assertThat(myHostStates.isUp(myAddress1)).isTrue();
+
+        when(node.getState()).thenReturn(NodeState.DOWN);
+
+        assertThat(myHostStates.isUp(myAddress1)).isFalse();
+    }
+
+    @Test
+    public void testJmxStateIsUsedWhenDriverStateIsUnknown()
+    {
+        Node node = withNode(myAddress1, NodeState.UNKNOWN);
+        when(mockJmxProxy.getLiveNodes()).thenReturn(Collections.singletonList(myAddress1.getHostAddress()));
+
+        assertThat(myHostStates.isUp(node)).isFalse();
+
+        myHostStates.reconcile();
+
+        assertThat(myHostStates.isUp(node)).isTrue();
+        assertThat(myHostStates.isUp(myAddress1)).isTrue();
+    }
+
+    @Test
+    public void testJmxStateIsUsedForUnknownNode() throws UnknownHostException
+    {
+        InetAddress otherAddress = InetAddress.getByName("127.0.0.3");
+        when(mockJmxProxy.getLiveNodes()).thenReturn(Collections.singletonList(otherAddress.getHostAddress()));
+
+        myHostStates.reconcile();
+
+        assertThat(myHostStates.isUp(otherAddress)).isTrue();
+    }
+
+    @Test
+    public void testJmxStatesAreClearedWhenUnableToConnect() throws IOException
+    {
+        Node node = withNode(myAddress1, NodeState.UNKNOWN);
+        when(mockJmxProxy.getLiveNodes()).thenReturn(Collections.singletonList(myAddress1.getHostAddress()));
+        myHostStates.reconcile();
+        assertThat(myHostStates.isUp(node)).isTrue();
+
+        when(mockJmxProxyFactory.connect()).thenThrow(new IOException("Unittest"));
+        myHostStates.reconcile();
+
+        assertThat(myHostStates.isUp(node)).isFalse();
+    }
+
+    @Test
+    public void testDisagreementIsReported()
+    {
+        withNode(myAddress1, NodeState.UP);
+        withNode(myAddress2, NodeState.UP);
+        when(mockJmxProxy.getLiveNodes()).thenReturn(Collections.singletonList(myAddress1.getHostAddress()));
+        when(mockJmxProxy.getUnreachableNodes()).thenReturn(Collections.singletonList(myAddress2.getHostAddress()));
+
+        myHostStates.reconcile();
+
+        assertThat(myHostStates.getDisagreement()).isEqualTo(1);
+        assertThat(myMeterRegistry.get(DriverHostStatesImpl.DISAGREEMENT).gauge().value()).isEqualTo(1.0d);
+        assertThat(myHostStates.isUp(myAddress2)).isTrue();
+
+        when(mockJmxProxy.getLiveNodes()).thenReturn(Arrays.asList(myAddress1.getHostAddress(),
+                myAddress2.getHostAddress()));
+        when(mockJmxProxy.getUnreachableNodes()).thenReturn(Collections.emptyList());
+
+        myHostStates.reconcile();
+
+        assertThat(myHostStates.getDisagreement()).isZero();
+    }
+
+    private Node withNode(final InetAddress address, final NodeState state)
+    {
+        Node node = mock(Node.class);
+        when(node.getBroadcastAddress()).thenReturn(Optional.of(new InetSocketAddress(address, 7000)));
+        when(node.getState()).thenReturn(state);
+        myNodes.put(UUID.randomUUID(), node);
+        // Topology changes replace the metadata
+        Metadata metadata = mock(Metadata.class);
+        when(metadata.getNodes()).thenReturn(new HashMap<>(myNodes));
+        when(mockSession.getMetadata()).thenReturn(metadata);
+        return node;
+    }
+}
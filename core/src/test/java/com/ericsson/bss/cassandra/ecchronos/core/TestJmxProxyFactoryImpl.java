@@ -0,0 +1,317 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core;
+
+import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory.tableReference;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.remote.JMXConnector;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.ericsson.bss.cassandra.ecchronos.connection.JmxConnectionProvider;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class TestJmxProxyFactoryImpl
+{
+    private static final String LIVE_NODES = "LiveNodes";
+
+    @Mock
+    private JmxConnectionProvider mockJmxConnectionProvider;
+
+    @Mock
+    private JMXConnector mockJmxConnector;
+
+    @Mock
+    private MBeanServerConnection mockMBeanServerConnection;
+
+    @Mock
+    private Clock mockClock;
+
+    private final MeterRegistry myMeterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch myBlockingLatch = new CountDownLatch(1);
+
+    private JmxProxyFactoryImpl myJmxProxyFactory;
+
+    @Before
+    public void setup() throws IOException
+    {
+        when(mockJmxConnectionProvider.getJmxConnector()).thenReturn(mockJmxConnector);
+        when(mockJmxConnector.getMBeanServerConnection()).thenReturn(mockMBeanServerConnection);
+        when(mockClock.millis()).thenReturn(0L);
+
+        myJmxProxyFactory = JmxProxyFactoryImpl.builder()
+                .withJmxConnectionProvider(mockJmxConnectionProvider)
+                .withMeterRegistry(myMeterRegistry)
+                .withOperationTimeout(100, TimeUnit.MILLISECONDS)
+                .withCircuitBreaker(2, 1, TimeUnit.SECONDS)
+                .withClock(mockClock)
+                .build();
+    }
+
+    @After
+    public void cleanup()
+    {
+        myBlockingLatch.countDown();
+        myJmxProxyFactory.close();
+    }
+
+    @Test
+    public void testOperationIsTimed() throws Exception
+    {
+        when(mockMBeanServerConnection.getAttribute(any(ObjectName.class), eq(LIVE_NODES)))
+                .thenReturn(Arrays.asList("127.0.0.1", "127.0.0.2"));
+
+        try (JmxProxy proxy = myJmxProxyFactory.connect())
+        {
+            assertThat(proxy.getLiveNodes()).containsExactly("127.0.0.1", "127.0.0.2");
+        }
+
+        assertThat(operationCount(LIVE_NODES, true)).isEqualTo(1);
+        assertThat(circuitOpen()).isZero();
+    }
+
+    @Test
+    public void testSlowOperationTimesOut() throws Exception
+    {
+        when(mockMBeanServerConnection.getAttribute(any(ObjectName.class), eq(LIVE_NODES))).thenAnswer(invocation ->
+        {
+            myBlockingLatch.await();
+            return Arrays.asList("127.0.0.1");
+        });
+
+        try (JmxProxy proxy = myJmxProxyFactory.connect())
+        {
+            assertThat(proxy.getLiveNodes()).isEmpty();
+        }
+
+        assertThat(operationCount(LIVE_NODES, false)).isEqualTo(1);
+    }
+
+    @Test
+    public void testRepairIsNotTimedOut() throws Exception
+    {
+        when(mockMBeanServerConnection.invoke(any(ObjectName.class), eq("repairAsync"), any(), any()))
+                .thenAnswer(invocation ->
+                {
+                    Thread.sleep(200);
+                    return 1;
+                });
+
+        try (JmxProxy proxy = myJmxProxyFactory.connect())
+        {
+            assertThat(proxy.repairAsync("keyspace", new HashMap<>())).isEqualTo(1);
+        }
+
+        assertThat(operationCount("repairAsync", true)).isEqualTo(1);
+    }
+
+    @Test
+    public void testCircuitOpensAfterConsecutiveFailures() throws Exception
+    {
+        when(mockMBeanServerConnection.getAttribute(any(ObjectName.class), eq(LIVE_NODES)))
+                .thenThrow(new IOException("Connection refused"));
+
+        try (JmxProxy proxy = myJmxProxyFactory.connect())
+        {
+            proxy.getLiveNodes();
+            proxy.getLiveNodes();
+            assertThat(circuitOpen()).isEqualTo(1.0d);
+
+            assertThat(proxy.getLiveNodes()).isEmpty();
+        }
+
+        verify(mockMBeanServerConnection, times(2)).getAttribute(any(ObjectName.class), eq(LIVE_NODES));
+    }
+
+    @Test
+    public void testCircuitClosesAfterSuccessfulProbe() throws Exception
+    {
+        when(mockMBeanServerConnection.getAttribute(any(ObjectName.class), eq(LIVE_NODES)))
+                .thenThrow(new IOException("Connection refused"))
+                .thenThrow(new IOException("Connection refused"))
+                .thenReturn(Arrays.asList("127.0.0.1"));
+
+        try (JmxProxy proxy = myJmxProxyFactory.connect())
+        {
+            proxy.getLiveNodes();
+            proxy.getLiveNodes();
+
+            when(mockClock.millis()).thenReturn(TimeUnit.SECONDS.toMillis(1));
+            assertThat(proxy.getLiveNodes()).containsExactly("127.0.0.1");
+        }
+
+        assertThat(circuitOpen()).isZero();
+    }
+
+    @Test
+    public void testInterruptedProbeIsReleased() throws Exception
+    {
+        when(mockMBeanServerConnection.getAttribute(any(ObjectName.class), eq(LIVE_NODES)))
+                .thenThrow(new IOException("Connection refused"));
+
+        try (JmxProxy proxy = myJmxProxyFactory.connect())
+        {
+            proxy.getLiveNodes();
+            proxy.getLiveNodes();
+
+            doReturn(Arrays.asList("127.0.0.1")).when(mockMBeanServerConnection)
+                    .getAttribute(any(ObjectName.class), eq(LIVE_NODES));
+            when(mockClock.millis()).thenReturn(TimeUnit.SECONDS.toMillis(1));
+
+            Thread.currentThread().interrupt();
+            try
+            {
+                assertThat(proxy.getLiveNodes()).isEmpty();
+            }
+            finally
+            {
+                assertThat(Thread.interrupted()).isTrue();
+            }
+
+            assertThat(proxy.getLiveNodes()).containsExactly("127.0.0.1");
+        }
+
+        assertThat(circuitOpen()).isZero();
+    }
+
+    @Test
+    public void testMBeanErrorsDoNotOpenCircuit() throws Exception
+    {
+        when(mockMBeanServerConnection.getAttribute(any(ObjectName.class), eq("OperationMode")))
+                .thenThrow(new InstanceNotFoundException());
+
+        try (JmxProxy proxy = myJmxProxyFactory.connect())
+        {
+            for (int i = 0; i < 3; i++)
+            {
+                assertThat(proxy.getNodeStatus()).isEqualTo("Unknown");
+            }
+        }
+
+        verify(mockMBeanServerConnection, times(3)).getAttribute(any(ObjectName.class), eq("OperationMode"));
+        assertThat(circuitOpen()).isZero();
+    }
+
+    @Test
+    public void testRejectedOperationIsNotSent() throws Exception
+    {
+        when(mockMBeanServerConnection.getAttribute(any(ObjectName.class), eq(LIVE_NODES)))
+                .thenThrow(new IOException("Connection refused"));
+
+        try (JmxProxy proxy = myJmxProxyFactory.connect())
+        {
+            proxy.getLiveNodes();
+            proxy.getLiveNodes();
+            proxy.forceTerminateAllRepairSessions();
+        }
+
+        verify(mockMBeanServerConnection, never()).invoke(any(ObjectName.class), eq("forceTerminateAllRepairSessions"),
+                any(), any());
+    }
+
+    @Test
+    public void testTableMetricsAreReadTogether() throws Exception
+    {
+        TableReference tableReference1 = tableReference("ks", "tbl1");
+        TableReference tableReference2 = tableReference("ks", "tbl2");
+        ObjectName tbl1DiskSpace = diskSpaceObjectName("ks", "tbl1");
+        ObjectName tbl2DiskSpace = diskSpaceObjectName("ks", "tbl2");
+        ObjectName otherDiskSpace = diskSpaceObjectName("other", "tbl1");
+        when(mockMBeanServerConnection.queryNames(any(ObjectName.class), any()))
+                .thenReturn(new HashSet<>(Arrays.asList(tbl1DiskSpace, tbl2DiskSpace, otherDiskSpace)));
+        when(mockMBeanServerConnection.getAttribute(tbl1DiskSpace, "Count")).thenReturn(100L);
+        when(mockMBeanServerConnection.getAttribute(tbl2DiskSpace, "Count")).thenThrow(new InstanceNotFoundException());
+        List<CompositeData> repairStats = Arrays.asList(repairStats("ks", "tbl1", 1234L),
+                repairStats("ks", "tbl2", 2345L), repairStats("other", "tbl1", 3456L));
+        when(mockMBeanServerConnection.invoke(any(ObjectName.class), eq("getRepairStats"), any(), any()))
+                .thenReturn(repairStats);
+
+        TableMetricsSnapshot tableMetrics;
+        try (JmxProxy proxy = myJmxProxyFactory.connect())
+        {
+            tableMetrics = proxy.getTableMetrics(Arrays.asList(tableReference1, tableReference2));
+        }
+
+        assertThat(tableMetrics.getLiveDiskSpaceUsed(tableReference1)).isEqualTo(100L);
+        assertThat(tableMetrics.getLiveDiskSpaceUsed(tableReference2)).isZero();
+        assertThat(tableMetrics.getLiveDiskSpaceUsed()).isEqualTo(100L);
+        assertThat(tableMetrics.getMaxRepairedAt(tableReference1)).isEqualTo(1234L);
+        assertThat(tableMetrics.getMaxRepairedAt(tableReference2)).isEqualTo(2345L);
+        verify(mockMBeanServerConnection, never()).getAttribute(otherDiskSpace, "Count");
+        verify(mockMBeanServerConnection, times(1)).invoke(any(ObjectName.class), eq("getRepairStats"), any(),
+                any());
+    }
+
+    private ObjectName diskSpaceObjectName(final String keyspace, final String table) throws Exception
+    {
+        return new ObjectName(String.format(
+                "org.apache.cassandra.metrics:type=Table,keyspace=%s,scope=%s,name=LiveDiskSpaceUsed",
+                keyspace, table));
+    }
+
+    private CompositeData repairStats(final String keyspace, final String table, final long maxRepaired)
+    {
+        CompositeData compositeData = mock(CompositeData.class);
+        when(compositeData.get("keyspace")).thenReturn(keyspace);
+        when(compositeData.get("table")).thenReturn(table);
+        when(compositeData.get("maxRepaired")).thenReturn(maxRepaired);
+        return compositeData;
+    }
+
+    private long operationCount(final String operation, final boolean successful)
+    {
+        return myMeterRegistry.get(JmxProxyFactoryImpl.OPERATION_TIME)
+                .tag("operation", operation)
+                .tag("successful", Boolean.toString(successful))
+                .timer()
+                .count();
+    }
+
+    private double circuitOpen()
+    {
+        return myMeterRegistry.get(JmxProxyFactoryImpl.CIRCUIT_OPEN).gauge().value();
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core;
+
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestRejectionCalendar
+{
+    private static final long PAUSE_TIME = TimeUnit.MINUTES.toMillis(1);
+    private static final String KEYSPACE = "ks";
+    private static final String TABLE = "tbl";
+
+    @Test
+    public void testEmptyCalendar()
+    {
+        RejectionCalendar calendar = RejectionCalendar.newBuilder(PAUSE_TIME).build();
+
+        assertThat(calendar.rejectionTime(KEYSPACE, TABLE, millisOfDay(4, 30))).isEqualTo(-1L);
+    }
+
+    @Test
+    public void testRejectedWithinWindow()
+    {
+        RejectionCalendar.Builder builder = RejectionCalendar.newBuilder(PAUSE_TIME);
+        builder.add(KEYSPACE, TABLE, 3, 0, 5, 0);
+        RejectionCalendar calendar = builder.build();
+
+        assertThat(calendar.rejectionTime(KEYSPACE, TABLE, millisOfDay(4, 30))).isEqualTo(
+                TimeUnit.MINUTES.toMillis(30));
+        assertThat(calendar.rejectionTime(KEYSPACE, TABLE, millisOfDay(2, 30))).isEqualTo(-1L);
+        assertThat(calendar.rejectionTime(KEYSPACE, TABLE, millisOfDay(5, 30))).isEqualTo(-1L);
+        assertThat(calendar.rejectionTime(KEYSPACE, "other", millisOfDay(4, 30))).isEqualTo(-1L);
+        assertThat(calendar.rejectionTime("other", TABLE, millisOfDay(4, 30))).isEqualTo(-1L);
+    }
+
+    @Test
+    public void testWraparoundWindow()
+    {
+        RejectionCalendar.Builder builder = RejectionCalendar.newBuilder(PAUSE_TIME);
+        builder.add(KEYSPACE, TABLE, 22, 0, 2, 0);
+        RejectionCalendar calendar = builder.build();
+
+        assertThat(calendar.rejectionTime(KEYSPACE, TABLE, millisOfDay(23, 0))).isEqualTo(
+                TimeUnit.HOURS.toMillis(3));
+        assertThat(calendar.rejectionTime(KEYSPACE, TABLE, millisOfDay(1, 0))).isEqualTo(
+                TimeUnit.HOURS.toMillis(1));
+        assertThat(calendar.rejectionTime(KEYSPACE, TABLE, millisOfDay(12, 0))).isEqualTo(-1L);
+    }
+
+    @Test
+    public void testPaused()
+    {
+        RejectionCalendar.Builder builder = RejectionCalendar.newBuilder(PAUSE_TIME);
+        builder.add(KEYSPACE, TABLE, 0, 0, 0, 0);
+        RejectionCalendar calendar = builder.build();
+
+        assertThat(calendar.rejectionTime(KEYSPACE, TABLE, millisOfDay(12, 0))).isEqualTo(PAUSE_TIME);
+    }
+
+    @Test
+    public void testWildcards()
+    {
+        RejectionCalendar.Builder builder = RejectionCalendar.newBuilder(PAUSE_TIME);
+        builder.add("*", TABLE, 0, 0, 0, 0);
+        builder.add(KEYSPACE, "*", 0, 0, 0, 0);
+        RejectionCalendar calendar = builder.build();
+
+        assertThat(calendar.rejectionTime(KEYSPACE, TABLE, millisOfDay(12, 0))).isEqualTo(PAUSE_TIME);
+        assertThat(calendar.rejectionTime("other", TABLE, millisOfDay(12, 0))).isEqualTo(PAUSE_TIME);
+        // Entries for all tables in a keyspace are not supported
+        assertThat(calendar.rejectionTime(KEYSPACE, "other", millisOfDay(12, 0))).isEqualTo(-1L);
+    }
+
+    @Test
+    public void testAllKeyspacesAndTablesAreCheckedFirst()
+    {
+        RejectionCalendar.Builder builder = RejectionCalendar.newBuilder(PAUSE_TIME);
+        builder.add(KEYSPACE, TABLE, 4, 0, 6, 0);
+        builder.add("*", TABLE, 4, 0, 5, 0);
+        builder.add("*", "*", 4, 0, 4, 45);
+        RejectionCalendar calendar = builder.build();
+
+        assertThat(calendar.rejectionTime(KEYSPACE, TABLE, millisOfDay(4, 30))).isEqualTo(
+                TimeUnit.MINUTES.toMillis(15));
+        assertThat(calendar.rejectionTime(KEYSPACE, TABLE, millisOfDay(4, 50))).isEqualTo(
+                TimeUnit.MINUTES.toMillis(10));
+        assertThat(calendar.rejectionTime(KEYSPACE, TABLE, millisOfDay(5, 30))).isEqualTo(
+                TimeUnit.MINUTES.toMillis(30));
+    }
+
+    @Test
+    public void testInvalidWindowRejectsForPauseTime()
+    {
+        RejectionCalendar.Builder builder = RejectionCalendar.newBuilder(PAUSE_TIME);
+
+        assertThat(builder.add(KEYSPACE, TABLE, 24, 0, 2, 0)).isFalse();
+        RejectionCalendar calendar = builder.build();
+
+        assertThat(calendar.rejectionTime(KEYSPACE, TABLE, millisOfDay(12, 0))).isEqualTo(PAUSE_TIME);
+        assertThat(calendar.rejectionTime(KEYSPACE, "other", millisOfDay(12, 0))).isEqualTo(-1L);
+    }
+
+    @Test
+    public void testMillisOfDay()
+    {
+        Clock utc = Clock.fixed(Instant.parse("2020-02-24T04:30:24.123Z"), ZoneOffset.UTC);
+        Clock stockholm = Clock.fixed(Instant.parse("2020-07-24T23:30:00Z"), ZoneId.of("Europe/Stockholm"));
+
+        assertThat(RejectionCalendar.millisOfDay(utc)).isEqualTo(millisOfDay(4, 30) + 24123);
+        assertThat(RejectionCalendar.millisOfDay(stockholm)).isEqualTo(millisOfDay(1, 30));
+    }
+
+    @Test
+    public void testSameAsLocalDateTimeCalculation()
+    {
+        Random random = new Random(1);
+
+        for (int i = 0; i < 10_000; i++)
+        {
+            int startHour = random.nextInt(24);
+            int startMinute = random.nextInt(60);
+            int endHour = random.nextInt(24);
+            int endMinute = random.nextInt(60);
+            Clock clock = Clock.fixed(Instant.ofEpochSecond(random.nextInt(Integer.MAX_VALUE)), ZoneOffset.UTC);
+
+            RejectionCalendar.Builder builder = RejectionCalendar.newBuilder(PAUSE_TIME);
+            builder.add(KEYSPACE, TABLE, startHour, startMinute, endHour, endMinute);
+
+            assertThat(builder.build().rejectionTime(KEYSPACE, TABLE, RejectionCalendar.millisOfDay(clock)))
+                    .as("%02d:%02d-%02d:%02d at %s", startHour, startMinute, endHour, endMinute, clock.instant())
+                    .isEqualTo(localDateTimeRejection(clock, startHour, startMinute, endHour, endMinute));
+        }
+    }
+
+    /**
+     * The rejection time calculated on {@link LocalDateTime} like the run policy used to do.
+     */
+    private static long localDateTimeRejection(final Clock clock, final int startHour, final int startMinute,
+            final int endHour, final int endMinute)
+    {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime start = now.withHour(startHour).withMinute(startMinute).withSecond(0);
+        LocalDateTime end = now.withHour(endHour).withMinute(endMinute).withSecond(0);
+
+        if (startHour == 0 && startMinute == 0 && endHour == 0 && endMinute == 0)
+        {
+            return PAUSE_TIME;
+        }
+        if (end.isBefore(start))
+        {
+            if (now.isBefore(end))
+            {
+                return Duration.between(now, end).toMillis();
+            }
+            else if (now.isAfter(start))
+            {
+                return Duration.between(now, end.plusDays(1)).toMillis();
+            }
+        }
+        else if (now.isAfter(start) && now.isBefore(end))
+        {
+            return Duration.between(now, end).toMillis();
+        }
+        return -1L;
+    }
+
+    private static long millisOfDay(final int hour, final int minute)
+    {
+        return TimeUnit.HOURS.toMillis(hour) + TimeUnit.MINUTES.toMillis(minute);
+    }
+}
@@ -31,9 +31,12 @@ import java.util.concurrent.TimeUnit;
 import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory.tableReference;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class TestTableStorageStatesImpl
@@ -56,6 +59,7 @@ public class TestTableStorageStatesImpl
     {
         doReturn(myJmxProxy).when(myJmxProxyFactory).connect();
         doReturn(myReplicatedTables).when(myReplicatedTableProviderMock).getAll();
+        lenient().when(myJmxProxy.getTableMetrics(any())).thenCallRealMethod();
 
         myTableStorageeStatesImpl = TableStorageStatesImpl.builder()
                 .withReplicatedTableProvider(myReplicatedTableProviderMock)
@@ -210,6 +214,23 @@ public class TestTableStorageStatesImpl
         assertThat(myTableStorageeStatesImpl.getDataSize(tableReference2)).isEqualTo(expectedTableDataSize2);
     }
 
+    @Test
+    public void testTableMetricsSnapshot()
+    {
+        TableReference tableReference = tableReference("keyspace", "table");
+        mockTable(tableReference, 1000);
+        doReturn(1234L).when(myJmxProxy).getMaxRepairedAt(eq(tableReference));
+
+        assertThat(myTableStorageeStatesImpl.getTableMetrics()).isSameAs(TableMetricsSnapshot.EMPTY);
+
+        myTableStorageeStatesImpl.updateTableStates();
+
+        TableMetricsSnapshot tableMetrics = myTableStorageeStatesImpl.getTableMetrics();
+        assertThat(tableMetrics.getLiveDiskSpaceUsed(tableReference)).isEqualTo(1000);
+        assertThat(tableMetrics.hasMaxRepairedAt(tableReference)).isTrue();
+        assertThat(tableMetrics.getMaxRepairedAt(tableReference)).isEqualTo(1234L);
+    }
+
     private void mockTable(TableReference tableReference, long dataSize)
     {
         myReplicatedTables.add(tableReference);
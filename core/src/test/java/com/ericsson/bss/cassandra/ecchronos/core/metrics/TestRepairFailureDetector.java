@@ -0,0 +1,226 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.metrics;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.ericsson.bss.cassandra.ecchronos.core.TableStorageStates;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.StatusLogger;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory.tableReference;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class TestRepairFailureDetector
+{
+    private static final String TEST_KEYSPACE = "test_keyspace";
+    private static final String TEST_TABLE1 = "test_table1";
+    private static final String TEST_TABLE2 = "test_table2";
+    private static final long START = 1_000_000L;
+
+    @Mock
+    private TableStorageStates myTableStorageStates;
+
+    @Mock
+    private Clock myClock;
+
+    private MeterRegistry myMeterRegistry;
+    private RepairFailureDetector myRepairFailureDetector;
+    private TableRepairMetricsImpl myTableRepairMetricsImpl;
+    private ListAppender<ILoggingEvent> myListAppender;
+
+    @Before
+    public void init()
+    {
+        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        myListAppender = new ListAppender<>();
+        myListAppender.start();
+        loggerContext.getLogger(StatusLogger.class).addAppender(myListAppender);
+
+        CompositeMeterRegistry compositeMeterRegistry = new CompositeMeterRegistry();
+        compositeMeterRegistry.add(new SimpleMeterRegistry());
+        myMeterRegistry = compositeMeterRegistry;
+
+        when(myClock.millis()).thenReturn(START);
+        myRepairFailureDetector = RepairFailureDetector.builder()
+                .withMeterRegistry(myMeterRegistry)
+                .withFailureThreshold(1)
+                .withTimeWindow(1, TimeUnit.MINUTES)
+                .withClock(myClock)
+                .build();
+        myTableRepairMetricsImpl = TableRepairMetricsImpl.builder()
+                .withTableStorageStates(myTableStorageStates)
+                .withMeterRegistry(myMeterRegistry)
+                .withRepairFailureDetector(myRepairFailureDetector)
+                .build();
+    }
+
+    @After
+    public void cleanup()
+    {
+        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        loggerContext.getLogger(StatusLogger.class).detachAppender(myListAppender);
+    }
+
+    @Test
+    public void testStatusIsLoggedWhenFailureThresholdIsBroken()
+    {
+        TableReference tableReference = tableReference(TEST_KEYSPACE, TEST_TABLE1);
+
+        myTableRepairMetricsImpl.repairSession(tableReference, 12345L, TimeUnit.MILLISECONDS, false);
+        assertThat(myListAppender.list).isEmpty();
+
+        myTableRepairMetricsImpl.repairSession(tableReference, 12345L, TimeUnit.MILLISECONDS, false);
+
+        List<ILoggingEvent> logsList = myListAppender.list;
+        assertThat(logsList).hasSize(1);
+        assertThat(logsList.get(0).getFormattedMessage()).isEqualTo("Total repair failures in node till now is: 2");
+        assertThat(logsList.get(0).getLevel()).isEqualTo(Level.DEBUG);
+    }
+
+    @Test
+    public void testSuccessfulSessionsAreNotCounted()
+    {
+        TableReference tableReference = tableReference(TEST_KEYSPACE, TEST_TABLE1);
+
+        myTableRepairMetricsImpl.repairSession(tableReference, 12345L, TimeUnit.MILLISECONDS, true);
+        myTableRepairMetricsImpl.repairSession(tableReference, 12345L, TimeUnit.MILLISECONDS, true);
+
+        assertThat(myRepairFailureDetector.getNodeFailures()).isZero();
+        assertThat(myRepairFailureDetector.getTableFailures()).isEmpty();
+        assertThat(myListAppender.list).isEmpty();
+    }
+
+    @Test
+    public void testBreachIsLoggedOnceWhileAboveThreshold()
+    {
+        TableReference tableReference = tableReference(TEST_KEYSPACE, TEST_TABLE1);
+
+        for (int i = 0; i < 5; i++)
+        {
+            failRepairSession(tableReference);
+        }
+
+        assertThat(myListAppender.list).hasSize(1);
+    }
+
+    @Test
+    public void testBreachIsLoggedAgainAfterWindowHasPassed()
+    {
+        TableReference tableReference = tableReference(TEST_KEYSPACE, TEST_TABLE1);
+        failRepairSession(tableReference);
+        failRepairSession(tableReference);
+
+        when(myClock.millis()).thenReturn(START + TimeUnit.MINUTES.toMillis(2));
+        failRepairSession(tableReference);
+        assertThat(myListAppender.list).hasSize(1);
+
+        failRepairSession(tableReference);
+        assertThat(myListAppender.list).hasSize(2);
+    }
+
+    @Test
+    public void testBreachIsLoggedAgainAfterWindowHasPassedWithZeroThreshold()
+    {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TableRepairMetricsImpl tableRepairMetrics = TableRepairMetricsImpl.builder()
+                .withTableStorageStates(myTableStorageStates)
+                .withMeterRegistry(meterRegistry)
+                .withRepairFailureDetector(RepairFailureDetector.builder()
+                        .withMeterRegistry(meterRegistry)
+                        .withFailureThreshold(0)
+                        .withTimeWindow(1, TimeUnit.MINUTES)
+                        .withClock(myClock)
+                        .build())
+                .build();
+        TableReference tableReference = tableReference(TEST_KEYSPACE, TEST_TABLE1);
+
+        tableRepairMetrics.repairSession(tableReference, 12345L, TimeUnit.MILLISECONDS, false);
+        assertThat(myListAppender.list).hasSize(1);
+
+        when(myClock.millis()).thenReturn(START + TimeUnit.MINUTES.toMillis(2));
+        tableRepairMetrics.repairSession(tableReference, 12345L, TimeUnit.MILLISECONDS, false);
+        assertThat(myListAppender.list).hasSize(2);
+    }
+
+    @Test
+    public void testFailuresPerTableAndNode()
+    {
+        TableReference tableReference1 = tableReference(TEST_KEYSPACE, TEST_TABLE1);
+        TableReference tableReference2 = tableReference(TEST_KEYSPACE, TEST_TABLE2);
+
+        myRepairFailureDetector.repairFailed(tableReference1);
+        myRepairFailureDetector.repairFailed(tableReference1);
+        myRepairFailureDetector.repairFailed(tableReference2);
+
+        assertThat(myRepairFailureDetector.getNodeFailures()).isEqualTo(3);
+        assertThat(myRepairFailureDetector.getTableFailures())
+                .containsEntry(tableReference1, 2L)
+                .containsEntry(tableReference2, 1L)
+                .hasSize(2);
+
+        when(myClock.millis()).thenReturn(START + TimeUnit.MINUTES.toMillis(2));
+        assertThat(myRepairFailureDetector.getNodeFailures()).isZero();
+        assertThat(myRepairFailureDetector.getTableFailures())
+                .containsEntry(tableReference1, 0L)
+                .containsEntry(tableReference2, 0L);
+    }
+
+    @Test
+    public void testFailuresAreExposedAsMetrics()
+    {
+        TableReference tableReference = tableReference(TEST_KEYSPACE, TEST_TABLE1);
+
+        myRepairFailureDetector.repairFailed(tableReference);
+        myRepairFailureDetector.repairFailed(tableReference);
+
+        Gauge nodeFailures = myMeterRegistry.find(RepairFailureDetector.NODE_REPAIR_FAILURES_IN_WINDOW).gauge();
+        assertThat(nodeFailures).isNotNull();
+        assertThat(nodeFailures.value()).isEqualTo(2.0d);
+
+        Gauge tableFailures = myMeterRegistry.find(RepairFailureDetector.REPAIR_FAILURES_IN_WINDOW)
+                .tags("keyspace", TEST_KEYSPACE, "table", TEST_TABLE1)
+                .gauge();
+        assertThat(tableFailures).isNotNull();
+        assertThat(tableFailures.value()).isEqualTo(2.0d);
+        assertThat(myMeterRegistry.find(RepairFailureDetector.REPAIR_FAILURES_IN_WINDOW)
+                .tags("table", TEST_TABLE2)
+                .gauge()).isNull();
+    }
+
+    private void failRepairSession(final TableReference tableReference)
+    {
+        myTableRepairMetricsImpl.repairSession(tableReference, 12345L, TimeUnit.MILLISECONDS, false);
+    }
+}
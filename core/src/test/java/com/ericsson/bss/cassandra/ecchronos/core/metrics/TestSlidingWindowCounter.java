@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.metrics;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class TestSlidingWindowCounter
+{
+    private static final long START = 1_000_000L;
+
+    @Test
+    public void testCountWithinWindow()
+    {
+        SlidingWindowCounter counter = new SlidingWindowCounter(100, 10, START);
+
+        assertThat(counter.increment(START)).isEqualTo(1);
+        assertThat(counter.increment(START + 5)).isEqualTo(2);
+        assertThat(counter.increment(START + 55)).isEqualTo(3);
+        assertThat(counter.count(START + 99)).isEqualTo(3);
+    }
+
+    @Test
+    public void testEventsLeaveWindow()
+    {
+        SlidingWindowCounter counter = new SlidingWindowCounter(100, 10, START);
+
+        counter.increment(START);
+        counter.increment(START + 55);
+
+        assertThat(counter.count(START + 100)).isEqualTo(1);
+        assertThat(counter.count(START + 140)).isEqualTo(1);
+        assertThat(counter.count(START + 150)).isEqualTo(0);
+    }
+
+    @Test
+    public void testBucketIsReusedOnNextLap()
+    {
+        SlidingWindowCounter counter = new SlidingWindowCounter(100, 10, START);
+
+        counter.increment(START + 15);
+        counter.increment(START + 15);
+
+        assertThat(counter.increment(START + 115)).isEqualTo(1);
+        assertThat(counter.count(START + 115)).isEqualTo(1);
+    }
+
+    @Test
+    public void testTimeBeforeStart()
+    {
+        SlidingWindowCounter counter = new SlidingWindowCounter(100, 10, START);
+
+        assertThat(counter.increment(START - 50)).isEqualTo(1);
+        assertThat(counter.count(START)).isEqualTo(1);
+    }
+
+    @Test
+    public void testWindowSmallerThanBuckets()
+    {
+        assertThatIllegalArgumentException().isThrownBy(() -> new SlidingWindowCounter(5, 10, START));
+    }
+
+    @Test
+    public void testConcurrentIncrements() throws Exception
+    {
+        SlidingWindowCounter counter = new SlidingWindowCounter(100, 10, START);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++)
+            {
+                futures.add(executorService.submit(() ->
+                {
+                    for (int j = 0; j < 10_000; j++)
+                    {
+                        counter.increment(START + (j % 100));
+                    }
+                }));
+            }
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executorService.shutdownNow();
+        }
+
+        assertThat(counter.count(START + 99)).isEqualTo(40_000);
+    }
+}
@@ -28,6 +28,11 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory.tableReference;
@@ -229,6 +234,87 @@ public class TestTableRepairMetricsImpl
         assertThat(nodeTimeSinceLastRepaired.value()).isEqualTo((double)timeDiff2/1000); // Based on metric registry this is converted to seconds/ms/etc.
     }
 
+    @Test
+    public void testNodeTimeSinceLastRepairedWhenOldestTableIsRepaired()
+    {
+        TableReference tableReference = tableReference(TEST_KEYSPACE, TEST_TABLE1);
+        TableReference tableReference2 = tableReference(TEST_KEYSPACE, TEST_TABLE2);
+        long timeNow = System.currentTimeMillis();
+        TableRepairMetricsImpl.clock = () -> timeNow;
+
+        myTableRepairMetricsImpl.lastRepairedAt(tableReference, timeNow - 5000L);
+        myTableRepairMetricsImpl.lastRepairedAt(tableReference2, timeNow - 3000L);
+
+        Gauge nodeTimeSinceLastRepaired = myMeterRegistry.find(TableRepairMetricsImpl.NODE_TIME_SINCE_LAST_REPAIRED)
+                .gauge();
+        assertThat(nodeTimeSinceLastRepaired.value()).isEqualTo(5.0d);
+
+        myTableRepairMetricsImpl.lastRepairedAt(tableReference, timeNow - 1000L);
+        assertThat(nodeTimeSinceLastRepaired.value()).isEqualTo(3.0d);
+
+        myTableRepairMetricsImpl.lastRepairedAt(tableReference2, timeNow - 500L);
+        assertThat(nodeTimeSinceLastRepaired.value()).isEqualTo(1.0d);
+    }
+
+    @Test
+    public void testNodeGaugesFollowTableUpdates()
+    {
+        TableReference tableReference = tableReference(TEST_KEYSPACE, TEST_TABLE1);
+        TableReference tableReference2 = tableReference(TEST_KEYSPACE, TEST_TABLE2);
+
+        for (int i = 0; i < 1000; i++)
+        {
+            myTableRepairMetricsImpl.repairState(tableReference, i % 3, 3 - i % 3);
+            myTableRepairMetricsImpl.remainingRepairTime(tableReference, i);
+        }
+        myTableRepairMetricsImpl.repairState(tableReference, 1, 0);
+        myTableRepairMetricsImpl.repairState(tableReference2, 1, 1);
+        myTableRepairMetricsImpl.remainingRepairTime(tableReference, 1000L);
+        myTableRepairMetricsImpl.remainingRepairTime(tableReference2, 2000L);
+
+        assertThat(myMeterRegistry.find(TableRepairMetricsImpl.NODE_REPAIRED_RATIO).gauge().value())
+                .isEqualTo(0.75d);
+        assertThat(myMeterRegistry.find(TableRepairMetricsImpl.NODE_REMAINING_REPAIR_TIME).gauge().value())
+                .isEqualTo(3.0d);
+        assertThat(myMeterRegistry.find(TableRepairMetricsImpl.REPAIRED_RATIO).gauges()).hasSize(2);
+    }
+
+    @Test
+    public void testNodeRepairRatioDoesNotDriftOnConcurrentUpdates() throws Exception
+    {
+        TableReference tableReference = tableReference(TEST_KEYSPACE, TEST_TABLE1);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++)
+            {
+                int repaired = thread;
+                futures.add(executorService.submit(() ->
+                {
+                    for (int i = 0; i < 10000; i++)
+                    {
+                        myTableRepairMetricsImpl.repairState(tableReference, repaired, 4 - repaired);
+                    }
+                }));
+            }
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executorService.shutdownNow();
+        }
+
+        myTableRepairMetricsImpl.repairState(tableReference, 1, 1);
+
+        assertThat(myMeterRegistry.find(TableRepairMetricsImpl.NODE_REPAIRED_RATIO).gauge().value())
+                .isEqualTo(0.5d);
+    }
+
     @Test
     public void testRemainingRepairTime()
     {
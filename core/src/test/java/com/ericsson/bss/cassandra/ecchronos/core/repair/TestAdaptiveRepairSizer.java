@@ -0,0 +1,123 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair;
+
+import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory.tableReference;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.ericsson.bss.cassandra.ecchronos.core.metrics.TableRepairMetrics;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TokenMath;
+
+public class TestAdaptiveRepairSizer
+{
+    private static final long TARGET_SIZE = 1000L;
+
+    private final RepairConfiguration myRepairConfiguration = RepairConfiguration.newBuilder()
+            .withTargetRepairSizeInBytes(TARGET_SIZE)
+            .withTargetRepairSessionTime(10, TimeUnit.SECONDS)
+            .withRepairSizeBounds(100L, 10_000L)
+            .build();
+
+    @Test
+    public void testDisabledWithoutSessionTime()
+    {
+        AdaptiveRepairSizer repairSizer = new AdaptiveRepairSizer(RepairConfiguration.newBuilder()
+                .withTargetRepairSizeInBytes(TARGET_SIZE)
+                .build());
+
+        repairSizer.onRepairSession(TARGET_SIZE, 1, true);
+
+        assertThat(repairSizer.isEnabled()).isFalse();
+        assertThat(repairSizer.getRepairSizeInBytes()).isEqualTo(TARGET_SIZE);
+    }
+
+    @Test
+    public void testTargetSizeIsUsedUntilSessionIsObserved()
+    {
+        AdaptiveRepairSizer repairSizer = new AdaptiveRepairSizer(myRepairConfiguration);
+
+        assertThat(repairSizer.isEnabled()).isTrue();
+        assertThat(repairSizer.getRepairSizeInBytes()).isEqualTo(TARGET_SIZE);
+        assertThat(repairSizer.getBytesPerSecond()).isNaN();
+    }
+
+    @Test
+    public void testSizeFollowsThroughput()
+    {
+        AdaptiveRepairSizer repairSizer = new AdaptiveRepairSizer(myRepairConfiguration);
+
+        repairSizer.onRepairSession(1000, 2000, true);
+        assertThat(repairSizer.getRepairSizeInBytes()).isEqualTo(5000L);
+
+        repairSizer.onRepairSession(1000, 10_000, true);
+        assertThat(repairSizer.getBytesPerSecond()).isEqualTo(380.0d);
+        assertThat(repairSizer.getSessionTimeInMs()).isEqualTo(4400.0d);
+        assertThat(repairSizer.getRepairSizeInBytes()).isEqualTo(3800L);
+    }
+
+    @Test
+    public void testFailedSessionIsIgnored()
+    {
+        AdaptiveRepairSizer repairSizer = new AdaptiveRepairSizer(myRepairConfiguration);
+
+        repairSizer.onRepairSession(1000, 2000, false);
+
+        assertThat(repairSizer.getRepairSizeInBytes()).isEqualTo(TARGET_SIZE);
+    }
+
+    @Test
+    public void testSizeIsBounded()
+    {
+        AdaptiveRepairSizer repairSizer = new AdaptiveRepairSizer(myRepairConfiguration);
+
+        repairSizer.onRepairSession(1, 10_000, true);
+        assertThat(repairSizer.getRepairSizeInBytes()).isEqualTo(100L);
+
+        AdaptiveRepairSizer fastRepairSizer = new AdaptiveRepairSizer(myRepairConfiguration);
+        fastRepairSizer.onRepairSession(1_000_000, 1, true);
+        assertThat(fastRepairSizer.getRepairSizeInBytes()).isEqualTo(10_000L);
+    }
+
+    @Test
+    public void testTokensPerRepair()
+    {
+        AdaptiveRepairSizer repairSizer = new AdaptiveRepairSizer(myRepairConfiguration);
+
+        assertThat(repairSizer.getTokensPerRepair(10.0d)).isEqualTo(100L);
+        assertThat(repairSizer.getTokensPerRepair(1_000_000.0d)).isEqualTo(1L);
+        assertThat(repairSizer.getTokensPerRepair(1e-20d)).isEqualTo(TokenMath.FULL_RING);
+        assertThat(repairSizer.getTokensPerRepair(0.0d)).isEqualTo(TokenMath.FULL_RING);
+    }
+
+    @Test
+    public void testObservedSessionIsReported()
+    {
+        TableReference tableReference = tableReference("keyspace", "table");
+        TableRepairMetrics tableRepairMetrics = mock(TableRepairMetrics.class);
+        AdaptiveRepairSizer repairSizer = new AdaptiveRepairSizer(myRepairConfiguration);
+
+        repairSizer.observe(tableRepairMetrics, 1000).repairSession(tableReference, 2, TimeUnit.SECONDS, true);
+
+        verify(tableRepairMetrics).repairSession(tableReference, 2, TimeUnit.SECONDS, true);
+        assertThat(repairSizer.getRepairSizeInBytes()).isEqualTo(5000L);
+    }
+}
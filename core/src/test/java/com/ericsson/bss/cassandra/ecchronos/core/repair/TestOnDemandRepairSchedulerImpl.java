@@ -34,16 +34,19 @@ import com.google.common.collect.ImmutableSet;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory.tableReference;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -309,6 +312,46 @@ public class TestOnDemandRepairSchedulerImpl
         repairScheduler.scheduleJob(null, RepairOptions.RepairType.INCREMENTAL);
     }
 
+    @Test
+    public void testGetAllClusterWideRepairJobsIsCached()
+    {
+        OnDemandRepairJobView view = new OnDemandRepairJobView(UUID.randomUUID(), UUID.randomUUID(), TABLE_REFERENCE,
+                OnDemandRepairJobView.Status.IN_QUEUE, 0.0d, -1L, RepairOptions.RepairType.VNODE);
+        when(myOnDemandStatus.getAllClusterWideJobViews(anyLong())).thenReturn(Collections.singletonList(view));
+        OnDemandRepairSchedulerImpl repairScheduler = defaultOnDemandRepairSchedulerImplBuilder()
+                .withJobViewRetention(1, TimeUnit.DAYS)
+                .withJobViewCacheTime(1, TimeUnit.HOURS)
+                .build();
+
+        long before = System.currentTimeMillis();
+        assertThat(repairScheduler.getAllClusterWideRepairJobs()).containsExactly(view);
+        assertThat(repairScheduler.getAllClusterWideRepairJobs()).containsExactly(view);
+
+        ArgumentCaptor<Long> completedAfterCaptor = ArgumentCaptor.forClass(Long.class);
+        verify(myOnDemandStatus, times(1)).getAllClusterWideJobViews(completedAfterCaptor.capture());
+        assertThat(completedAfterCaptor.getValue()).isBetween(before - TimeUnit.DAYS.toMillis(1),
+                System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1));
+        repairScheduler.close();
+    }
+
+    @Test
+    public void testGetAllClusterWideRepairJobsIsRefreshedAfterScheduling() throws EcChronosException
+    {
+        when(metadata.getKeyspace(TABLE_REFERENCE.getKeyspace())).thenReturn(Optional.of(myKeyspaceMetadata));
+        when(myKeyspaceMetadata.getTable(TABLE_REFERENCE.getTable())).thenReturn(Optional.of(myTableMetadata));
+        when(myOnDemandStatus.getAllClusterWideJobViews(anyLong())).thenReturn(Collections.emptyList());
+        OnDemandRepairSchedulerImpl repairScheduler = defaultOnDemandRepairSchedulerImplBuilder()
+                .withJobViewCacheTime(1, TimeUnit.HOURS)
+                .build();
+
+        repairScheduler.getAllClusterWideRepairJobs();
+        repairScheduler.scheduleJob(TABLE_REFERENCE, RepairOptions.RepairType.VNODE);
+        repairScheduler.getAllClusterWideRepairJobs();
+
+        verify(myOnDemandStatus, times(2)).getAllClusterWideJobViews(anyLong());
+        repairScheduler.close();
+    }
+
     private void assertTableViewExist(OnDemandRepairSchedulerImpl repairScheduler, OnDemandRepairJobView... expectedViews)
     {
         List<OnDemandRepairJobView> repairJobViews = repairScheduler.getActiveRepairJobs();
@@ -21,8 +21,10 @@ import com.datastax.oss.driver.api.core.type.UserDefinedType;
 import com.ericsson.bss.cassandra.ecchronos.core.AbstractCassandraContainerTest;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.OngoingJob.Status;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.state.ReplicationState;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.ReplicationStateImpl;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.DriverNode;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.NodeResolverImpl;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReferenceFactory;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReferenceFactoryImpl;
@@ -35,6 +37,7 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.time.Instant;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -70,6 +73,7 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
     private UUID myHostId;
     private TableReferenceFactory myTableReferenceFactory;
     private UserDefinedType myUDTTableReferenceType;
+    private NodeResolverImpl myNodeResolver;
 
     @Mock
     private ReplicationState myReplicationState;
@@ -88,13 +92,14 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
                 "CREATE TYPE IF NOT EXISTS %s.table_reference (id uuid, keyspace_name text, table_name text)",
                 KEYSPACE_NAME));
         mySession.execute(String.format(
-                "CREATE TABLE IF NOT EXISTS %s.%s (host_id uuid, job_id uuid, table_reference frozen<table_reference>, token_map_hash int, repaired_tokens frozen<set<frozen<token_range>>>, status text, completed_time timestamp, repair_type text, PRIMARY KEY(host_id, job_id)) WITH default_time_to_live = 2592000 AND gc_grace_seconds = 0",
+                "CREATE TABLE IF NOT EXISTS %s.%s (host_id uuid, job_id uuid, table_reference frozen<table_reference>, token_map_hash int, repaired_tokens frozen<set<frozen<token_range>>>, repaired_token_bitmap blob, status text, completed_time timestamp, repair_type text, PRIMARY KEY(host_id, job_id)) WITH default_time_to_live = 2592000 AND gc_grace_seconds = 0",
                 KEYSPACE_NAME, TABLE_NAME));
         mySession.execute(
                 String.format("CREATE TABLE IF NOT EXISTS %s.%s (col1 int, col2 int, PRIMARY KEY(col1))", KEYSPACE_NAME,
                         TEST_TABLE_NAME));
 
         myTableReferenceFactory = new TableReferenceFactoryImpl(mySession);
+        myNodeResolver = new NodeResolverImpl(mySession);
         myUDTTableReferenceType = mySession.getMetadata().getKeyspace(KEYSPACE_NAME).get()
                 .getUserDefinedType(UDT_TABLE_REFERENCE_NAME).get();
     }
@@ -102,13 +107,14 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
     @After
     public void testCleanup()
     {
+        myNodeResolver.close();
         mySession.execute(String.format("TRUNCATE %s.%s", KEYSPACE_NAME, TABLE_NAME));
     }
 
     @Test
     public void testOndemandStatusIsCreated()
     {
-        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider());
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
 
         assertThat(onDemandStatus).isNotNull();
     }
@@ -116,7 +122,7 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
     @Test
     public void testUDTToken()
     {
-        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider());
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
 
         Long start = -10L;
         Long end = 100L;
@@ -128,7 +134,7 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
     @Test
     public void testAddNewJob()
     {
-        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider());
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
 
         UUID jobId = UUID.randomUUID();
         int hashValue = 1;
@@ -160,7 +166,7 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
     @Test
     public void testUpdateRepairedTokens()
     {
-        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider());
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
 
         UUID jobId = UUID.randomUUID();
         int hashValue = 1;
@@ -195,7 +201,7 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
     @Test
     public void testUpdateToFinished()
     {
-        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider());
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
 
         UUID jobId = UUID.randomUUID();
         int hashValue = 1;
@@ -232,7 +238,7 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
     @Test
     public void testUpdateToFailed()
     {
-        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider());
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
 
         UUID jobId = UUID.randomUUID();
         int hashValue = 1;
@@ -268,7 +274,7 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
     @Test
     public void testGetAllClusterWideJobsNoJobs()
     {
-        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider());
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
 
         Set<OngoingJob> clusterWideJobs = onDemandStatus.getAllClusterWideJobs();
 
@@ -278,7 +284,7 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
     @Test
     public void testGetAllClusterWideJobs()
     {
-        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider());
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
 
         UUID jobId = UUID.randomUUID();
         int hashValue = 1;
@@ -302,10 +308,60 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
         assertThat(ongoingJob.getRepairType()).isEqualTo(RepairOptions.RepairType.VNODE);
     }
 
+    @Test
+    public void testGetAllClusterWideJobViews()
+    {
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
+
+        UUID jobId = UUID.randomUUID();
+        UUID finishedJobId = UUID.randomUUID();
+        TableReference tableReference = myTableReferenceFactory.forTable(KEYSPACE_NAME, TEST_TABLE_NAME);
+        int tokenMapHash = currentTokenMapHash(tableReference);
+        onDemandStatus.addNewJob(jobId, tableReference, tokenMapHash, RepairOptions.RepairType.VNODE);
+        onDemandStatus.addNewJob(finishedJobId, tableReference, 1, RepairOptions.RepairType.INCREMENTAL);
+        onDemandStatus.finishJob(finishedJobId);
+
+        List<OnDemandRepairJobView> views = onDemandStatus.getAllClusterWideJobViews(0L);
+
+        assertThat(views).extracting(OnDemandRepairJobView::getId).containsExactlyInAnyOrder(jobId, finishedJobId);
+        OnDemandRepairJobView view = views.stream().filter(v -> v.getId().equals(jobId)).findFirst().get();
+        assertThat(view.getHostId()).isEqualTo(myHostId);
+        assertThat(view.getTableReference()).isEqualTo(tableReference);
+        assertThat(view.getStatus()).isEqualTo(OnDemandRepairJobView.Status.IN_QUEUE);
+        assertThat(view.getProgress()).isEqualTo(0.0d);
+        assertThat(view.getCompletionTime()).isEqualTo(-1L);
+        assertThat(view.getRepairType()).isEqualTo(RepairOptions.RepairType.VNODE);
+
+        assertThat(onDemandStatus.getAllClusterWideJobViews(System.currentTimeMillis() + 1000L))
+                .extracting(OnDemandRepairJobView::getId).containsExactly(jobId);
+    }
+
+    @Test
+    public void testGetAllClusterWideJobViewsWithChangedTopology()
+    {
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
+
+        UUID jobId = UUID.randomUUID();
+        TableReference tableReference = myTableReferenceFactory.forTable(KEYSPACE_NAME, TEST_TABLE_NAME);
+        onDemandStatus.addNewJob(jobId, tableReference, currentTokenMapHash(tableReference) + 1,
+                RepairOptions.RepairType.VNODE);
+
+        List<OnDemandRepairJobView> views = onDemandStatus.getAllClusterWideJobViews(0L);
+
+        assertThat(views).extracting(OnDemandRepairJobView::getStatus)
+                .containsExactly(OnDemandRepairJobView.Status.ERROR);
+    }
+
+    private int currentTokenMapHash(final TableReference tableReference)
+    {
+        return new ReplicationStateImpl(myNodeResolver, mySession, getNativeConnectionProvider().getLocalNode())
+                .getTokenRangeToReplicas(tableReference).keySet().hashCode();
+    }
+
     @Test
     public void testGetOngoingJobsNoJobs()
     {
-        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider());
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
 
         Set<OngoingJob> ongoingJobs = onDemandStatus.getOngoingJobs(myReplicationState);
 
@@ -315,7 +371,7 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
     @Test
     public void testGetOngoingJobsWithNewJob()
     {
-        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider());
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
 
         UUID jobId = UUID.randomUUID();
         int hashValue = 1;
@@ -342,7 +398,7 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
     @Test
     public void testGetOngoingJobsWithNewTable()
     {
-        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider());
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
 
         UUID jobId = UUID.randomUUID();
         int hashValue = 1;
@@ -363,7 +419,7 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
     @Test
     public void testGetOngoingJobsWithUpdatedJob()
     {
-        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider());
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
 
         UUID jobId = UUID.randomUUID();
         int hashValue = 1;
@@ -393,7 +449,7 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
     @Test
     public void testGetOngoingJobsWithFinishedJob()
     {
-        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider());
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
 
         UUID jobId = UUID.randomUUID();
         int hashValue = 1;
@@ -417,7 +473,7 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
     @Test
     public void testGetOngoingJobsWithFailedJob()
     {
-        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider());
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
 
         UUID jobId = UUID.randomUUID();
         int hashValue = 1;
@@ -441,7 +497,7 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
     @Test
     public void testGetAllJobsNoJobs()
     {
-        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider());
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
 
         Set<OngoingJob> ongoingJobs = onDemandStatus.getAllJobs(myReplicationState);
 
@@ -451,7 +507,7 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
     @Test
     public void testGetAllJobsWithNewJob()
     {
-        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider());
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
 
         UUID jobId = UUID.randomUUID();
         int hashValue = 1;
@@ -478,7 +534,7 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
     @Test
     public void testGetAllJobsWithNewTable()
     {
-        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider());
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
 
         UUID jobId = UUID.randomUUID();
         int hashValue = 1;
@@ -499,7 +555,7 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
     @Test
     public void testGetAllJobsWithUpdatedJob()
     {
-        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider());
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
 
         UUID jobId = UUID.randomUUID();
         int hashValue = 1;
@@ -529,7 +585,7 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
     @Test
     public void testGetAllJobsWithFinishedJob()
     {
-        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider());
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
 
         UUID jobId = UUID.randomUUID();
         int hashValue = 1;
@@ -560,7 +616,7 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
     @Test
     public void testGetAllJobsWithFailedJob()
     {
-        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider());
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
 
         UUID jobId = UUID.randomUUID();
         int hashValue = 1;
@@ -587,4 +643,37 @@ public class TestOnDemandStatus extends AbstractCassandraContainerTest
         assertThat(ongoingJob.getCompletedTime()).isPositive();
         assertThat(ongoingJob.getRepairType()).isEqualTo(RepairOptions.RepairType.VNODE);
     }
+
+    @Test
+    public void testGetOngoingJobsWithFinishedRanges()
+    {
+        OnDemandStatus onDemandStatus = new OnDemandStatus(getNativeConnectionProvider(), myNodeResolver);
+
+        TableReference tableReference = myTableReferenceFactory.forTable(KEYSPACE_NAME, TEST_TABLE_NAME);
+        LongTokenRange range1 = new LongTokenRange(-50L, 700L);
+        LongTokenRange range2 = new LongTokenRange(700L, -50L);
+        Map<LongTokenRange, ImmutableSet<DriverNode>> tokenMap = new HashMap<>();
+        tokenMap.put(range1, ImmutableSet.of());
+        tokenMap.put(range2, ImmutableSet.of());
+        when(myReplicationState.getTokenRangeToReplicas(tableReference)).thenReturn(tokenMap);
+        OngoingJob newJob = new OngoingJob.Builder()
+                .withOnDemandStatus(onDemandStatus)
+                .withTableReference(tableReference)
+                .withReplicationState(myReplicationState)
+                .withHostId(myHostId)
+                .build();
+
+        newJob.finishRanges(Collections.singleton(range2));
+
+        Set<OngoingJob> ongoingJobs = onDemandStatus.getOngoingJobs(myReplicationState);
+
+        assertThat(ongoingJobs).hasSize(1);
+        OngoingJob ongoingJob = ongoingJobs.iterator().next();
+        assertThat(ongoingJob.getJobId()).isEqualTo(newJob.getJobId());
+        assertThat(ongoingJob.getRepairedTokens()).containsOnly(range2);
+        Row row = mySession.execute(String.format("SELECT %s, repaired_token_bitmap FROM %s.%s",
+                REPAIRED_TOKENS_COLUMN_NAME, KEYSPACE_NAME, TABLE_NAME)).one();
+        assertThat(row.getSet(REPAIRED_TOKENS_COLUMN_NAME, UdtValue.class)).isEmpty();
+        assertThat(row.getByteBuffer("repaired_token_bitmap")).isNotNull();
+    }
 }
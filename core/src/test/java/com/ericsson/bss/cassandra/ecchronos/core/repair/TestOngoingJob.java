@@ -16,6 +16,7 @@ package com.ericsson.bss.cassandra.ecchronos.core.repair;
 
 import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory.tableReference;
 
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -60,7 +61,7 @@ public class TestOngoingJob
     private UdtValue myUdtValue;
 
     @Captor
-    private ArgumentCaptor<Set<UdtValue>> myUdtSetCaptor;
+    private ArgumentCaptor<Set<LongTokenRange>> myRangeSetCaptor;
 
     private final TableReference myTableReference = tableReference(keyspaceName, tableName);
 
@@ -243,12 +244,40 @@ public class TestOngoingJob
 
         Set<LongTokenRange> finishedRanges = new HashSet<>();
         finishedRanges.add(new LongTokenRange(-50L, 700L));
-        when(myOnDemandStatus.createUDTTokenRangeValue(-50L, 700L)).thenReturn(myUdtValue);
         ongoingJob.finishRanges(finishedRanges);
 
-        verify(myOnDemandStatus).updateJob(any(UUID.class), myUdtSetCaptor.capture());
-        Set<UdtValue> rangeSet = myUdtSetCaptor.getValue();
-        assertThat(rangeSet).containsOnly(myUdtValue);
+        verify(myOnDemandStatus).updateJob(any(UUID.class), any(TokenRangeBitmap.class), myRangeSetCaptor.capture());
+        Set<LongTokenRange> rangeSet = myRangeSetCaptor.getValue();
+        assertThat(rangeSet).containsOnly(new LongTokenRange(-50L, 700L));
+        assertThat(ongoingJob.getRepairedTokens()).containsOnly(new LongTokenRange(-50L, 700L));
+    }
+
+    @Test
+    public void testOngoingJobForRestartedJobWithBitmapIsCreated()
+    {
+        LongTokenRange range1 = new LongTokenRange(-50L, 700L);
+        LongTokenRange range2 = new LongTokenRange(700L, 1000L);
+        LongTokenRange range3 = new LongTokenRange(1000L, -50L);
+        myTokenMap.put(range1, ImmutableSet.of());
+        myTokenMap.put(range2, ImmutableSet.of());
+        myTokenMap.put(range3, ImmutableSet.of());
+        ByteBuffer repairedTokenBitmap = new TokenRangeBitmap(myTokenMap.keySet()).encode(Set.of(range1, range3));
+
+        OngoingJob ongoingJob = new OngoingJob.Builder()
+                .withOnDemandStatus(myOnDemandStatus)
+                .withReplicationState(myReplicationState)
+                .withTableReference(myTableReference)
+                .withOngoingJobInfo(UUID.randomUUID(), myTokenMap.keySet().hashCode(), Collections.emptySet(),
+                        Status.started, null, RepairOptions.RepairType.VNODE)
+                .withRepairedTokenBitmap(repairedTokenBitmap)
+                .build();
+
+        assertThat(ongoingJob.getRepairedTokens()).containsOnly(range1, range3);
+
+        ongoingJob.finishRanges(Collections.singleton(range2));
+
+        verify(myOnDemandStatus).updateJob(any(UUID.class), any(TokenRangeBitmap.class), myRangeSetCaptor.capture());
+        assertThat(myRangeSetCaptor.getValue()).containsOnly(range1, range2, range3);
     }
 
     @Test
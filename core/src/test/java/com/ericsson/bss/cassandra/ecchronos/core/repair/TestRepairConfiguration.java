@@ -20,6 +20,7 @@ import org.junit.Test;
 import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 public class TestRepairConfiguration
 {
@@ -168,6 +169,28 @@ public class TestRepairConfiguration
         assertThat(repairConfiguration.getRepairType()).isEqualTo(RepairOptions.RepairType.INCREMENTAL);
     }
 
+    @Test
+    public void testSetRepairSizeBounds()
+    {
+        RepairConfiguration repairConfiguration = RepairConfiguration.newBuilder()
+                .withRepairSizeBounds(1024L, 1024L)
+                .build();
+
+        assertThat(repairConfiguration.getMinRepairSizeInBytes()).isEqualTo(1024L);
+        assertThat(repairConfiguration.getMaxRepairSizeInBytes()).isEqualTo(1024L);
+    }
+
+    @Test
+    public void testSetInvalidRepairSizeBounds()
+    {
+        RepairConfiguration.Builder builder = RepairConfiguration.newBuilder();
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> builder.withRepairSizeBounds(0L, 1024L));
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> builder.withRepairSizeBounds(2048L, 1024L));
+    }
+
     @Test
     public void testEqualsContract()
     {
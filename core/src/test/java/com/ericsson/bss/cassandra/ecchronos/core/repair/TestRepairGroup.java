@@ -29,10 +29,10 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -224,7 +224,7 @@ public class TestRepairGroup
                 new LongTokenRange(4, 5)
         );
 
-        BigInteger tokensPerRange = BigInteger.ONE;
+        long tokensPerRange = 1L;
 
         // setup
         DriverNode node = mockNode("DC1");
@@ -255,6 +255,33 @@ public class TestRepairGroup
         }
     }
 
+    @Test
+    public void testGetRepairTaskWithAdaptiveSubRange()
+    {
+        RepairConfiguration repairConfiguration = RepairConfiguration.newBuilder(myRepairConfiguration)
+                .withTargetRepairSizeInBytes(100)
+                .withTargetRepairSessionTime(1, TimeUnit.SECONDS)
+                .build();
+        AdaptiveRepairSizer repairSizer = new AdaptiveRepairSizer(repairConfiguration);
+        // 40 bytes per second with 10 bytes per token gives sessions of 4 tokens
+        repairSizer.onRepairSession(100, 2500, true);
+
+        ReplicaRepairGroup replicaRepairGroup = new ReplicaRepairGroup(ImmutableSet.of(mockNode("DC1")),
+                ImmutableList.of(new LongTokenRange(0, 8)), System.currentTimeMillis());
+
+        RepairGroup repairGroup = builderFor(replicaRepairGroup)
+                .withRepairConfiguration(repairConfiguration)
+                .withTokensPerRepair(1L)
+                .withRepairSizer(repairSizer, 10.0d)
+                .build(priority);
+
+        Collection<RepairTask> repairTasks = repairGroup.getRepairTasks();
+
+        assertThat(repairTasks).extracting(task -> ((VnodeRepairTask) task).getTokenRanges())
+                .containsExactly(Collections.singleton(new LongTokenRange(0, 4)),
+                        Collections.singleton(new LongTokenRange(4, 8)));
+    }
+
     @Test
     public void testGetCombinedRepairTask()
     {
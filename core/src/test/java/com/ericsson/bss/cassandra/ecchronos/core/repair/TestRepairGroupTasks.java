@@ -126,7 +126,7 @@ public class TestRepairGroupTasks
                 System.currentTimeMillis());
         Set<RepairResource> repairResources = Sets.newHashSet(new RepairResource("DC1", "my-resource"));
 
-        when(mockJmxProxyFactory.connect()).thenReturn(new CustomJmxProxy((notificationListener, i) -> progressAndComplete(notificationListener, range(1, 2))));
+        when(mockJmxProxyFactory.connect()).thenReturn(new CustomJmxProxy((notificationListener, i) -> progressAndComplete(notificationListener, i, range(1, 2))));
 
         when(mockRepairResourceFactory.getRepairResources(eq(replicaRepairGroup))).thenReturn(repairResources);
         when(mockRepairLockFactory.getLock(eq(mockLockFactory), eq(repairResources), eq(metadata), eq(priority))).thenReturn(new DummyLock());
@@ -156,7 +156,7 @@ public class TestRepairGroupTasks
         when(mockJmxProxyFactory.connect()).thenReturn(new CustomJmxProxy((notificationListener, i) -> {
             if (i == 1) // First repair
             {
-                progressAndComplete(notificationListener, range(1, 2));
+                progressAndComplete(notificationListener, i, range(1, 2));
             }
             // After first repair task has completed we stop next task.
             // If this doesn't work a timeout will occur as the repair task
@@ -190,12 +190,11 @@ public class TestRepairGroupTasks
                 .withJobId(jobId);
     }
 
-    private void progressAndComplete(NotificationListener notificationListener, LongTokenRange range)
+    private void progressAndComplete(NotificationListener notificationListener, int repair, LongTokenRange range)
     {
-        // Normally the repair session id would be used here but
-        // since we run this before repairAsync has completed we
-        // have to use 0
-        String repairSession = "repair:0";
+        // This runs before repairAsync has returned the repair session id, the notifications are kept by the
+        // dispatcher until the repair task has registered for them
+        String repairSession = "repair:" + repair;
 
         Notification notification = new Notification("progress", repairSession, 0, getRepairMessage(range));
         notification.setUserData(getNotificationData(RepairTask.ProgressEventType.PROGRESS.ordinal(), 1, 1));
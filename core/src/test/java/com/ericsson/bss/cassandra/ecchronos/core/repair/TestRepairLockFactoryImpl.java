@@ -25,6 +25,7 @@ import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -36,6 +37,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.LockException;
 import com.ericsson.bss.cassandra.ecchronos.core.scheduling.LockFactory;
+import com.ericsson.bss.cassandra.ecchronos.core.scheduling.MultiResourceLockFactory;
 import com.google.common.collect.Sets;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -46,6 +48,9 @@ public class TestRepairLockFactoryImpl
     @Mock
     private LockFactory mockLockFactory;
 
+    @Mock
+    private MultiResourceLockFactory mockMultiResourceLockFactory;
+
     @Mock
     private LockFactory.DistributedLock mockLock;
 
@@ -227,6 +232,69 @@ public class TestRepairLockFactoryImpl
         verify(mockLock, never()).close();
     }
 
+    @Test
+    public void testMultipleLocksAreTriedConcurrently() throws LockException
+    {
+        RepairResource repairResourceDc1 = new RepairResource("DC1", "my-resource-dc1");
+        RepairResource repairResourceDc2 = new RepairResource("DC2", "my-resource-dc2");
+        RepairLockFactoryImpl repairLockFactory = new RepairLockFactoryImpl();
+        Map<String, String> metadata = Collections.singletonMap("metadatakey", "metadatavalue");
+        int priority = 1;
+        Map<String, String> resources = new LinkedHashMap<>();
+        resources.put(repairResourceDc1.getResourceName(LOCKS_PER_RESOURCE), "DC1");
+        resources.put(repairResourceDc2.getResourceName(LOCKS_PER_RESOURCE), "DC2");
+
+        when(mockMultiResourceLockFactory.getCachedFailure(anyString(), anyString())).thenReturn(Optional.empty());
+        when(mockMultiResourceLockFactory.sufficientNodesForLocking(anyString(), anyString())).thenReturn(true);
+        when(mockMultiResourceLockFactory.tryLocks(eq(resources), eq(priority), eq(metadata)))
+                .thenReturn(Arrays.asList(mockLock, mockLock));
+
+        repairLockFactory.getLock(mockMultiResourceLockFactory,
+                Sets.newLinkedHashSet(Arrays.asList(repairResourceDc1, repairResourceDc2)), metadata, priority);
+
+        verify(mockMultiResourceLockFactory).tryLocks(eq(resources), eq(priority), eq(metadata));
+        verify(mockMultiResourceLockFactory, never()).tryLock(anyString(), anyString(), anyInt(), anyMap());
+        verify(mockLock, never()).close();
+    }
+
+    @Test
+    public void testMultipleLocksConcurrentlyFailing() throws LockException
+    {
+        RepairResource repairResourceDc1 = new RepairResource("DC1", "my-resource-dc1");
+        RepairResource repairResourceDc2 = new RepairResource("DC2", "my-resource-dc2");
+        RepairLockFactoryImpl repairLockFactory = new RepairLockFactoryImpl();
+        Map<String, String> metadata = Collections.singletonMap("metadatakey", "metadatavalue");
+        int priority = 1;
+
+        when(mockMultiResourceLockFactory.getCachedFailure(anyString(), anyString())).thenReturn(Optional.empty());
+        when(mockMultiResourceLockFactory.sufficientNodesForLocking(anyString(), anyString())).thenReturn(true);
+        when(mockMultiResourceLockFactory.tryLocks(anyMap(), anyInt(), anyMap())).thenThrow(new LockException(""));
+
+        assertThatExceptionOfType(LockException.class)
+                .isThrownBy(() -> repairLockFactory.getLock(mockMultiResourceLockFactory,
+                        Sets.newLinkedHashSet(Arrays.asList(repairResourceDc1, repairResourceDc2)), metadata,
+                        priority));
+    }
+
+    @Test
+    public void testSingleLockIsNotTriedConcurrently() throws LockException
+    {
+        RepairResource repairResource = new RepairResource("DC1", "my-resource");
+        RepairLockFactoryImpl repairLockFactory = new RepairLockFactoryImpl();
+        Map<String, String> metadata = Collections.singletonMap("metadatakey", "metadatavalue");
+        int priority = 1;
+
+        when(mockMultiResourceLockFactory.getCachedFailure(anyString(), anyString())).thenReturn(Optional.empty());
+        when(mockMultiResourceLockFactory.sufficientNodesForLocking(anyString(), anyString())).thenReturn(true);
+        when(mockMultiResourceLockFactory.tryLock(anyString(), anyString(), anyInt(), anyMap())).thenReturn(mockLock);
+
+        repairLockFactory.getLock(mockMultiResourceLockFactory, Sets.newHashSet(repairResource), metadata, priority);
+
+        verify(mockMultiResourceLockFactory).tryLock(eq("DC1"), eq(repairResource.getResourceName(LOCKS_PER_RESOURCE)),
+                eq(priority), eq(metadata));
+        verify(mockMultiResourceLockFactory, never()).tryLocks(anyMap(), anyInt(), anyMap());
+    }
+
     private void verifyNoLockWasTried() throws LockException
     {
         verify(mockLockFactory, never()).tryLock(anyString(), anyString(), anyInt(), anyMap());
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.Notification;
+import javax.management.NotificationListener;
+import javax.management.remote.JMXConnectionNotification;
+
+import org.junit.Test;
+
+import com.ericsson.bss.cassandra.ecchronos.core.JmxProxy;
+import com.ericsson.bss.cassandra.ecchronos.core.JmxProxyFactory;
+
+public class TestRepairNotificationDispatcher
+{
+    private final RepairNotificationDispatcher myDispatcher = new RepairNotificationDispatcher();
+    private final JmxProxy myProxy = mock(JmxProxy.class);
+
+    private long mySequenceNumber;
+
+    @Test
+    public void testProgressIsRoutedOnCommand()
+    {
+        List<Notification> received1 = new ArrayList<>();
+        List<Notification> received2 = new ArrayList<>();
+        myDispatcher.register(1, myProxy, (n, h) -> received1.add(n));
+        myDispatcher.register(2, myProxy, (n, h) -> received2.add(n));
+
+        Notification notification1 = progress(1);
+        Notification notification2 = progress(2);
+        myDispatcher.handleNotification(notification1, null);
+        myDispatcher.handleNotification(notification2, null);
+        myDispatcher.handleNotification(new Notification("progress", "compaction:1", 0), null);
+
+        assertThat(received1).containsExactly(notification1);
+        assertThat(received2).containsExactly(notification2);
+    }
+
+    @Test
+    public void testProgressBeforeRegisterIsReplayed()
+    {
+        Notification first = progress(1);
+        Notification second = progress(1);
+        myDispatcher.handleNotification(first, null);
+        myDispatcher.handleNotification(second, null);
+
+        List<Notification> received = new ArrayList<>();
+        myDispatcher.register(1, myProxy, (n, h) -> received.add(n));
+
+        Notification third = progress(1);
+        myDispatcher.handleNotification(third, null);
+
+        assertThat(received).containsExactly(first, second, third);
+    }
+
+    @Test
+    public void testProgressAfterUnregisterIsNotDelivered()
+    {
+        NotificationListener handler = mock(NotificationListener.class);
+        myDispatcher.register(1, myProxy, handler);
+        myDispatcher.unregister(1);
+
+        myDispatcher.handleNotification(progress(1), null);
+
+        verifyNoInteractions(handler);
+    }
+
+    @Test
+    public void testConnectionNotificationIsBroadcast()
+    {
+        NotificationListener handler1 = mock(NotificationListener.class);
+        NotificationListener handler2 = mock(NotificationListener.class);
+        myDispatcher.register(1, myProxy, handler1);
+        myDispatcher.register(2, myProxy, handler2);
+
+        Notification notification = new Notification(JMXConnectionNotification.NOTIFS_LOST, "connection", 0);
+        myDispatcher.handleNotification(notification, null);
+
+        verify(handler1).handleNotification(notification, null);
+        verify(handler2).handleNotification(notification, null);
+    }
+
+    @Test
+    public void testListenerIsAddedOnceForAllSubscribersOnAConnection()
+    {
+        Object connection = new Object();
+        JmxProxy proxy1 = proxy(connection);
+        JmxProxy proxy2 = proxy(connection);
+
+        myDispatcher.subscribe(proxy1);
+        myDispatcher.subscribe(proxy2);
+        verify(proxy1).addStorageServiceListener(myDispatcher);
+
+        myDispatcher.unsubscribe(proxy2);
+        verify(proxy1, never()).removeStorageServiceListener(myDispatcher);
+
+        myDispatcher.unsubscribe(proxy1);
+        verify(proxy1).removeStorageServiceListener(myDispatcher);
+        verify(proxy2, never()).addStorageServiceListener(myDispatcher);
+        verify(proxy2, never()).removeStorageServiceListener(myDispatcher);
+    }
+
+    @Test
+    public void testListenerIsAddedOncePerConnection()
+    {
+        JmxProxy proxy1 = proxy(new Object());
+        JmxProxy proxy2 = proxy(new Object());
+
+        myDispatcher.subscribe(proxy1);
+        myDispatcher.subscribe(proxy2);
+        verify(proxy1).addStorageServiceListener(myDispatcher);
+        verify(proxy2).addStorageServiceListener(myDispatcher);
+
+        myDispatcher.unsubscribe(proxy1);
+        verify(proxy1).removeStorageServiceListener(myDispatcher);
+        verify(proxy2, never()).removeStorageServiceListener(myDispatcher);
+
+        myDispatcher.unsubscribe(proxy2);
+        verify(proxy2).removeStorageServiceListener(myDispatcher);
+    }
+
+    @Test
+    public void testProgressFromMultipleConnectionsIsDeliveredOnce()
+    {
+        List<Notification> received = new ArrayList<>();
+        Notification first = progress(1);
+        Notification second = progress(1);
+
+        myDispatcher.handleNotification(first, null);
+        myDispatcher.handleNotification(first, null);
+        myDispatcher.register(1, myProxy, (n, h) -> received.add(n));
+        myDispatcher.handleNotification(first, null);
+        myDispatcher.handleNotification(second, null);
+        myDispatcher.handleNotification(second, null);
+
+        assertThat(received).containsExactly(first, second);
+    }
+
+    @Test
+    public void testConnectionNotificationIsDeliveredOnItsConnection()
+    {
+        Object connection1 = new Object();
+        Object connection2 = new Object();
+        NotificationListener handler1 = mock(NotificationListener.class);
+        NotificationListener handler2 = mock(NotificationListener.class);
+        myDispatcher.register(1, proxy(connection1), handler1);
+        myDispatcher.register(2, proxy(connection2), handler2);
+
+        Notification notification = new Notification(JMXConnectionNotification.CLOSED, connection1, 0);
+        myDispatcher.handleNotification(notification, null);
+
+        verify(handler1).handleNotification(notification, null);
+        verifyNoInteractions(handler2);
+    }
+
+    @Test
+    public void testHandlerIsInvokedWithoutHoldingTheDispatcher() throws Exception
+    {
+        CountDownLatch inHandler = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        myDispatcher.register(1, myProxy, (n, h) ->
+        {
+            inHandler.countDown();
+            try
+            {
+                release.await();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        Thread thread = new Thread(() -> myDispatcher.handleNotification(progress(1), null));
+        thread.start();
+        try
+        {
+            assertThat(inHandler.await(1, TimeUnit.SECONDS)).isTrue();
+
+            List<Notification> received = new ArrayList<>();
+            myDispatcher.register(2, myProxy, (n, h) -> received.add(n));
+            Notification notification = progress(2);
+            myDispatcher.handleNotification(notification, null);
+
+            assertThat(received).containsExactly(notification);
+        }
+        finally
+        {
+            release.countDown();
+            thread.join();
+        }
+    }
+
+    @Test
+    public void testDispatcherIsSharedPerFactory()
+    {
+        JmxProxyFactory jmxProxyFactory = mock(JmxProxyFactory.class);
+
+        assertThat(RepairNotificationDispatcher.forFactory(jmxProxyFactory))
+                .isSameAs(RepairNotificationDispatcher.forFactory(jmxProxyFactory))
+                .isNotSameAs(RepairNotificationDispatcher.forFactory(mock(JmxProxyFactory.class)));
+    }
+
+    private Notification progress(final int command)
+    {
+        return new Notification("progress", "repair:" + command, mySequenceNumber++, "message");
+    }
+
+    private JmxProxy proxy(final Object connection)
+    {
+        JmxProxy proxy = mock(JmxProxy.class);
+        when(proxy.getConnection()).thenReturn(connection);
+        return proxy;
+    }
+}
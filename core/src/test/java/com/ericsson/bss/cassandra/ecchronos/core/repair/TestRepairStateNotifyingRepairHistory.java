@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair;
+
+import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory.tableReference;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairEntry;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairHistory;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairState;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.RepairStatus;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.DriverNode;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import com.google.common.collect.ImmutableSet;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestRepairStateNotifyingRepairHistory
+{
+    private static final TableReference TABLE_REFERENCE = tableReference("ks", "tb");
+    private static final LongTokenRange RANGE = new LongTokenRange(1, 2);
+
+    @Mock
+    private RepairHistory mockRepairHistory;
+
+    @Mock
+    private RepairHistory.RepairSession mockRepairSession;
+
+    @Mock
+    private RepairState mockRepairState;
+
+    @Mock
+    private DriverNode mockNode;
+
+    private Set<DriverNode> myParticipants;
+
+    private RepairHistory.RepairSession myRepairSession;
+
+    @Before
+    public void setup()
+    {
+        myParticipants = ImmutableSet.of(mockNode);
+        UUID jobId = UUID.randomUUID();
+        when(mockRepairHistory.newSession(eq(TABLE_REFERENCE), eq(jobId), eq(RANGE), eq(myParticipants)))
+                .thenReturn(mockRepairSession);
+
+        RepairHistory repairHistory = new RepairStateNotifyingRepairHistory(mockRepairHistory, mockRepairState);
+        myRepairSession = repairHistory.newSession(TABLE_REFERENCE, jobId, RANGE, myParticipants);
+    }
+
+    @Test
+    public void testSuccessfulSessionNotifiesRepairState()
+    {
+        long before = System.currentTimeMillis();
+
+        myRepairSession.start();
+        myRepairSession.finish(RepairStatus.SUCCESS);
+
+        InOrder inOrder = inOrder(mockRepairSession, mockRepairState);
+        inOrder.verify(mockRepairSession).start();
+        inOrder.verify(mockRepairSession).finish(eq(RepairStatus.SUCCESS));
+
+        ArgumentCaptor<RepairEntry> repairEntryCaptor = ArgumentCaptor.forClass(RepairEntry.class);
+        inOrder.verify(mockRepairState).repairFinished(repairEntryCaptor.capture());
+
+        RepairEntry repairEntry = repairEntryCaptor.getValue();
+        assertThat(repairEntry.getRange()).isEqualTo(RANGE);
+        assertThat(repairEntry.getParticipants()).isEqualTo(myParticipants);
+        assertThat(repairEntry.getStatus()).isEqualTo(RepairStatus.SUCCESS);
+        assertThat(repairEntry.getStartedAt()).isGreaterThanOrEqualTo(before);
+        assertThat(repairEntry.getFinishedAt()).isGreaterThanOrEqualTo(repairEntry.getStartedAt());
+    }
+
+    @Test
+    public void testFailedSessionDoesNotNotifyRepairState()
+    {
+        myRepairSession.start();
+        myRepairSession.finish(RepairStatus.FAILED);
+
+        verify(mockRepairSession).finish(eq(RepairStatus.FAILED));
+        verifyNoInteractions(mockRepairState);
+    }
+
+    @Test
+    public void testSessionNotStartedDoesNotNotifyRepairState()
+    {
+        myRepairSession.finish(RepairStatus.SUCCESS);
+
+        verify(mockRepairSession).finish(any());
+        verifyNoInteractions(mockRepairState);
+    }
+}
@@ -796,7 +796,8 @@ public class TestTableRepairJob
     @Test
     public void testEqualsAndHashcode()
     {
-        EqualsVerifier.simple().forClass(TableRepairJob.class).withRedefinedSuperclass().verify();
+        EqualsVerifier.simple().forClass(TableRepairJob.class).withRedefinedSuperclass()
+                .withIgnoredFields("myRepairSizer").verify();
     }
 
     private void mockRepairGroup(long lastRepairedAt)
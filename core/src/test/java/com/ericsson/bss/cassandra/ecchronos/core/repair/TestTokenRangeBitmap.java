@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+
+public class TestTokenRangeBitmap
+{
+    @Test
+    public void testEmpty()
+    {
+        TokenRangeBitmap bitmap = new TokenRangeBitmap(ranges(3));
+
+        assertThat(bitmap.decode(bitmap.encode(Collections.emptySet()))).isEmpty();
+        assertThat(bitmap.decode(null)).isEmpty();
+    }
+
+    @Test
+    public void testEncodeIsIndependentOfRangeOrder()
+    {
+        List<LongTokenRange> ranges = ranges(10);
+        List<LongTokenRange> shuffled = new ArrayList<>(ranges);
+        Collections.shuffle(shuffled, new Random(1));
+        Set<LongTokenRange> repaired = Set.of(ranges.get(0), ranges.get(5), ranges.get(9));
+
+        ByteBuffer encoded = new TokenRangeBitmap(ranges).encode(repaired);
+
+        assertThat(new TokenRangeBitmap(shuffled).decode(encoded)).isEqualTo(repaired);
+    }
+
+    @Test
+    public void testUnknownRangesAreIgnored()
+    {
+        List<LongTokenRange> ranges = ranges(4);
+        TokenRangeBitmap bitmap = new TokenRangeBitmap(ranges);
+
+        ByteBuffer encoded = bitmap.encode(Set.of(ranges.get(1), new LongTokenRange(-1000, -999)));
+
+        assertThat(bitmap.decode(encoded)).containsOnly(ranges.get(1));
+    }
+
+    @Test
+    public void testEncodingIsCompact()
+    {
+        List<LongTokenRange> ranges = ranges(768);
+        TokenRangeBitmap bitmap = new TokenRangeBitmap(ranges);
+
+        ByteBuffer encoded = bitmap.encode(ranges);
+
+        assertThat(encoded.remaining()).isEqualTo(96);
+        assertThat(bitmap.decode(encoded)).isEqualTo(new HashSet<>(ranges));
+    }
+
+    @Test
+    public void testDecodeDoesNotConsumeBuffer()
+    {
+        List<LongTokenRange> ranges = ranges(16);
+        TokenRangeBitmap bitmap = new TokenRangeBitmap(ranges);
+        ByteBuffer encoded = bitmap.encode(ranges.subList(0, 12));
+
+        assertThat(bitmap.decode(encoded)).hasSize(12);
+        assertThat(bitmap.decode(encoded)).hasSize(12);
+    }
+
+    private static List<LongTokenRange> ranges(final int count)
+    {
+        List<LongTokenRange> ranges = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+        {
+            ranges.add(new LongTokenRange(i * 100L, (i + 1) * 100L));
+        }
+        return ranges;
+    }
+}
@@ -300,6 +300,16 @@ public class TestVnodeRepairTask
         verify(repairSessions.get(range)).finish(eq(RepairStatus.SUCCESS));
     }
 
+    @Test
+    public void testParseRanges()
+    {
+        String message = "Repair session 1 for range [(-9223372036854775808,-5], (3,4], (5,x], (6,7)] finished";
+
+        assertThat(RepairTask.parseRanges(message)).containsExactly(
+                new LongTokenRange(Long.MIN_VALUE, -5), new LongTokenRange(3, 4));
+        assertThat(RepairTask.parseRanges("Repair session 1 for range [(1,")).isEmpty();
+    }
+
     private DriverNode mockNode()
     {
         DriverNode node = mock(DriverNode.class);
@@ -15,6 +15,7 @@
 package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
 
 import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TokenMath;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.DriverNode;
 import com.google.common.collect.ImmutableSet;
 import nl.jqno.equalsverifier.EqualsVerifier;
@@ -23,7 +24,6 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
-import java.math.BigInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -31,7 +31,7 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 @RunWith(MockitoJUnitRunner.class)
 public class TestNormalizedBaseRange
 {
-    private static final BigInteger START = BigInteger.ZERO;
+    private static final long START = 0L;
 
     @Mock
     DriverNode mockNode;
@@ -74,7 +74,7 @@ public class TestNormalizedBaseRange
         VnodeRepairState vnodeRepairState = withVnode(-5L, Long.MAX_VALUE, 1234L, 1235L);
         NormalizedBaseRange normalizedBaseRange = new NormalizedBaseRange(vnodeRepairState);
 
-        BigInteger end = bi(Long.MAX_VALUE).add(BigInteger.valueOf(5));
+        long end = Long.MAX_VALUE + 5L; // Unsigned offset larger than Long.MAX_VALUE
         NormalizedRange expectedRange = new NormalizedRange(normalizedBaseRange, START, end, 1234L, 1235L);
 
         NormalizedRange actualRange = normalizedBaseRange.transform(vnodeRepairState);
@@ -91,9 +91,9 @@ public class TestNormalizedBaseRange
         VnodeRepairState vnodeRepairState = withVnode(Long.MIN_VALUE, Long.MIN_VALUE, 1234L, 1235L);
         NormalizedBaseRange normalizedBaseRange = new NormalizedBaseRange(vnodeRepairState);
 
-        assertThat(normalizedBaseRange.end).isEqualTo(LongTokenRange.FULL_RANGE);
+        assertThat(normalizedBaseRange.end).isEqualTo(TokenMath.FULL_RING);
 
-        NormalizedRange expectedRange = new NormalizedRange(normalizedBaseRange, START, LongTokenRange.FULL_RANGE, 1234L, 1235L);
+        NormalizedRange expectedRange = new NormalizedRange(normalizedBaseRange, START, TokenMath.FULL_RING, 1234L, 1235L);
 
         NormalizedRange actualRange = normalizedBaseRange.transform(vnodeRepairState);
 
@@ -141,8 +141,8 @@ public class TestNormalizedBaseRange
         NormalizedBaseRange normalizedBaseRange = new NormalizedBaseRange(withVnode(-5L, -6L, 1234L, 1235L));
         VnodeRepairState subRange = withVnode(-20L, -10L, 1234L, 1235L);
 
-        BigInteger start = LongTokenRange.FULL_RANGE.subtract(bi(15L));
-        BigInteger end = LongTokenRange.FULL_RANGE.subtract(bi(5L));
+        long start = -15L; // 2^64 - 15 as an unsigned offset
+        long end = -5L;
 
         NormalizedRange expectedRange = new NormalizedRange(normalizedBaseRange, start, end, 1234L, 1235L);
 
@@ -160,8 +160,8 @@ public class TestNormalizedBaseRange
         NormalizedBaseRange normalizedBaseRange = new NormalizedBaseRange(withVnode(-5L, -6L, 1234L, 1235L));
         VnodeRepairState subRange = withVnode(Long.MAX_VALUE - 5L, Long.MAX_VALUE - 4L, 1234L, 1235L);
 
-        BigInteger start = bi(Long.MAX_VALUE);
-        BigInteger end = start.add(bi(1L));
+        long start = bi(Long.MAX_VALUE);
+        long end = start + 1L;
 
         NormalizedRange expectedRange = new NormalizedRange(normalizedBaseRange, start, end, 1234L, 1235L);
 
@@ -219,9 +219,9 @@ public class TestNormalizedBaseRange
         assertThat(normalizedBaseRange.inRange(bi(51L))).isFalse();
     }
 
-    private BigInteger bi(long token)
+    private long bi(long token)
     {
-        return BigInteger.valueOf(token);
+        return token;
     }
 
     @Test
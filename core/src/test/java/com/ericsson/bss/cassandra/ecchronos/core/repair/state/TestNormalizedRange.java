@@ -23,7 +23,6 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
-import java.math.BigInteger;
 
 import static com.ericsson.bss.cassandra.ecchronos.core.repair.state.NormalizedRange.UNKNOWN_REPAIR_TIME;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -32,7 +31,7 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 @RunWith(MockitoJUnitRunner.class)
 public class TestNormalizedRange
 {
-    private static final BigInteger START = BigInteger.ZERO;
+    private static final long START = 0L;
     
     @Mock
     DriverNode mockNode;
@@ -342,9 +341,9 @@ public class TestNormalizedRange
                 .verify();
     }
 
-    private BigInteger bi(long token)
+    private long bi(long token)
     {
-        return BigInteger.valueOf(token);
+        return token;
     }
 
     private VnodeRepairState withVnode(long start, long end, long startedAt, long finishedAt)
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.google.common.collect.Lists;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class TestPagedRowIterator
+{
+    @Mock
+    private CqlSession mockSession;
+
+    private final MeterRegistry myMeterRegistry = new SimpleMeterRegistry();
+    private final List<long[]> mySlices = new ArrayList<>();
+
+    private Counter myRowsRead;
+    private Counter myBytesRead;
+
+    @Before
+    public void setup()
+    {
+        myRowsRead = myMeterRegistry.counter(PagedRowIterator.ROWS_READ);
+        myBytesRead = myMeterRegistry.counter(PagedRowIterator.BYTES_READ);
+    }
+
+    @Test
+    public void testSlicesAreReadNewestFirst()
+    {
+        Row row1 = mock(Row.class);
+        Row row2 = mock(Row.class);
+        Row row3 = mock(Row.class);
+        CompletableFuture<AsyncResultSet> firstSlice = page(null, 10, row1);
+        CompletableFuture<AsyncResultSet> secondSlice = page(null, 10);
+        CompletableFuture<AsyncResultSet> thirdSlice = page(null, 10, row2, row3);
+        when(mockSession.executeAsync(any(Statement.class))).thenReturn(firstSlice, secondSlice, thirdSlice);
+
+        List<Row> rows = Lists.newArrayList(newIterator(1, 25, 10));
+
+        assertThat(rows).containsExactly(row1, row2, row3);
+        assertThat(mySlices).containsExactly(new long[] { 16, 25 }, new long[] { 6, 15 }, new long[] { 1, 5 });
+        assertThat(myRowsRead.count()).isEqualTo(3.0d);
+        assertThat(myBytesRead.count()).isEqualTo(30.0d);
+    }
+
+    @Test
+    public void testPagesAreRead()
+    {
+        Row row1 = mock(Row.class);
+        Row row2 = mock(Row.class);
+        AsyncResultSet secondPage = asyncResultSet(null, 10, row2);
+        AsyncResultSet firstPage = asyncResultSet(secondPage, 10, row1);
+        when(mockSession.executeAsync(any(Statement.class))).thenReturn(CompletableFuture.completedFuture(firstPage));
+
+        List<Row> rows = Lists.newArrayList(newIterator(1, 10, 10));
+
+        assertThat(rows).containsExactly(row1, row2);
+        assertThat(mySlices).hasSize(1);
+        assertThat(myRowsRead.count()).isEqualTo(2.0d);
+    }
+
+    @Test
+    public void testNextSliceIsNotReadBeforeCurrentIsConsumed()
+    {
+        Row row1 = mock(Row.class);
+        AsyncResultSet secondPage = asyncResultSet(null, 10, mock(Row.class));
+        AsyncResultSet firstPage = asyncResultSet(secondPage, 10, row1);
+        when(mockSession.executeAsync(any(Statement.class))).thenReturn(CompletableFuture.completedFuture(firstPage));
+
+        Iterator<Row> iterator = newIterator(1, 100, 10);
+
+        assertThat(iterator.next()).isSameAs(row1);
+        assertThat(mySlices).hasSize(1);
+        verify(firstPage).fetchNextPage();
+        verify(secondPage, never()).fetchNextPage();
+    }
+
+    @Test
+    public void testNextSliceIsNotReadBeforeLastPageIsConsumed()
+    {
+        Row row1 = mock(Row.class);
+        Row row2 = mock(Row.class);
+        CompletableFuture<AsyncResultSet> firstSlice = page(null, 10, row1, row2);
+        when(mockSession.executeAsync(any(Statement.class))).thenReturn(firstSlice);
+
+        Iterator<Row> iterator = newIterator(1, 100, 10);
+
+        assertThat(iterator.next()).isSameAs(row1);
+        assertThat(iterator.next()).isSameAs(row2);
+        assertThat(mySlices).hasSize(1);
+    }
+
+    @Test
+    public void testFailedReadIsThrown()
+    {
+        when(mockSession.executeAsync(any(Statement.class)))
+                .thenReturn(CompletableFuture.failedFuture(new DriverTimeoutException("timeout")));
+
+        Iterator<Row> iterator = newIterator(1, 10, 10);
+
+        assertThatExceptionOfType(DriverTimeoutException.class).isThrownBy(iterator::hasNext);
+    }
+
+    private Iterator<Row> newIterator(long from, long to, long sliceInMs)
+    {
+        return new PagedRowIterator(mockSession, s -> s, (sliceFrom, sliceTo) ->
+        {
+            mySlices.add(new long[] { sliceFrom, sliceTo });
+            return mock(Statement.class);
+        }, from, to, sliceInMs, myRowsRead, myBytesRead);
+    }
+
+    private CompletableFuture<AsyncResultSet> page(AsyncResultSet nextPage, int size, Row... rows)
+    {
+        return CompletableFuture.completedFuture(asyncResultSet(nextPage, size, rows));
+    }
+
+    private AsyncResultSet asyncResultSet(AsyncResultSet nextPage, int size, Row... rows)
+    {
+        AsyncResultSet resultSet = mock(AsyncResultSet.class);
+        ExecutionInfo executionInfo = mock(ExecutionInfo.class);
+        when(executionInfo.getResponseSizeInBytes()).thenReturn(size);
+        when(resultSet.getExecutionInfo()).thenReturn(executionInfo);
+        when(resultSet.remaining()).thenReturn(rows.length);
+        when(resultSet.currentPage()).thenReturn(Arrays.asList(rows));
+        when(resultSet.hasMorePages()).thenReturn(nextPage != null);
+        if (nextPage != null)
+        {
+            when(resultSet.fetchNextPage()).thenReturn(CompletableFuture.completedFuture(nextPage));
+        }
+        return resultSet;
+    }
+}
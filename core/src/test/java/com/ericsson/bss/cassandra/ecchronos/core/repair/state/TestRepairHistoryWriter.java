@@ -0,0 +1,247 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchType;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class TestRepairHistoryWriter
+{
+    private static final UUID TABLE_ID = UUID.randomUUID();
+    private static final UUID NODE_ID_1 = UUID.randomUUID();
+    private static final UUID NODE_ID_2 = UUID.randomUUID();
+
+    @Mock
+    private CqlSession mockSession;
+
+    private final List<CompletableFuture<AsyncResultSet>> myFutures = new ArrayList<>();
+    private final MeterRegistry myMeterRegistry = new SimpleMeterRegistry();
+
+    private RepairHistoryWriter myRepairHistoryWriter;
+
+    @Before
+    public void setup()
+    {
+        when(mockSession.executeAsync(any(Statement.class))).thenAnswer(invocation ->
+        {
+            CompletableFuture<AsyncResultSet> future = new CompletableFuture<>();
+            myFutures.add(future);
+            return future;
+        });
+
+        myRepairHistoryWriter = RepairHistoryWriter.newBuilder()
+                .withSession(mockSession)
+                .withStatementDecorator(s -> s)
+                .withMeterRegistry(myMeterRegistry)
+                .withBatchSize(3)
+                .withMaxInFlight(2)
+                .withFlushInterval(1, TimeUnit.HOURS)
+                .withRetries(1, 10, TimeUnit.MILLISECONDS)
+                .withShutdownTimeout(1, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @After
+    public void cleanup()
+    {
+        myFutures.forEach(f -> f.complete(mock(AsyncResultSet.class)));
+        myRepairHistoryWriter.close();
+    }
+
+    @Test
+    public void testWritesAreGroupedByPartition()
+    {
+        BoundStatement node1Statement1 = mock(BoundStatement.class);
+        BoundStatement node2Statement = mock(BoundStatement.class);
+        BoundStatement node1Statement2 = mock(BoundStatement.class);
+
+        myRepairHistoryWriter.write(TABLE_ID, NODE_ID_1, node1Statement1);
+        myRepairHistoryWriter.write(TABLE_ID, NODE_ID_2, node2Statement);
+        myRepairHistoryWriter.write(TABLE_ID, NODE_ID_1, node1Statement2);
+        myRepairHistoryWriter.flush();
+
+        List<Statement> statements = sentStatements(2);
+        assertThat(statements.get(0)).isInstanceOf(BatchStatement.class);
+        BatchStatement batch = (BatchStatement) statements.get(0);
+        assertThat(batch.getBatchType()).isEqualTo(BatchType.UNLOGGED);
+        assertThat(batch).containsExactly(node1Statement1, node1Statement2);
+        assertThat(statements.get(1)).isSameAs(node2Statement);
+        assertThat(myRepairHistoryWriter.getQueueDepth()).isZero();
+    }
+
+    @Test
+    public void testBatchesAreSplitOnBatchSize()
+    {
+        for (int i = 0; i < 4; i++)
+        {
+            myRepairHistoryWriter.write(TABLE_ID, NODE_ID_1, mock(BoundStatement.class));
+        }
+        myRepairHistoryWriter.flush();
+
+        List<Statement> statements = sentStatements(2);
+        assertThat((BatchStatement) statements.get(0)).hasSize(3);
+        assertThat(statements.get(1)).isInstanceOf(BoundStatement.class);
+    }
+
+    @Test
+    public void testInFlightBatchesAreBounded()
+    {
+        myRepairHistoryWriter.write(TABLE_ID, NODE_ID_1, mock(BoundStatement.class));
+        myRepairHistoryWriter.write(TABLE_ID, NODE_ID_2, mock(BoundStatement.class));
+        myRepairHistoryWriter.write(TABLE_ID, UUID.randomUUID(), mock(BoundStatement.class));
+        myRepairHistoryWriter.flush();
+
+        sentStatements(2);
+        assertThat(myRepairHistoryWriter.getQueueDepth()).isEqualTo(1);
+        assertThat(myMeterRegistry.get(RepairHistoryWriter.QUEUE_DEPTH).gauge().value()).isEqualTo(1.0d);
+
+        myFutures.get(0).complete(mock(AsyncResultSet.class));
+        myRepairHistoryWriter.flush();
+
+        sentStatements(3);
+        assertThat(myRepairHistoryWriter.getQueueDepth()).isZero();
+        assertThat(myMeterRegistry.get(RepairHistoryWriter.WRITE_TIME).tag("successful", "true").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void testFailedWriteIsRetried()
+    {
+        BoundStatement statement = mock(BoundStatement.class);
+        myRepairHistoryWriter.write(TABLE_ID, NODE_ID_1, statement);
+        myRepairHistoryWriter.flush();
+
+        myFutures.get(0).completeExceptionally(new RuntimeException("Write failed"));
+
+        await().atMost(1, TimeUnit.SECONDS).until(() -> myFutures.size() == 2);
+        verify(mockSession, times(2)).executeAsync(statement);
+        assertThat(myMeterRegistry.get(RepairHistoryWriter.WRITE_TIME).tag("successful", "false").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void testQueuedWritesAreFlushedOnClose()
+    {
+        BoundStatement statement = mock(BoundStatement.class);
+        when(mockSession.executeAsync(any(Statement.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(AsyncResultSet.class)));
+
+        myRepairHistoryWriter.write(TABLE_ID, NODE_ID_1, statement);
+        myRepairHistoryWriter.close();
+
+        verify(mockSession).executeAsync(statement);
+        assertThat(myRepairHistoryWriter.getQueueDepth()).isZero();
+    }
+
+    @Test
+    public void testWriteIsCompletedWhenWritten()
+    {
+        CompletableFuture<Void> write = myRepairHistoryWriter.write(TABLE_ID, NODE_ID_1, mock(BoundStatement.class));
+        myRepairHistoryWriter.flush();
+
+        assertThat(write).isNotDone();
+
+        myFutures.get(0).complete(mock(AsyncResultSet.class));
+
+        assertThat(write).isCompleted();
+    }
+
+    @Test
+    public void testWriteIsCompletedExceptionallyWhenDropped()
+    {
+        CompletableFuture<Void> write = myRepairHistoryWriter.write(TABLE_ID, NODE_ID_1, mock(BoundStatement.class));
+        myRepairHistoryWriter.flush();
+
+        myFutures.get(0).completeExceptionally(new RuntimeException("Write failed"));
+        await().atMost(1, TimeUnit.SECONDS).until(() -> myFutures.size() == 2);
+        myFutures.get(1).completeExceptionally(new RuntimeException("Write failed"));
+
+        assertThat(write).isCompletedExceptionally();
+    }
+
+    @Test
+    public void testRequestFlush()
+    {
+        CompletableFuture<Void> write = myRepairHistoryWriter.write(TABLE_ID, NODE_ID_1, mock(BoundStatement.class));
+        myRepairHistoryWriter.requestFlush();
+
+        await().atMost(1, TimeUnit.SECONDS).until(() -> myFutures.size() == 1);
+        myFutures.get(0).complete(mock(AsyncResultSet.class));
+
+        assertThat(write).isCompleted();
+    }
+
+    @Test
+    public void testQueuedWritesAreBounded()
+    {
+        RepairHistoryWriter repairHistoryWriter = RepairHistoryWriter.newBuilder()
+                .withSession(mockSession)
+                .withStatementDecorator(s -> s)
+                .withBatchSize(3)
+                .withMaxQueuedWrites(2)
+                .withFlushInterval(1, TimeUnit.HOURS)
+                .withShutdownTimeout(0, TimeUnit.SECONDS)
+                .build();
+        try
+        {
+            assertThat(repairHistoryWriter.write(TABLE_ID, NODE_ID_1, mock(BoundStatement.class))).isNotDone();
+            assertThat(repairHistoryWriter.write(TABLE_ID, NODE_ID_1, mock(BoundStatement.class))).isNotDone();
+            assertThat(repairHistoryWriter.write(TABLE_ID, NODE_ID_1, mock(BoundStatement.class)))
+                    .isCompletedExceptionally();
+            assertThat(repairHistoryWriter.getQueueDepth()).isEqualTo(2);
+        }
+        finally
+        {
+            repairHistoryWriter.close();
+        }
+    }
+
+    private List<Statement> sentStatements(final int expected)
+    {
+        ArgumentCaptor<Statement> statementCaptor = ArgumentCaptor.forClass(Statement.class);
+        verify(mockSession, times(expected)).executeAsync(statementCaptor.capture());
+        return statementCaptor.getAllValues();
+    }
+}
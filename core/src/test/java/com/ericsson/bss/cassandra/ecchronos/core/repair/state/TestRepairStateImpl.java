@@ -20,6 +20,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -191,6 +192,115 @@ public class TestRepairStateImpl
         verify(mockPostUpdateHook, times(2)).postUpdate(updatedRepairStateSnapshot);
     }
 
+    @Test
+    public void testLocalRepairEntryIsAppliedWithoutReadingHistory()
+    {
+        long now = System.currentTimeMillis();
+        long repairIntervalInMs = TimeUnit.HOURS.toMillis(1);
+        long previousRepairedAt = now - TimeUnit.HOURS.toMillis(2);
+        LongTokenRange range = new LongTokenRange(1, 2);
+        ImmutableSet<DriverNode> replicas = ImmutableSet.of(mockNode("DC1"));
+
+        RepairConfiguration repairConfiguration = repairConfiguration(repairIntervalInMs);
+
+        VnodeRepairStates vnodeRepairStates = VnodeRepairStatesImpl.newBuilder(Collections.singletonList(
+                new VnodeRepairState(range, replicas, previousRepairedAt, previousRepairedAt + 5))).build();
+        VnodeRepairStates repairedVnodeRepairStates = VnodeRepairStatesImpl.newBuilder(Collections.singletonList(
+                new VnodeRepairState(range, replicas, now, now + 5))).build();
+
+        when(mockVnodeRepairStateFactory.calculateNewState(eq(tableReference), isNull(), any(long.class))).thenReturn(vnodeRepairStates);
+        when(mockReplicaRepairGroupFactory.generateReplicaRepairGroups(repairGroupCaptor.capture())).thenReturn(Lists.emptyList());
+
+        RepairState repairState = new RepairStateImpl(tableReference, repairConfiguration,
+                mockVnodeRepairStateFactory, mockHostStates,
+                mockTableRepairMetrics, mockReplicaRepairGroupFactory, mockPostUpdateHook, TimeUnit.HOURS.toMillis(1));
+
+        RepairStateSnapshot repairStateSnapshot = repairState.getSnapshot();
+        assertThat(repairStateSnapshot.lastCompletedAt()).isEqualTo(previousRepairedAt);
+
+        RepairEntry repairEntry = new RepairEntry(range, now, now + 5, replicas, "SUCCESS");
+        when(mockVnodeRepairStateFactory.applyRepairEntries(eq(tableReference), eq(repairStateSnapshot),
+                eq(Collections.singletonList(repairEntry)))).thenReturn(repairedVnodeRepairStates);
+
+        repairState.repairFinished(repairEntry);
+        repairState.update();
+
+        RepairStateSnapshot updatedRepairStateSnapshot = repairState.getSnapshot();
+        assertThat(updatedRepairStateSnapshot.lastCompletedAt()).isEqualTo(now);
+        assertThat(updatedRepairStateSnapshot.getCreatedAt()).isEqualTo(repairStateSnapshot.getCreatedAt());
+
+        // Repaired and no local repair entries, the history should not be read
+        repairState.update();
+
+        assertThat(repairState.getSnapshot()).isSameAs(updatedRepairStateSnapshot);
+        verify(mockVnodeRepairStateFactory, times(1)).calculateNewState(any(), any(), any(long.class));
+        verify(mockVnodeRepairStateFactory, times(1)).applyRepairEntries(any(), any(), any());
+    }
+
+    @Test
+    public void testLocalRepairEntryIsAppliedAfterReconciliation()
+    {
+        long now = System.currentTimeMillis();
+        long repairIntervalInMs = TimeUnit.HOURS.toMillis(1);
+        long previousRepairedAt = now - TimeUnit.HOURS.toMillis(2);
+        LongTokenRange range = new LongTokenRange(1, 2);
+        ImmutableSet<DriverNode> replicas = ImmutableSet.of(mockNode("DC1"));
+
+        RepairConfiguration repairConfiguration = repairConfiguration(repairIntervalInMs);
+
+        VnodeRepairStates vnodeRepairStates = VnodeRepairStatesImpl.newBuilder(Collections.singletonList(
+                new VnodeRepairState(range, replicas, previousRepairedAt, previousRepairedAt + 5))).build();
+        VnodeRepairStates repairedVnodeRepairStates = VnodeRepairStatesImpl.newBuilder(Collections.singletonList(
+                new VnodeRepairState(range, replicas, now, now + 5))).build();
+
+        when(mockVnodeRepairStateFactory.calculateNewState(eq(tableReference), isNull(), any(long.class))).thenReturn(vnodeRepairStates);
+        when(mockReplicaRepairGroupFactory.generateReplicaRepairGroups(repairGroupCaptor.capture())).thenReturn(Lists.emptyList());
+
+        RepairState repairState = new RepairStateImpl(tableReference, repairConfiguration,
+                mockVnodeRepairStateFactory, mockHostStates,
+                mockTableRepairMetrics, mockReplicaRepairGroupFactory, mockPostUpdateHook, 0L);
+
+        RepairStateSnapshot repairStateSnapshot = repairState.getSnapshot();
+        // The local repair entry is not yet written to the repair history
+        when(mockVnodeRepairStateFactory.calculateNewState(eq(tableReference), eq(repairStateSnapshot), any(long.class))).thenReturn(vnodeRepairStates);
+        when(mockVnodeRepairStateFactory.applyRepairEntries(eq(tableReference), any(), any())).thenReturn(repairedVnodeRepairStates);
+
+        repairState.repairFinished(new RepairEntry(range, now, now + 5, replicas, "SUCCESS"));
+        repairState.update();
+
+        assertThat(repairState.getSnapshot().lastCompletedAt()).isEqualTo(now);
+        verify(mockVnodeRepairStateFactory, times(2)).calculateNewState(any(), any(), any(long.class));
+        verify(mockVnodeRepairStateFactory, times(1)).applyRepairEntries(any(), any(), any());
+    }
+
+    @Test
+    public void testHistoryIsReadOncePerReconciliationInterval()
+    {
+        long now = System.currentTimeMillis();
+        long repairIntervalInMs = TimeUnit.HOURS.toMillis(1);
+        long previousRepairedAt = now - TimeUnit.HOURS.toMillis(2);
+        LongTokenRange range = new LongTokenRange(1, 2);
+        ImmutableSet<DriverNode> replicas = ImmutableSet.of(mockNode("DC1"));
+
+        RepairConfiguration repairConfiguration = repairConfiguration(repairIntervalInMs);
+
+        VnodeRepairStates vnodeRepairStates = VnodeRepairStatesImpl.newBuilder(Collections.singletonList(
+                new VnodeRepairState(range, replicas, previousRepairedAt, previousRepairedAt + 5))).build();
+
+        when(mockVnodeRepairStateFactory.calculateNewState(eq(tableReference), any(), any(long.class))).thenReturn(vnodeRepairStates);
+        when(mockReplicaRepairGroupFactory.generateReplicaRepairGroups(repairGroupCaptor.capture())).thenReturn(Lists.emptyList());
+
+        RepairState repairState = new RepairStateImpl(tableReference, repairConfiguration,
+                mockVnodeRepairStateFactory, mockHostStates,
+                mockTableRepairMetrics, mockReplicaRepairGroupFactory, mockPostUpdateHook, TimeUnit.HOURS.toMillis(1));
+
+        // The table needs repair but the history was read within the reconciliation interval
+        repairState.update();
+        repairState.update();
+
+        verify(mockVnodeRepairStateFactory, times(1)).calculateNewState(any(), any(), any(long.class));
+    }
+
     private void assertRepairStateSnapshot(RepairStateSnapshot repairStateSnapshot, long expectedAtLeastRepairedAt, List<ReplicaRepairGroup> replicaRepairGroups, VnodeRepairStates vnodeRepairStatesBase)
     {
         long expectedAtMostRepairedAt = expectedAtLeastRepairedAt + TimeUnit.DAYS.toMillis(1);
@@ -26,6 +26,7 @@ import com.ericsson.bss.cassandra.ecchronos.core.utils.NodeResolver;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -39,8 +40,12 @@ import java.util.Optional;
 
 import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory.tableReference;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -103,6 +108,7 @@ public class TestReplicationStateImpl
         when(mockNodeResolver.fromIp(eq(address2))).thenReturn(Optional.of(mockNode2));
         when(mockNodeResolver.fromIp(eq(address3))).thenReturn(Optional.of(mockNode3));
         when(mockNodeResolver.fromIp(eq(address4))).thenReturn(Optional.of(mockNode4));
+        when(mockNodeResolver.fromIps(any())).thenCallRealMethod();
 
         when(mockMetadata.getTokenMap()).thenReturn(Optional.of(mockTokenMap));
         when(mockSession.getMetadata()).thenReturn(mockMetadata);
@@ -403,4 +409,77 @@ public class TestReplicationStateImpl
 
         assertThat(replicationState.getTokenRanges(tableReference)).isSameAs(tokenRanges);
     }
+
+    @Test
+    public void testReplicationIsCachedForSameTokenMap() throws Exception
+    {
+        TableReference tableReference = tableReference("ks", "tb");
+        TokenRange tokenRange = TokenUtil.getRange(1, 2);
+
+        doReturn(Sets.newHashSet(tokenRange)).when(mockTokenMap).getTokenRanges(eq("ks"), eq(mockReplica1));
+        doReturn(Sets.newHashSet(mockReplica1, mockReplica2, mockReplica3)).when(mockTokenMap)
+                .getReplicas(eq("ks"), eq(tokenRange));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReplicationState replicationState = new ReplicationStateImpl(mockNodeResolver, mockSession, mockReplica1,
+                meterRegistry);
+
+        Map<LongTokenRange, ImmutableSet<DriverNode>> tokenRangeToReplicas = replicationState.getTokenRangeToReplicas(
+                tableReference);
+
+        assertThat(replicationState.getTokenRangeToReplicas(tableReference)).isSameAs(tokenRangeToReplicas);
+        assertThat(replicationState.getNodes(tableReference, new LongTokenRange(1, 2)))
+                .containsExactlyInAnyOrder(mockNode1, mockNode2, mockNode3);
+
+        verify(mockTokenMap, times(1)).getTokenRanges(eq("ks"), eq(mockReplica1));
+        assertThat(meterRegistry.get(ReplicationStateImpl.REPLICATION_CACHE).tag("result", "hit").counter().count())
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.get(ReplicationStateImpl.REPLICATION_CACHE).tag("result", "miss").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get(ReplicationStateImpl.REPLICATION_REBUILD).timer().count()).isEqualTo(1L);
+    }
+
+    @Test
+    public void testReplicationIsRebuiltWhenTokenMapChanges() throws Exception
+    {
+        LongTokenRange range1 = new LongTokenRange(1, 2);
+        LongTokenRange range2 = new LongTokenRange(2, 3);
+        TableReference tableReference = tableReference("ks", "tb");
+        TokenRange tokenRange1 = TokenUtil.getRange(1, 2);
+        TokenRange tokenRange2 = TokenUtil.getRange(2, 3);
+
+        doReturn(Sets.newHashSet(tokenRange1)).when(mockTokenMap).getTokenRanges(eq("ks"), eq(mockReplica1));
+        doReturn(Sets.newHashSet(mockReplica1, mockReplica2)).when(mockTokenMap)
+                .getReplicas(eq("ks"), eq(tokenRange1));
+
+        ReplicationState replicationState = new ReplicationStateImpl(mockNodeResolver, mockSession, mockReplica1);
+
+        Map<LongTokenRange, ImmutableSet<DriverNode>> tokenRangeToReplicas = replicationState.getTokenRangeToReplicas(
+                tableReference);
+        assertThat(tokenRangeToReplicas.keySet()).containsExactly(range1);
+
+        // New token map with the same replication keeps the cached instance
+        TokenMap sameTokenMap = mock(TokenMap.class);
+        doReturn(Sets.newHashSet(tokenRange1)).when(sameTokenMap).getTokenRanges(eq("ks"), eq(mockReplica1));
+        doReturn(Sets.newHashSet(mockReplica1, mockReplica2)).when(sameTokenMap)
+                .getReplicas(eq("ks"), eq(tokenRange1));
+        when(mockMetadata.getTokenMap()).thenReturn(Optional.of(sameTokenMap));
+
+        assertThat(replicationState.getTokenRangeToReplicas(tableReference)).isSameAs(tokenRangeToReplicas);
+
+        // New token map with changed replication
+        TokenMap changedTokenMap = mock(TokenMap.class);
+        doReturn(Sets.newHashSet(tokenRange1, tokenRange2)).when(changedTokenMap)
+                .getTokenRanges(eq("ks"), eq(mockReplica1));
+        doReturn(Sets.newHashSet(mockReplica1, mockReplica2)).when(changedTokenMap)
+                .getReplicas(eq("ks"), eq(tokenRange1));
+        doReturn(Sets.newHashSet(mockReplica1, mockReplica3)).when(changedTokenMap)
+                .getReplicas(eq("ks"), eq(tokenRange2));
+        when(mockMetadata.getTokenMap()).thenReturn(Optional.of(changedTokenMap));
+
+        Map<LongTokenRange, ImmutableSet<DriverNode>> changedTokenRangeToReplicas
+                = replicationState.getTokenRangeToReplicas(tableReference);
+        assertThat(changedTokenRangeToReplicas.keySet()).containsExactlyInAnyOrder(range1, range2);
+        assertThat(changedTokenRangeToReplicas.get(range2)).containsExactlyInAnyOrder(mockNode1, mockNode3);
+    }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.ericsson.bss.cassandra.ecchronos.core.utils.DriverNode;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+public class TestVnodeRepairGroupFactory
+{
+    private final DriverNode myNode1 = mock(DriverNode.class);
+    private final DriverNode myNode2 = mock(DriverNode.class);
+    private final DriverNode myNode3 = mock(DriverNode.class);
+    private final DriverNode myNode4 = mock(DriverNode.class);
+
+    @Test
+    public void testGroupsAreSortedOnEarliestRepairedAt()
+    {
+        ImmutableSet<DriverNode> replicas1 = ImmutableSet.of(myNode1, myNode2);
+        ImmutableSet<DriverNode> replicas2 = ImmutableSet.of(myNode2, myNode3);
+        ImmutableSet<DriverNode> replicas3 = ImmutableSet.of(myNode3, myNode4);
+
+        List<ReplicaRepairGroup> groups = VnodeRepairGroupFactory.INSTANCE.generateReplicaRepairGroups(Arrays.asList(
+                vnode(1, 2, replicas1, 30),
+                vnode(2, 3, replicas2, 20),
+                vnode(3, 4, replicas1, 10),
+                vnode(4, 5, replicas3, 20),
+                vnode(5, 6, replicas2, 40)));
+
+        assertThat(groups).hasSize(3);
+        assertGroup(groups.get(0), replicas1, 10, new LongTokenRange(1, 2), new LongTokenRange(3, 4));
+        assertGroup(groups.get(1), replicas2, 20, new LongTokenRange(2, 3), new LongTokenRange(5, 6));
+        assertGroup(groups.get(2), replicas3, 20, new LongTokenRange(4, 5));
+    }
+
+    @Test
+    public void testEqualReplicaSetsAreGrouped()
+    {
+        List<ReplicaRepairGroup> groups = VnodeRepairGroupFactory.INSTANCE.generateReplicaRepairGroups(Arrays.asList(
+                vnode(1, 2, ImmutableSet.of(myNode1, myNode2), VnodeRepairState.UNREPAIRED),
+                vnode(2, 3, ImmutableSet.of(myNode2, myNode1), VnodeRepairState.UNREPAIRED)));
+
+        assertThat(groups).hasSize(1);
+        assertGroup(groups.get(0), ImmutableSet.of(myNode1, myNode2), VnodeRepairState.UNREPAIRED,
+                new LongTokenRange(1, 2), new LongTokenRange(2, 3));
+    }
+
+    @Test
+    public void testMatchesSortAndFilter()
+    {
+        List<ImmutableSet<DriverNode>> replicaSets = Arrays.asList(ImmutableSet.of(myNode1, myNode2),
+                ImmutableSet.of(myNode2, myNode3), ImmutableSet.of(myNode3, myNode4), ImmutableSet.of(myNode4, myNode1));
+        Random random = new Random(4711);
+
+        for (int i = 0; i < 1000; i++)
+        {
+            int vnodeCount = random.nextInt(50);
+            List<VnodeRepairState> vnodes = new ArrayList<>(vnodeCount);
+            for (int j = 0; j < vnodeCount; j++)
+            {
+                vnodes.add(vnode(j, j + 1, replicaSets.get(random.nextInt(replicaSets.size())),
+                        random.nextInt(5) - 1));
+            }
+
+            assertThat(describe(VnodeRepairGroupFactory.INSTANCE.generateReplicaRepairGroups(vnodes)))
+                    .isEqualTo(describe(sortAndFilter(vnodes)));
+        }
+    }
+
+    /**
+     * The previous implementation, sorting all vnodes and filtering out the vnodes of each new replica set.
+     */
+    private static List<ReplicaRepairGroup> sortAndFilter(List<VnodeRepairState> vnodes)
+    {
+        List<VnodeRepairState> sortedVnodes = vnodes.stream()
+                .sorted(Comparator.comparingLong(VnodeRepairState::lastRepairedAt))
+                .collect(Collectors.toList());
+
+        List<ReplicaRepairGroup> groups = new ArrayList<>();
+        Set<Set<DriverNode>> countedReplicaGroups = new HashSet<>();
+        for (VnodeRepairState vnode : sortedVnodes)
+        {
+            ImmutableSet<DriverNode> replicas = vnode.getReplicas();
+            if (countedReplicaGroups.add(replicas))
+            {
+                List<VnodeRepairState> vnodesForReplicas = vnodes.stream()
+                        .filter(v -> v.getReplicas().equals(replicas))
+                        .collect(Collectors.toList());
+                groups.add(new ReplicaRepairGroup(replicas, vnodesForReplicas.stream()
+                        .map(VnodeRepairState::getTokenRange)
+                        .collect(ImmutableList.toImmutableList()),
+                        RepairedAt.generate(vnodesForReplicas).getMinRepairedAt()));
+            }
+        }
+        return groups;
+    }
+
+    private static List<String> describe(List<ReplicaRepairGroup> groups)
+    {
+        return groups.stream()
+                .map(g -> g.getReplicas() + ":" + Lists.newArrayList(g) + ":" + g.getLastCompletedAt())
+                .collect(Collectors.toList());
+    }
+
+    private static void assertGroup(ReplicaRepairGroup group, Set<DriverNode> replicas, long lastCompletedAt,
+            LongTokenRange... ranges)
+    {
+        assertThat(group.getReplicas()).isEqualTo(replicas);
+        assertThat(group.getLastCompletedAt()).isEqualTo(lastCompletedAt);
+        assertThat(group).containsExactly(ranges);
+    }
+
+    private static VnodeRepairState vnode(long start, long end, ImmutableSet<DriverNode> replicas, long repairedAt)
+    {
+        return new VnodeRepairState(new LongTokenRange(start, end), replicas, repairedAt);
+    }
+}
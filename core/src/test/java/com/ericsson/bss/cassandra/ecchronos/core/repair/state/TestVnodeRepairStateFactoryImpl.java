@@ -19,6 +19,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.net.InetAddress;
@@ -486,6 +487,63 @@ public class TestVnodeRepairStateFactoryImpl
                 newState(range(2, 3), range2RepairedAt, range2RepairedAt));
     }
 
+    @Test
+    public void testNewestFirstHistoryStopsWhenAllVnodesAreRepaired() throws UnknownHostException
+    {
+        DriverNode node1 = withNode("127.0.0.1");
+        DriverNode node2 = withNode("127.0.0.2");
+
+        withRange(range(1, 2), node1, node2);
+        withRange(range(2, 3), node1, node2);
+        ImmutableSet<DriverNode> replicas = ImmutableSet.of(node1, node2);
+
+        Iterator<RepairEntry> repairEntryIterator = Arrays.asList(
+                new RepairEntry(range(1, 2), 20000L, 21000L, replicas, "SUCCESS"),
+                new RepairEntry(range(2, 3), 19000L, 20000L, replicas, "SUCCESS"),
+                new RepairEntry(range(1, 2), 5000L, 6000L, replicas, "SUCCESS"),
+                new RepairEntry(range(2, 3), 1000L, 2000L, replicas, "SUCCESS")).iterator();
+
+        repairHistoryProvider = mock(RepairHistoryProvider.class);
+        when(repairHistoryProvider.isNewestFirst()).thenReturn(true);
+        when(repairHistoryProvider.iterate(eq(TABLE_REFERENCE), any(long.class), any(Predicate.class)))
+                .thenReturn(repairEntryIterator);
+
+        assertNewVnodeStates(newState(range(1, 2), 20000L, 21000L),
+                newState(range(2, 3), 19000L, 20000L));
+        assertThat(repairEntryIterator.hasNext()).isTrue();
+    }
+
+    @Test
+    public void testApplyRepairEntriesDoesNotReadHistory() throws UnknownHostException
+    {
+        DriverNode node1 = withNode("127.0.0.1");
+        DriverNode node2 = withNode("127.0.0.2");
+        DriverNode node3 = withNode("127.0.0.3");
+
+        withRange(range(1, 2), node1, node2);
+        withRange(range(2, 3), node1, node2);
+        repairHistoryProvider = mock(RepairHistoryProvider.class);
+
+        RepairStateSnapshot previousSnapshot = snapshot(1234L,
+                newState(range(1, 2), 1234L, 1235L),
+                newState(range(2, 3), 2345L, 2346L));
+
+        List<RepairEntry> repairEntries = Arrays.asList(
+                new RepairEntry(range(1, 2), 5000L, 5001L, getKnownReplicas(range(1, 2)), "SUCCESS"),
+                new RepairEntry(range(2, 3), 5000L, 5001L, getKnownReplicas(range(2, 3)), "FAILED"),
+                new RepairEntry(range(2, 3), 5000L, 5001L, ImmutableSet.of(node1, node3), "SUCCESS"));
+
+        VnodeRepairStateFactory vnodeRepairStateFactory = new VnodeRepairStateFactoryImpl(mockReplicationState,
+                repairHistoryProvider, false);
+        VnodeRepairStates newStates = vnodeRepairStateFactory.applyRepairEntries(TABLE_REFERENCE, previousSnapshot,
+                repairEntries);
+
+        assertThat(newStates.getVnodeRepairStates()).containsOnlyElementsOf(Arrays.asList(
+                newState(range(1, 2), 5000L, 5001L),
+                newState(range(2, 3), 2345L, 2346L)));
+        verifyNoInteractions(repairHistoryProvider);
+    }
+
     private RepairStateSnapshot snapshot(long repairedAt, VnodeRepairState... states)
     {
         return snapshot(repairedAt, repairedAt, states);
@@ -14,8 +14,10 @@
  */
 package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
 
+import com.ericsson.bss.cassandra.ecchronos.core.repair.state.VnodeRepairStateSummarizer.MergeStrategy;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.LongTokenRange;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.DriverNode;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TokenMath;
 import com.google.common.collect.ImmutableSet;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -24,15 +26,26 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @RunWith(MockitoJUnitRunner.class)
 public class TestVnodeRepairStateSummarizer
 {
+    private static final int PROPERTY_ITERATIONS = 1000;
+    private static final int PROPERTY_HOURS = 48;
+    private static final long HALF_HOUR_IN_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final int PARTS = 16;
+
     @Mock
     DriverNode mockNode;
 
@@ -365,6 +378,108 @@ public class TestVnodeRepairStateSummarizer
         );
     }
 
+    @Test
+    public void summarizeMatchesListImplementation()
+    {
+        Random random = new Random(4711);
+        for (int i = 0; i < PROPERTY_ITERATIONS; i++)
+        {
+            List<VnodeRepairState> baseVnodes = randomRing(random, 1 + random.nextInt(8));
+            Collection<VnodeRepairState> partialVnodes = randomPartials(random, baseVnodes, random.nextInt(20), true);
+
+            assertSameAsListImplementation(baseVnodes, partialVnodes);
+        }
+    }
+
+    @Test
+    public void summarizeMatchesListImplementationWithSameRepairTimes()
+    {
+        Random random = new Random(4712);
+        for (int i = 0; i < PROPERTY_ITERATIONS; i++)
+        {
+            List<VnodeRepairState> baseVnodes = randomRing(random, 1 + random.nextInt(8));
+            Collection<VnodeRepairState> partialVnodes = randomPartials(random, baseVnodes, random.nextInt(20), false);
+
+            assertSameAsListImplementation(baseVnodes, partialVnodes);
+        }
+    }
+
+    @Test
+    public void summarizeMatchesListImplementationWithOverlappingBaseVnodes()
+    {
+        Random random = new Random(4713);
+        for (int i = 0; i < PROPERTY_ITERATIONS; i++)
+        {
+            List<VnodeRepairState> baseVnodes = randomRing(random, 2 + random.nextInt(8));
+            Collection<VnodeRepairState> partialVnodes = randomPartials(random, baseVnodes, random.nextInt(20), true);
+
+            // Covering one base vnode with another makes them overlap
+            VnodeRepairState first = baseVnodes.get(0);
+            VnodeRepairState second = baseVnodes.get(1);
+            baseVnodes.add(new VnodeRepairState(new LongTokenRange(first.getTokenRange().start,
+                    second.getTokenRange().end), ImmutableSet.of(), random.nextLong()));
+
+            assertSameAsListImplementation(baseVnodes, partialVnodes);
+        }
+    }
+
+    private void assertSameAsListImplementation(List<VnodeRepairState> baseVnodes,
+            Collection<VnodeRepairState> partialVnodes)
+    {
+        for (MergeStrategy mergeStrategy : Arrays.<MergeStrategy> asList((r1, r2) -> false, (r1, r2) -> true,
+                (r1, r2) -> Math.abs(r1.getStartedAt() - r2.getStartedAt()) < TimeUnit.HOURS.toMillis(1)))
+        {
+            assertThat(VnodeRepairStateSummarizer.summarizePartialVnodes(baseVnodes, partialVnodes, mergeStrategy))
+                    .as("Base vnodes %s, partial vnodes %s", baseVnodes, partialVnodes)
+                    .isEqualTo(LegacyVnodeRepairStateSummarizer.summarizePartialVnodes(baseVnodes, partialVnodes,
+                            mergeStrategy));
+        }
+    }
+
+    /**
+     * Generate base vnodes splitting the token ring between random tokens.
+     */
+    static List<VnodeRepairState> randomRing(Random random, int vnodes)
+    {
+        long[] tokens = random.longs(vnodes).sorted().distinct().toArray();
+        long baseRepairedAt = random.nextInt(PROPERTY_HOURS) * HALF_HOUR_IN_MS;
+
+        List<VnodeRepairState> baseVnodes = new ArrayList<>(tokens.length);
+        for (int i = 0; i < tokens.length; i++)
+        {
+            LongTokenRange tokenRange = new LongTokenRange(tokens[i], tokens[(i + 1) % tokens.length]);
+            baseVnodes.add(new VnodeRepairState(tokenRange, ImmutableSet.of(), baseRepairedAt));
+        }
+        return baseVnodes;
+    }
+
+    /**
+     * Generate partial vnodes aligned to sixteenths of the base vnodes, with some of them crossing two base vnodes.
+     */
+    static Collection<VnodeRepairState> randomPartials(Random random, List<VnodeRepairState> baseVnodes, int partials,
+            boolean uniqueRepairTimes)
+    {
+        Map<LongTokenRange, VnodeRepairState> partialVnodes = new LinkedHashMap<>();
+        for (int i = 0; i < partials; i++)
+        {
+            LongTokenRange baseRange = baseVnodes.get(random.nextInt(baseVnodes.size())).getTokenRange();
+            long step = TokenMath.divideSize(baseRange.unsignedRangeSize(), PARTS);
+            int startPart = random.nextInt(PARTS);
+            int endPart = startPart + 1 + random.nextInt(random.nextInt(10) == 0 ? PARTS * 2 : PARTS - startPart);
+
+            LongTokenRange tokenRange = new LongTokenRange(baseRange.start + step * startPart,
+                    endPart == PARTS ? baseRange.end : baseRange.start + step * endPart);
+            long startedAt = random.nextInt(PROPERTY_HOURS) * HALF_HOUR_IN_MS;
+            if (uniqueRepairTimes)
+            {
+                startedAt += i;
+            }
+            long finishedAt = startedAt + random.nextInt(PROPERTY_HOURS) * HALF_HOUR_IN_MS;
+            partialVnodes.put(tokenRange, new VnodeRepairState(tokenRange, ImmutableSet.of(), startedAt, finishedAt));
+        }
+        return partialVnodes.values();
+    }
+
     private List<VnodeRepairState> summarize(VnodeRepairState baseVnode, VnodeRepairState... partialVnodes)
     {
         return summarize(Collections.singletonList(baseVnode), partialVnodes);
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.repair.state;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares summarizing sub-range repair states with {@link VnodeRepairStateSummarizer} with the previous list based
+ * implementation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VnodeRepairStateSummarizerBenchmark
+{
+    @Param({"16", "256"})
+    private int vnodes;
+
+    @Param({"16", "128"})
+    private int partialsPerVnode;
+
+    private List<VnodeRepairState> myBaseVnodes;
+    private Collection<VnodeRepairState> myPartialVnodes;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(vnodes);
+        myBaseVnodes = TestVnodeRepairStateSummarizer.randomRing(random, vnodes);
+        myPartialVnodes = TestVnodeRepairStateSummarizer.randomPartials(random, myBaseVnodes,
+                vnodes * partialsPerVnode, true);
+    }
+
+    @Benchmark
+    public List<VnodeRepairState> sweepLine()
+    {
+        return VnodeRepairStateSummarizer.summarizePartialVnodes(myBaseVnodes, myPartialVnodes);
+    }
+
+    @Benchmark
+    public List<VnodeRepairState> list()
+    {
+        return LegacyVnodeRepairStateSummarizer.summarizePartialVnodes(myBaseVnodes, myPartialVnodes,
+                (r1, r2) -> Math.abs(r1.getStartedAt() - r2.getStartedAt()) < TimeUnit.HOURS.toMillis(1));
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares one scheduler tick using the time indexed {@link ScheduledJobQueue} with refreshing and sorting all jobs.
+ * <p>
+ * One percent of the jobs are due, the rest are spread out over the next week.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScheduledJobQueueBenchmark
+{
+    private static final double DUE_RATIO = 0.01;
+
+    @Param({"10000", "50000", "100000"})
+    private int jobs;
+
+    private ScheduledJobQueue myQueue;
+    private List<ScheduledJob> myJobs;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(jobs);
+        long now = System.currentTimeMillis();
+        long runInterval = TimeUnit.DAYS.toMillis(7);
+
+        myQueue = new ScheduledJobQueue(new DefaultJobComparator());
+        myJobs = new ArrayList<>(jobs);
+
+        for (int i = 0; i < jobs; i++)
+        {
+            long lastRun = random.nextDouble() < DUE_RATIO
+                    ? now - runInterval - TimeUnit.HOURS.toMillis(1)
+                    : now - (long) (random.nextDouble() * (runInterval - TimeUnit.HOURS.toMillis(1)));
+            BenchmarkJob job = new BenchmarkJob(runInterval, lastRun);
+            myJobs.add(job);
+            myQueue.add(job);
+        }
+
+        // Park all jobs that are not due
+        myQueue.iterator();
+    }
+
+    @Benchmark
+    public void timeIndexedQueue(final Blackhole blackhole)
+    {
+        for (ScheduledJob job : myQueue)
+        {
+            blackhole.consume(job);
+        }
+    }
+
+    @Benchmark
+    public void refreshAndSortAll(final Blackhole blackhole)
+    {
+        List<ScheduledJob> jobList = new ArrayList<>(myJobs);
+        jobList.forEach(ScheduledJob::refreshState);
+        jobList.sort(new DefaultJobComparator());
+
+        for (ScheduledJob job : jobList)
+        {
+            if (job.getState() == ScheduledJob.State.RUNNABLE)
+            {
+                blackhole.consume(job);
+            }
+        }
+    }
+
+    private static final class BenchmarkJob extends ScheduledJob
+    {
+        BenchmarkJob(final long runIntervalInMs, final long lastSuccessfulRun)
+        {
+            super(new ConfigurationBuilder().withRunInterval(runIntervalInMs, TimeUnit.MILLISECONDS).build());
+            myLastSuccessfulRun = lastSuccessfulRun;
+        }
+
+        @Override
+        public Iterator<ScheduledTask> iterator()
+        {
+            return Collections.emptyIterator();
+        }
+    }
+}
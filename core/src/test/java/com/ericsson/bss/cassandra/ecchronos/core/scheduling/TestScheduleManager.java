@@ -172,6 +172,86 @@ public class TestScheduleManager
         assertThat(myScheduler.getQueueSize()).isEqualTo(2);
     }
 
+    @Test (timeout = 2000L)
+    public void testRunningTwoJobsInParallelWithTwoWorkers() throws InterruptedException
+    {
+        ScheduleManagerImpl scheduler = ScheduleManagerImpl.builder()
+                .withLockFactory(myLockFactory)
+                .withWorkers(2)
+                .build();
+        CountDownLatch jobLatch = new CountDownLatch(1);
+        TestJob job1 = new TestJob(ScheduledJob.Priority.HIGH, jobLatch);
+        TestJob job2 = new TestJob(ScheduledJob.Priority.LOW, jobLatch);
+
+        scheduler.schedule(job1);
+        scheduler.schedule(job2);
+
+        try
+        {
+            new Thread(() -> scheduler.run(0)).start();
+            waitForJobStarted(job1);
+            new Thread(() -> scheduler.run(1)).start();
+            waitForJobStarted(job2);
+
+            assertThat(scheduler.getWorkers()).isEqualTo(2);
+            assertThat(scheduler.getCurrentJobStatus())
+                    .contains("Worker 0: Job ID: " + job1.getId())
+                    .contains("Worker 1: Job ID: " + job2.getId());
+
+            jobLatch.countDown();
+            waitForJobFinished(job1);
+            waitForJobFinished(job2);
+        }
+        finally
+        {
+            scheduler.close();
+        }
+
+        assertThat(job1.getTaskRuns()).isEqualTo(1);
+        assertThat(job2.getTaskRuns()).isEqualTo(1);
+    }
+
+    @Test (timeout = 2000L)
+    public void testRunningJobIsSkippedByOtherWorker() throws InterruptedException
+    {
+        ScheduleManagerImpl scheduler = ScheduleManagerImpl.builder()
+                .withLockFactory(myLockFactory)
+                .withWorkers(2)
+                .build();
+        CountDownLatch jobLatch = new CountDownLatch(1);
+        TestJob job = new TestJob(ScheduledJob.Priority.HIGH, jobLatch);
+
+        scheduler.schedule(job);
+
+        try
+        {
+            new Thread(() -> scheduler.run(0)).start();
+            waitForJobStarted(job);
+            int refreshes = job.getRefreshes();
+            scheduler.run(1);
+
+            assertThat(job.getRefreshes()).isEqualTo(refreshes);
+            assertThat(scheduler.getCurrentJobStatus())
+                    .isEqualTo("Worker 0: Job ID: " + job.getId() + ", Status: Running; "
+                            + "Worker 1: No job is currently running");
+
+            jobLatch.countDown();
+            waitForJobFinished(job);
+        }
+        finally
+        {
+            scheduler.close();
+        }
+
+        assertThat(job.getTaskRuns()).isEqualTo(1);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testZeroWorkersNotAllowed()
+    {
+        ScheduleManagerImpl.builder().withWorkers(0);
+    }
+
     @Test
     public void testTwoJobsRejected()
     {
@@ -302,6 +382,7 @@ public class TestScheduleManager
         private volatile boolean hasRun = false;
         private volatile boolean hasStarted = false;
         private final AtomicInteger taskRuns = new AtomicInteger();
+        private final AtomicInteger refreshes = new AtomicInteger();
         private final int numTasks;
         private final Runnable onCompletion;
 
@@ -336,11 +417,22 @@ public class TestScheduleManager
             return taskRuns.get();
         }
 
+        public int getRefreshes()
+        {
+            return refreshes.get();
+        }
+
         public boolean hasStarted()
         {
             return hasStarted;
         }
 
+        @Override
+        public void refreshState()
+        {
+            refreshes.incrementAndGet();
+        }
+
         public boolean hasRun()
         {
             return hasRun;
@@ -19,6 +19,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.ScheduledJobException;
@@ -136,6 +139,151 @@ public class TestScheduledJobQueue
         assertThat(queue.iterator()).toIterable().containsExactly(job2);
     }
 
+    @Test
+    public void testJobNotDueIsParked()
+    {
+        DummyJob job = new DummyJob(Priority.LOW);
+        DummyJob job2 = new DummyJob(Priority.HIGH);
+
+        queue.add(job);
+        queue.add(job2);
+
+        job2.setRunnableIn(TimeUnit.HOURS.toMillis(1));
+
+        assertThat(queue.iterator()).toIterable().containsExactly(job);
+        assertThat(queue.parkedSize()).isEqualTo(1);
+        assertThat(queue.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testParkedJobIsReturnedWhenDue() throws InterruptedException
+    {
+        DummyJob job = new DummyJob(Priority.LOW);
+
+        queue.add(job);
+
+        job.setRunnableIn(50);
+
+        assertThat(queue.iterator()).toIterable().isEmpty();
+        assertThat(queue.parkedSize()).isEqualTo(1);
+
+        Thread.sleep(100);
+
+        assertThat(queue.iterator()).toIterable().containsExactly(job);
+        assertThat(queue.parkedSize()).isEqualTo(0);
+    }
+
+    @Test
+    public void testParkedJobIsNotRefreshed()
+    {
+        RefreshCountingJob job = new RefreshCountingJob(Priority.LOW);
+
+        queue.add(job);
+        job.setRunnableIn(TimeUnit.HOURS.toMillis(1));
+
+        queue.iterator();
+        queue.iterator();
+
+        assertThat(job.refreshes).isEqualTo(1);
+    }
+
+    @Test
+    public void testParkedJobIsRefreshedAfterMaxParkTime() throws InterruptedException
+    {
+        ScheduledJobQueue shortParkQueue = new ScheduledJobQueue(new Comp(), 50);
+        RefreshCountingJob job = new RefreshCountingJob(Priority.LOW);
+
+        shortParkQueue.add(job);
+        job.setRunnableIn(TimeUnit.HOURS.toMillis(1));
+
+        assertThat(shortParkQueue.iterator()).toIterable().isEmpty();
+        assertThat(job.refreshes).isEqualTo(1);
+
+        Thread.sleep(100);
+
+        assertThat(shortParkQueue.iterator()).toIterable().isEmpty();
+        assertThat(job.refreshes).isEqualTo(2);
+        assertThat(shortParkQueue.parkedSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRemovedParkedJobIsNotReturned() throws InterruptedException
+    {
+        DummyJob job = new DummyJob(Priority.LOW);
+
+        queue.add(job);
+        job.setRunnableIn(50);
+        queue.iterator();
+
+        queue.remove(job);
+        Thread.sleep(100);
+
+        assertThat(queue.iterator()).toIterable().isEmpty();
+        assertThat(queue.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testReAddedParkedJobIsReturnedOnce() throws InterruptedException
+    {
+        DummyJob job = new DummyJob(Priority.LOW);
+
+        queue.add(job);
+        job.setRunnableIn(50);
+        queue.iterator();
+
+        queue.remove(job);
+        queue.add(job);
+        Thread.sleep(100);
+
+        assertThat(queue.iterator()).toIterable().containsExactly(job);
+        assertThat(queue.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testClaimedJobIsNotRefreshedOrReturned()
+    {
+        RefreshCountingJob job = new RefreshCountingJob(Priority.LOW);
+        DummyJob job2 = new DummyJob(Priority.HIGH);
+        Set<UUID> claimedJobs = ConcurrentHashMap.newKeySet();
+
+        queue.add(job);
+        queue.add(job2);
+        claimedJobs.add(job.getId());
+
+        Iterator<ScheduledJob> iterator = queue.claimingIterator(claimedJobs);
+
+        assertThat(job.refreshes).isEqualTo(0);
+        assertThat(iterator.next()).isSameAs(job2);
+        assertThat(claimedJobs).containsExactlyInAnyOrder(job.getId(), job2.getId());
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
+    @Test
+    public void testNonRunnableJobIsReleased()
+    {
+        StateJob job = new StateJob(Priority.LOW, ScheduledJob.State.PARKED);
+        Set<UUID> claimedJobs = ConcurrentHashMap.newKeySet();
+
+        queue.add(job);
+
+        assertThat(queue.claimingIterator(claimedJobs)).toIterable().isEmpty();
+        assertThat(claimedJobs).isEmpty();
+    }
+
+    @Test
+    public void testRemoveParkedJob()
+    {
+        DummyJob job = new DummyJob(Priority.LOW);
+
+        queue.add(job);
+        job.setRunnableIn(TimeUnit.HOURS.toMillis(1));
+        queue.iterator();
+
+        queue.remove(job);
+
+        assertThat(queue.size()).isEqualTo(0);
+    }
+
     private class Comp implements Comparator<ScheduledJob>
     {
 
@@ -174,6 +322,22 @@ public class TestScheduledJobQueue
         }
     }
 
+    private class RefreshCountingJob extends DummyJob
+    {
+        private int refreshes = 0;
+
+        RefreshCountingJob(Priority priority)
+        {
+            super(priority);
+        }
+
+        @Override
+        public void refreshState()
+        {
+            refreshes++;
+        }
+    }
+
     private class StateJob extends DummyJob
     {
         private State state;
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.utils;
+
+import static com.ericsson.bss.cassandra.ecchronos.core.MockTableReferenceFactory.tableReference;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.ericsson.bss.cassandra.ecchronos.core.repair.types.RepairInfo;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.types.RepairStats;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class TestConcurrentRepairStatsProvider
+{
+    private static final TableReference TABLE_REFERENCE_1 = tableReference("ks", "tbl1");
+    private static final TableReference TABLE_REFERENCE_2 = tableReference("ks", "tbl2");
+    private static final TableReference TABLE_REFERENCE_3 = tableReference("ks", "tbl3");
+
+    private static final RepairStats REPAIR_STATS_1 = new RepairStats("ks", "tbl1", 1.0d, 10);
+    private static final RepairStats REPAIR_STATS_2 = new RepairStats("ks", "tbl2", 0.5d, 20);
+    private static final RepairStats REPAIR_STATS_3 = new RepairStats("ks", "tbl3", 0.0d, 0);
+
+    @Mock
+    private RepairStatsProvider mockRepairStatsProvider;
+
+    private final CountDownLatch myBlockingLatch = new CountDownLatch(1);
+
+    private ConcurrentRepairStatsProvider myRepairStatsProvider;
+
+    @Before
+    public void setup()
+    {
+        when(mockRepairStatsProvider.getRepairStats(eq(TABLE_REFERENCE_1), anyLong(), anyLong(), anyBoolean()))
+                .thenReturn(REPAIR_STATS_1);
+        when(mockRepairStatsProvider.getRepairStats(eq(TABLE_REFERENCE_2), anyLong(), anyLong(), anyBoolean()))
+                .thenReturn(REPAIR_STATS_2);
+        when(mockRepairStatsProvider.getRepairStats(eq(TABLE_REFERENCE_3), anyLong(), anyLong(), anyBoolean()))
+                .thenReturn(REPAIR_STATS_3);
+
+        myRepairStatsProvider = ConcurrentRepairStatsProvider.builder()
+                .withRepairStatsProvider(mockRepairStatsProvider)
+                .withThreads(2)
+                .withCacheTime(1, TimeUnit.MINUTES)
+                .build();
+    }
+
+    @After
+    public void cleanup()
+    {
+        myBlockingLatch.countDown();
+        myRepairStatsProvider.close();
+    }
+
+    @Test
+    public void testAllTablesAreCalculated()
+    {
+        RepairInfo repairInfo = myRepairStatsProvider.getRepairInfo(
+                Arrays.asList(TABLE_REFERENCE_1, TABLE_REFERENCE_2, TABLE_REFERENCE_3), 0, 1000, true,
+                Long.MAX_VALUE);
+
+        assertThat(repairInfo.sinceInMs).isEqualTo(0);
+        assertThat(repairInfo.toInMs).isEqualTo(1000);
+        assertThat(repairInfo.repairStats).containsExactly(REPAIR_STATS_1, REPAIR_STATS_2, REPAIR_STATS_3);
+        assertThat(repairInfo.complete).isTrue();
+    }
+
+    @Test
+    public void testPartialResultWhenDeadlinePasses()
+    {
+        when(mockRepairStatsProvider.getRepairStats(eq(TABLE_REFERENCE_2), anyLong(), anyLong(), anyBoolean()))
+                .thenAnswer(invocation ->
+                {
+                    myBlockingLatch.await();
+                    return REPAIR_STATS_2;
+                });
+
+        RepairInfo repairInfo = myRepairStatsProvider.getRepairInfo(
+                Arrays.asList(TABLE_REFERENCE_1, TABLE_REFERENCE_2, TABLE_REFERENCE_3), 0, 1000, true,
+                System.currentTimeMillis() + 200);
+
+        assertThat(repairInfo.repairStats).containsExactly(REPAIR_STATS_1, REPAIR_STATS_3);
+        assertThat(repairInfo.complete).isFalse();
+    }
+
+    @Test
+    public void testFailedTableIsNotIncluded()
+    {
+        when(mockRepairStatsProvider.getRepairStats(eq(TABLE_REFERENCE_1), anyLong(), anyLong(), anyBoolean()))
+                .thenThrow(new IllegalStateException("Unable to read repair history"));
+
+        RepairInfo repairInfo = myRepairStatsProvider.getRepairInfo(
+                Arrays.asList(TABLE_REFERENCE_1, TABLE_REFERENCE_2), 0, 1000, false, Long.MAX_VALUE);
+
+        assertThat(repairInfo.repairStats).containsExactly(REPAIR_STATS_2);
+        assertThat(repairInfo.complete).isFalse();
+    }
+
+    @Test
+    public void testStatsAreReusedForSameWindow()
+    {
+        myRepairStatsProvider.getRepairStats(TABLE_REFERENCE_1, 0, 1000, true);
+        RepairStats repairStats = myRepairStatsProvider.getRepairStats(TABLE_REFERENCE_1, 500, 1500, true);
+
+        assertThat(repairStats).isEqualTo(REPAIR_STATS_1);
+        verify(mockRepairStatsProvider, times(1)).getRepairStats(eq(TABLE_REFERENCE_1), anyLong(), anyLong(),
+                anyBoolean());
+    }
+
+    @Test
+    public void testStatsAreRecalculatedForOtherWindow()
+    {
+        myRepairStatsProvider.getRepairStats(TABLE_REFERENCE_1, 0, 1000, true);
+        myRepairStatsProvider.getRepairStats(TABLE_REFERENCE_1, 0, 2000, true);
+        myRepairStatsProvider.getRepairStats(TABLE_REFERENCE_1, 0, 1000, false);
+
+        verify(mockRepairStatsProvider, times(3)).getRepairStats(eq(TABLE_REFERENCE_1), anyLong(), anyLong(),
+                anyBoolean());
+    }
+
+    @Test
+    public void testStatsAreRecalculatedAfterCacheTime()
+    {
+        long to = TimeUnit.MINUTES.toMillis(10);
+        myRepairStatsProvider.getRepairStats(TABLE_REFERENCE_1, 0, to, true);
+        myRepairStatsProvider.getRepairStats(TABLE_REFERENCE_1, to, 2 * to, true);
+
+        verify(mockRepairStatsProvider, times(2)).getRepairStats(eq(TABLE_REFERENCE_1), anyLong(), anyLong(),
+                anyBoolean());
+    }
+}
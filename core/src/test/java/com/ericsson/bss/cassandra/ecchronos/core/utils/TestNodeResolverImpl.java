@@ -16,11 +16,15 @@ package com.ericsson.bss.cassandra.ecchronos.core.utils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -29,6 +33,13 @@ import java.util.UUID;
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.metadata.Metadata;
 import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metadata.NodeState;
+import com.datastax.oss.driver.internal.core.context.EventBus;
+import com.datastax.oss.driver.internal.core.context.InternalDriverContext;
+import com.datastax.oss.driver.internal.core.metadata.DefaultNode;
+import com.datastax.oss.driver.internal.core.metadata.NodeStateEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -135,6 +146,71 @@ public class TestNodeResolverImpl
         assertThat(maybeNewNode.get()).isNotSameAs(maybeNode.get());
     }
 
+    @Test
+    public void testFromIps() throws Exception
+    {
+        Node node1 = addNode(new InetSocketAddress(address("127.0.0.1"), 9042), "dc1");
+        Node node4 = addNode(new InetSocketAddress(address("127.0.0.4"), 9042), "dc2");
+
+        Map<InetAddress, DriverNode> nodes = nodeResolver.fromIps(
+                Arrays.asList(address("127.0.0.1"), address("127.0.0.4"), address("127.0.0.6")));
+
+        assertThat(nodes).hasSize(2);
+        assertThat(nodes.get(address("127.0.0.1")).getId()).isEqualTo(node1.getHostId());
+        assertThat(nodes.get(address("127.0.0.4")).getId()).isEqualTo(node4.getHostId());
+        assertThat(nodeResolver.fromIp(address("127.0.0.4"))).containsSame(nodes.get(address("127.0.0.4")));
+    }
+
+    @Test
+    public void testMissesReindexOncePerBatch() throws Exception
+    {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        NodeResolver resolver = new NodeResolverImpl(mockCqlSession, meterRegistry);
+        addNode(new InetSocketAddress(address("127.0.0.1"), 9042), "dc1");
+
+        resolver.fromIps(Arrays.asList(address("127.0.0.1"), address("127.0.0.2"), address("127.0.0.6")));
+        verify(mockMetadata, times(1)).getNodes();
+
+        resolver.fromIps(Arrays.asList(address("127.0.0.1"), address("127.0.0.2")));
+        verify(mockMetadata, times(1)).getNodes();
+
+        assertThat(meterRegistry.get(NodeResolverImpl.NODE_RESOLVER_LOOKUPS).tag("result", "hit").counter().count())
+                .isEqualTo(2.0d);
+        assertThat(meterRegistry.get(NodeResolverImpl.NODE_RESOLVER_LOOKUPS).tag("result", "miss").counter().count())
+                .isEqualTo(3.0d);
+    }
+
+    @Test
+    public void testIndexedFromNodeStateEvents() throws Exception
+    {
+        EventBus eventBus = new EventBus("test");
+        InternalDriverContext mockContext = mock(InternalDriverContext.class);
+        when(mockContext.getEventBus()).thenReturn(eventBus);
+        when(mockCqlSession.getContext()).thenReturn(mockContext);
+
+        NodeResolverImpl resolver = new NodeResolverImpl(mockCqlSession);
+        DefaultNode node = mockDefaultNode(new InetSocketAddress(address("127.0.0.1"), 9042));
+
+        eventBus.fire(NodeStateEvent.added(node));
+
+        Optional<DriverNode> maybeNode = resolver.fromIp(address("127.0.0.1"));
+        assertThat(maybeNode).isPresent();
+        assertThat(maybeNode.get().getId()).isEqualTo(node.getHostId());
+        assertThat(resolver.fromUUID(node.getHostId())).containsSame(maybeNode.get());
+
+        eventBus.fire(NodeStateEvent.changed(NodeState.UP, NodeState.DOWN, node));
+        assertThat(resolver.fromIp(address("127.0.0.1"))).containsSame(maybeNode.get());
+        verify(mockMetadata, never()).getNodes();
+
+        eventBus.fire(NodeStateEvent.removed(node));
+        assertThat(resolver.fromIp(address("127.0.0.1"))).isEmpty();
+        assertThat(resolver.fromUUID(node.getHostId())).isEmpty();
+
+        resolver.close();
+        eventBus.fire(NodeStateEvent.added(node));
+        assertThat(resolver.fromUUID(node.getHostId())).isEmpty();
+    }
+
     @Test
     public void testGetNonExistingHost() throws Exception
     {
@@ -150,6 +226,15 @@ public class TestNodeResolverImpl
         return InetAddress.getByName(address);
     }
 
+    private DefaultNode mockDefaultNode(InetSocketAddress broadcastAddress)
+    {
+        DefaultNode node = mock(DefaultNode.class);
+
+        when(node.getHostId()).thenReturn(UUID.randomUUID());
+        when(node.getBroadcastAddress()).thenReturn(Optional.of(broadcastAddress));
+        return node;
+    }
+
     private Node addNode(InetSocketAddress broadcastAddress, String dataCenter)
     {
         Node node = mock(Node.class);
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestTokenMath
+{
+    private static final long[] EDGE_TOKENS = { Long.MIN_VALUE, Long.MIN_VALUE + 1, -1L, 0L, 1L, Long.MAX_VALUE - 1,
+            Long.MAX_VALUE };
+    private static final BigInteger FULL_RANGE = LongTokenRange.FULL_RANGE;
+
+    private final Random myRandom = new Random(4711);
+
+    @Test
+    public void testRangeSizeMatchesBigInteger()
+    {
+        for (long[] range : ranges())
+        {
+            LongTokenRange tokenRange = new LongTokenRange(range[0], range[1]);
+            long size = TokenMath.rangeSize(range[0], range[1]);
+
+            assertThat(TokenMath.sizeToBigInteger(size)).isEqualTo(bigIntegerRangeSize(tokenRange));
+            assertThat(tokenRange.rangeSize()).isEqualTo(bigIntegerRangeSize(tokenRange));
+        }
+    }
+
+    @Test
+    public void testFullRing()
+    {
+        assertThat(TokenMath.rangeSize(5L, 5L)).isEqualTo(TokenMath.FULL_RING);
+        assertThat(TokenMath.sizeToBigInteger(TokenMath.FULL_RING)).isEqualTo(FULL_RANGE);
+        assertThat(TokenMath.sizeToDouble(TokenMath.FULL_RING)).isEqualTo(FULL_RANGE.doubleValue());
+        assertThat(TokenMath.fromBigInteger(FULL_RANGE)).isEqualTo(TokenMath.FULL_RING);
+        assertThat(TokenMath.fromBigInteger(FULL_RANGE.add(BigInteger.ONE))).isEqualTo(TokenMath.FULL_RING);
+        assertThat(TokenMath.compareSizes(TokenMath.FULL_RING, -1L)).isPositive();
+        assertThat(TokenMath.compareOffsetToSize(-1L, TokenMath.FULL_RING)).isNegative();
+    }
+
+    @Test
+    public void testCompareMatchesBigInteger()
+    {
+        List<long[]> ranges = ranges();
+        for (int i = 0; i < ranges.size() - 1; i++)
+        {
+            long size1 = TokenMath.rangeSize(ranges.get(i)[0], ranges.get(i)[1]);
+            long size2 = TokenMath.rangeSize(ranges.get(i + 1)[0], ranges.get(i + 1)[1]);
+            BigInteger bigSize1 = TokenMath.sizeToBigInteger(size1);
+            BigInteger bigSize2 = TokenMath.sizeToBigInteger(size2);
+
+            assertThat(Integer.signum(TokenMath.compareSizes(size1, size2)))
+                    .isEqualTo(bigSize1.compareTo(bigSize2));
+
+            // Sizes below 2^64 are also valid offsets
+            if (size1 != TokenMath.FULL_RING)
+            {
+                assertThat(Integer.signum(TokenMath.compareOffsetToSize(size1, size2)))
+                        .isEqualTo(bigSize1.compareTo(bigSize2));
+            }
+        }
+    }
+
+    @Test
+    public void testDivideMatchesBigInteger()
+    {
+        for (long[] range : ranges())
+        {
+            long size = TokenMath.rangeSize(range[0], range[1]);
+            BigInteger bigSize = TokenMath.sizeToBigInteger(size);
+
+            for (long divisor : Arrays.asList(1L, 2L, 3L, 7L, 256L, myRandom.nextInt(Integer.MAX_VALUE) + 1L))
+            {
+                if (bigSize.compareTo(BigInteger.valueOf(divisor)) < 0)
+                {
+                    continue;
+                }
+                BigInteger bigDivisor = BigInteger.valueOf(divisor);
+
+                assertThat(TokenMath.sizeToBigInteger(TokenMath.divideSize(size, divisor)))
+                        .isEqualTo(bigSize.divide(bigDivisor));
+                assertThat(TokenMath.offsetToBigInteger(TokenMath.remainderSize(size, divisor)))
+                        .isEqualTo(bigSize.remainder(bigDivisor));
+            }
+        }
+    }
+
+    @Test
+    public void testCarry()
+    {
+        assertThat(TokenMath.carry(-1L, 1L)).isEqualTo(1);
+        assertThat(TokenMath.carry(Long.MAX_VALUE, 1L)).isZero();
+        assertThat(TokenMath.carry(0L, TokenMath.FULL_RING)).isEqualTo(1);
+        assertThat(TokenMath.carry(0L, -1L)).isZero();
+    }
+
+    @Test
+    public void testSizeFromDouble()
+    {
+        assertThat(TokenMath.sizeFromDouble(100.7d)).isEqualTo(100L);
+        assertThat(TokenMath.sizeFromDouble(0.5d)).isEqualTo(1L);
+        assertThat(TokenMath.sizeFromDouble(-1.0d)).isEqualTo(1L);
+        assertThat(TokenMath.sizeFromDouble(Double.NaN)).isEqualTo(1L);
+        assertThat(TokenMath.sizeFromDouble(0x1.0p63)).isEqualTo(Long.MIN_VALUE);
+        assertThat(TokenMath.sizeFromDouble(0x1.8p63)).isEqualTo(Long.MIN_VALUE + (1L << 62));
+        assertThat(TokenMath.sizeFromDouble(FULL_RANGE.doubleValue())).isEqualTo(TokenMath.FULL_RING);
+        assertThat(TokenMath.sizeFromDouble(Double.POSITIVE_INFINITY)).isEqualTo(TokenMath.FULL_RING);
+        assertThat(TokenMath.sizeToDouble(TokenMath.sizeFromDouble(0x1.8p63))).isEqualTo(0x1.8p63);
+    }
+
+    @Test
+    public void testSubRangesMatchBigInteger()
+    {
+        for (long[] range : ranges())
+        {
+            LongTokenRange tokenRange = new LongTokenRange(range[0], range[1]);
+            BigInteger tokensPerSubRange = bigIntegerRangeSize(tokenRange).divide(BigInteger.valueOf(7))
+                    .max(BigInteger.ONE);
+
+            List<LongTokenRange> subRanges = new TokenSubRangeUtil(tokenRange).generateSubRanges(tokensPerSubRange);
+
+            assertThat(subRanges).isEqualTo(bigIntegerSubRanges(tokenRange, tokensPerSubRange));
+        }
+    }
+
+    private List<long[]> ranges()
+    {
+        List<long[]> ranges = new ArrayList<>();
+        for (long start : EDGE_TOKENS)
+        {
+            for (long end : EDGE_TOKENS)
+            {
+                ranges.add(new long[] { start, end });
+            }
+        }
+        for (int i = 0; i < 1000; i++)
+        {
+            ranges.add(new long[] { myRandom.nextLong(), myRandom.nextLong() });
+        }
+        return ranges;
+    }
+
+    private static BigInteger bigIntegerRangeSize(final LongTokenRange range)
+    {
+        BigInteger rangeSize = BigInteger.valueOf(range.end).subtract(BigInteger.valueOf(range.start));
+        if (rangeSize.signum() <= 0)
+        {
+            rangeSize = rangeSize.add(FULL_RANGE);
+        }
+        return rangeSize;
+    }
+
+    /**
+     * The sub range generation as it was done using BigInteger.
+     */
+    static List<LongTokenRange> bigIntegerSubRanges(final LongTokenRange range, final BigInteger tokensPerSubRange)
+    {
+        BigInteger totalRangeSize = bigIntegerRangeSize(range);
+        List<LongTokenRange> subRanges = new ArrayList<>();
+        if (totalRangeSize.compareTo(tokensPerSubRange) <= 0)
+        {
+            subRanges.add(range);
+            return subRanges;
+        }
+
+        BigInteger[] subRangeCount = totalRangeSize.divideAndRemainder(tokensPerSubRange);
+        long count = subRangeCount[0].longValueExact() + (subRangeCount[1].signum() > 0 ? 1 : 0);
+        BigInteger start = BigInteger.valueOf(range.start);
+        long lastEnd = range.start;
+        for (long l = 0; l < count - 1; l++)
+        {
+            BigInteger rangeStart = start.add(tokensPerSubRange.multiply(BigInteger.valueOf(l)));
+            BigInteger rangeEnd = rangeStart.add(tokensPerSubRange);
+            lastEnd = wrap(rangeEnd);
+            subRanges.add(new LongTokenRange(wrap(rangeStart), lastEnd));
+        }
+        subRanges.add(new LongTokenRange(lastEnd, range.end));
+        return subRanges;
+    }
+
+    private static long wrap(final BigInteger token)
+    {
+        if (token.compareTo(LongTokenRange.RANGE_END) > 0)
+        {
+            return token.subtract(FULL_RANGE).longValueExact();
+        }
+        return token.longValueExact();
+    }
+}
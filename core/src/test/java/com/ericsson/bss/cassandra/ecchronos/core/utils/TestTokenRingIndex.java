@@ -0,0 +1,205 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestTokenRingIndex
+{
+    @Test
+    public void testEmptyIndex()
+    {
+        TokenRingIndex<String> index = new TokenRingIndex<>(Collections.emptyMap());
+
+        assertThat(index.getCovering(new LongTokenRange(1, 2))).isNull();
+    }
+
+    @Test
+    public void testExactRange()
+    {
+        TokenRingIndex<String> index = new TokenRingIndex<>(ring(new LongTokenRange(1, 10),
+                new LongTokenRange(10, 20)));
+
+        assertThat(index.getCovering(new LongTokenRange(1, 10))).isEqualTo("(1,10]");
+        assertThat(index.getCovering(new LongTokenRange(10, 20))).isEqualTo("(10,20]");
+    }
+
+    @Test
+    public void testIsDisjoint()
+    {
+        assertThat(new TokenRingIndex<>(ring(new LongTokenRange(1, 10), new LongTokenRange(10, 1))).isDisjoint())
+                .isTrue();
+        assertThat(new TokenRingIndex<>(ring(new LongTokenRange(1, 10), new LongTokenRange(5, 20))).isDisjoint())
+                .isFalse();
+        assertThat(new TokenRingIndex<>(ring(new LongTokenRange(1, 10), new LongTokenRange(5, 2))).isDisjoint())
+                .isFalse();
+    }
+
+    @Test
+    public void testSubRange()
+    {
+        TokenRingIndex<String> index = new TokenRingIndex<>(ring(new LongTokenRange(1, 10),
+                new LongTokenRange(10, 20)));
+
+        assertThat(index.getCovering(new LongTokenRange(1, 5))).isEqualTo("(1,10]");
+        assertThat(index.getCovering(new LongTokenRange(5, 10))).isEqualTo("(1,10]");
+        assertThat(index.getCovering(new LongTokenRange(12, 15))).isEqualTo("(10,20]");
+    }
+
+    @Test
+    public void testRangeSpanningTwoRangesIsNotCovered()
+    {
+        TokenRingIndex<String> index = new TokenRingIndex<>(ring(new LongTokenRange(1, 10),
+                new LongTokenRange(10, 20)));
+
+        assertThat(index.getCovering(new LongTokenRange(5, 15))).isNull();
+    }
+
+    @Test
+    public void testRangeOutsideOfIndex()
+    {
+        TokenRingIndex<String> index = new TokenRingIndex<>(ring(new LongTokenRange(1, 10),
+                new LongTokenRange(20, 30)));
+
+        assertThat(index.getCovering(new LongTokenRange(12, 15))).isNull();
+        assertThat(index.getCovering(new LongTokenRange(-5, 0))).isNull();
+        assertThat(index.getCovering(new LongTokenRange(35, 40))).isNull();
+    }
+
+    @Test
+    public void testWrapAroundRange()
+    {
+        TokenRingIndex<String> index = new TokenRingIndex<>(ring(new LongTokenRange(1, 10),
+                new LongTokenRange(10, 1)));
+
+        assertThat(index.getCovering(new LongTokenRange(10, 1))).isEqualTo("(10,1]");
+        assertThat(index.getCovering(new LongTokenRange(15, 20))).isEqualTo("(10,1]");
+        assertThat(index.getCovering(new LongTokenRange(-5, 0))).isEqualTo("(10,1]");
+        assertThat(index.getCovering(new LongTokenRange(15, -5))).isEqualTo("(10,1]");
+        assertThat(index.getCovering(new LongTokenRange(Long.MAX_VALUE, 0))).isEqualTo("(10,1]");
+        assertThat(index.getCovering(new LongTokenRange(5, 15))).isNull();
+    }
+
+    @Test
+    public void testOverlappingRangesUseFirstCovering()
+    {
+        TokenRingIndex<String> index = new TokenRingIndex<>(ring(new LongTokenRange(1, 20),
+                new LongTokenRange(5, 10)));
+
+        assertThat(index.getCovering(new LongTokenRange(6, 8))).isEqualTo("(1,20]");
+        assertThat(index.getCovering(new LongTokenRange(15, 18))).isEqualTo("(1,20]");
+        assertThat(index.getCovering(new LongTokenRange(15, 25))).isNull();
+    }
+
+    @Test
+    public void testSameAsLinearScan()
+    {
+        Random random = new Random(1);
+
+        for (int ringSize = 1; ringSize < 64; ringSize++)
+        {
+            Map<LongTokenRange, String> ring = ring(randomRing(random, ringSize));
+            TokenRingIndex<String> index = new TokenRingIndex<>(ring);
+            List<LongTokenRange> ranges = new ArrayList<>(ring.keySet());
+
+            for (int i = 0; i < 200; i++)
+            {
+                LongTokenRange query = randomQuery(random, ranges);
+                assertThat(index.getCovering(query)).as("%s in %s", query, ring.keySet())
+                        .isEqualTo(linearScan(ring, query));
+            }
+        }
+    }
+
+    private static LongTokenRange randomQuery(final Random random, final List<LongTokenRange> ranges)
+    {
+        LongTokenRange range = ranges.get(random.nextInt(ranges.size()));
+        switch (random.nextInt(4))
+        {
+        case 0:
+            return range;
+        case 1:
+            return new LongTokenRange(range.start, range.start + 1 + random.nextInt(1000));
+        case 2:
+            return new LongTokenRange(range.end - 1 - random.nextInt(1000), range.end);
+        default:
+            return new LongTokenRange(random.nextLong(), random.nextLong());
+        }
+    }
+
+    private static List<LongTokenRange> randomRing(final Random random, final int size)
+    {
+        List<Long> tokens = new ArrayList<>();
+        while (tokens.size() < size)
+        {
+            long token = random.nextLong();
+            if (!tokens.contains(token))
+            {
+                tokens.add(token);
+            }
+        }
+        Collections.sort(tokens);
+
+        List<LongTokenRange> ranges = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++)
+        {
+            ranges.add(new LongTokenRange(tokens.get(i), tokens.get((i + 1) % tokens.size())));
+        }
+        Collections.shuffle(ranges, random);
+
+        // Only a part of the ring is indexed for the local ranges of a node
+        if (size > 1 && random.nextBoolean())
+        {
+            return ranges.subList(0, size / 2);
+        }
+        return ranges;
+    }
+
+    private static String linearScan(final Map<LongTokenRange, String> ring, final LongTokenRange query)
+    {
+        for (Map.Entry<LongTokenRange, String> entry : ring.entrySet())
+        {
+            if (entry.getKey().isCovering(query))
+            {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static Map<LongTokenRange, String> ring(final LongTokenRange... ranges)
+    {
+        return ring(List.of(ranges));
+    }
+
+    private static Map<LongTokenRange, String> ring(final List<LongTokenRange> ranges)
+    {
+        Map<LongTokenRange, String> ring = new LinkedHashMap<>();
+        for (LongTokenRange range : ranges)
+        {
+            ring.put(range, range.toString());
+        }
+        return ring;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.utils;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the range size summing and sub range generation done with {@link TokenMath} with the previous
+ * {@link BigInteger} based implementation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenMathBenchmark
+{
+    private static final BigInteger SUB_RANGES = BigInteger.valueOf(16);
+
+    @Param({"256", "4096"})
+    private int ranges;
+
+    private List<LongTokenRange> myRanges;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(ranges);
+        myRanges = new ArrayList<>(ranges);
+        for (int i = 0; i < ranges; i++)
+        {
+            myRanges.add(new LongTokenRange(random.nextLong(), random.nextLong()));
+        }
+    }
+
+    @Benchmark
+    public long tokenMathRangeSize()
+    {
+        long sum = 0L;
+        for (LongTokenRange range : myRanges)
+        {
+            sum += range.unsignedRangeSize();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public BigInteger bigIntegerRangeSize()
+    {
+        BigInteger sum = BigInteger.ZERO;
+        for (LongTokenRange range : myRanges)
+        {
+            BigInteger rangeSize = BigInteger.valueOf(range.end).subtract(BigInteger.valueOf(range.start));
+            if (rangeSize.signum() <= 0)
+            {
+                rangeSize = rangeSize.add(LongTokenRange.FULL_RANGE);
+            }
+            sum = sum.add(rangeSize);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void tokenMathSubRanges(final Blackhole blackhole)
+    {
+        for (LongTokenRange range : myRanges)
+        {
+            long tokensPerSubRange = TokenMath.divideSize(range.unsignedRangeSize(), SUB_RANGES.longValue());
+            blackhole.consume(new TokenSubRangeUtil(range).generateSubRanges(Math.max(1L, tokensPerSubRange)));
+        }
+    }
+
+    @Benchmark
+    public void bigIntegerSubRanges(final Blackhole blackhole)
+    {
+        for (LongTokenRange range : myRanges)
+        {
+            BigInteger tokensPerSubRange = range.rangeSize().divide(SUB_RANGES).max(BigInteger.ONE);
+            blackhole.consume(TestTokenMath.bigIntegerSubRanges(range, tokensPerSubRange));
+        }
+    }
+}
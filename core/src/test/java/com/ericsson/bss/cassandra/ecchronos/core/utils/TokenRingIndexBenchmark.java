@@ -0,0 +1,118 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.core.utils;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares covering range lookups of sub-range repair entries using {@link TokenRingIndex} with a linear scan over
+ * all ranges.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenRingIndexBenchmark
+{
+    private static final int ENTRIES = 10000;
+    private static final int SUB_RANGES = 16;
+
+    @Param({"256", "768", "4096"})
+    private int ranges;
+
+    private Map<LongTokenRange, LongTokenRange> myRanges;
+    private TokenRingIndex<LongTokenRange> myIndex;
+    private List<LongTokenRange> myEntries;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(ranges);
+
+        List<Long> tokens = new ArrayList<>();
+        for (int i = 0; i < ranges; i++)
+        {
+            tokens.add(random.nextLong());
+        }
+        Collections.sort(tokens);
+
+        myRanges = new LinkedHashMap<>();
+        for (int i = 0; i < tokens.size(); i++)
+        {
+            LongTokenRange range = new LongTokenRange(tokens.get(i), tokens.get((i + 1) % tokens.size()));
+            myRanges.put(range, range);
+        }
+        myIndex = new TokenRingIndex<>(myRanges);
+
+        List<LongTokenRange> vnodes = new ArrayList<>(myRanges.keySet());
+        myEntries = new ArrayList<>(ENTRIES);
+        for (int i = 0; i < ENTRIES; i++)
+        {
+            LongTokenRange vnode = vnodes.get(random.nextInt(vnodes.size()));
+            List<LongTokenRange> subRanges = new TokenSubRangeUtil(vnode)
+                    .generateSubRanges(vnode.rangeSize().divide(BigInteger.valueOf(SUB_RANGES)));
+            myEntries.add(subRanges.get(random.nextInt(subRanges.size())));
+        }
+    }
+
+    @Benchmark
+    public void tokenRingIndex(final Blackhole blackhole)
+    {
+        for (LongTokenRange entry : myEntries)
+        {
+            blackhole.consume(myIndex.getCovering(entry));
+        }
+    }
+
+    @Benchmark
+    public void linearScan(final Blackhole blackhole)
+    {
+        for (LongTokenRange entry : myEntries)
+        {
+            LongTokenRange covering = null;
+            for (LongTokenRange range : myRanges.keySet())
+            {
+                if (range.isCovering(entry))
+                {
+                    covering = range;
+                    break;
+                }
+            }
+            blackhole.consume(covering);
+        }
+    }
+}
@@ -29,34 +29,50 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.util.Set;
 
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
 import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpHeaders.VARY;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 
 @Tag(name = "Metrics", description = "Retrieve metrics about ecChronos")
 @RestController
 public class MetricsREST
 {
-    @Autowired
-    private final PrometheusMeterRegistry myPrometheusMeterRegistry;
+    private static final String GZIP = "gzip";
+    private static final String ANY_ENCODING = "*";
+    private static final String QUALITY_PREFIX = "q=";
+
+    private final PrometheusScrapeCache myPrometheusScrapeCache;
 
     public MetricsREST(final PrometheusMeterRegistry prometheusMeterRegistry)
     {
-        myPrometheusMeterRegistry = prometheusMeterRegistry;
+        this(prometheusMeterRegistry == null
+                ? null
+                : new PrometheusScrapeCache(prometheusMeterRegistry, Duration.ZERO));
+    }
+
+    @Autowired
+    public MetricsREST(final PrometheusScrapeCache prometheusScrapeCache)
+    {
+        myPrometheusScrapeCache = prometheusScrapeCache;
     }
 
     @GetMapping(value = "/metrics", produces = { PrometheusTextFormatWriter.CONTENT_TYPE,
             OpenMetricsTextFormatWriter.CONTENT_TYPE })
     @Operation(operationId = "metrics", description = "Get metrics in the specified format", summary = "Get metrics")
-    public final ResponseEntity<String> getMetrics(@RequestHeader(value = HttpHeaders.ACCEPT, required = false,
+    public final ResponseEntity<byte[]> getMetrics(@RequestHeader(value = HttpHeaders.ACCEPT, required = false,
             defaultValue = PrometheusTextFormatWriter.CONTENT_TYPE)
             final String acceptHeader,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false, defaultValue = "")
+            final String acceptEncodingHeader,
             @RequestParam(value = "name[]", required = false, defaultValue = "")
             @Parameter(description = "Filter metrics based on these names.")
             final Set<String> includedMetrics)
     {
-        if (myPrometheusMeterRegistry == null)
+        if (myPrometheusScrapeCache == null)
         {
             throw new ResponseStatusException(NOT_FOUND);
         }
@@ -68,8 +84,78 @@ public class MetricsREST
             contentType = OpenMetricsTextFormatWriter.CONTENT_TYPE;
         }
 
+        PrometheusScrapeCache.Scrape scrape = myPrometheusScrapeCache.getScrape(contentType, includedMetrics);
+        if (acceptsGzip(acceptEncodingHeader))
+        {
+            return ResponseEntity.ok()
+                    .header(CONTENT_TYPE, contentType)
+                    .header(CONTENT_ENCODING, GZIP)
+                    .header(VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .body(scrape.getGzipBody());
+        }
+
         return ResponseEntity.ok()
                 .header(CONTENT_TYPE, contentType)
-                .body(myPrometheusMeterRegistry.scrape(contentType, includedMetrics));
+                .header(VARY, HttpHeaders.ACCEPT_ENCODING)
+                .body(scrape.getBody());
+    }
+
+    /**
+     * Check if the Accept-Encoding header allows a gzip encoded response.
+     * <p>
+     * An explicit gzip coding takes precedence over the wildcard coding and a coding with a quality value of zero,
+     * or with an invalid quality value, is not acceptable.
+     *
+     * @param acceptEncodingHeader The Accept-Encoding header.
+     * @return True if gzip is acceptable.
+     */
+    static boolean acceptsGzip(final String acceptEncodingHeader)
+    {
+        if (acceptEncodingHeader == null)
+        {
+            return false;
+        }
+
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String coding : acceptEncodingHeader.split(","))
+        {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim();
+            if (GZIP.equalsIgnoreCase(name))
+            {
+                gzipQuality = quality(parameters);
+            }
+            else if (ANY_ENCODING.equals(name))
+            {
+                anyQuality = quality(parameters);
+            }
+        }
+
+        if (gzipQuality != null)
+        {
+            return gzipQuality > 0;
+        }
+        return anyQuality != null && anyQuality > 0;
+    }
+
+    private static double quality(final String[] parameters)
+    {
+        for (int i = 1; i < parameters.length; i++)
+        {
+            String parameter = parameters[i].trim();
+            if (parameter.regionMatches(true, 0, QUALITY_PREFIX, 0, QUALITY_PREFIX.length()))
+            {
+                try
+                {
+                    return Double.parseDouble(parameter.substring(QUALITY_PREFIX.length()).trim());
+                }
+                catch (NumberFormatException e)
+                {
+                    return 0;
+                }
+            }
+        }
+        return 1;
     }
 }
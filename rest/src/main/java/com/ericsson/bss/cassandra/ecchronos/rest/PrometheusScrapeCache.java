@@ -0,0 +1,164 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.rest;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableSet;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A cache of rendered Prometheus scrapes.
+ * <p>
+ * Each combination of content type and included metric names is rendered at most once per freshness window,
+ * concurrent requests for the same combination wait for the ongoing render instead of rendering it again.
+ * Metrics excluded by configuration are filtered by the registry when the meters are registered so they are never
+ * part of a rendered scrape.
+ * <p>
+ * A freshness window of zero disables the cache and renders the scrape for every request.
+ */
+public class PrometheusScrapeCache
+{
+    private static final int MAX_CACHED_SCRAPES = 32;
+
+    private final PrometheusMeterRegistry myPrometheusMeterRegistry;
+    private final Cache<ScrapeKey, Scrape> myScrapes;
+
+    public PrometheusScrapeCache(final PrometheusMeterRegistry prometheusMeterRegistry, final Duration freshness)
+    {
+        this(prometheusMeterRegistry, freshness, Ticker.systemTicker());
+    }
+
+    PrometheusScrapeCache(final PrometheusMeterRegistry prometheusMeterRegistry, final Duration freshness,
+            final Ticker ticker)
+    {
+        Preconditions.checkArgument(!freshness.isNegative(), "Freshness window cannot be negative");
+        myPrometheusMeterRegistry = Preconditions.checkNotNull(prometheusMeterRegistry,
+                "Prometheus meter registry cannot be null");
+        myScrapes = Caffeine.newBuilder()
+                .expireAfterWrite(freshness)
+                .maximumSize(freshness.isZero() ? 0 : MAX_CACHED_SCRAPES)
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * Get the scrape in the provided content type, rendering it if there is no scrape within the freshness window.
+     *
+     * @param contentType The content type of the scrape.
+     * @param includedNames The metric names to include in the scrape.
+     * @return The scrape.
+     */
+    public final Scrape getScrape(final String contentType, final Set<String> includedNames)
+    {
+        ScrapeKey key = new ScrapeKey(contentType, includedNames);
+        try
+        {
+            return myScrapes.get(key, k -> new Scrape(myPrometheusMeterRegistry.scrape(contentType, includedNames)));
+        }
+        catch (RuntimeException e)
+        {
+            throw new IllegalStateException("Unable to scrape metrics", e);
+        }
+    }
+
+    /**
+     * A rendered scrape, the gzip encoded body is created when first requested.
+     * <p>
+     * The returned arrays are shared between requests and must not be modified.
+     */
+    public static final class Scrape
+    {
+        private final byte[] myBody;
+        private final Supplier<byte[]> myGzipBody;
+
+        Scrape(final String body)
+        {
+            myBody = body.getBytes(StandardCharsets.UTF_8);
+            myGzipBody = Suppliers.memoize(() -> gzip(myBody));
+        }
+
+        public byte[] getBody()
+        {
+            return myBody;
+        }
+
+        public byte[] getGzipBody()
+        {
+            return myGzipBody.get();
+        }
+
+        private static byte[] gzip(final byte[] body)
+        {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream))
+            {
+                gzipOutputStream.write(body);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+            return outputStream.toByteArray();
+        }
+    }
+
+    private static final class ScrapeKey
+    {
+        private final String myContentType;
+        private final Set<String> myIncludedNames;
+
+        ScrapeKey(final String contentType, final Set<String> includedNames)
+        {
+            myContentType = contentType;
+            myIncludedNames = includedNames == null ? null : ImmutableSet.copyOf(includedNames);
+        }
+
+        @Override
+        public boolean equals(final Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass())
+            {
+                return false;
+            }
+            ScrapeKey that = (ScrapeKey) o;
+            return myContentType.equals(that.myContentType) && Objects.equals(myIncludedNames, that.myIncludedNames);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(myContentType, myIncludedNames);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.rest;
+
+import com.ericsson.bss.cassandra.ecchronos.core.metrics.RepairFailureDetector;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.types.RepairFailures;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.types.TableRepairFailures;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.ericsson.bss.cassandra.ecchronos.rest.RestUtils.REPAIR_MANAGEMENT_ENDPOINT_PREFIX;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+@Tag(name = "Repair-Management", description = "Management of repairs")
+@RestController
+public class RepairFailuresREST
+{
+    private final RepairFailureDetector myRepairFailureDetector;
+
+    public RepairFailuresREST(@Nullable final RepairFailureDetector repairFailureDetector)
+    {
+        myRepairFailureDetector = repairFailureDetector;
+    }
+
+    @GetMapping(value = REPAIR_MANAGEMENT_ENDPOINT_PREFIX + "/repairFailures",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(operationId = "get-repair-failures",
+            description = "Get the number of failed repair sessions within the failure time window for the node and"
+                    + " for each table that has failed repair sessions.",
+            summary = "Get repair failures")
+    public final ResponseEntity<RepairFailures> getRepairFailures(
+            @RequestParam(required = false)
+            @Parameter(description = "Only return tables matching the keyspace, mandatory if 'table' is provided.")
+            final String keyspace,
+            @RequestParam(required = false)
+            @Parameter(description = "Only return tables matching the table.")
+            final String table)
+    {
+        if (myRepairFailureDetector == null)
+        {
+            throw new ResponseStatusException(NOT_FOUND);
+        }
+        if (keyspace == null && table != null)
+        {
+            throw new ResponseStatusException(BAD_REQUEST, "Keyspace must be provided if table is provided");
+        }
+
+        List<TableRepairFailures> tableFailures = new ArrayList<>();
+        for (Map.Entry<TableReference, Long> entry : myRepairFailureDetector.getTableFailures().entrySet())
+        {
+            TableReference tableReference = entry.getKey();
+            if ((keyspace == null || keyspace.equals(tableReference.getKeyspace()))
+                    && (table == null || table.equals(tableReference.getTable())))
+            {
+                tableFailures.add(new TableRepairFailures(tableReference.getKeyspace(), tableReference.getTable(),
+                        entry.getValue()));
+            }
+        }
+        tableFailures.sort(Comparator.comparingLong((TableRepairFailures t) -> t.failures).reversed()
+                .thenComparing(t -> t.keyspace)
+                .thenComparing(t -> t.table));
+
+        return ResponseEntity.ok(new RepairFailures(myRepairFailureDetector.getTimeWindow(TimeUnit.MILLISECONDS),
+                myRepairFailureDetector.getFailureThreshold(), myRepairFailureDetector.getNodeFailures(),
+                tableFailures));
+    }
+}
@@ -34,8 +34,9 @@ public interface RepairManagementREST
      * @param since The since time (where the time window starts)
      * @param duration The duration of the time window
      * @param isLocal Whether the repair information should be shown for local node only or cluster-wide
+     * @param timeout The time after which the repair information calculated so far is returned, may be null
      * @return A JSON representation of {@link RepairInfo}
      */
     ResponseEntity<RepairInfo> getRepairInfo(String keyspace, String table, Long since, Duration duration,
-                                             boolean isLocal);
+                                             boolean isLocal, Duration timeout);
 }
@@ -16,7 +16,6 @@ package com.ericsson.bss.cassandra.ecchronos.rest;
 
 import com.ericsson.bss.cassandra.ecchronos.core.exceptions.EcChronosException;
 import com.ericsson.bss.cassandra.ecchronos.core.repair.types.RepairInfo;
-import com.ericsson.bss.cassandra.ecchronos.core.repair.types.RepairStats;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.RepairStatsProvider;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.ReplicatedTableProvider;
 import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
@@ -109,13 +108,20 @@ public class RepairManagementRESTImpl implements RepairManagementREST
             final Duration duration,
             @RequestParam(required = false)
             @Parameter(description = "Decides if the repair-info should be calculated for the local node only.")
-            final boolean isLocal)
+            final boolean isLocal,
+            @RequestParam(required = false)
+            @Parameter(description = "Timeout, can be specified as either a simple duration like"
+                    + " '30s' or as ISO8601 duration 'pt30s'. If the timeout passes the repair-info calculated so far"
+                    + " is returned and marked as not complete.",
+                    schema = @Schema(type = "string"))
+            final Duration timeout)
     {
-        return ResponseEntity.ok(fetchRepairInfo(keyspace, table, since, duration, isLocal));
+        long deadline = timeout == null ? Long.MAX_VALUE : System.currentTimeMillis() + timeout.toMillis();
+        return ResponseEntity.ok(fetchRepairInfo(keyspace, table, since, duration, isLocal, deadline));
     }
 
     private RepairInfo fetchRepairInfo(final String keyspace, final String table,
-            final Long since, final Duration duration, final boolean isLocal)
+            final Long since, final Duration duration, final boolean isLocal, final long deadline)
     {
         try
         {
@@ -133,12 +139,12 @@ public class RepairManagementRESTImpl implements RepairManagementREST
                     }
                     actualDuration = getDefaultDurationOrProvided(tableReference, duration, since);
                     repairInfo = createRepairInfo(Collections.singleton(tableReference), since, actualDuration,
-                            isLocal);
+                            isLocal, deadline);
                 }
                 else
                 {
                     repairInfo = createRepairInfo(myTableReferenceFactory.forKeyspace(keyspace), since, actualDuration,
-                            isLocal);
+                            isLocal, deadline);
                 }
             }
             else
@@ -147,7 +153,8 @@ public class RepairManagementRESTImpl implements RepairManagementREST
                 {
                     throw new ResponseStatusException(BAD_REQUEST, "Keyspace must be provided if table is provided");
                 }
-                repairInfo = createRepairInfo(myTableReferenceFactory.forCluster(), since, actualDuration, isLocal);
+                repairInfo = createRepairInfo(myTableReferenceFactory.forCluster(), since, actualDuration, isLocal,
+                        deadline);
             }
             return repairInfo;
         }
@@ -158,7 +165,7 @@ public class RepairManagementRESTImpl implements RepairManagementREST
     }
 
     private RepairInfo createRepairInfo(final Set<TableReference> tables, final Long since,
-            final Duration duration, final boolean isLocal)
+            final Duration duration, final boolean isLocal, final long deadline)
     {
         long toTime = System.currentTimeMillis();
         long sinceTime;
@@ -184,14 +191,14 @@ public class RepairManagementRESTImpl implements RepairManagementREST
                     + sinceTime + ")");
         }
 
-        List<RepairStats> repairStats = new ArrayList<>();
+        List<TableReference> replicatedTables = new ArrayList<>();
         for (TableReference table : tables)
         {
             if (myReplicatedTableProvider.accept(table.getKeyspace()))
             {
-                repairStats.add(myRepairStatsProvider.getRepairStats(table, sinceTime, toTime, isLocal));
+                replicatedTables.add(table);
             }
         }
-        return new RepairInfo(sinceTime, toTime, repairStats);
+        return myRepairStatsProvider.getRepairInfo(replicatedTables, sinceTime, toTime, isLocal, deadline);
     }
 }
@@ -26,9 +26,14 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -55,11 +60,11 @@ public class TestMetricsREST
     @Test
     public void testGetMetricsMeterRegistryNull()
     {
-        MetricsREST metricsREST = new MetricsREST(null);
-        ResponseEntity<String> response = null;
+        MetricsREST metricsREST = new MetricsREST((PrometheusScrapeCache) null);
+        ResponseEntity<byte[]> response = null;
         try
         {
-            response = metricsREST.getMetrics("", Collections.emptySet());
+            response = metricsREST.getMetrics("", "", Collections.emptySet());
         }
         catch (ResponseStatusException e)
         {
@@ -72,8 +77,8 @@ public class TestMetricsREST
     @Test
     public void testGetMetricsNoParams()
     {
-        ResponseEntity<String> response = myMetricsREST.getMetrics("", Collections.emptySet());
-        assertThat(response.getBody()).isNotEmpty();
+        ResponseEntity<byte[]> response = myMetricsREST.getMetrics("", "", Collections.emptySet());
+        assertThat(response.getBody()).isEqualTo("fooMetrics".getBytes(StandardCharsets.UTF_8));
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
         List<String> contentTypeHeaders = response.getHeaders().get(HttpHeaders.CONTENT_TYPE);
         assertThat(contentTypeHeaders).hasSize(1);
@@ -84,8 +89,8 @@ public class TestMetricsREST
     @Test
     public void testGetMetricsAcceptHeader()
     {
-        ResponseEntity<String> response = myMetricsREST.getMetrics("application/openmetrics-text", Collections.emptySet());
-        assertThat(response.getBody()).isNotEmpty();
+        ResponseEntity<byte[]> response = myMetricsREST.getMetrics("application/openmetrics-text", "", Collections.emptySet());
+        assertThat(response.getBody()).isEqualTo("fooMetrics".getBytes(StandardCharsets.UTF_8));
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
         List<String> contentTypeHeaders = response.getHeaders().get(HttpHeaders.CONTENT_TYPE);
         assertThat(contentTypeHeaders).hasSize(1);
@@ -96,12 +101,65 @@ public class TestMetricsREST
     @Test
     public void testGetMetricsIncludedNames()
     {
-        ResponseEntity<String> response = myMetricsREST.getMetrics("", Collections.singleton("fooMetrics"));
-        assertThat(response.getBody()).isNotEmpty();
+        ResponseEntity<byte[]> response = myMetricsREST.getMetrics("", "", Collections.singleton("fooMetrics"));
+        assertThat(response.getBody()).isEqualTo("fooMetrics".getBytes(StandardCharsets.UTF_8));
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
         List<String> contentTypeHeaders = response.getHeaders().get(HttpHeaders.CONTENT_TYPE);
         assertThat(contentTypeHeaders).hasSize(1);
         assertThat(contentTypeHeaders.get(0)).isEqualTo(PrometheusTextFormatWriter.CONTENT_TYPE);
         verify(myPrometheusMeterRegistryMock).scrape(PrometheusTextFormatWriter.CONTENT_TYPE, Collections.singleton("fooMetrics"));
     }
+
+    @Test
+    public void testGetMetricsGzip() throws IOException
+    {
+        ResponseEntity<byte[]> response = myMetricsREST.getMetrics("", "gzip, deflate", Collections.emptySet());
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(response.getHeaders().get(HttpHeaders.CONTENT_ENCODING)).containsExactly("gzip");
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(response.getBody())))
+        {
+            assertThat(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("fooMetrics");
+        }
+    }
+
+    @Test
+    public void testGetMetricsGzipNotAcceptable()
+    {
+        ResponseEntity<byte[]> response = myMetricsREST.getMetrics("", "gzip;q=0, deflate", Collections.emptySet());
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(response.getHeaders().get(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getBody()).isEqualTo("fooMetrics".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testAcceptsGzip()
+    {
+        assertThat(MetricsREST.acceptsGzip(null)).isFalse();
+        assertThat(MetricsREST.acceptsGzip("")).isFalse();
+        assertThat(MetricsREST.acceptsGzip("deflate")).isFalse();
+        assertThat(MetricsREST.acceptsGzip("gzip")).isTrue();
+        assertThat(MetricsREST.acceptsGzip("GZIP")).isTrue();
+        assertThat(MetricsREST.acceptsGzip("deflate, gzip;q=0.5")).isTrue();
+        assertThat(MetricsREST.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(MetricsREST.acceptsGzip("gzip; q=0.000")).isFalse();
+        assertThat(MetricsREST.acceptsGzip("gzip;q=invalid")).isFalse();
+        assertThat(MetricsREST.acceptsGzip("*")).isTrue();
+        assertThat(MetricsREST.acceptsGzip("*;q=0")).isFalse();
+        assertThat(MetricsREST.acceptsGzip("gzip;q=0, *")).isFalse();
+        assertThat(MetricsREST.acceptsGzip("gzip, *;q=0")).isTrue();
+        assertThat(MetricsREST.acceptsGzip("x-gzip")).isFalse();
+    }
+
+    @Test
+    public void testGetMetricsCached()
+    {
+        MetricsREST metricsREST = new MetricsREST(new PrometheusScrapeCache(myPrometheusMeterRegistryMock,
+                Duration.ofMinutes(1)));
+
+        metricsREST.getMetrics("", "", Collections.emptySet());
+        ResponseEntity<byte[]> response = metricsREST.getMetrics("", "gzip", Collections.emptySet());
+
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        verify(myPrometheusMeterRegistryMock).scrape(PrometheusTextFormatWriter.CONTENT_TYPE, Collections.emptySet());
+    }
 }
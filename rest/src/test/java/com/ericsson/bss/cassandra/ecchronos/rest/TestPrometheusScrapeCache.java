@@ -0,0 +1,134 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.rest;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.prometheus.metrics.expositionformats.OpenMetricsTextFormatWriter;
+import io.prometheus.metrics.expositionformats.PrometheusTextFormatWriter;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class TestPrometheusScrapeCache
+{
+    @Mock
+    private PrometheusMeterRegistry myPrometheusMeterRegistryMock;
+
+    private final AtomicLong myTime = new AtomicLong();
+    private final Ticker myTicker = new Ticker()
+    {
+        @Override
+        public long read()
+        {
+            return myTime.get();
+        }
+    };
+
+    private PrometheusScrapeCache myScrapeCache;
+
+    @Before
+    public void init()
+    {
+        when(myPrometheusMeterRegistryMock.scrape(any(String.class), any(Set.class))).thenReturn("fooMetrics");
+        myScrapeCache = new PrometheusScrapeCache(myPrometheusMeterRegistryMock, Duration.ofSeconds(5), myTicker);
+    }
+
+    @Test
+    public void testScrapeIsReusedWithinFreshnessWindow()
+    {
+        PrometheusScrapeCache.Scrape first = myScrapeCache.getScrape(PrometheusTextFormatWriter.CONTENT_TYPE,
+                Collections.emptySet());
+        myTime.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        PrometheusScrapeCache.Scrape second = myScrapeCache.getScrape(PrometheusTextFormatWriter.CONTENT_TYPE,
+                Collections.emptySet());
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.getBody()).isEqualTo("fooMetrics".getBytes(StandardCharsets.UTF_8));
+        assertThat(second.getGzipBody()).isSameAs(first.getGzipBody());
+        verify(myPrometheusMeterRegistryMock).scrape(PrometheusTextFormatWriter.CONTENT_TYPE, Collections.emptySet());
+    }
+
+    @Test
+    public void testScrapeIsRenderedAfterFreshnessWindow()
+    {
+        PrometheusScrapeCache.Scrape first = myScrapeCache.getScrape(PrometheusTextFormatWriter.CONTENT_TYPE,
+                Collections.emptySet());
+        myTime.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        PrometheusScrapeCache.Scrape second = myScrapeCache.getScrape(PrometheusTextFormatWriter.CONTENT_TYPE,
+                Collections.emptySet());
+
+        assertThat(second).isNotSameAs(first);
+        verify(myPrometheusMeterRegistryMock, times(2)).scrape(PrometheusTextFormatWriter.CONTENT_TYPE,
+                Collections.emptySet());
+    }
+
+    @Test
+    public void testScrapesAreCachedPerContentTypeAndNames()
+    {
+        myScrapeCache.getScrape(PrometheusTextFormatWriter.CONTENT_TYPE, Collections.emptySet());
+        myScrapeCache.getScrape(OpenMetricsTextFormatWriter.CONTENT_TYPE, Collections.emptySet());
+        myScrapeCache.getScrape(PrometheusTextFormatWriter.CONTENT_TYPE, Set.of("foo", "bar"));
+        myScrapeCache.getScrape(PrometheusTextFormatWriter.CONTENT_TYPE, Set.of("bar", "foo"));
+
+        verify(myPrometheusMeterRegistryMock).scrape(PrometheusTextFormatWriter.CONTENT_TYPE, Collections.emptySet());
+        verify(myPrometheusMeterRegistryMock).scrape(OpenMetricsTextFormatWriter.CONTENT_TYPE, Collections.emptySet());
+        verify(myPrometheusMeterRegistryMock).scrape(PrometheusTextFormatWriter.CONTENT_TYPE, Set.of("foo", "bar"));
+    }
+
+    @Test
+    public void testZeroFreshnessWindowRendersEveryScrape()
+    {
+        PrometheusScrapeCache scrapeCache = new PrometheusScrapeCache(myPrometheusMeterRegistryMock, Duration.ZERO,
+                myTicker);
+
+        scrapeCache.getScrape(PrometheusTextFormatWriter.CONTENT_TYPE, Collections.emptySet());
+        scrapeCache.getScrape(PrometheusTextFormatWriter.CONTENT_TYPE, Collections.emptySet());
+
+        verify(myPrometheusMeterRegistryMock, times(2)).scrape(PrometheusTextFormatWriter.CONTENT_TYPE,
+                Collections.emptySet());
+    }
+
+    @Test
+    public void testFailedScrapeIsNotCached()
+    {
+        when(myPrometheusMeterRegistryMock.scrape(any(String.class), any(Set.class)))
+                .thenThrow(new IllegalArgumentException("failure"))
+                .thenReturn("fooMetrics");
+
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> myScrapeCache.getScrape(PrometheusTextFormatWriter.CONTENT_TYPE,
+                        Collections.emptySet()));
+        assertThat(myScrapeCache.getScrape(PrometheusTextFormatWriter.CONTENT_TYPE, Collections.emptySet())
+                .getBody()).isEqualTo("fooMetrics".getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecchronos.rest;
+
+import com.ericsson.bss.cassandra.ecchronos.core.metrics.RepairFailureDetector;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.types.RepairFailures;
+import com.ericsson.bss.cassandra.ecchronos.core.repair.types.TableRepairFailures;
+import com.ericsson.bss.cassandra.ecchronos.core.utils.TableReference;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class TestRepairFailuresREST
+{
+    @Mock
+    private RepairFailureDetector myRepairFailureDetector;
+
+    private RepairFailuresREST myRepairFailuresREST;
+
+    @Before
+    public void init()
+    {
+        Map<TableReference, Long> tableFailures = new HashMap<>();
+        tableFailures.put(mockTableReference("ks1", "tbl1"), 1L);
+        tableFailures.put(mockTableReference("ks1", "tbl2"), 3L);
+        tableFailures.put(mockTableReference("ks2", "tbl1"), 1L);
+
+        when(myRepairFailureDetector.getTableFailures()).thenReturn(tableFailures);
+        when(myRepairFailureDetector.getNodeFailures()).thenReturn(5L);
+        when(myRepairFailureDetector.getFailureThreshold()).thenReturn(4);
+        when(myRepairFailureDetector.getTimeWindow(TimeUnit.MILLISECONDS)).thenReturn(60000L);
+
+        myRepairFailuresREST = new RepairFailuresREST(myRepairFailureDetector);
+    }
+
+    @Test
+    public void testGetRepairFailures()
+    {
+        ResponseEntity<RepairFailures> response = myRepairFailuresREST.getRepairFailures(null, null);
+
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        RepairFailures repairFailures = response.getBody();
+        assertThat(repairFailures.timeWindowInMs).isEqualTo(60000L);
+        assertThat(repairFailures.failureThreshold).isEqualTo(4);
+        assertThat(repairFailures.failures).isEqualTo(5L);
+        assertThat(repairFailures.tableFailures).containsExactly(
+                new TableRepairFailures("ks1", "tbl2", 3L),
+                new TableRepairFailures("ks1", "tbl1", 1L),
+                new TableRepairFailures("ks2", "tbl1", 1L));
+    }
+
+    @Test
+    public void testGetRepairFailuresForKeyspace()
+    {
+        RepairFailures repairFailures = myRepairFailuresREST.getRepairFailures("ks2", null).getBody();
+
+        assertThat(repairFailures.failures).isEqualTo(5L);
+        assertThat(repairFailures.tableFailures).containsExactly(new TableRepairFailures("ks2", "tbl1", 1L));
+    }
+
+    @Test
+    public void testGetRepairFailuresForTable()
+    {
+        RepairFailures repairFailures = myRepairFailuresREST.getRepairFailures("ks1", "tbl1").getBody();
+
+        assertThat(repairFailures.tableFailures).containsExactly(new TableRepairFailures("ks1", "tbl1", 1L));
+    }
+
+    @Test
+    public void testGetRepairFailuresTableWithoutKeyspace()
+    {
+        assertThatExceptionOfType(ResponseStatusException.class)
+                .isThrownBy(() -> myRepairFailuresREST.getRepairFailures(null, "tbl1"))
+                .satisfies(e -> assertThat(e.getStatusCode().value()).isEqualTo(BAD_REQUEST.value()));
+    }
+
+    @Test
+    public void testGetRepairFailuresWithoutDetector()
+    {
+        RepairFailuresREST repairFailuresREST = new RepairFailuresREST(null);
+
+        assertThatExceptionOfType(ResponseStatusException.class)
+                .isThrownBy(() -> repairFailuresREST.getRepairFailures(null, null))
+                .satisfies(e -> assertThat(e.getStatusCode().value()).isEqualTo(NOT_FOUND.value()));
+    }
+
+    private static TableReference mockTableReference(final String keyspace, final String table)
+    {
+        TableReference tableReference = mock(TableReference.class);
+        when(tableReference.getKeyspace()).thenReturn(keyspace);
+        when(tableReference.getTable()).thenReturn(table);
+        return tableReference;
+    }
+}
@@ -38,6 +38,8 @@ import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -64,6 +66,8 @@ public class TestRepairManagementRESTImpl
     {
         managementREST = new RepairManagementRESTImpl(myTableReferenceFactory, myReplicatedTableProvider,
                 myRepairStatsProvider);
+        when(myRepairStatsProvider.getRepairInfo(any(), anyLong(), anyLong(), anyBoolean(), anyLong()))
+                .thenCallRealMethod();
     }
 
     @Test
@@ -105,7 +109,7 @@ public class TestRepairManagementRESTImpl
         repairStats.add(repairStats4);
         repairStats.add(repairStats5);
         RepairInfo expectedResponse = new RepairInfo(since, to, repairStats);
-        ResponseEntity<RepairInfo> response = managementREST.getRepairInfo(null, null, since, duration, true);
+        ResponseEntity<RepairInfo> response = managementREST.getRepairInfo(null, null, since, duration, true, null);
 
         RepairInfo returnedRepairInfo = response.getBody();
         assertThat(returnedRepairInfo).isEqualTo(expectedResponse);
@@ -153,7 +157,7 @@ public class TestRepairManagementRESTImpl
         repairStats.add(repairStats4);
         repairStats.add(repairStats5);
         RepairInfo expectedResponse = new RepairInfo(since, 0L, repairStats);
-        ResponseEntity<RepairInfo> response = managementREST.getRepairInfo(null, null, since, null, true);
+        ResponseEntity<RepairInfo> response = managementREST.getRepairInfo(null, null, since, null, true, null);
 
         RepairInfo returnedRepairInfo = response.getBody();
         assertThat(returnedRepairInfo.repairStats).containsExactlyInAnyOrderElementsOf(expectedResponse.repairStats);
@@ -203,7 +207,7 @@ public class TestRepairManagementRESTImpl
         repairStats.add(repairStats3);
         repairStats.add(repairStats4);
         repairStats.add(repairStats5);
-        ResponseEntity<RepairInfo> response = managementREST.getRepairInfo(null, null, null, duration, true);
+        ResponseEntity<RepairInfo> response = managementREST.getRepairInfo(null, null, null, duration, true, null);
 
         RepairInfo returnedRepairInfo = response.getBody();
         assertThat(returnedRepairInfo.repairStats).containsExactlyInAnyOrderElementsOf(repairStats);
@@ -240,7 +244,7 @@ public class TestRepairManagementRESTImpl
         repairStats.add(repairStats3);
         RepairInfo expectedResponse = new RepairInfo(since, to, repairStats);
         ResponseEntity<RepairInfo> response = managementREST.getRepairInfo("keyspace1", null, since, duration,
-                true);
+                true, null);
 
         RepairInfo returnedRepairInfo = response.getBody();
         assertThat(returnedRepairInfo).isEqualTo(expectedResponse);
@@ -262,7 +266,7 @@ public class TestRepairManagementRESTImpl
         repairStats.add(repairStats1);
         RepairInfo expectedResponse = new RepairInfo(since, to, repairStats);
         ResponseEntity<RepairInfo> response = managementREST.getRepairInfo("keyspace1", "table1", since, duration,
-                true);
+                true, null);
 
         RepairInfo returnedRepairInfo = response.getBody();
         assertThat(returnedRepairInfo).isEqualTo(expectedResponse);
@@ -278,7 +282,7 @@ public class TestRepairManagementRESTImpl
         ResponseEntity<RepairInfo> response = null;
         try
         {
-            response = managementREST.getRepairInfo(null, "table1", since, duration, true);
+            response = managementREST.getRepairInfo(null, "table1", since, duration, true, null);
         }
         catch (ResponseStatusException e)
         {
@@ -298,7 +302,7 @@ public class TestRepairManagementRESTImpl
         List<RepairStats> repairStats = new ArrayList<>();
         repairStats.add(repairStats1);
         ResponseEntity<RepairInfo> response = managementREST.getRepairInfo("keyspace1", "table1", null, null,
-                true);
+                true, null);
 
         RepairInfo returnedRepairInfo = response.getBody();
         assertThat(returnedRepairInfo.repairStats).containsExactly(repairStats1);
@@ -313,7 +317,7 @@ public class TestRepairManagementRESTImpl
         ResponseEntity<RepairInfo> response = null;
         try
         {
-            response = managementREST.getRepairInfo(null, null, null, null, true);
+            response = managementREST.getRepairInfo(null, null, null, null, true, null);
         }
         catch (ResponseStatusException e)
         {
@@ -329,7 +333,7 @@ public class TestRepairManagementRESTImpl
         ResponseEntity<RepairInfo> response = null;
         try
         {
-            response = managementREST.getRepairInfo("keyspace1", "table1", 0L, Duration.ofMillis(-1000), true);
+            response = managementREST.getRepairInfo("keyspace1", "table1", 0L, Duration.ofMillis(-1000), true, null);
         }
         catch (ResponseStatusException e)
         {
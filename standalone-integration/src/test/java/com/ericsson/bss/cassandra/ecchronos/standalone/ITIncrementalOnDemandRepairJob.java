@@ -128,13 +128,15 @@ public class ITIncrementalOnDemandRepairJob extends TestBase
         myCassandraMetrics = new CassandraMetrics(getJmxProxyFactory(),
                 Duration.ofSeconds(5), Duration.ofMinutes(30));
 
+        NodeResolverImpl nodeResolver = new NodeResolverImpl(session);
+
         myOnDemandRepairSchedulerImpl = OnDemandRepairSchedulerImpl.builder().withJmxProxyFactory(getJmxProxyFactory())
                 .withTableRepairMetrics(mockTableRepairMetrics).withScheduleManager(myScheduleManagerImpl)
                 .withRepairLockType(RepairLockType.VNODE)
-                .withReplicationState(new ReplicationStateImpl(new NodeResolverImpl(session), session, localNode))
+                .withReplicationState(new ReplicationStateImpl(nodeResolver, session, localNode))
                 .withSession(session)
                 .withRepairConfiguration(RepairConfiguration.DEFAULT)
-                .withOnDemandStatus(new OnDemandStatus(getNativeConnectionProvider())).build();
+                .withOnDemandStatus(new OnDemandStatus(getNativeConnectionProvider(), nodeResolver)).build();
         myAdminSession = getAdminNativeConnectionProvider().getSession();
     }
 
@@ -167,7 +167,7 @@ public class ITOnDemandRepairJob extends TestBase
                 .withSession(session)
                 .withRepairConfiguration(RepairConfiguration.DEFAULT)
                 .withRepairHistory(myEccRepairHistory)
-                .withOnDemandStatus(new OnDemandStatus(getNativeConnectionProvider()))
+                .withOnDemandStatus(new OnDemandStatus(getNativeConnectionProvider(), nodeResolver))
                 .build();
     }
 